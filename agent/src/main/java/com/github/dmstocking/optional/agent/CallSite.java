@@ -0,0 +1,51 @@
+package com.github.dmstocking.optional.agent;
+
+/**
+ * A call in the application that returns an optional.
+ */
+final class CallSite {
+
+    final int id;
+    final String className;
+    final String methodName;
+    final String sourceFile;
+    final int line;
+    final String target;
+
+    /**
+     * @param id         the index of the call site's counters
+     * @param className  the binary name of the calling class
+     * @param methodName the name of the calling method
+     * @param sourceFile the source file of the calling class, or null if unknown
+     * @param line       the line of the call, or 0 if unknown
+     * @param target     the called method, such as {@code Optional.map}
+     */
+    CallSite(
+            int id,
+            String className,
+            String methodName,
+            String sourceFile,
+            int line,
+            String target) {
+        this.id = id;
+        this.className = className;
+        this.methodName = methodName;
+        this.sourceFile = sourceFile;
+        this.line = line;
+        this.target = target;
+    }
+
+    /**
+     * @return the call site in the form of a stack trace element followed by the called method
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder()
+                .append(className).append('.').append(methodName).append('(')
+                .append(sourceFile != null ? sourceFile : "Unknown Source");
+        if (line > 0) {
+            builder.append(':').append(line);
+        }
+        return builder.append(") ").append(target).toString();
+    }
+}
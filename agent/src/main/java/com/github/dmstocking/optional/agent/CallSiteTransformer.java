@@ -0,0 +1,199 @@
+package com.github.dmstocking.optional.agent;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Instruments every call that returns one of the optionals, by passing a copy of the returned
+ * optional and the id of the call site to {@link CallSites}. The instrumentation only pushes and
+ * pops values after the call, so it leaves the stack map frames of the method valid.
+ */
+final class CallSiteTransformer implements ClassFileTransformer {
+
+    private static final String PACKAGE = "com/github/dmstocking/optional/java/util/";
+    private static final String CALL_SITES = Type.getInternalName(CallSites.class);
+
+    private static final Set<String> OPTIONALS = new HashSet<>(Arrays.asList(
+            PACKAGE + "Optional",
+            PACKAGE + "OptionalInt",
+            PACKAGE + "OptionalLong",
+            PACKAGE + "OptionalDouble"));
+
+    // the methods that pass on an optional that already exists instead of creating one
+    private static final Set<String> PASSING = new HashSet<>(Arrays.asList(
+            "empty", "filter", "flatMap", "or"));
+
+    private static final String[] EXCLUDED = {
+            "java/",
+            "javax/",
+            "jdk/",
+            "sun/",
+            "com/sun/",
+            "org/objectweb/asm/",
+            "com/github/dmstocking/optional/",
+    };
+
+    private final List<String> included;
+
+    /**
+     * @param included the internal name prefixes of the classes to instrument, or an empty list to
+     *                 instrument every class outside of the JDK, the library and the agent
+     */
+    CallSiteTransformer(List<String> included) {
+        this.included = included;
+    }
+
+    @Override
+    public byte[] transform(
+            ClassLoader loader,
+            String className,
+            Class<?> classBeingRedefined,
+            ProtectionDomain protectionDomain,
+            byte[] classfileBuffer) {
+        if (className == null || !isIncluded(className)) {
+            return null;
+        }
+
+        try {
+            return instrument(classfileBuffer);
+        } catch (RuntimeException e) {
+            // a class asm cannot read, such as one from a newer JDK, is left as it is
+            return null;
+        }
+    }
+
+    boolean isIncluded(String className) {
+        for (String prefix : EXCLUDED) {
+            if (className.startsWith(prefix)) {
+                return false;
+            }
+        }
+        if (included.isEmpty()) {
+            return true;
+        }
+
+        for (String prefix : included) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param classFile the class to instrument
+     * @return the instrumented class, or null if it does not call any optional
+     */
+    static byte[] instrument(byte[] classFile) {
+        ClassReader reader = new ClassReader(classFile);
+        ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+        CallSiteClassVisitor visitor = new CallSiteClassVisitor(writer);
+        reader.accept(visitor, 0);
+        if (!visitor.instrumented) {
+            return null;
+        }
+
+        return writer.toByteArray();
+    }
+
+    private static final class CallSiteClassVisitor extends ClassVisitor {
+
+        String className;
+        String sourceFile;
+        boolean instrumented;
+
+        CallSiteClassVisitor(ClassVisitor next) {
+            super(Opcodes.ASM6, next);
+        }
+
+        @Override
+        public void visit(
+                int version,
+                int access,
+                String name,
+                String signature,
+                String superName,
+                String[] interfaces) {
+            className = name.replace('/', '.');
+            super.visit(version, access, name, signature, superName, interfaces);
+        }
+
+        @Override
+        public void visitSource(String source, String debug) {
+            sourceFile = source;
+            super.visitSource(source, debug);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(
+                int access,
+                String name,
+                String descriptor,
+                String signature,
+                String[] exceptions) {
+            MethodVisitor next = super.visitMethod(access, name, descriptor, signature, exceptions);
+            return new CallSiteMethodVisitor(this, name, next);
+        }
+    }
+
+    private static final class CallSiteMethodVisitor extends MethodVisitor {
+
+        private final CallSiteClassVisitor owner;
+        private final String methodName;
+        private int line;
+
+        CallSiteMethodVisitor(CallSiteClassVisitor owner, String methodName, MethodVisitor next) {
+            super(Opcodes.ASM6, next);
+            this.owner = owner;
+            this.methodName = methodName;
+        }
+
+        @Override
+        public void visitLineNumber(int line, Label start) {
+            this.line = line;
+            super.visitLineNumber(line, start);
+        }
+
+        @Override
+        public void visitMethodInsn(
+                int opcode,
+                String calledClass,
+                String name,
+                String descriptor,
+                boolean isInterface) {
+            super.visitMethodInsn(opcode, calledClass, name, descriptor, isInterface);
+
+            Type returnType = Type.getReturnType(descriptor);
+            if (!OPTIONALS.contains(calledClass)
+                    || returnType.getSort() != Type.OBJECT
+                    || !OPTIONALS.contains(returnType.getInternalName())) {
+                return;
+            }
+
+            String target = calledClass.substring(PACKAGE.length()) + "." + name;
+            int site = CallSites.register(
+                    owner.className, methodName, owner.sourceFile, line, target);
+            super.visitInsn(Opcodes.DUP);
+            super.visitLdcInsn(site);
+            super.visitMethodInsn(
+                    Opcodes.INVOKESTATIC,
+                    CALL_SITES,
+                    PASSING.contains(name) ? "returned" : "created",
+                    Type.getMethodDescriptor(Type.VOID_TYPE, returnType, Type.INT_TYPE),
+                    false);
+            owner.instrumented = true;
+        }
+    }
+}
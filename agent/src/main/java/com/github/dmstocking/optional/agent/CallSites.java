@@ -0,0 +1,294 @@
+package com.github.dmstocking.optional.agent;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The call sites found by the {@link CallSiteTransformer} and their counters.
+ *
+ * Instrumented code calls {@link #created(Optional, int)} with the optional returned by a method
+ * that creates its result, such as {@code of} or {@code map}, and {@link #returned(Optional, int)}
+ * with the optional returned by a method that passes an existing one on, such as {@code filter}.
+ * Every thread counts into its own array, so recording is a thread local lookup and a few plain
+ * increments. Totals read while threads are still recording are therefore approximate.
+ * Whenever the totals are read, the counts of threads that have ended are added into one shared
+ * array and their own arrays are dropped, so short-lived threads do not keep memory of their own.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class CallSites {
+
+    private static final int CALLS = 0;
+    private static final int EMPTY = 1;
+    private static final int ALLOCATED = 2;
+    private static final int COUNTERS_PER_SITE = 3;
+
+    private static final List<CallSite> SITES = new ArrayList<>();
+    private static final List<Counters> THREADS = new ArrayList<>();
+    private static final ThreadLocal<Counters> COUNTERS = ThreadLocal.withInitial(() -> {
+        Counters counters = new Counters(Thread.currentThread());
+        synchronized (CallSites.class) {
+            THREADS.add(counters);
+        }
+        return counters;
+    });
+
+    private static long[] ended = new long[0];
+    private static long[] baseline = new long[0];
+
+    private CallSites() {
+    }
+
+    /**
+     * @param result the optional returned by a call that creates its result
+     * @param site   the id of the call site
+     */
+    public static void created(Optional<?> result, int site) {
+        boolean present = result.isPresent();
+        count(site, !present, present);
+    }
+
+    /**
+     * @param result the optional returned by a call that creates its result
+     * @param site   the id of the call site
+     */
+    public static void created(OptionalInt result, int site) {
+        boolean present = result.isPresent();
+        count(site, !present, present && !SharedInstances.isShared(result));
+    }
+
+    /**
+     * @param result the optional returned by a call that creates its result
+     * @param site   the id of the call site
+     */
+    public static void created(OptionalLong result, int site) {
+        boolean present = result.isPresent();
+        count(site, !present, present && !SharedInstances.isShared(result));
+    }
+
+    /**
+     * @param result the optional returned by a call that creates its result
+     * @param site   the id of the call site
+     */
+    public static void created(OptionalDouble result, int site) {
+        boolean present = result.isPresent();
+        count(site, !present, present && !SharedInstances.isShared(result));
+    }
+
+    /**
+     * @param result the optional returned by a call that never allocates it
+     * @param site   the id of the call site
+     */
+    public static void returned(Optional<?> result, int site) {
+        count(site, !result.isPresent(), false);
+    }
+
+    /**
+     * @param result the optional returned by a call that never allocates it
+     * @param site   the id of the call site
+     */
+    public static void returned(OptionalInt result, int site) {
+        count(site, !result.isPresent(), false);
+    }
+
+    /**
+     * @param result the optional returned by a call that never allocates it
+     * @param site   the id of the call site
+     */
+    public static void returned(OptionalLong result, int site) {
+        count(site, !result.isPresent(), false);
+    }
+
+    /**
+     * @param result the optional returned by a call that never allocates it
+     * @param site   the id of the call site
+     */
+    public static void returned(OptionalDouble result, int site) {
+        count(site, !result.isPresent(), false);
+    }
+
+    /**
+     * Formats the call sites that were called since the last {@link #reset()}, ordered by the
+     * number of optionals they allocated and then by the number of calls.
+     *
+     * @param top the maximum number of call sites to include
+     * @return the report
+     */
+    public static String report(int top) {
+        List<CallSite> sites;
+        long[] totals;
+        synchronized (CallSites.class) {
+            sites = new ArrayList<>(SITES);
+            totals = totals();
+        }
+
+        List<CallSite> called = new ArrayList<>();
+        long calls = 0;
+        long allocations = 0;
+        for (CallSite site : sites) {
+            long siteCalls = totals[site.id * COUNTERS_PER_SITE + CALLS];
+            if (siteCalls > 0) {
+                called.add(site);
+                calls += siteCalls;
+                allocations += totals[site.id * COUNTERS_PER_SITE + ALLOCATED];
+            }
+        }
+        called.sort(Comparator
+                .comparingLong((CallSite site) -> totals[site.id * COUNTERS_PER_SITE + ALLOCATED])
+                .thenComparingLong(site -> totals[site.id * COUNTERS_PER_SITE + CALLS])
+                .reversed());
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT,
+                "Optional call sites: %d allocations in %d calls at %d of %d sites%n",
+                allocations, calls, called.size(), sites.size()));
+        report.append(String.format(Locale.ROOT,
+                "%12s %12s %8s  %s%n", "allocations", "calls", "present", "call site"));
+        for (CallSite site : called.subList(0, Math.min(top, called.size()))) {
+            int index = site.id * COUNTERS_PER_SITE;
+            long siteCalls = totals[index + CALLS];
+            double present = 100.0 * (siteCalls - totals[index + EMPTY]) / siteCalls;
+            report.append(String.format(Locale.ROOT,
+                    "%12d %12d %7.1f%%  %s%n",
+                    totals[index + ALLOCATED], siteCalls, present, site));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Starts counting from zero again. Call sites that were found stay registered.
+     */
+    public static synchronized void reset() {
+        baseline = sums();
+    }
+
+    /**
+     * @return the number of call sites found so far
+     */
+    public static synchronized int size() {
+        return SITES.size();
+    }
+
+    static synchronized int register(
+            String className,
+            String methodName,
+            String sourceFile,
+            int line,
+            String target) {
+        int id = SITES.size();
+        SITES.add(new CallSite(id, className, methodName, sourceFile, line, target));
+        return id;
+    }
+
+    static synchronized List<CallSite> sites() {
+        return new ArrayList<>(SITES);
+    }
+
+    static synchronized int threads() {
+        return THREADS.size();
+    }
+
+    static long calls(int site) {
+        return total(site, CALLS);
+    }
+
+    static long empty(int site) {
+        return total(site, EMPTY);
+    }
+
+    static long allocated(int site) {
+        return total(site, ALLOCATED);
+    }
+
+    private static synchronized long total(int site, int counter) {
+        return totals()[site * COUNTERS_PER_SITE + counter];
+    }
+
+    // callers of totals and sums hold the lock on CallSites.class
+    private static long[] totals() {
+        long[] totals = sums();
+        for (int i = 0; i < Math.min(baseline.length, totals.length); i++) {
+            totals[i] -= baseline[i];
+        }
+        return totals;
+    }
+
+    private static long[] sums() {
+        for (Iterator<Counters> iterator = THREADS.iterator(); iterator.hasNext(); ) {
+            Counters counters = iterator.next();
+            if (counters.ended()) {
+                long[] counts = counters.counts;
+                if (counts.length > ended.length) {
+                    ended = Arrays.copyOf(ended, counts.length);
+                }
+                add(ended, counts);
+                iterator.remove();
+            }
+        }
+
+        long[] sums = new long[SITES.size() * COUNTERS_PER_SITE];
+        add(sums, ended);
+        for (Counters counters : THREADS) {
+            add(sums, counters.counts);
+        }
+        return sums;
+    }
+
+    private static void add(long[] sums, long[] counts) {
+        for (int i = 0; i < Math.min(counts.length, sums.length); i++) {
+            sums[i] += counts[i];
+        }
+    }
+
+    private static void count(int site, boolean empty, boolean allocated) {
+        long[] counts = COUNTERS.get().counts(site);
+        int index = site * COUNTERS_PER_SITE;
+        counts[index + CALLS]++;
+        if (empty) {
+            counts[index + EMPTY]++;
+        }
+        if (allocated) {
+            counts[index + ALLOCATED]++;
+        }
+    }
+
+    /**
+     * The counters of one thread. Only the thread itself writes them.
+     */
+    private static final class Counters {
+
+        private final WeakReference<Thread> thread;
+        volatile long[] counts = new long[0];
+
+        Counters(Thread thread) {
+            this.thread = new WeakReference<>(thread);
+        }
+
+        /**
+         * @return whether the thread has ended. Seeing it end also makes all of its counts visible.
+         */
+        boolean ended() {
+            Thread thread = this.thread.get();
+            return thread == null || !thread.isAlive();
+        }
+
+        long[] counts(int site) {
+            long[] current = counts;
+            int required = (site + 1) * COUNTERS_PER_SITE;
+            if (required > current.length) {
+                current = Arrays.copyOf(current, Math.max(required, current.length * 2));
+                counts = current;
+            }
+            return current;
+        }
+    }
+}
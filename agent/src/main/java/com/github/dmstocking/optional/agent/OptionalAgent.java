@@ -0,0 +1,155 @@
+package com.github.dmstocking.optional.agent;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.instrument.Instrumentation;
+import java.lang.instrument.UnmodifiableClassException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Profiles which call sites of the application create optionals.
+ *
+ * <pre>{@code
+ *     java -javaagent:agent.jar=include=com.example,top=50,file=optionals.txt -jar app.jar
+ * }</pre>
+ *
+ * The options are separated by commas.
+ * <ul>
+ *     <li>{@code include} a package or class name prefix to instrument, may be repeated. By
+ *     default every class outside of the JDK and the library is instrumented.</li>
+ *     <li>{@code top} the number of call sites in the report, 50 by default.</li>
+ *     <li>{@code file} the file the report is written to at exit, standard error by default.</li>
+ * </ul>
+ *
+ * The report can also be read while the application runs from the {@link OptionalProfilerMXBean}
+ * registered as {@value #OBJECT_NAME}. When the agent is attached to a running JVM the classes
+ * that are already loaded are instrumented as well.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class OptionalAgent {
+
+    /**
+     * The name of the {@link OptionalProfilerMXBean}.
+     */
+    public static final String OBJECT_NAME = "com.github.dmstocking.optional:type=OptionalProfiler";
+
+    private static final int DEFAULT_TOP = 50;
+
+    private OptionalAgent() {
+    }
+
+    public static void premain(String arguments, Instrumentation instrumentation) {
+        install(arguments, instrumentation, false);
+    }
+
+    public static void agentmain(String arguments, Instrumentation instrumentation) {
+        install(arguments, instrumentation, true);
+    }
+
+    private static void install(
+            String arguments,
+            Instrumentation instrumentation,
+            boolean attached) {
+        List<String> included = new ArrayList<>();
+        int top = DEFAULT_TOP;
+        String file = null;
+        if (arguments != null && !arguments.isEmpty()) {
+            for (String option : arguments.split(",")) {
+                int separator = option.indexOf('=');
+                String key = separator < 0 ? option : option.substring(0, separator);
+                String value = separator < 0 ? "" : option.substring(separator + 1);
+                if (key.equals("include")) {
+                    included.add(value.replace('.', '/'));
+                } else if (key.equals("top")) {
+                    top = Integer.parseInt(value);
+                } else if (key.equals("file")) {
+                    file = value;
+                } else {
+                    throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+        }
+
+        CallSiteTransformer transformer = new CallSiteTransformer(included);
+        instrumentation.addTransformer(transformer, true);
+        if (attached) {
+            retransformLoadedClasses(instrumentation, transformer);
+        }
+
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(new Profiler(), new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("Could not register " + OBJECT_NAME + ": " + e);
+        }
+
+        final int reportTop = top;
+        final String reportFile = file;
+        Runtime.getRuntime().addShutdownHook(new Thread("optional-profiler-report") {
+            @Override
+            public void run() {
+                writeReport(CallSites.report(reportTop), reportFile);
+            }
+        });
+    }
+
+    private static void retransformLoadedClasses(
+            Instrumentation instrumentation,
+            CallSiteTransformer transformer) {
+        List<Class<?>> classes = new ArrayList<>();
+        for (Class<?> loaded : instrumentation.getAllLoadedClasses()) {
+            if (instrumentation.isModifiableClass(loaded)
+                    && transformer.isIncluded(loaded.getName().replace('.', '/'))) {
+                classes.add(loaded);
+            }
+        }
+        try {
+            instrumentation.retransformClasses(classes.toArray(new Class<?>[0]));
+        } catch (UnmodifiableClassException e) {
+            System.err.println("Could not instrument loaded classes: " + e);
+        }
+    }
+
+    private static void writeReport(String report, String file) {
+        if (file == null) {
+            PrintStream err = System.err;
+            err.print(report);
+            err.flush();
+            return;
+        }
+
+        try (Writer writer =
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(report);
+        } catch (IOException e) {
+            System.err.println("Could not write the optional report to " + file + ": " + e);
+        }
+    }
+
+    private static final class Profiler implements OptionalProfilerMXBean {
+
+        @Override
+        public int getCallSites() {
+            return CallSites.size();
+        }
+
+        @Override
+        public String report(int top) {
+            return CallSites.report(top);
+        }
+
+        @Override
+        public void reset() {
+            CallSites.reset();
+        }
+    }
+}
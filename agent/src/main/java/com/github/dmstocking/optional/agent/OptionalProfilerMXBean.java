@@ -0,0 +1,25 @@
+package com.github.dmstocking.optional.agent;
+
+/**
+ * Reads the {@link CallSites} on demand, for example from jconsole or jcmd, under the name {@link
+ * OptionalAgent#OBJECT_NAME}.
+ */
+@SuppressWarnings("WeakerAccess")
+public interface OptionalProfilerMXBean {
+
+    /**
+     * @return the number of instrumented call sites
+     */
+    int getCallSites();
+
+    /**
+     * @param top the maximum number of call sites to include
+     * @return the ranked report of {@link CallSites#report(int)}
+     */
+    String report(int top);
+
+    /**
+     * Starts counting from zero again.
+     */
+    void reset();
+}
@@ -0,0 +1,94 @@
+package com.github.dmstocking.optional.agent;
+
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Tells whether a present primitive optional is one of the instances the library caches, so that
+ * returning it did not allocate.
+ *
+ * The cached ranges depend on system properties read by the library, so rather than duplicating
+ * those rules they are probed once, by checking which values {@code of} returns the same instance
+ * for twice.
+ */
+final class SharedInstances {
+
+    private static final int INT_LOW = lowest(v -> OptionalInt.of(v) == OptionalInt.of(v));
+    private static final int INT_HIGH = highest(v -> OptionalInt.of(v) == OptionalInt.of(v));
+    private static final int LONG_LOW = lowest(v -> OptionalLong.of(v) == OptionalLong.of(v));
+    private static final int LONG_HIGH = highest(v -> OptionalLong.of(v) == OptionalLong.of(v));
+    private static final Set<Long> DOUBLE_BITS = new HashSet<>();
+
+    static {
+        double[] candidates = {0.0, -0.0, 1.0, -1.0, 0.5, 2.0, 10.0, 100.0};
+        for (double candidate : candidates) {
+            if (OptionalDouble.of(candidate) == OptionalDouble.of(candidate)) {
+                DOUBLE_BITS.add(Double.doubleToRawLongBits(candidate));
+            }
+        }
+    }
+
+    private SharedInstances() {
+    }
+
+    static boolean isShared(OptionalInt optional) {
+        int value = optional.getAsInt();
+        return value >= INT_LOW && value <= INT_HIGH;
+    }
+
+    static boolean isShared(OptionalLong optional) {
+        long value = optional.getAsLong();
+        return value >= LONG_LOW && value <= LONG_HIGH;
+    }
+
+    static boolean isShared(OptionalDouble optional) {
+        return DOUBLE_BITS.contains(Double.doubleToRawLongBits(optional.getAsDouble()));
+    }
+
+    /**
+     * @return the smallest cached value of a range containing zero, or 0 if zero is not cached
+     */
+    static int lowest(IntPredicate cached) {
+        if (!cached.test(0)) {
+            return 0;
+        }
+
+        int low = Integer.MIN_VALUE;
+        int high = 0;
+        while (low < high) {
+            int mid = (int) (((long) low + high) >> 1);
+            if (cached.test(mid)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the largest cached value of a range containing zero, or -1 if zero is not cached
+     */
+    static int highest(IntPredicate cached) {
+        if (!cached.test(0)) {
+            return -1;
+        }
+
+        int low = 0;
+        int high = Integer.MAX_VALUE;
+        while (low < high) {
+            int mid = (int) (((long) low + high + 1) >> 1);
+            if (cached.test(mid)) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.dmstocking.optional.agent;
+
+import com.github.dmstocking.optional.agent.corpus.OptionalUser;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class CallSiteTransformerTest {
+
+    private Class<?> instrumented;
+
+    @Before
+    public void setUp() throws Exception {
+        CallSites.reset();
+        byte[] instrumentedClass = CallSiteTransformer.instrument(classFile(OptionalUser.class));
+        instrumented = define(OptionalUser.class.getName(), instrumentedClass);
+    }
+
+    @Test
+    public void countsEveryCallSite() throws Exception {
+        Method names = instrumented.getMethod("names", String[].class);
+
+        Object total = names.invoke(null, (Object) new String[] {"abc", null, "  ", " de "});
+
+        Assert.assertEquals(5, total);
+        Assert.assertEquals(4, calls("Optional.ofNullable"));
+        Assert.assertEquals(1, empty("Optional.ofNullable"));
+        Assert.assertEquals(3, allocated("Optional.ofNullable"));
+        Assert.assertEquals(4, calls("Optional.filter"));
+        Assert.assertEquals(2, empty("Optional.filter"));
+        Assert.assertEquals(0, allocated("Optional.filter"));
+    }
+
+    @Test
+    public void countsOnlyPrimitivesThatAreNotCached() throws Exception {
+        Method numbers = instrumented.getMethod("numbers", int[].class);
+
+        numbers.invoke(null, (Object) new int[] {1, 2, Integer.MAX_VALUE});
+
+        Assert.assertEquals(3, calls("OptionalInt.of"));
+        Assert.assertEquals(1, allocated("OptionalInt.of"));
+    }
+
+    @Test
+    public void emptyIsNeverAnAllocation() throws Exception {
+        instrumented.getMethod("none").invoke(null);
+
+        Assert.assertEquals(1, calls("Optional.empty"));
+        Assert.assertEquals(1, empty("Optional.empty"));
+        Assert.assertEquals(0, allocated("Optional.empty"));
+    }
+
+    @Test
+    public void recordsTheSourceLocation() throws Exception {
+        instrumented.getMethod("none").invoke(null);
+
+        CallSite site = site("Optional.empty");
+        Assert.assertEquals(OptionalUser.class.getName(), site.className);
+        Assert.assertEquals("none", site.methodName);
+        Assert.assertEquals("OptionalUser.java", site.sourceFile);
+        Assert.assertTrue(site.line > 0);
+    }
+
+    @Test
+    public void leavesClassesWithoutOptionalsAlone() throws IOException {
+        Assert.assertNull(CallSiteTransformer.instrument(classFile(CallSite.class)));
+    }
+
+    @Test
+    public void excludesTheJdkAndTheLibrary() {
+        CallSiteTransformer everything = new CallSiteTransformer(Collections.<String>emptyList());
+        CallSiteTransformer included =
+                new CallSiteTransformer(Arrays.asList("com/example/", "org/example/Main"));
+
+        Assert.assertTrue(everything.isIncluded("com/example/Main"));
+        Assert.assertFalse(everything.isIncluded("java/util/HashMap"));
+        Assert.assertFalse(
+                everything.isIncluded("com/github/dmstocking/optional/java/util/Optional"));
+        Assert.assertTrue(included.isIncluded("com/example/Main"));
+        Assert.assertTrue(included.isIncluded("org/example/Main"));
+        Assert.assertFalse(included.isIncluded("org/example/Other"));
+    }
+
+    private long calls(String target) {
+        return CallSites.calls(site(target).id);
+    }
+
+    private long empty(String target) {
+        return CallSites.empty(site(target).id);
+    }
+
+    private long allocated(String target) {
+        return CallSites.allocated(site(target).id);
+    }
+
+    // the newest matching site, as every test instruments the corpus again
+    private static CallSite site(String target) {
+        CallSite found = null;
+        for (CallSite site : CallSites.sites()) {
+            if (site.className.equals(OptionalUser.class.getName())
+                    && site.target.equals(target)) {
+                found = site;
+            }
+        }
+        Assert.assertNotNull(target, found);
+        return found;
+    }
+
+    private static byte[] classFile(Class<?> type) throws IOException {
+        String resource = type.getName().replace('.', '/') + ".class";
+        try (InputStream in = type.getClassLoader().getResourceAsStream(resource)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static Class<?> define(final String name, final byte[] classFile)
+            throws ClassNotFoundException {
+        ClassLoader loader = new ClassLoader(CallSiteTransformerTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String className, boolean resolve)
+                    throws ClassNotFoundException {
+                if (!className.equals(name)) {
+                    return super.loadClass(className, resolve);
+                }
+
+                synchronized (getClassLoadingLock(className)) {
+                    Class<?> type = findLoadedClass(className);
+                    if (type == null) {
+                        type = defineClass(className, classFile, 0, classFile.length);
+                    }
+                    return type;
+                }
+            }
+        };
+        return loader.loadClass(name);
+    }
+}
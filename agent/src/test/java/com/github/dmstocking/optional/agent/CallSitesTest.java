@@ -0,0 +1,125 @@
+package com.github.dmstocking.optional.agent;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CallSitesTest {
+
+    @Before
+    public void setUp() {
+        CallSites.reset();
+    }
+
+    @Test
+    public void countsCallsEmptyResultsAndAllocations() {
+        int site = CallSites.register("com.example.Foo", "bar", "Foo.java", 42, "Optional.map");
+
+        CallSites.created(Optional.of("value"), site);
+        CallSites.created(Optional.of("value"), site);
+        CallSites.created(Optional.empty(), site);
+
+        Assert.assertEquals(3, CallSites.calls(site));
+        Assert.assertEquals(1, CallSites.empty(site));
+        Assert.assertEquals(2, CallSites.allocated(site));
+    }
+
+    @Test
+    public void returnedOptionalsAreNotAllocations() {
+        int site = CallSites.register("com.example.Foo", "bar", "Foo.java", 7, "Optional.filter");
+
+        CallSites.returned(Optional.of("value"), site);
+
+        Assert.assertEquals(1, CallSites.calls(site));
+        Assert.assertEquals(0, CallSites.allocated(site));
+    }
+
+    @Test
+    public void cachedPrimitivesAreNotAllocations() {
+        int site = CallSites.register("com.example.Foo", "bar", "Foo.java", 7, "OptionalInt.of");
+
+        CallSites.created(OptionalInt.of(1), site);
+        CallSites.created(OptionalInt.of(Integer.MAX_VALUE), site);
+
+        Assert.assertEquals(2, CallSites.calls(site));
+        Assert.assertEquals(1, CallSites.allocated(site));
+    }
+
+    @Test
+    public void countsFromAllThreads() throws InterruptedException {
+        final int site = CallSites.register("com.example.Foo", "run", null, 0, "Optional.of");
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    CallSites.created(Optional.of(j), site);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(4000, CallSites.calls(site));
+        Assert.assertEquals(4000, CallSites.allocated(site));
+    }
+
+    @Test
+    public void dropsTheCountersOfEndedThreads() throws InterruptedException {
+        final int site = CallSites.register("com.example.Foo", "task", null, 0, "Optional.of");
+        for (int i = 0; i < 1000; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 10; j++) {
+                    CallSites.created(Optional.of(j), site);
+                }
+            });
+            thread.start();
+            thread.join();
+
+            Assert.assertEquals(10L * (i + 1), CallSites.calls(site));
+            Assert.assertTrue(CallSites.threads() <= 1);
+        }
+        Assert.assertEquals(10000, CallSites.allocated(site));
+    }
+
+    @Test
+    public void reset() {
+        int site = CallSites.register("com.example.Foo", "bar", "Foo.java", 42, "Optional.map");
+        CallSites.created(Optional.of("value"), site);
+
+        CallSites.reset();
+
+        Assert.assertEquals(0, CallSites.calls(site));
+        CallSites.created(Optional.of("value"), site);
+        Assert.assertEquals(1, CallSites.calls(site));
+    }
+
+    @Test
+    public void reportRanksByAllocations() {
+        int rare = CallSites.register("com.example.Foo", "rare", "Foo.java", 1, "Optional.of");
+        int hot = CallSites.register("com.example.Foo", "hot", "Foo.java", 2, "Optional.map");
+        int empty = CallSites.register("com.example.Foo", "empty", "Foo.java", 3, "Optional.map");
+        CallSites.register("com.example.Foo", "unused", "Foo.java", 4, "Optional.of");
+        CallSites.created(Optional.of("value"), rare);
+        for (int i = 0; i < 3; i++) {
+            CallSites.created(Optional.of("value"), hot);
+            CallSites.created(Optional.empty(), hot);
+        }
+        for (int i = 0; i < 10; i++) {
+            CallSites.created(Optional.empty(), empty);
+        }
+
+        String report = CallSites.report(2);
+
+        Assert.assertTrue(report, report.contains("com.example.Foo.hot(Foo.java:2) Optional.map"));
+        Assert.assertTrue(report, report.contains("50.0%"));
+        Assert.assertTrue(report, report.contains("com.example.Foo.rare(Foo.java:1)"));
+        Assert.assertFalse(report, report.contains("com.example.Foo.empty"));
+        Assert.assertFalse(report, report.contains("com.example.Foo.unused"));
+        Assert.assertTrue(report, report.indexOf(".hot(") < report.indexOf(".rare("));
+    }
+}
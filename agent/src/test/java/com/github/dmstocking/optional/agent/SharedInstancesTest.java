@@ -0,0 +1,43 @@
+package com.github.dmstocking.optional.agent;
+
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SharedInstancesTest {
+
+    @Test
+    public void optionalInt() {
+        Assert.assertTrue(SharedInstances.isShared(OptionalInt.of(-128)));
+        Assert.assertTrue(SharedInstances.isShared(OptionalInt.of(127)));
+        Assert.assertFalse(SharedInstances.isShared(OptionalInt.of(-129)));
+        Assert.assertFalse(SharedInstances.isShared(OptionalInt.of(Integer.MAX_VALUE)));
+    }
+
+    @Test
+    public void optionalLong() {
+        Assert.assertTrue(SharedInstances.isShared(OptionalLong.of(0)));
+        Assert.assertFalse(SharedInstances.isShared(OptionalLong.of(Long.MAX_VALUE)));
+        Assert.assertFalse(SharedInstances.isShared(OptionalLong.of(Long.MIN_VALUE)));
+    }
+
+    @Test
+    public void optionalDouble() {
+        Assert.assertTrue(SharedInstances.isShared(OptionalDouble.of(0.0)));
+        Assert.assertTrue(SharedInstances.isShared(OptionalDouble.of(1.0)));
+        Assert.assertFalse(SharedInstances.isShared(OptionalDouble.of(-0.0)));
+        Assert.assertFalse(SharedInstances.isShared(OptionalDouble.of(2.5)));
+    }
+
+    @Test
+    public void probesTheRangeAroundZero() {
+        Assert.assertEquals(-10, SharedInstances.lowest(v -> v >= -10 && v <= 20));
+        Assert.assertEquals(20, SharedInstances.highest(v -> v >= -10 && v <= 20));
+        Assert.assertEquals(Integer.MIN_VALUE, SharedInstances.lowest(v -> true));
+        Assert.assertEquals(Integer.MAX_VALUE, SharedInstances.highest(v -> true));
+        Assert.assertTrue(SharedInstances.lowest(v -> false) > SharedInstances.highest(v -> false));
+    }
+}
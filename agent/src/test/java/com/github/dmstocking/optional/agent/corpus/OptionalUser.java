@@ -0,0 +1,34 @@
+package com.github.dmstocking.optional.agent.corpus;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+
+/**
+ * Calls the optionals in a known pattern, for the agent tests to instrument.
+ */
+public class OptionalUser {
+
+    public static int names(String[] names) {
+        int total = 0;
+        for (String name : names) {
+            total += Optional.ofNullable(name)
+                    .map(String::trim)
+                    .filter(trimmed -> !trimmed.isEmpty())
+                    .map(String::length)
+                    .orElse(0);
+        }
+        return total;
+    }
+
+    public static int numbers(int[] numbers) {
+        int total = 0;
+        for (int number : numbers) {
+            total += OptionalInt.of(number).orElse(0);
+        }
+        return total;
+    }
+
+    public static boolean none() {
+        return Optional.empty().isPresent();
+    }
+}
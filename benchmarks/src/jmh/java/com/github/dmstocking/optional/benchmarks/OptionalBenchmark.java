@@ -0,0 +1,289 @@
+package com.github.dmstocking.optional.benchmarks;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.Consumer;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.Predicate;
+import com.github.dmstocking.optional.java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares every public method of {@link Optional} against {@code java.util.Optional}. Each
+ * invocation works on the next element of a ring of inputs where {@code presentRatio} of the
+ * elements hold a value, so both branches of every method are measured.
+ *
+ * Methods that only exist on the Java 9 optional ({@code or} and {@code ifPresentOrElse}) are
+ * compared against the idiomatic Java 8 equivalent.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OptionalBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private static final Function<String, Integer> LENGTH = String::length;
+    private static final Function<String, Optional<Integer>> LENGTH_OPTIONAL =
+            s -> Optional.of(s.length());
+    private static final java.util.function.Function<String, java.util.Optional<Integer>>
+            JDK_LENGTH_OPTIONAL = s -> java.util.Optional.of(s.length());
+    private static final Predicate<String> IS_EVEN = s -> (s.length() & 1) == 0;
+    private static final Supplier<String> FALLBACK = () -> "fallback";
+    private static final Supplier<Optional<String>> FALLBACK_OPTIONAL =
+            () -> Optional.of("fallback");
+    private static final Supplier<NoSuchElementException> EXCEPTION = NoSuchElementException::new;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double presentRatio;
+
+    private String[] values;
+    private Optional<String>[] backport;
+    private java.util.Optional<String>[] jdk;
+    private int index;
+
+    private Object sink;
+    private Consumer<String> backportSink;
+    private java.util.function.Consumer<String> jdkSink;
+    private Runnable emptySink;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Random random = new Random(42);
+        values = new String[SIZE];
+        backport = new Optional[SIZE];
+        jdk = new java.util.Optional[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = random.nextDouble() < presentRatio ? Integer.toString(i) : null;
+            backport[i] = Optional.ofNullable(values[i]);
+            jdk[i] = java.util.Optional.ofNullable(values[i]);
+        }
+        backportSink = s -> sink = s;
+        jdkSink = s -> sink = s;
+        emptySink = () -> sink = this;
+    }
+
+    private int next() {
+        return index = (index + 1) & MASK;
+    }
+
+    private String nonNull(int i) {
+        String value = values[i];
+        return value != null ? value : "empty";
+    }
+
+    @Benchmark
+    public Optional<String> emptyBackport() {
+        return Optional.empty();
+    }
+
+    @Benchmark
+    public java.util.Optional<String> emptyJdk() {
+        return java.util.Optional.empty();
+    }
+
+    @Benchmark
+    public Optional<String> ofBackport() {
+        return Optional.of(nonNull(next()));
+    }
+
+    @Benchmark
+    public java.util.Optional<String> ofJdk() {
+        return java.util.Optional.of(nonNull(next()));
+    }
+
+    @Benchmark
+    public Optional<String> ofNullableBackport() {
+        return Optional.ofNullable(values[next()]);
+    }
+
+    @Benchmark
+    public java.util.Optional<String> ofNullableJdk() {
+        return java.util.Optional.ofNullable(values[next()]);
+    }
+
+    @Benchmark
+    public Optional<String> filterBackport() {
+        return backport[next()].filter(IS_EVEN);
+    }
+
+    @Benchmark
+    public java.util.Optional<String> filterJdk() {
+        return jdk[next()].filter(s -> (s.length() & 1) == 0);
+    }
+
+    @Benchmark
+    public Optional<Integer> flatMapBackport() {
+        return backport[next()].flatMap(LENGTH_OPTIONAL);
+    }
+
+    @Benchmark
+    public java.util.Optional<Integer> flatMapJdk() {
+        return jdk[next()].flatMap(JDK_LENGTH_OPTIONAL);
+    }
+
+    @Benchmark
+    public String getBackport() {
+        try {
+            return backport[next()].get();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public String getJdk() {
+        try {
+            return jdk[next()].get();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Object ifPresentBackport() {
+        sink = null;
+        backport[next()].ifPresent(backportSink);
+        return sink;
+    }
+
+    @Benchmark
+    public Object ifPresentJdk() {
+        sink = null;
+        jdk[next()].ifPresent(jdkSink);
+        return sink;
+    }
+
+    @Benchmark
+    public Object ifPresentOrElseBackport() {
+        sink = null;
+        backport[next()].ifPresentOrElse(backportSink, emptySink);
+        return sink;
+    }
+
+    @Benchmark
+    public Object ifPresentOrElseJdk() {
+        sink = null;
+        java.util.Optional<String> optional = jdk[next()];
+        if (optional.isPresent()) {
+            jdkSink.accept(optional.get());
+        } else {
+            emptySink.run();
+        }
+        return sink;
+    }
+
+    @Benchmark
+    public boolean isPresentBackport() {
+        return backport[next()].isPresent();
+    }
+
+    @Benchmark
+    public boolean isPresentJdk() {
+        return jdk[next()].isPresent();
+    }
+
+    @Benchmark
+    public Optional<Integer> mapBackport() {
+        return backport[next()].map(LENGTH);
+    }
+
+    @Benchmark
+    public java.util.Optional<Integer> mapJdk() {
+        return jdk[next()].map(String::length);
+    }
+
+    @Benchmark
+    public Optional<String> orBackport() {
+        return backport[next()].or(FALLBACK_OPTIONAL);
+    }
+
+    @Benchmark
+    public java.util.Optional<String> orJdk() {
+        java.util.Optional<String> optional = jdk[next()];
+        return optional.isPresent() ? optional : java.util.Optional.of("fallback");
+    }
+
+    @Benchmark
+    public String orElseBackport() {
+        return backport[next()].orElse("fallback");
+    }
+
+    @Benchmark
+    public String orElseJdk() {
+        return jdk[next()].orElse("fallback");
+    }
+
+    @Benchmark
+    public String orElseGetBackport() {
+        return backport[next()].orElseGet(FALLBACK);
+    }
+
+    @Benchmark
+    public String orElseGetJdk() {
+        return jdk[next()].orElseGet(() -> "fallback");
+    }
+
+    @Benchmark
+    public String orElseThrowBackport() {
+        try {
+            return backport[next()].orElseThrow(EXCEPTION);
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public String orElseThrowJdk() {
+        try {
+            return jdk[next()].orElseThrow(NoSuchElementException::new);
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public boolean equalsBackport() {
+        int i = next();
+        return backport[i].equals(backport[(i + 1) & MASK]);
+    }
+
+    @Benchmark
+    public boolean equalsJdk() {
+        int i = next();
+        return jdk[i].equals(jdk[(i + 1) & MASK]);
+    }
+
+    @Benchmark
+    public int hashCodeBackport() {
+        return backport[next()].hashCode();
+    }
+
+    @Benchmark
+    public int hashCodeJdk() {
+        return jdk[next()].hashCode();
+    }
+
+    @Benchmark
+    public String toStringBackport() {
+        return backport[next()].toString();
+    }
+
+    @Benchmark
+    public String toStringJdk() {
+        return jdk[next()].toString();
+    }
+}
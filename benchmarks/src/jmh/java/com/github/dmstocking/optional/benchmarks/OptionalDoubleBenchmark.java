@@ -0,0 +1,238 @@
+package com.github.dmstocking.optional.benchmarks;
+
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.function.DoubleConsumer;
+import com.github.dmstocking.optional.java.util.function.DoubleSupplier;
+import com.github.dmstocking.optional.java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares every public method of {@link OptionalDouble} against {@code java.util.OptionalDouble}. Each
+ * invocation works on the next element of a ring of inputs where {@code presentRatio} of the
+ * elements hold a value, so both branches of every method are measured.
+ *
+ * {@code ifPresentOrElse} only exists on the Java 9 optional and is compared against the idiomatic
+ * Java 8 equivalent.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OptionalDoubleBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private static final DoubleSupplier FALLBACK = () -> -1;
+    private static final Supplier<NoSuchElementException> EXCEPTION = NoSuchElementException::new;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double presentRatio;
+
+    private double[] values;
+    private OptionalDouble[] backport;
+    private java.util.OptionalDouble[] jdk;
+    private int index;
+
+    private double sink;
+    private DoubleConsumer backportSink;
+    private java.util.function.DoubleConsumer jdkSink;
+    private Runnable emptySink;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new double[SIZE];
+        backport = new OptionalDouble[SIZE];
+        jdk = new java.util.OptionalDouble[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = random.nextDouble();
+            if (random.nextDouble() < presentRatio) {
+                backport[i] = OptionalDouble.of(values[i]);
+                jdk[i] = java.util.OptionalDouble.of(values[i]);
+            } else {
+                backport[i] = OptionalDouble.empty();
+                jdk[i] = java.util.OptionalDouble.empty();
+            }
+        }
+        backportSink = value -> sink = value;
+        jdkSink = value -> sink = value;
+        emptySink = () -> sink = -1;
+    }
+
+    private int next() {
+        return index = (index + 1) & MASK;
+    }
+
+    @Benchmark
+    public OptionalDouble emptyBackport() {
+        return OptionalDouble.empty();
+    }
+
+    @Benchmark
+    public java.util.OptionalDouble emptyJdk() {
+        return java.util.OptionalDouble.empty();
+    }
+
+    @Benchmark
+    public OptionalDouble ofBackport() {
+        return OptionalDouble.of(values[next()]);
+    }
+
+    @Benchmark
+    public java.util.OptionalDouble ofJdk() {
+        return java.util.OptionalDouble.of(values[next()]);
+    }
+
+    @Benchmark
+    public OptionalDouble ofZeroBackport() {
+        return OptionalDouble.of(0.0);
+    }
+
+    @Benchmark
+    public java.util.OptionalDouble ofZeroJdk() {
+        return java.util.OptionalDouble.of(0.0);
+    }
+
+    @Benchmark
+    public double getAsDoubleBackport() {
+        try {
+            return backport[next()].getAsDouble();
+        } catch (NoSuchElementException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public double getAsDoubleJdk() {
+        try {
+            return jdk[next()].getAsDouble();
+        } catch (NoSuchElementException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public double ifPresentBackport() {
+        sink = 0;
+        backport[next()].ifPresent(backportSink);
+        return sink;
+    }
+
+    @Benchmark
+    public double ifPresentJdk() {
+        sink = 0;
+        jdk[next()].ifPresent(jdkSink);
+        return sink;
+    }
+
+    @Benchmark
+    public double ifPresentOrElseBackport() {
+        sink = 0;
+        backport[next()].ifPresentOrElse(backportSink, emptySink);
+        return sink;
+    }
+
+    @Benchmark
+    public double ifPresentOrElseJdk() {
+        sink = 0;
+        java.util.OptionalDouble optional = jdk[next()];
+        if (optional.isPresent()) {
+            jdkSink.accept(optional.getAsDouble());
+        } else {
+            emptySink.run();
+        }
+        return sink;
+    }
+
+    @Benchmark
+    public boolean isPresentBackport() {
+        return backport[next()].isPresent();
+    }
+
+    @Benchmark
+    public boolean isPresentJdk() {
+        return jdk[next()].isPresent();
+    }
+
+    @Benchmark
+    public double orElseBackport() {
+        return backport[next()].orElse(-1);
+    }
+
+    @Benchmark
+    public double orElseJdk() {
+        return jdk[next()].orElse(-1);
+    }
+
+    @Benchmark
+    public double orElseGetBackport() {
+        return backport[next()].orElseGet(FALLBACK);
+    }
+
+    @Benchmark
+    public double orElseGetJdk() {
+        return jdk[next()].orElseGet(() -> -1);
+    }
+
+    @Benchmark
+    public double orElseThrowBackport() {
+        try {
+            return backport[next()].orElseThrow(EXCEPTION);
+        } catch (NoSuchElementException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public double orElseThrowJdk() {
+        try {
+            return jdk[next()].orElseThrow(NoSuchElementException::new);
+        } catch (NoSuchElementException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public boolean equalsBackport() {
+        int i = next();
+        return backport[i].equals(backport[(i + 1) & MASK]);
+    }
+
+    @Benchmark
+    public boolean equalsJdk() {
+        int i = next();
+        return jdk[i].equals(jdk[(i + 1) & MASK]);
+    }
+
+    @Benchmark
+    public int hashCodeBackport() {
+        return backport[next()].hashCode();
+    }
+
+    @Benchmark
+    public int hashCodeJdk() {
+        return jdk[next()].hashCode();
+    }
+
+    @Benchmark
+    public String toStringBackport() {
+        return backport[next()].toString();
+    }
+
+    @Benchmark
+    public String toStringJdk() {
+        return jdk[next()].toString();
+    }
+}
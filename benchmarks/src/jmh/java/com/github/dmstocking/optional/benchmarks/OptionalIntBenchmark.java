@@ -0,0 +1,238 @@
+package com.github.dmstocking.optional.benchmarks;
+
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.function.IntConsumer;
+import com.github.dmstocking.optional.java.util.function.IntSupplier;
+import com.github.dmstocking.optional.java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares every public method of {@link OptionalInt} against {@code java.util.OptionalInt}. Each
+ * invocation works on the next element of a ring of inputs where {@code presentRatio} of the
+ * elements hold a value, so both branches of every method are measured.
+ *
+ * {@code ifPresentOrElse} only exists on the Java 9 optional and is compared against the idiomatic
+ * Java 8 equivalent.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OptionalIntBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private static final IntSupplier FALLBACK = () -> -1;
+    private static final Supplier<NoSuchElementException> EXCEPTION = NoSuchElementException::new;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double presentRatio;
+
+    private int[] values;
+    private OptionalInt[] backport;
+    private java.util.OptionalInt[] jdk;
+    private int index;
+
+    private int sink;
+    private IntConsumer backportSink;
+    private java.util.function.IntConsumer jdkSink;
+    private Runnable emptySink;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new int[SIZE];
+        backport = new OptionalInt[SIZE];
+        jdk = new java.util.OptionalInt[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = random.nextInt();
+            if (random.nextDouble() < presentRatio) {
+                backport[i] = OptionalInt.of(values[i]);
+                jdk[i] = java.util.OptionalInt.of(values[i]);
+            } else {
+                backport[i] = OptionalInt.empty();
+                jdk[i] = java.util.OptionalInt.empty();
+            }
+        }
+        backportSink = value -> sink = value;
+        jdkSink = value -> sink = value;
+        emptySink = () -> sink = -1;
+    }
+
+    private int next() {
+        return index = (index + 1) & MASK;
+    }
+
+    @Benchmark
+    public OptionalInt emptyBackport() {
+        return OptionalInt.empty();
+    }
+
+    @Benchmark
+    public java.util.OptionalInt emptyJdk() {
+        return java.util.OptionalInt.empty();
+    }
+
+    @Benchmark
+    public OptionalInt ofBackport() {
+        return OptionalInt.of(values[next()]);
+    }
+
+    @Benchmark
+    public java.util.OptionalInt ofJdk() {
+        return java.util.OptionalInt.of(values[next()]);
+    }
+
+    @Benchmark
+    public OptionalInt ofSmallBackport() {
+        return OptionalInt.of(values[next()] & 0xFF);
+    }
+
+    @Benchmark
+    public java.util.OptionalInt ofSmallJdk() {
+        return java.util.OptionalInt.of(values[next()] & 0xFF);
+    }
+
+    @Benchmark
+    public int getAsIntBackport() {
+        try {
+            return backport[next()].getAsInt();
+        } catch (NoSuchElementException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public int getAsIntJdk() {
+        try {
+            return jdk[next()].getAsInt();
+        } catch (NoSuchElementException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public int ifPresentBackport() {
+        sink = 0;
+        backport[next()].ifPresent(backportSink);
+        return sink;
+    }
+
+    @Benchmark
+    public int ifPresentJdk() {
+        sink = 0;
+        jdk[next()].ifPresent(jdkSink);
+        return sink;
+    }
+
+    @Benchmark
+    public int ifPresentOrElseBackport() {
+        sink = 0;
+        backport[next()].ifPresentOrElse(backportSink, emptySink);
+        return sink;
+    }
+
+    @Benchmark
+    public int ifPresentOrElseJdk() {
+        sink = 0;
+        java.util.OptionalInt optional = jdk[next()];
+        if (optional.isPresent()) {
+            jdkSink.accept(optional.getAsInt());
+        } else {
+            emptySink.run();
+        }
+        return sink;
+    }
+
+    @Benchmark
+    public boolean isPresentBackport() {
+        return backport[next()].isPresent();
+    }
+
+    @Benchmark
+    public boolean isPresentJdk() {
+        return jdk[next()].isPresent();
+    }
+
+    @Benchmark
+    public int orElseBackport() {
+        return backport[next()].orElse(-1);
+    }
+
+    @Benchmark
+    public int orElseJdk() {
+        return jdk[next()].orElse(-1);
+    }
+
+    @Benchmark
+    public int orElseGetBackport() {
+        return backport[next()].orElseGet(FALLBACK);
+    }
+
+    @Benchmark
+    public int orElseGetJdk() {
+        return jdk[next()].orElseGet(() -> -1);
+    }
+
+    @Benchmark
+    public int orElseThrowBackport() {
+        try {
+            return backport[next()].orElseThrow(EXCEPTION);
+        } catch (NoSuchElementException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public int orElseThrowJdk() {
+        try {
+            return jdk[next()].orElseThrow(NoSuchElementException::new);
+        } catch (NoSuchElementException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public boolean equalsBackport() {
+        int i = next();
+        return backport[i].equals(backport[(i + 1) & MASK]);
+    }
+
+    @Benchmark
+    public boolean equalsJdk() {
+        int i = next();
+        return jdk[i].equals(jdk[(i + 1) & MASK]);
+    }
+
+    @Benchmark
+    public int hashCodeBackport() {
+        return backport[next()].hashCode();
+    }
+
+    @Benchmark
+    public int hashCodeJdk() {
+        return jdk[next()].hashCode();
+    }
+
+    @Benchmark
+    public String toStringBackport() {
+        return backport[next()].toString();
+    }
+
+    @Benchmark
+    public String toStringJdk() {
+        return jdk[next()].toString();
+    }
+}
@@ -0,0 +1,238 @@
+package com.github.dmstocking.optional.benchmarks;
+
+import com.github.dmstocking.optional.java.util.OptionalLong;
+import com.github.dmstocking.optional.java.util.function.LongConsumer;
+import com.github.dmstocking.optional.java.util.function.LongSupplier;
+import com.github.dmstocking.optional.java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares every public method of {@link OptionalLong} against {@code java.util.OptionalLong}. Each
+ * invocation works on the next element of a ring of inputs where {@code presentRatio} of the
+ * elements hold a value, so both branches of every method are measured.
+ *
+ * {@code ifPresentOrElse} only exists on the Java 9 optional and is compared against the idiomatic
+ * Java 8 equivalent.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OptionalLongBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private static final LongSupplier FALLBACK = () -> -1;
+    private static final Supplier<NoSuchElementException> EXCEPTION = NoSuchElementException::new;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double presentRatio;
+
+    private long[] values;
+    private OptionalLong[] backport;
+    private java.util.OptionalLong[] jdk;
+    private int index;
+
+    private long sink;
+    private LongConsumer backportSink;
+    private java.util.function.LongConsumer jdkSink;
+    private Runnable emptySink;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new long[SIZE];
+        backport = new OptionalLong[SIZE];
+        jdk = new java.util.OptionalLong[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = random.nextLong();
+            if (random.nextDouble() < presentRatio) {
+                backport[i] = OptionalLong.of(values[i]);
+                jdk[i] = java.util.OptionalLong.of(values[i]);
+            } else {
+                backport[i] = OptionalLong.empty();
+                jdk[i] = java.util.OptionalLong.empty();
+            }
+        }
+        backportSink = value -> sink = value;
+        jdkSink = value -> sink = value;
+        emptySink = () -> sink = -1;
+    }
+
+    private int next() {
+        return index = (index + 1) & MASK;
+    }
+
+    @Benchmark
+    public OptionalLong emptyBackport() {
+        return OptionalLong.empty();
+    }
+
+    @Benchmark
+    public java.util.OptionalLong emptyJdk() {
+        return java.util.OptionalLong.empty();
+    }
+
+    @Benchmark
+    public OptionalLong ofBackport() {
+        return OptionalLong.of(values[next()]);
+    }
+
+    @Benchmark
+    public java.util.OptionalLong ofJdk() {
+        return java.util.OptionalLong.of(values[next()]);
+    }
+
+    @Benchmark
+    public OptionalLong ofSmallBackport() {
+        return OptionalLong.of(values[next()] & 0xFF);
+    }
+
+    @Benchmark
+    public java.util.OptionalLong ofSmallJdk() {
+        return java.util.OptionalLong.of(values[next()] & 0xFF);
+    }
+
+    @Benchmark
+    public long getAsLongBackport() {
+        try {
+            return backport[next()].getAsLong();
+        } catch (NoSuchElementException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public long getAsLongJdk() {
+        try {
+            return jdk[next()].getAsLong();
+        } catch (NoSuchElementException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public long ifPresentBackport() {
+        sink = 0;
+        backport[next()].ifPresent(backportSink);
+        return sink;
+    }
+
+    @Benchmark
+    public long ifPresentJdk() {
+        sink = 0;
+        jdk[next()].ifPresent(jdkSink);
+        return sink;
+    }
+
+    @Benchmark
+    public long ifPresentOrElseBackport() {
+        sink = 0;
+        backport[next()].ifPresentOrElse(backportSink, emptySink);
+        return sink;
+    }
+
+    @Benchmark
+    public long ifPresentOrElseJdk() {
+        sink = 0;
+        java.util.OptionalLong optional = jdk[next()];
+        if (optional.isPresent()) {
+            jdkSink.accept(optional.getAsLong());
+        } else {
+            emptySink.run();
+        }
+        return sink;
+    }
+
+    @Benchmark
+    public boolean isPresentBackport() {
+        return backport[next()].isPresent();
+    }
+
+    @Benchmark
+    public boolean isPresentJdk() {
+        return jdk[next()].isPresent();
+    }
+
+    @Benchmark
+    public long orElseBackport() {
+        return backport[next()].orElse(-1);
+    }
+
+    @Benchmark
+    public long orElseJdk() {
+        return jdk[next()].orElse(-1);
+    }
+
+    @Benchmark
+    public long orElseGetBackport() {
+        return backport[next()].orElseGet(FALLBACK);
+    }
+
+    @Benchmark
+    public long orElseGetJdk() {
+        return jdk[next()].orElseGet(() -> -1);
+    }
+
+    @Benchmark
+    public long orElseThrowBackport() {
+        try {
+            return backport[next()].orElseThrow(EXCEPTION);
+        } catch (NoSuchElementException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public long orElseThrowJdk() {
+        try {
+            return jdk[next()].orElseThrow(NoSuchElementException::new);
+        } catch (NoSuchElementException e) {
+            return -1;
+        }
+    }
+
+    @Benchmark
+    public boolean equalsBackport() {
+        int i = next();
+        return backport[i].equals(backport[(i + 1) & MASK]);
+    }
+
+    @Benchmark
+    public boolean equalsJdk() {
+        int i = next();
+        return jdk[i].equals(jdk[(i + 1) & MASK]);
+    }
+
+    @Benchmark
+    public int hashCodeBackport() {
+        return backport[next()].hashCode();
+    }
+
+    @Benchmark
+    public int hashCodeJdk() {
+        return jdk[next()].hashCode();
+    }
+
+    @Benchmark
+    public String toStringBackport() {
+        return backport[next()].toString();
+    }
+
+    @Benchmark
+    public String toStringJdk() {
+        return jdk[next()].toString();
+    }
+}
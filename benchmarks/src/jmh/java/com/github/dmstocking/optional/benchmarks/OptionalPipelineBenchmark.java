@@ -0,0 +1,77 @@
+package com.github.dmstocking.optional.benchmarks;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.Predicate;
+import com.github.dmstocking.optional.util.OptionalPipeline;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a chain of {@code map}/{@code filter}/{@code map} on {@link Optional} against the same
+ * stages fused into an {@link OptionalPipeline}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OptionalPipelineBenchmark {
+
+    private static final int SIZE = 1024;
+    private static final int MASK = SIZE - 1;
+
+    private static final Function<String, Integer> LENGTH = String::length;
+    private static final Predicate<Integer> IS_EVEN = i -> (i & 1) == 0;
+    private static final Function<Integer, Long> WIDEN = i -> (long) i * 31;
+
+    private static final OptionalPipeline<String, Long> PIPELINE =
+            OptionalPipeline.of(LENGTH).filter(IS_EVEN).map(WIDEN);
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double presentRatio;
+
+    private String[] values;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            values[i] = random.nextDouble() < presentRatio ? Integer.toString(i) : null;
+        }
+    }
+
+    private int next() {
+        return index = (index + 1) & MASK;
+    }
+
+    @Benchmark
+    public Long chainOrElse() {
+        return Optional.ofNullable(values[next()]).map(LENGTH).filter(IS_EVEN).map(WIDEN).orElse(-1L);
+    }
+
+    @Benchmark
+    public Long pipelineApplyOrElse() {
+        return PIPELINE.applyOrElse(values[next()], -1L);
+    }
+
+    @Benchmark
+    public Optional<Long> chain() {
+        return Optional.ofNullable(values[next()]).map(LENGTH).filter(IS_EVEN).map(WIDEN);
+    }
+
+    @Benchmark
+    public Optional<Long> pipelineApply() {
+        return PIPELINE.apply(values[next()]);
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.dmstocking.optional.benchmarks;
+
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.function.DoubleUnaryOperator;
+import com.github.dmstocking.optional.util.Optionals;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares mapping a large array of {@link OptionalDouble} in a single-threaded loop against
+ * {@link Optionals#parallelMap(OptionalDouble[], DoubleUnaryOperator, OptionalDouble[],
+ * java.util.concurrent.Executor)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OptionalsParallelMapBenchmark {
+
+    private static final DoubleUnaryOperator SCALE = d -> Math.sqrt(d) * 1.5;
+
+    @Param({"0.5", "1.0"})
+    public double presentRatio;
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private OptionalDouble[] in;
+    private OptionalDouble[] out;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        in = new OptionalDouble[size];
+        out = new OptionalDouble[size];
+        for (int i = 0; i < size; i++) {
+            in[i] = random.nextDouble() < presentRatio
+                    ? OptionalDouble.of(random.nextDouble())
+                    : OptionalDouble.empty();
+        }
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public OptionalDouble[] sequentialMap() {
+        for (int i = 0; i < in.length; i++) {
+            out[i] = in[i].map(SCALE);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public OptionalDouble[] parallelMap() {
+        Optionals.parallelMap(in, SCALE, out, executor);
+        return out;
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.dmstocking.optional.benchmarks;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+import com.github.dmstocking.optional.util.IntLongMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares looking up a batch of keys, half of them missing, in an {@link IntLongMap} against a
+ * {@code HashMap<Integer, Long>} whose result is wrapped in an {@link Optional}.
+ *
+ * The put and remove benchmarks use keys that are missing from both maps, so every invocation
+ * leaves the maps with the {@code size} entries they started with.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PrimitiveMapBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private final Map<Integer, Long> hashMap = new HashMap<>();
+    private IntLongMap intLongMap;
+    private int[] keys;
+    private int[] absentKeys;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        intLongMap = new IntLongMap(size);
+        for (int i = 0; i < size; i++) {
+            int key = random.nextInt();
+            long value = random.nextLong();
+            hashMap.put(key, value);
+            intLongMap.put(key, value);
+        }
+
+        Integer[] present = hashMap.keySet().toArray(new Integer[0]);
+        keys = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            keys[i] = i % 2 == 0 ? present[random.nextInt(present.length)] : random.nextInt();
+        }
+
+        absentKeys = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            int key;
+            do {
+                key = random.nextInt();
+            } while (hashMap.containsKey(key));
+            absentKeys[i] = key;
+        }
+    }
+
+    @Benchmark
+    public long hashMapGet() {
+        long sum = 0;
+        for (int key : keys) {
+            sum += Optional.ofNullable(hashMap.get(key)).orElse(0L);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long intLongMapGet() {
+        long sum = 0;
+        for (int key : keys) {
+            OptionalLong value = intLongMap.get(key);
+            sum += value.orElse(0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long intLongMapGetOrElse() {
+        long sum = 0;
+        for (int key : keys) {
+            sum += intLongMap.getOrElse(key, 0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Map<Integer, Long> hashMapPutRemove() {
+        for (int key : absentKeys) {
+            hashMap.put(key, (long) key);
+        }
+        for (int key : absentKeys) {
+            hashMap.remove(key);
+        }
+        return hashMap;
+    }
+
+    @Benchmark
+    public IntLongMap intLongMapPutRemove() {
+        for (int key : absentKeys) {
+            intLongMap.put(key, key);
+        }
+        for (int key : absentKeys) {
+            intLongMap.remove(key);
+        }
+        return intLongMap;
+    }
+}
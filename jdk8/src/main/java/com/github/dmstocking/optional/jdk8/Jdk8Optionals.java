@@ -0,0 +1,285 @@
+package com.github.dmstocking.optional.jdk8;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Conversions between the backported optionals and the {@code java.util} optionals, and the
+ * {@code stream()} methods the backport cannot provide itself.
+ *
+ * Conversions never box a primitive value and return the shared empty instance of the target
+ * class for an empty optional. Converting a small {@code int} or {@code long} returns a cached
+ * instance on either side, so converting at an API boundary does not allocate for the most common
+ * values.
+ *
+ * <pre>{@code
+ *     java.util.OptionalInt port = Jdk8Optionals.toJavaUtil(config.getPort());
+ *     long present = Jdk8Optionals.stream(lookups).count();
+ * }</pre>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class Jdk8Optionals {
+
+    private Jdk8Optionals() {
+    }
+
+    /**
+     * @param optional the optional to convert
+     * @param <T>      the type of the value
+     * @return a {@code java.util.Optional} describing the same value
+     * @throws NullPointerException if {@code optional} is null
+     */
+    public static <T> java.util.Optional<T> toJavaUtil(Optional<T> optional) {
+        if (optional.isPresent()) {
+            return java.util.Optional.of(optional.get());
+        }
+
+        return java.util.Optional.empty();
+    }
+
+    /**
+     * @param optional the optional to convert
+     * @param <T>      the type of the value
+     * @return an {@code Optional} describing the same value
+     * @throws NullPointerException if {@code optional} is null
+     */
+    public static <T> Optional<T> fromJavaUtil(java.util.Optional<T> optional) {
+        if (optional.isPresent()) {
+            return Optional.of(optional.get());
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * @param optional the optional to convert
+     * @return a {@code java.util.OptionalInt} describing the same value
+     * @throws NullPointerException if {@code optional} is null
+     */
+    public static java.util.OptionalInt toJavaUtil(OptionalInt optional) {
+        if (optional.isPresent()) {
+            return JdkCache.ofInt(optional.getAsInt());
+        }
+
+        return java.util.OptionalInt.empty();
+    }
+
+    /**
+     * @param optional the optional to convert
+     * @return an {@code OptionalInt} describing the same value
+     * @throws NullPointerException if {@code optional} is null
+     */
+    public static OptionalInt fromJavaUtil(java.util.OptionalInt optional) {
+        if (optional.isPresent()) {
+            return OptionalInt.of(optional.getAsInt());
+        }
+
+        return OptionalInt.empty();
+    }
+
+    /**
+     * @param optional the optional to convert
+     * @return a {@code java.util.OptionalLong} describing the same value
+     * @throws NullPointerException if {@code optional} is null
+     */
+    public static java.util.OptionalLong toJavaUtil(OptionalLong optional) {
+        if (optional.isPresent()) {
+            return JdkCache.ofLong(optional.getAsLong());
+        }
+
+        return java.util.OptionalLong.empty();
+    }
+
+    /**
+     * @param optional the optional to convert
+     * @return an {@code OptionalLong} describing the same value
+     * @throws NullPointerException if {@code optional} is null
+     */
+    public static OptionalLong fromJavaUtil(java.util.OptionalLong optional) {
+        if (optional.isPresent()) {
+            return OptionalLong.of(optional.getAsLong());
+        }
+
+        return OptionalLong.empty();
+    }
+
+    /**
+     * @param optional the optional to convert
+     * @return a {@code java.util.OptionalDouble} describing the same value
+     * @throws NullPointerException if {@code optional} is null
+     */
+    public static java.util.OptionalDouble toJavaUtil(OptionalDouble optional) {
+        if (optional.isPresent()) {
+            return java.util.OptionalDouble.of(optional.getAsDouble());
+        }
+
+        return java.util.OptionalDouble.empty();
+    }
+
+    /**
+     * @param optional the optional to convert
+     * @return an {@code OptionalDouble} describing the same value
+     * @throws NullPointerException if {@code optional} is null
+     */
+    public static OptionalDouble fromJavaUtil(java.util.OptionalDouble optional) {
+        if (optional.isPresent()) {
+            return OptionalDouble.of(optional.getAsDouble());
+        }
+
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * If a value is present, returns a sequential {@code Stream} containing only that value,
+     * otherwise returns an empty {@code Stream}. This is {@code Optional.stream()} from Java 9.
+     *
+     * @param optional the optional to stream
+     * @param <T>      the type of the value
+     * @return the optional value as a {@code Stream}
+     * @throws NullPointerException if {@code optional} is null
+     */
+    public static <T> Stream<T> stream(Optional<T> optional) {
+        if (optional.isPresent()) {
+            return Stream.of(optional.get());
+        }
+
+        return Stream.empty();
+    }
+
+    /**
+     * If a value is present, returns a sequential {@code IntStream} containing only that value,
+     * otherwise returns an empty {@code IntStream}. This is {@code OptionalInt.stream()} from Java
+     * 9.
+     *
+     * @param optional the optional to stream
+     * @return the optional value as an {@code IntStream}
+     * @throws NullPointerException if {@code optional} is null
+     */
+    public static IntStream stream(OptionalInt optional) {
+        if (optional.isPresent()) {
+            return IntStream.of(optional.getAsInt());
+        }
+
+        return IntStream.empty();
+    }
+
+    /**
+     * If a value is present, returns a sequential {@code LongStream} containing only that value,
+     * otherwise returns an empty {@code LongStream}. This is {@code OptionalLong.stream()} from
+     * Java 9.
+     *
+     * @param optional the optional to stream
+     * @return the optional value as a {@code LongStream}
+     * @throws NullPointerException if {@code optional} is null
+     */
+    public static LongStream stream(OptionalLong optional) {
+        if (optional.isPresent()) {
+            return LongStream.of(optional.getAsLong());
+        }
+
+        return LongStream.empty();
+    }
+
+    /**
+     * If a value is present, returns a sequential {@code DoubleStream} containing only that value,
+     * otherwise returns an empty {@code DoubleStream}. This is {@code OptionalDouble.stream()} from
+     * Java 9.
+     *
+     * @param optional the optional to stream
+     * @return the optional value as a {@code DoubleStream}
+     * @throws NullPointerException if {@code optional} is null
+     */
+    public static DoubleStream stream(OptionalDouble optional) {
+        if (optional.isPresent()) {
+            return DoubleStream.of(optional.getAsDouble());
+        }
+
+        return DoubleStream.empty();
+    }
+
+    /**
+     * @param optionals the optionals to stream
+     * @param <T>       the type of the values
+     * @return a sequential {@code Stream} of the present values, in order
+     * @throws NullPointerException if the array is null, or when the stream reaches a null element
+     * @see OptionalSpliterators#spliterator(Optional[])
+     */
+    public static <T> Stream<T> stream(Optional<? extends T>[] optionals) {
+        return StreamSupport.stream(OptionalSpliterators.<T>spliterator(optionals), false);
+    }
+
+    /**
+     * @param optionals the optionals to stream
+     * @return a sequential {@code IntStream} of the present values, in order
+     * @throws NullPointerException if the array is null, or when the stream reaches a null element
+     * @see OptionalSpliterators#spliterator(OptionalInt[])
+     */
+    public static IntStream stream(OptionalInt[] optionals) {
+        return StreamSupport.intStream(OptionalSpliterators.spliterator(optionals), false);
+    }
+
+    /**
+     * @param optionals the optionals to stream
+     * @return a sequential {@code LongStream} of the present values, in order
+     * @throws NullPointerException if the array is null, or when the stream reaches a null element
+     * @see OptionalSpliterators#spliterator(OptionalLong[])
+     */
+    public static LongStream stream(OptionalLong[] optionals) {
+        return StreamSupport.longStream(OptionalSpliterators.spliterator(optionals), false);
+    }
+
+    /**
+     * @param optionals the optionals to stream
+     * @return a sequential {@code DoubleStream} of the present values, in order
+     * @throws NullPointerException if the array is null, or when the stream reaches a null element
+     * @see OptionalSpliterators#spliterator(OptionalDouble[])
+     */
+    public static DoubleStream stream(OptionalDouble[] optionals) {
+        return StreamSupport.doubleStream(OptionalSpliterators.spliterator(optionals), false);
+    }
+
+    /**
+     * Preallocated {@code java.util} optionals for the values from -128 to 127, since unlike the
+     * backport the {@code java.util} primitive optionals never cache.
+     */
+    private static final class JdkCache {
+
+        private static final int LOW = -128;
+        private static final int HIGH = 127;
+        private static final java.util.OptionalInt[] INTS =
+                new java.util.OptionalInt[HIGH - LOW + 1];
+        private static final java.util.OptionalLong[] LONGS =
+                new java.util.OptionalLong[HIGH - LOW + 1];
+
+        static {
+            for (int i = 0; i < INTS.length; i++) {
+                INTS[i] = java.util.OptionalInt.of(LOW + i);
+                LONGS[i] = java.util.OptionalLong.of(LOW + i);
+            }
+        }
+
+        static java.util.OptionalInt ofInt(int value) {
+            if (value >= LOW && value <= HIGH) {
+                return INTS[value - LOW];
+            }
+
+            return java.util.OptionalInt.of(value);
+        }
+
+        static java.util.OptionalLong ofLong(long value) {
+            if (value >= LOW && value <= HIGH) {
+                return LONGS[(int) value - LOW];
+            }
+
+            return java.util.OptionalLong.of(value);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.github.dmstocking.optional.jdk8;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * {@link Collector}s that reduce a stream to one of the backported optionals. They mirror the
+ * reductions in {@link java.util.stream.Collectors}, but the primitive ones accumulate into a
+ * mutable primitive holder, so no element is boxed on the way, and an empty stream yields an empty
+ * optional rather than a default value.
+ *
+ * <pre>{@code
+ *     OptionalInt longest = names.stream()
+ *             .collect(OptionalCollectors.reducingInt(String::length, Math::max));
+ * }</pre>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class OptionalCollectors {
+
+    private OptionalCollectors() {
+    }
+
+    /**
+     * @param op  an associative function combining two elements
+     * @param <T> the type of the elements
+     * @return a collector reducing the elements with {@code op}, or empty if there are none
+     * @throws NullPointerException if {@code op} is null
+     */
+    public static <T> Collector<T, ?, Optional<T>> reducing(final BinaryOperator<T> op) {
+        Objects.requireNonNull(op);
+        return Collector.of(
+                () -> new Holder<T>(),
+                (holder, element) -> holder.accept(element, op),
+                (left, right) -> {
+                    if (right.present) {
+                        left.accept(right.value, op);
+                    }
+                    return left;
+                },
+                holder -> holder.present ? Optional.of(holder.value) : Optional.<T>empty());
+    }
+
+    /**
+     * @param comparator the comparator of the elements
+     * @param <T>        the type of the elements
+     * @return a collector producing the first smallest element, or empty if there are none
+     * @throws NullPointerException if {@code comparator} is null
+     */
+    public static <T> Collector<T, ?, Optional<T>> minBy(Comparator<? super T> comparator) {
+        return reducing(BinaryOperator.minBy(comparator));
+    }
+
+    /**
+     * @param comparator the comparator of the elements
+     * @param <T>        the type of the elements
+     * @return a collector producing the first largest element, or empty if there are none
+     * @throws NullPointerException if {@code comparator} is null
+     */
+    public static <T> Collector<T, ?, Optional<T>> maxBy(Comparator<? super T> comparator) {
+        return reducing(BinaryOperator.maxBy(comparator));
+    }
+
+    /**
+     * @param mapper a function extracting an {@code int} from each element
+     * @param op     an associative function combining two values
+     * @param <T>    the type of the elements
+     * @return a collector reducing the extracted values with {@code op}, or empty if there are none
+     * @throws NullPointerException if {@code mapper} or {@code op} is null
+     */
+    public static <T> Collector<T, ?, OptionalInt> reducingInt(
+            final ToIntFunction<? super T> mapper,
+            final IntBinaryOperator op) {
+        Objects.requireNonNull(mapper);
+        Objects.requireNonNull(op);
+        return Collector.of(
+                IntHolder::new,
+                (holder, element) -> holder.accept(mapper.applyAsInt(element), op),
+                (left, right) -> {
+                    if (right.present) {
+                        left.accept(right.value, op);
+                    }
+                    return left;
+                },
+                holder -> holder.present ? OptionalInt.of(holder.value) : OptionalInt.empty());
+    }
+
+    /**
+     * @param mapper a function extracting a {@code long} from each element
+     * @param op     an associative function combining two values
+     * @param <T>    the type of the elements
+     * @return a collector reducing the extracted values with {@code op}, or empty if there are none
+     * @throws NullPointerException if {@code mapper} or {@code op} is null
+     */
+    public static <T> Collector<T, ?, OptionalLong> reducingLong(
+            final ToLongFunction<? super T> mapper,
+            final LongBinaryOperator op) {
+        Objects.requireNonNull(mapper);
+        Objects.requireNonNull(op);
+        return Collector.of(
+                LongHolder::new,
+                (holder, element) -> holder.accept(mapper.applyAsLong(element), op),
+                (left, right) -> {
+                    if (right.present) {
+                        left.accept(right.value, op);
+                    }
+                    return left;
+                },
+                holder -> holder.present ? OptionalLong.of(holder.value) : OptionalLong.empty());
+    }
+
+    /**
+     * @param mapper a function extracting a {@code double} from each element
+     * @param op     an associative function combining two values
+     * @param <T>    the type of the elements
+     * @return a collector reducing the extracted values with {@code op}, or empty if there are none
+     * @throws NullPointerException if {@code mapper} or {@code op} is null
+     */
+    public static <T> Collector<T, ?, OptionalDouble> reducingDouble(
+            final ToDoubleFunction<? super T> mapper,
+            final DoubleBinaryOperator op) {
+        Objects.requireNonNull(mapper);
+        Objects.requireNonNull(op);
+        return Collector.of(
+                DoubleHolder::new,
+                (holder, element) -> holder.accept(mapper.applyAsDouble(element), op),
+                (left, right) -> {
+                    if (right.present) {
+                        left.accept(right.value, op);
+                    }
+                    return left;
+                },
+                holder -> holder.present
+                        ? OptionalDouble.of(holder.value)
+                        : OptionalDouble.empty());
+    }
+
+    /**
+     * Unlike {@link java.util.stream.Collectors#averagingInt(ToIntFunction)} the average of no
+     * elements is empty rather than zero.
+     *
+     * @param mapper a function extracting an {@code int} from each element
+     * @param <T>    the type of the elements
+     * @return a collector producing the average of the extracted values, or empty if there are none
+     * @throws NullPointerException if {@code mapper} is null
+     */
+    public static <T> Collector<T, ?, OptionalDouble> averagingInt(
+            final ToIntFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return Collector.of(
+                Average::new,
+                (average, element) -> average.accept(mapper.applyAsInt(element)),
+                Average::combine,
+                Average::finish);
+    }
+
+    /**
+     * Unlike {@link java.util.stream.Collectors#averagingLong(ToLongFunction)} the average of no
+     * elements is empty rather than zero.
+     *
+     * @param mapper a function extracting a {@code long} from each element
+     * @param <T>    the type of the elements
+     * @return a collector producing the average of the extracted values, or empty if there are none
+     * @throws NullPointerException if {@code mapper} is null
+     */
+    public static <T> Collector<T, ?, OptionalDouble> averagingLong(
+            final ToLongFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return Collector.of(
+                Average::new,
+                (average, element) -> average.accept(mapper.applyAsLong(element)),
+                Average::combine,
+                Average::finish);
+    }
+
+    /**
+     * Unlike {@link java.util.stream.Collectors#averagingDouble(ToDoubleFunction)} the average of
+     * no elements is empty rather than zero.
+     *
+     * @param mapper a function extracting a {@code double} from each element
+     * @param <T>    the type of the elements
+     * @return a collector producing the average of the extracted values, or empty if there are none
+     * @throws NullPointerException if {@code mapper} is null
+     */
+    public static <T> Collector<T, ?, OptionalDouble> averagingDouble(
+            final ToDoubleFunction<? super T> mapper) {
+        Objects.requireNonNull(mapper);
+        return Collector.of(
+                Average::new,
+                (average, element) -> average.accept(mapper.applyAsDouble(element)),
+                Average::combine,
+                Average::finish);
+    }
+
+    private static final class Holder<T> {
+
+        boolean present;
+        T value;
+
+        void accept(T element, BinaryOperator<T> op) {
+            if (present) {
+                value = op.apply(value, element);
+            } else {
+                value = element;
+                present = true;
+            }
+        }
+    }
+
+    private static final class IntHolder {
+
+        boolean present;
+        int value;
+
+        void accept(int element, IntBinaryOperator op) {
+            if (present) {
+                value = op.applyAsInt(value, element);
+            } else {
+                value = element;
+                present = true;
+            }
+        }
+    }
+
+    private static final class LongHolder {
+
+        boolean present;
+        long value;
+
+        void accept(long element, LongBinaryOperator op) {
+            if (present) {
+                value = op.applyAsLong(value, element);
+            } else {
+                value = element;
+                present = true;
+            }
+        }
+    }
+
+    private static final class DoubleHolder {
+
+        boolean present;
+        double value;
+
+        void accept(double element, DoubleBinaryOperator op) {
+            if (present) {
+                value = op.applyAsDouble(value, element);
+            } else {
+                value = element;
+                present = true;
+            }
+        }
+    }
+
+    private static final class Average {
+
+        long count;
+        double sum;
+
+        void accept(double element) {
+            count++;
+            sum += element;
+        }
+
+        Average combine(Average other) {
+            count += other.count;
+            sum += other.sum;
+            return this;
+        }
+
+        OptionalDouble finish() {
+            if (count == 0) {
+                return OptionalDouble.empty();
+            }
+
+            return OptionalDouble.of(sum / count);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.github.dmstocking.optional.jdk8;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * {@link Spliterator}s over the present values of an array of optionals, so the values can be
+ * streamed, in parallel if need be, without collecting them into a list first. The primitive
+ * spliterators never box.
+ *
+ * The spliterators split the array in halves and skip empty elements as they go, so they report
+ * the number of remaining elements as an estimate rather than an exact size. Like {@link
+ * java.util.Arrays#spliterator(Object[])} they do not detect changes to the array while it is
+ * traversed.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class OptionalSpliterators {
+
+    private static final int CHARACTERISTICS =
+            Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
+    private OptionalSpliterators() {
+    }
+
+    /**
+     * @param optionals the optionals to traverse
+     * @param <T>       the type of the values
+     * @return a spliterator over the present values, in order
+     * @throws NullPointerException if the array is null
+     */
+    public static <T> Spliterator<T> spliterator(Optional<? extends T>[] optionals) {
+        return new ObjectSpliterator<T>(optionals, 0, optionals.length);
+    }
+
+    /**
+     * @param optionals the optionals to traverse
+     * @return a spliterator over the present values, in order
+     * @throws NullPointerException if the array is null
+     */
+    public static Spliterator.OfInt spliterator(OptionalInt[] optionals) {
+        return new IntSpliterator(optionals, 0, optionals.length);
+    }
+
+    /**
+     * @param optionals the optionals to traverse
+     * @return a spliterator over the present values, in order
+     * @throws NullPointerException if the array is null
+     */
+    public static Spliterator.OfLong spliterator(OptionalLong[] optionals) {
+        return new LongSpliterator(optionals, 0, optionals.length);
+    }
+
+    /**
+     * @param optionals the optionals to traverse
+     * @return a spliterator over the present values, in order
+     * @throws NullPointerException if the array is null
+     */
+    public static Spliterator.OfDouble spliterator(OptionalDouble[] optionals) {
+        return new DoubleSpliterator(optionals, 0, optionals.length);
+    }
+
+    private static final class ObjectSpliterator<T> implements Spliterator<T> {
+
+        private final Optional<? extends T>[] optionals;
+        private final int fence;
+        private int index;
+
+        ObjectSpliterator(Optional<? extends T>[] optionals, int index, int fence) {
+            this.optionals = optionals;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (index < fence) {
+                Optional<? extends T> optional = optionals[index++];
+                if (optional.isPresent()) {
+                    action.accept(optional.get());
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (int i = index; i < fence; i++) {
+                Optional<? extends T> optional = optionals[i];
+                if (optional.isPresent()) {
+                    action.accept(optional.get());
+                }
+            }
+            index = fence;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (index >= mid) {
+                return null;
+            }
+
+            Spliterator<T> prefix = new ObjectSpliterator<T>(optionals, index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    private static final class IntSpliterator implements Spliterator.OfInt {
+
+        private final OptionalInt[] optionals;
+        private final int fence;
+        private int index;
+
+        IntSpliterator(OptionalInt[] optionals, int index, int fence) {
+            this.optionals = optionals;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            while (index < fence) {
+                OptionalInt optional = optionals[index++];
+                if (optional.isPresent()) {
+                    action.accept(optional.getAsInt());
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (int i = index; i < fence; i++) {
+                OptionalInt optional = optionals[i];
+                if (optional.isPresent()) {
+                    action.accept(optional.getAsInt());
+                }
+            }
+            index = fence;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (index >= mid) {
+                return null;
+            }
+
+            Spliterator.OfInt prefix = new IntSpliterator(optionals, index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    private static final class LongSpliterator implements Spliterator.OfLong {
+
+        private final OptionalLong[] optionals;
+        private final int fence;
+        private int index;
+
+        LongSpliterator(OptionalLong[] optionals, int index, int fence) {
+            this.optionals = optionals;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            while (index < fence) {
+                OptionalLong optional = optionals[index++];
+                if (optional.isPresent()) {
+                    action.accept(optional.getAsLong());
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            for (int i = index; i < fence; i++) {
+                OptionalLong optional = optionals[i];
+                if (optional.isPresent()) {
+                    action.accept(optional.getAsLong());
+                }
+            }
+            index = fence;
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (index >= mid) {
+                return null;
+            }
+
+            Spliterator.OfLong prefix = new LongSpliterator(optionals, index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    private static final class DoubleSpliterator implements Spliterator.OfDouble {
+
+        private final OptionalDouble[] optionals;
+        private final int fence;
+        private int index;
+
+        DoubleSpliterator(OptionalDouble[] optionals, int index, int fence) {
+            this.optionals = optionals;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            while (index < fence) {
+                OptionalDouble optional = optionals[index++];
+                if (optional.isPresent()) {
+                    action.accept(optional.getAsDouble());
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            for (int i = index; i < fence; i++) {
+                OptionalDouble optional = optionals[i];
+                if (optional.isPresent()) {
+                    action.accept(optional.getAsDouble());
+                }
+            }
+            index = fence;
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (index >= mid) {
+                return null;
+            }
+
+            Spliterator.OfDouble prefix = new DoubleSpliterator(optionals, index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+}
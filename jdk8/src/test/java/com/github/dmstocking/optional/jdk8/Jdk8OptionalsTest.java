@@ -0,0 +1,104 @@
+package com.github.dmstocking.optional.jdk8;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public class Jdk8OptionalsTest {
+
+    @Test
+    public void optionalRoundTrips() {
+        Assert.assertEquals(java.util.Optional.of("value"),
+                Jdk8Optionals.toJavaUtil(Optional.of("value")));
+        Assert.assertEquals(Optional.of("value"),
+                Jdk8Optionals.fromJavaUtil(java.util.Optional.of("value")));
+        Assert.assertSame(java.util.Optional.empty(),
+                Jdk8Optionals.toJavaUtil(Optional.<String>empty()));
+        Assert.assertSame(Optional.empty(),
+                Jdk8Optionals.fromJavaUtil(java.util.Optional.<String>empty()));
+    }
+
+    @Test
+    public void optionalIntRoundTrips() {
+        Assert.assertEquals(java.util.OptionalInt.of(100000),
+                Jdk8Optionals.toJavaUtil(OptionalInt.of(100000)));
+        Assert.assertEquals(OptionalInt.of(100000),
+                Jdk8Optionals.fromJavaUtil(java.util.OptionalInt.of(100000)));
+        Assert.assertSame(java.util.OptionalInt.empty(),
+                Jdk8Optionals.toJavaUtil(OptionalInt.empty()));
+        Assert.assertSame(OptionalInt.empty(),
+                Jdk8Optionals.fromJavaUtil(java.util.OptionalInt.empty()));
+    }
+
+    @Test
+    public void optionalLongRoundTrips() {
+        Assert.assertEquals(java.util.OptionalLong.of(Long.MIN_VALUE),
+                Jdk8Optionals.toJavaUtil(OptionalLong.of(Long.MIN_VALUE)));
+        Assert.assertEquals(OptionalLong.of(Long.MIN_VALUE),
+                Jdk8Optionals.fromJavaUtil(java.util.OptionalLong.of(Long.MIN_VALUE)));
+        Assert.assertSame(java.util.OptionalLong.empty(),
+                Jdk8Optionals.toJavaUtil(OptionalLong.empty()));
+        Assert.assertSame(OptionalLong.empty(),
+                Jdk8Optionals.fromJavaUtil(java.util.OptionalLong.empty()));
+    }
+
+    @Test
+    public void optionalDoubleRoundTrips() {
+        Assert.assertEquals(java.util.OptionalDouble.of(1.5),
+                Jdk8Optionals.toJavaUtil(OptionalDouble.of(1.5)));
+        Assert.assertEquals(OptionalDouble.of(1.5),
+                Jdk8Optionals.fromJavaUtil(java.util.OptionalDouble.of(1.5)));
+        Assert.assertSame(java.util.OptionalDouble.empty(),
+                Jdk8Optionals.toJavaUtil(OptionalDouble.empty()));
+        Assert.assertSame(OptionalDouble.empty(),
+                Jdk8Optionals.fromJavaUtil(java.util.OptionalDouble.empty()));
+    }
+
+    @Test
+    public void smallValuesConvertToCachedInstances() {
+        Assert.assertSame(Jdk8Optionals.toJavaUtil(OptionalInt.of(-128)),
+                Jdk8Optionals.toJavaUtil(OptionalInt.of(-128)));
+        Assert.assertSame(Jdk8Optionals.toJavaUtil(OptionalLong.of(127)),
+                Jdk8Optionals.toJavaUtil(OptionalLong.of(127)));
+        Assert.assertSame(Jdk8Optionals.fromJavaUtil(java.util.OptionalInt.of(7)),
+                Jdk8Optionals.fromJavaUtil(java.util.OptionalInt.of(7)));
+    }
+
+    @Test
+    public void streamOfSingleOptional() {
+        Assert.assertEquals(Arrays.asList("value"),
+                Jdk8Optionals.stream(Optional.of("value")).collect(Collectors.toList()));
+        Assert.assertEquals(0, Jdk8Optionals.stream(Optional.empty()).count());
+        Assert.assertArrayEquals(new int[]{1}, Jdk8Optionals.stream(OptionalInt.of(1)).toArray());
+        Assert.assertEquals(0, Jdk8Optionals.stream(OptionalInt.empty()).count());
+        Assert.assertArrayEquals(new long[]{1}, Jdk8Optionals.stream(OptionalLong.of(1)).toArray());
+        Assert.assertEquals(0, Jdk8Optionals.stream(OptionalLong.empty()).count());
+        Assert.assertArrayEquals(new double[]{1.5},
+                Jdk8Optionals.stream(OptionalDouble.of(1.5)).toArray(), 0);
+        Assert.assertEquals(0, Jdk8Optionals.stream(OptionalDouble.empty()).count());
+    }
+
+    @Test
+    public void streamOfArraySkipsEmpty() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Optional<String>[] optionals = new Optional[]{
+                Optional.of("a"), Optional.empty(), Optional.of("b")
+        };
+        OptionalInt[] ints = {OptionalInt.empty(), OptionalInt.of(1), OptionalInt.of(2)};
+        OptionalLong[] longs = {OptionalLong.of(1), OptionalLong.empty()};
+        OptionalDouble[] doubles = {OptionalDouble.empty(), OptionalDouble.of(1.5)};
+
+        Assert.assertEquals(Arrays.asList("a", "b"),
+                Jdk8Optionals.stream(optionals).collect(Collectors.toList()));
+        Assert.assertArrayEquals(new int[]{1, 2}, Jdk8Optionals.stream(ints).toArray());
+        Assert.assertArrayEquals(new long[]{1}, Jdk8Optionals.stream(longs).toArray());
+        Assert.assertArrayEquals(new double[]{1.5}, Jdk8Optionals.stream(doubles).toArray(), 0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.dmstocking.optional.jdk8;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+public class OptionalCollectorsTest {
+
+    @Test
+    public void reducing() {
+        Assert.assertEquals(Optional.of("abc"),
+                Stream.of("a", "b", "c").collect(OptionalCollectors.reducing(String::concat)));
+        Assert.assertEquals(Optional.empty(),
+                Stream.<String>empty().collect(OptionalCollectors.reducing(String::concat)));
+    }
+
+    @Test
+    public void minByAndMaxBy() {
+        Comparator<String> byLength = Comparator.comparingInt(String::length);
+
+        Assert.assertEquals(Optional.of("a"),
+                Stream.of("bb", "a", "c").collect(OptionalCollectors.minBy(byLength)));
+        Assert.assertEquals(Optional.of("bb"),
+                Stream.of("bb", "a", "cc").collect(OptionalCollectors.maxBy(byLength)));
+    }
+
+    @Test
+    public void reducingPrimitives() {
+        Assert.assertEquals(OptionalInt.of(3), Stream.of("a", "abc", "ab")
+                .collect(OptionalCollectors.reducingInt(String::length, Math::max)));
+        Assert.assertEquals(OptionalInt.empty(), Stream.<String>empty()
+                .collect(OptionalCollectors.reducingInt(String::length, Math::max)));
+        Assert.assertEquals(OptionalLong.of(6), Stream.of("a", "abc", "ab")
+                .collect(OptionalCollectors.reducingLong(String::length, Long::sum)));
+        Assert.assertEquals(OptionalDouble.of(1), Stream.of("a", "abc", "ab")
+                .collect(OptionalCollectors.reducingDouble(String::length, Math::min)));
+    }
+
+    @Test
+    public void averaging() {
+        Assert.assertEquals(OptionalDouble.of(2), Stream.of("a", "abc", "ab")
+                .collect(OptionalCollectors.averagingInt(String::length)));
+        Assert.assertEquals(OptionalDouble.of(2), Stream.of("a", "abc", "ab")
+                .collect(OptionalCollectors.averagingLong(String::length)));
+        Assert.assertEquals(OptionalDouble.empty(), Stream.<String>empty()
+                .collect(OptionalCollectors.averagingDouble(String::length)));
+    }
+
+    @Test
+    public void parallelMatchesSequential() {
+        Assert.assertEquals(OptionalLong.of(499999500000L), IntStream.range(0, 1000000).boxed()
+                .parallel()
+                .collect(OptionalCollectors.reducingLong(i -> (long) i, Long::sum)));
+        Assert.assertEquals(OptionalInt.of(999999), IntStream.range(0, 1000000).boxed()
+                .parallel()
+                .collect(OptionalCollectors.reducingInt(i -> i, Math::max)));
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.dmstocking.optional.jdk8;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+public class OptionalSpliteratorsTest {
+
+    private static OptionalInt[] ints(int size) {
+        OptionalInt[] optionals = new OptionalInt[size];
+        for (int i = 0; i < size; i++) {
+            optionals[i] = i % 3 == 0 ? OptionalInt.empty() : OptionalInt.of(i);
+        }
+        return optionals;
+    }
+
+    @Test
+    public void tryAdvanceSkipsEmpty() {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Optional<String>[] optionals = new Optional[]{
+                Optional.empty(), Optional.of("a"), Optional.empty(), Optional.of("b")
+        };
+        Spliterator<String> spliterator = OptionalSpliterators.spliterator(optionals);
+        List<String> values = new ArrayList<String>();
+
+        while (spliterator.tryAdvance(values::add)) {
+        }
+
+        Assert.assertEquals("[a, b]", values.toString());
+        Assert.assertEquals(0, spliterator.estimateSize());
+    }
+
+    @Test
+    public void splitCoversEveryValueInOrder() {
+        OptionalInt[] optionals = ints(101);
+        Spliterator.OfInt suffix = OptionalSpliterators.spliterator(optionals);
+        Spliterator.OfInt prefix = suffix.trySplit();
+        List<Integer> values = new ArrayList<Integer>();
+
+        Assert.assertEquals(51, suffix.estimateSize());
+        Assert.assertEquals(50, prefix.estimateSize());
+        prefix.forEachRemaining((int value) -> values.add(value));
+        suffix.forEachRemaining((int value) -> values.add(value));
+
+        int[] expected = IntStream.range(0, 101).filter(i -> i % 3 != 0).toArray();
+        Assert.assertArrayEquals(expected, values.stream().mapToInt(i -> i).toArray());
+    }
+
+    @Test
+    public void singleElementDoesNotSplit() {
+        OptionalLong[] optionals = {OptionalLong.of(1)};
+
+        Assert.assertNull(OptionalSpliterators.spliterator(optionals).trySplit());
+    }
+
+    @Test
+    public void parallelStreamMatchesSequential() {
+        OptionalInt[] optionals = ints(10000);
+        long sequential = StreamSupport.intStream(
+                OptionalSpliterators.spliterator(optionals), false).asLongStream().sum();
+        long parallel = StreamSupport.intStream(
+                OptionalSpliterators.spliterator(optionals), true).asLongStream().sum();
+
+        Assert.assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void reportsCharacteristics() {
+        Spliterator.OfDouble spliterator =
+                OptionalSpliterators.spliterator(new OptionalDouble[]{OptionalDouble.of(1)});
+
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.NONNULL));
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.IMMUTABLE));
+        Assert.assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+    }
+}
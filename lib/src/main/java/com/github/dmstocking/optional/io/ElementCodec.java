@@ -0,0 +1,44 @@
+package com.github.dmstocking.optional.io;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes the value of an {@link com.github.dmstocking.optional.java.util.Optional} for {@link
+ * OptionalCodec}. Both the stream and the buffer methods must produce the same bytes, so a value
+ * written by one can be read by the other.
+ *
+ * @param <T> the type of the values
+ */
+public interface ElementCodec<T> {
+
+    /**
+     * @param out   the output to write to
+     * @param value the non-null value to write
+     * @throws IOException if the output fails
+     */
+    void write(DataOutput out, T value) throws IOException;
+
+    /**
+     * @param in the input to read from
+     * @return the value that was read, which must be non-null
+     * @throws IOException if the input fails or is malformed
+     */
+    T read(DataInput in) throws IOException;
+
+    /**
+     * @param buffer the buffer to write to, at its position
+     * @param value  the non-null value to write
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough room
+     */
+    void put(ByteBuffer buffer, T value);
+
+    /**
+     * @param buffer the buffer to read from, at its position
+     * @return the value that was read, which must be non-null
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the value
+     */
+    T get(ByteBuffer buffer);
+}
@@ -0,0 +1,236 @@
+package com.github.dmstocking.optional.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The file format and memory mapping shared by the mapped optional columns.
+ *
+ * A column file is laid out as
+ * <ul>
+ * <li>a 32 byte header: the magic number {@code 0x4F50434C}, the format version, the element
+ * type, the element width in bytes and the number of elements;</li>
+ * <li>the value region, {@code length * width} bytes, where empty elements hold zero;</li>
+ * <li>the presence bitmap, padded to start on an 8 byte boundary, one bit per element packed into
+ * little-endian longs.</li>
+ * </ul>
+ * Every multi-byte value is little-endian.
+ *
+ * Files larger than 2GB cannot be mapped by a single buffer, so the file is mapped in 1GB
+ * segments. Both regions are aligned to their element width, so no element ever straddles two
+ * segments.
+ */
+abstract class MappedOptionalColumn implements Closeable {
+
+    static final int TYPE_INT = 1;
+    static final int TYPE_LONG = 2;
+    static final int TYPE_DOUBLE = 3;
+
+    private static final int MAGIC = 0x4F50434C;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer[] segments;
+    private final long length;
+    private final int width;
+    private final long bitmapOffset;
+
+    MappedOptionalColumn(File file, boolean writable, int type, int width) throws IOException {
+        this.file = new RandomAccessFile(file, writable ? "rw" : "r");
+        boolean opened = false;
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            FileChannel channel = this.file.getChannel();
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+                throw new IOException("Not an optional column: " + file);
+            }
+
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported column version " + version + ": " + file);
+            }
+
+            int actualType = header.getInt();
+            int actualWidth = header.getInt();
+            if (actualType != type || actualWidth != width) {
+                throw new IOException("Column holds a different element type: " + file);
+            }
+
+            this.length = header.getLong();
+            this.width = width;
+            this.bitmapOffset = bitmapOffset(length, width);
+            long size = bitmapOffset + bitmapSize(length);
+            if (length < 0 || channel.size() < size) {
+                throw new IOException("Column is truncated: " + file);
+            }
+
+            this.segments = map(channel, writable, size);
+            opened = true;
+        } finally {
+            if (!opened) {
+                this.file.close();
+            }
+        }
+    }
+
+    /**
+     * Creates a column file of the given length in which every element is empty, replacing any
+     * existing file.
+     */
+    static void create(File file, long length, int type, int width) throws IOException {
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative length: " + length);
+        }
+
+        RandomAccessFile created = new RandomAccessFile(file, "rw");
+        try {
+            created.setLength(0);
+            created.setLength(bitmapOffset(length, width) + bitmapSize(length));
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(type).putInt(width).putLong(length);
+            header.clear();
+            FileChannel channel = created.getChannel();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } finally {
+            created.close();
+        }
+    }
+
+    private static long bitmapOffset(long length, int width) {
+        return (HEADER_SIZE + length * width + 7) & ~7L;
+    }
+
+    private static long bitmapSize(long length) {
+        return ((length + 63) >>> 6) * 8;
+    }
+
+    private static MappedByteBuffer[] map(FileChannel channel, boolean writable, long size)
+            throws IOException {
+        FileChannel.MapMode mode =
+                writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+        int count = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        MappedByteBuffer[] segments = new MappedByteBuffer[count];
+        for (int i = 0; i < segments.length; i++) {
+            long position = (long) i << SEGMENT_SHIFT;
+            long segmentSize = Math.min(SEGMENT_SIZE, size - position);
+            segments[i] = channel.map(mode, position, segmentSize);
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return segments;
+    }
+
+    /**
+     * @return the number of elements, present or not
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * @param index the index of the element
+     * @return {@code true} if the element has a value present, otherwise {@code false}
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public boolean isPresent(long index) {
+        checkIndex(index);
+        return (readBitmapWord(index) & (1L << index)) != 0;
+    }
+
+    /**
+     * Makes the element empty.
+     *
+     * @param index the index of the element
+     * @throws IndexOutOfBoundsException         if {@code index} is out of range
+     * @throws java.nio.ReadOnlyBufferException if the column was opened read-only
+     */
+    public void clear(long index) {
+        checkIndex(index);
+        long position = bitmapWordPosition(index);
+        segment(position).putLong(offset(position), readBitmapWord(index) & ~(1L << index));
+        long valuePosition = valuePosition(index);
+        ByteBuffer segment = segment(valuePosition);
+        int offset = offset(valuePosition);
+        for (int i = 0; i < width; i++) {
+            segment.put(offset + i, (byte) 0);
+        }
+    }
+
+    /**
+     * @return the number of elements that have a value present
+     */
+    public long presentCount() {
+        long count = 0;
+        for (long position = bitmapOffset, end = bitmapOffset + bitmapSize(length);
+             position < end; position += 8) {
+            count += Long.bitCount(segment(position).getLong(offset(position)));
+        }
+        return count;
+    }
+
+    /**
+     * Writes any changes made to the column to the storage device.
+     */
+    public void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Closes the underlying file. The mapping itself is released once the column is garbage
+     * collected, so the column must not be used after it has been closed.
+     */
+    public void close() throws IOException {
+        file.close();
+    }
+
+    void markPresent(long index) {
+        long position = bitmapWordPosition(index);
+        segment(position).putLong(offset(position), readBitmapWord(index) | (1L << index));
+    }
+
+    void checkIndex(long index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+        }
+    }
+
+    long valuePosition(long index) {
+        return HEADER_SIZE + index * width;
+    }
+
+    ByteBuffer segment(long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)];
+    }
+
+    static int offset(long position) {
+        return (int) (position & SEGMENT_MASK);
+    }
+
+    private long bitmapWordPosition(long index) {
+        return bitmapOffset + (index >>> 6) * 8;
+    }
+
+    private long readBitmapWord(long index) {
+        long position = bitmapWordPosition(index);
+        return segment(position).getLong(offset(position));
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.dmstocking.optional.io;
+
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A column of optional {@code double} values stored in a memory-mapped file. Opening a column only
+ * maps the file, so it is immediately usable regardless of its size, and reads and writes go
+ * straight to the mapped pages.
+ *
+ * <pre>{@code
+ *     MappedOptionalDoubleColumn column = MappedOptionalDoubleColumn.create(file, rows);
+ *     column.set(42, 0.25);
+ *     column.force();
+ *     column.close();
+ *
+ *     MappedOptionalDoubleColumn reopened = MappedOptionalDoubleColumn.openReadOnly(file);
+ *     OptionalDouble value = reopened.get(42);
+ * }</pre>
+ *
+ * Concurrent reads are safe. Writes are not atomic with respect to reads or to other writes of
+ * elements in the same 64 element block, so writers must be externally synchronized.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class MappedOptionalDoubleColumn extends MappedOptionalColumn {
+
+    private MappedOptionalDoubleColumn(File file, boolean writable) throws IOException {
+        super(file, writable, TYPE_DOUBLE, 8);
+    }
+
+    /**
+     * Creates a column file in which every element is empty, replacing any existing file, and
+     * opens it for reading and writing.
+     *
+     * @param file   the file to create
+     * @param length the number of elements
+     * @return the opened column
+     * @throws IOException if the file could not be created or mapped
+     */
+    public static MappedOptionalDoubleColumn create(File file, long length) throws IOException {
+        create(file, length, TYPE_DOUBLE, 8);
+        return open(file);
+    }
+
+    /**
+     * Opens an existing column file for reading and writing.
+     *
+     * @param file the file to open
+     * @return the opened column
+     * @throws IOException if the file is not a column of {@code double} values or could not be
+     *                     mapped
+     */
+    public static MappedOptionalDoubleColumn open(File file) throws IOException {
+        return new MappedOptionalDoubleColumn(file, true);
+    }
+
+    /**
+     * Opens an existing column file for reading only.
+     *
+     * @param file the file to open
+     * @return the opened column
+     * @throws IOException if the file is not a column of {@code double} values or could not be
+     *                     mapped
+     */
+    public static MappedOptionalDoubleColumn openReadOnly(File file) throws IOException {
+        return new MappedOptionalDoubleColumn(file, false);
+    }
+
+    /**
+     * @param index the index of the element
+     * @return an {@code OptionalDouble} describing the element
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public OptionalDouble get(long index) {
+        if (isPresent(index)) {
+            return OptionalDouble.of(read(index));
+        }
+
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * Returns the element if present, otherwise {@code other}. Unlike {@link #get(long)} this
+     * never allocates.
+     *
+     * @param index the index of the element
+     * @param other the value to be returned if the element is empty
+     * @return the element, if present, otherwise {@code other}
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public double getOrElse(long index, double other) {
+        if (isPresent(index)) {
+            return read(index);
+        }
+
+        return other;
+    }
+
+    /**
+     * Makes the element present with the given value.
+     *
+     * @param index the index of the element
+     * @param value the value to store
+     * @throws IndexOutOfBoundsException         if {@code index} is out of range
+     * @throws java.nio.ReadOnlyBufferException if the column was opened read-only
+     */
+    public void set(long index, double value) {
+        checkIndex(index);
+        long position = valuePosition(index);
+        segment(position).putDouble(offset(position), value);
+        markPresent(index);
+    }
+
+    private double read(long index) {
+        long position = valuePosition(index);
+        return segment(position).getDouble(offset(position));
+    }
+}
@@ -0,0 +1,919 @@
+package com.github.dmstocking.optional.io;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Array;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+
+/**
+ * A compact binary encoding for the optional classes, with identical output whether it is written
+ * to a {@link DataOutput} or to a heap or direct {@link ByteBuffer}.
+ *
+ * A single optional is encoded as a presence tag byte, {@code 0} for empty and {@code 1} for
+ * present, followed by the value if it is present:
+ * <ul>
+ * <li>{@code int} and {@code long} values are zigzag encoded and written as a varint, so values
+ * close to zero take a single byte;</li>
+ * <li>{@code double} values are written as their raw 8 bits, big-endian regardless of the byte
+ * order of the buffer;</li>
+ * <li>the value of an {@code Optional} is written by an {@link ElementCodec}.</li>
+ * </ul>
+ *
+ * An array of optionals is encoded as its length as an unsigned varint, a presence bitmap of one
+ * bit per element, least significant bit first, and then only the present values in order. Null
+ * arrays and null elements are not supported.
+ *
+ * <pre>{@code
+ *     OptionalCodec.writeOptionalLong(out, lastSeen);
+ *     OptionalCodec.writeOptional(out, nickname, OptionalCodec.UTF8);
+ *
+ *     OptionalLong lastSeen = OptionalCodec.readOptionalLong(in);
+ *     Optional<String> nickname = OptionalCodec.readOptional(in, OptionalCodec.UTF8);
+ * }</pre>
+ *
+ * Malformed input is reported as a {@link StreamCorruptedException} by the stream methods and as an
+ * {@link IllegalArgumentException} by the buffer methods.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class OptionalCodec {
+
+    private static final int EMPTY = 0;
+    private static final int PRESENT = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /*
+     * The most bytes or elements allocated for a length read from a stream before any of them have
+     * arrived. Longer arrays double as they are read, so a corrupt length ends the read with an
+     * EOFException instead of allocating an array the stream never fills.
+     */
+    private static final int CHUNK = 8192;
+
+    /**
+     * Encodes strings as their length in UTF-8 bytes as an unsigned varint followed by the bytes.
+     */
+    public static final ElementCodec<String> UTF8 = new ElementCodec<String>() {
+        public void write(DataOutput out, String value) throws IOException {
+            byte[] bytes = value.getBytes(UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+
+        public String read(DataInput in) throws IOException {
+            return new String(readBytes(in, readLength(in)), UTF_8);
+        }
+
+        public void put(ByteBuffer buffer, String value) {
+            byte[] bytes = value.getBytes(UTF_8);
+            putVarInt(buffer, bytes.length);
+            buffer.put(bytes);
+        }
+
+        public String get(ByteBuffer buffer) {
+            int length = getLength(buffer);
+            if (length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+
+            if (buffer.hasArray()) {
+                int offset = buffer.arrayOffset() + buffer.position();
+                String value = new String(buffer.array(), offset, length, UTF_8);
+                buffer.position(buffer.position() + length);
+                return value;
+            }
+
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, UTF_8);
+        }
+    };
+
+    private OptionalCodec() {
+    }
+
+    /**
+     * @param out   the output to write to
+     * @param value the optional to write
+     * @throws IOException          if the output fails
+     * @throws NullPointerException if {@code value} is null
+     */
+    public static void writeOptionalInt(DataOutput out, OptionalInt value) throws IOException {
+        if (value.isPresent()) {
+            out.writeByte(PRESENT);
+            writeVarInt(out, zigZag(value.getAsInt()));
+        } else {
+            out.writeByte(EMPTY);
+        }
+    }
+
+    /**
+     * @param in the input to read from
+     * @return the optional that was read
+     * @throws IOException if the input fails or is malformed
+     */
+    public static OptionalInt readOptionalInt(DataInput in) throws IOException {
+        if (readTag(in)) {
+            return OptionalInt.of(unZigZag(readVarInt(in)));
+        }
+
+        return OptionalInt.empty();
+    }
+
+    /**
+     * @param out   the output to write to
+     * @param value the optional to write
+     * @throws IOException          if the output fails
+     * @throws NullPointerException if {@code value} is null
+     */
+    public static void writeOptionalLong(DataOutput out, OptionalLong value) throws IOException {
+        if (value.isPresent()) {
+            out.writeByte(PRESENT);
+            writeVarLong(out, zigZag(value.getAsLong()));
+        } else {
+            out.writeByte(EMPTY);
+        }
+    }
+
+    /**
+     * @param in the input to read from
+     * @return the optional that was read
+     * @throws IOException if the input fails or is malformed
+     */
+    public static OptionalLong readOptionalLong(DataInput in) throws IOException {
+        if (readTag(in)) {
+            return OptionalLong.of(unZigZag(readVarLong(in)));
+        }
+
+        return OptionalLong.empty();
+    }
+
+    /**
+     * @param out   the output to write to
+     * @param value the optional to write
+     * @throws IOException          if the output fails
+     * @throws NullPointerException if {@code value} is null
+     */
+    public static void writeOptionalDouble(DataOutput out, OptionalDouble value)
+            throws IOException {
+        if (value.isPresent()) {
+            out.writeByte(PRESENT);
+            out.writeLong(Double.doubleToRawLongBits(value.getAsDouble()));
+        } else {
+            out.writeByte(EMPTY);
+        }
+    }
+
+    /**
+     * @param in the input to read from
+     * @return the optional that was read
+     * @throws IOException if the input fails or is malformed
+     */
+    public static OptionalDouble readOptionalDouble(DataInput in) throws IOException {
+        if (readTag(in)) {
+            return OptionalDouble.of(Double.longBitsToDouble(in.readLong()));
+        }
+
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * @param out   the output to write to
+     * @param value the optional to write
+     * @param codec the codec that writes the value, if present
+     * @param <T>   the type of the value
+     * @throws IOException          if the output fails
+     * @throws NullPointerException if {@code value} is null, or a value is present and {@code
+     *                              codec} is null
+     */
+    public static <T> void writeOptional(DataOutput out, Optional<? extends T> value,
+                                         ElementCodec<? super T> codec) throws IOException {
+        if (value.isPresent()) {
+            out.writeByte(PRESENT);
+            codec.write(out, value.get());
+        } else {
+            out.writeByte(EMPTY);
+        }
+    }
+
+    /**
+     * @param in    the input to read from
+     * @param codec the codec that reads the value, if present
+     * @param <T>   the type of the value
+     * @return the optional that was read
+     * @throws IOException          if the input fails or is malformed
+     * @throws NullPointerException if a value is present and {@code codec} is null or reads null
+     */
+    public static <T> Optional<T> readOptional(DataInput in, ElementCodec<? extends T> codec)
+            throws IOException {
+        if (readTag(in)) {
+            return Optional.<T>of(codec.read(in));
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * @param buffer the buffer to write to, at its position
+     * @param value  the optional to write
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough room
+     * @throws NullPointerException             if {@code value} is null
+     */
+    public static void putOptionalInt(ByteBuffer buffer, OptionalInt value) {
+        if (value.isPresent()) {
+            buffer.put((byte) PRESENT);
+            putVarInt(buffer, zigZag(value.getAsInt()));
+        } else {
+            buffer.put((byte) EMPTY);
+        }
+    }
+
+    /**
+     * @param buffer the buffer to read from, at its position
+     * @return the optional that was read
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the optional
+     * @throws IllegalArgumentException          if the buffer is malformed
+     */
+    public static OptionalInt getOptionalInt(ByteBuffer buffer) {
+        if (getTag(buffer)) {
+            return OptionalInt.of(unZigZag(getVarInt(buffer)));
+        }
+
+        return OptionalInt.empty();
+    }
+
+    /**
+     * @param buffer the buffer to write to, at its position
+     * @param value  the optional to write
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough room
+     * @throws NullPointerException             if {@code value} is null
+     */
+    public static void putOptionalLong(ByteBuffer buffer, OptionalLong value) {
+        if (value.isPresent()) {
+            buffer.put((byte) PRESENT);
+            putVarLong(buffer, zigZag(value.getAsLong()));
+        } else {
+            buffer.put((byte) EMPTY);
+        }
+    }
+
+    /**
+     * @param buffer the buffer to read from, at its position
+     * @return the optional that was read
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the optional
+     * @throws IllegalArgumentException          if the buffer is malformed
+     */
+    public static OptionalLong getOptionalLong(ByteBuffer buffer) {
+        if (getTag(buffer)) {
+            return OptionalLong.of(unZigZag(getVarLong(buffer)));
+        }
+
+        return OptionalLong.empty();
+    }
+
+    /**
+     * @param buffer the buffer to write to, at its position
+     * @param value  the optional to write
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough room
+     * @throws NullPointerException             if {@code value} is null
+     */
+    public static void putOptionalDouble(ByteBuffer buffer, OptionalDouble value) {
+        if (value.isPresent()) {
+            buffer.put((byte) PRESENT);
+            putBigEndianLong(buffer, Double.doubleToRawLongBits(value.getAsDouble()));
+        } else {
+            buffer.put((byte) EMPTY);
+        }
+    }
+
+    /**
+     * @param buffer the buffer to read from, at its position
+     * @return the optional that was read
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the optional
+     * @throws IllegalArgumentException          if the buffer is malformed
+     */
+    public static OptionalDouble getOptionalDouble(ByteBuffer buffer) {
+        if (getTag(buffer)) {
+            return OptionalDouble.of(Double.longBitsToDouble(getBigEndianLong(buffer)));
+        }
+
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * @param buffer the buffer to write to, at its position
+     * @param value  the optional to write
+     * @param codec  the codec that writes the value, if present
+     * @param <T>    the type of the value
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough room
+     * @throws NullPointerException             if {@code value} is null, or a value is present
+     *                                          and {@code codec} is null
+     */
+    public static <T> void putOptional(ByteBuffer buffer, Optional<? extends T> value,
+                                       ElementCodec<? super T> codec) {
+        if (value.isPresent()) {
+            buffer.put((byte) PRESENT);
+            codec.put(buffer, value.get());
+        } else {
+            buffer.put((byte) EMPTY);
+        }
+    }
+
+    /**
+     * @param buffer the buffer to read from, at its position
+     * @param codec  the codec that reads the value, if present
+     * @param <T>    the type of the value
+     * @return the optional that was read
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the optional
+     * @throws IllegalArgumentException          if the buffer is malformed
+     * @throws NullPointerException              if a value is present and {@code codec} is null
+     *                                           or reads null
+     */
+    public static <T> Optional<T> getOptional(ByteBuffer buffer, ElementCodec<? extends T> codec) {
+        if (getTag(buffer)) {
+            return Optional.<T>of(codec.get(buffer));
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * @param out       the output to write to
+     * @param optionals the optionals to write
+     * @throws IOException          if the output fails
+     * @throws NullPointerException if the array or any element is null
+     */
+    public static void writeOptionalIntArray(DataOutput out, OptionalInt[] optionals)
+            throws IOException {
+        byte[] bitmap = new byte[bitmapSize(optionals.length)];
+        for (int i = 0; i < optionals.length; i++) {
+            if (optionals[i].isPresent()) {
+                bitmap[i >>> 3] |= 1 << (i & 7);
+            }
+        }
+        writeVarInt(out, optionals.length);
+        out.write(bitmap);
+        for (OptionalInt optional : optionals) {
+            if (optional.isPresent()) {
+                writeVarInt(out, zigZag(optional.getAsInt()));
+            }
+        }
+    }
+
+    /**
+     * @param in the input to read from
+     * @return the optionals that were read
+     * @throws IOException if the input fails or is malformed
+     */
+    public static OptionalInt[] readOptionalIntArray(DataInput in) throws IOException {
+        int length = readLength(in);
+        byte[] bitmap = readBytes(in, bitmapSize(length));
+        OptionalInt[] optionals = new OptionalInt[capacity(length)];
+        for (int i = 0; i < length; i++) {
+            if (i == optionals.length) {
+                optionals = grow(optionals, length);
+            }
+            if (isSet(bitmap, i)) {
+                optionals[i] = OptionalInt.of(unZigZag(readVarInt(in)));
+            } else {
+                optionals[i] = OptionalInt.empty();
+            }
+        }
+        return optionals;
+    }
+
+    /**
+     * @param out       the output to write to
+     * @param optionals the optionals to write
+     * @throws IOException          if the output fails
+     * @throws NullPointerException if the array or any element is null
+     */
+    public static void writeOptionalLongArray(DataOutput out, OptionalLong[] optionals)
+            throws IOException {
+        byte[] bitmap = new byte[bitmapSize(optionals.length)];
+        for (int i = 0; i < optionals.length; i++) {
+            if (optionals[i].isPresent()) {
+                bitmap[i >>> 3] |= 1 << (i & 7);
+            }
+        }
+        writeVarInt(out, optionals.length);
+        out.write(bitmap);
+        for (OptionalLong optional : optionals) {
+            if (optional.isPresent()) {
+                writeVarLong(out, zigZag(optional.getAsLong()));
+            }
+        }
+    }
+
+    /**
+     * @param in the input to read from
+     * @return the optionals that were read
+     * @throws IOException if the input fails or is malformed
+     */
+    public static OptionalLong[] readOptionalLongArray(DataInput in) throws IOException {
+        int length = readLength(in);
+        byte[] bitmap = readBytes(in, bitmapSize(length));
+        OptionalLong[] optionals = new OptionalLong[capacity(length)];
+        for (int i = 0; i < length; i++) {
+            if (i == optionals.length) {
+                optionals = grow(optionals, length);
+            }
+            if (isSet(bitmap, i)) {
+                optionals[i] = OptionalLong.of(unZigZag(readVarLong(in)));
+            } else {
+                optionals[i] = OptionalLong.empty();
+            }
+        }
+        return optionals;
+    }
+
+    /**
+     * @param out       the output to write to
+     * @param optionals the optionals to write
+     * @throws IOException          if the output fails
+     * @throws NullPointerException if the array or any element is null
+     */
+    public static void writeOptionalDoubleArray(DataOutput out, OptionalDouble[] optionals)
+            throws IOException {
+        byte[] bitmap = new byte[bitmapSize(optionals.length)];
+        for (int i = 0; i < optionals.length; i++) {
+            if (optionals[i].isPresent()) {
+                bitmap[i >>> 3] |= 1 << (i & 7);
+            }
+        }
+        writeVarInt(out, optionals.length);
+        out.write(bitmap);
+        for (OptionalDouble optional : optionals) {
+            if (optional.isPresent()) {
+                out.writeLong(Double.doubleToRawLongBits(optional.getAsDouble()));
+            }
+        }
+    }
+
+    /**
+     * @param in the input to read from
+     * @return the optionals that were read
+     * @throws IOException if the input fails or is malformed
+     */
+    public static OptionalDouble[] readOptionalDoubleArray(DataInput in) throws IOException {
+        int length = readLength(in);
+        byte[] bitmap = readBytes(in, bitmapSize(length));
+        OptionalDouble[] optionals = new OptionalDouble[capacity(length)];
+        for (int i = 0; i < length; i++) {
+            if (i == optionals.length) {
+                optionals = grow(optionals, length);
+            }
+            if (isSet(bitmap, i)) {
+                optionals[i] = OptionalDouble.of(Double.longBitsToDouble(in.readLong()));
+            } else {
+                optionals[i] = OptionalDouble.empty();
+            }
+        }
+        return optionals;
+    }
+
+    /**
+     * @param out       the output to write to
+     * @param optionals the optionals to write
+     * @param codec     the codec that writes the present values
+     * @param <T>       the type of the values
+     * @throws IOException          if the output fails
+     * @throws NullPointerException if the array or any element is null, or a value is present and
+     *                              {@code codec} is null
+     */
+    public static <T> void writeOptionalArray(DataOutput out, Optional<? extends T>[] optionals,
+                                              ElementCodec<? super T> codec) throws IOException {
+        byte[] bitmap = new byte[bitmapSize(optionals.length)];
+        for (int i = 0; i < optionals.length; i++) {
+            if (optionals[i].isPresent()) {
+                bitmap[i >>> 3] |= 1 << (i & 7);
+            }
+        }
+        writeVarInt(out, optionals.length);
+        out.write(bitmap);
+        for (Optional<? extends T> optional : optionals) {
+            if (optional.isPresent()) {
+                codec.write(out, optional.get());
+            }
+        }
+    }
+
+    /**
+     * @param in    the input to read from
+     * @param codec the codec that reads the present values
+     * @param <T>   the type of the values
+     * @return the optionals that were read
+     * @throws IOException          if the input fails or is malformed
+     * @throws NullPointerException if a value is present and {@code codec} is null or reads null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> Optional<T>[] readOptionalArray(DataInput in, ElementCodec<? extends T> codec)
+            throws IOException {
+        int length = readLength(in);
+        byte[] bitmap = readBytes(in, bitmapSize(length));
+        Optional<T>[] optionals = new Optional[capacity(length)];
+        for (int i = 0; i < length; i++) {
+            if (i == optionals.length) {
+                optionals = grow(optionals, length);
+            }
+            if (isSet(bitmap, i)) {
+                optionals[i] = Optional.<T>of(codec.read(in));
+            } else {
+                optionals[i] = Optional.<T>empty();
+            }
+        }
+        return optionals;
+    }
+
+    /**
+     * @param buffer    the buffer to write to, at its position
+     * @param optionals the optionals to write
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough room
+     * @throws NullPointerException             if the array or any element is null
+     */
+    public static void putOptionalIntArray(ByteBuffer buffer, OptionalInt[] optionals) {
+        putVarInt(buffer, optionals.length);
+        int bitmap = reserveBitmap(buffer, optionals.length);
+        for (int i = 0; i < optionals.length; i++) {
+            OptionalInt optional = optionals[i];
+            if (optional.isPresent()) {
+                set(buffer, bitmap, i);
+                putVarInt(buffer, zigZag(optional.getAsInt()));
+            }
+        }
+    }
+
+    /**
+     * @param buffer the buffer to read from, at its position
+     * @return the optionals that were read
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the optionals
+     * @throws IllegalArgumentException          if the buffer is malformed
+     */
+    public static OptionalInt[] getOptionalIntArray(ByteBuffer buffer) {
+        int length = getLength(buffer);
+        int bitmap = skipBitmap(buffer, length);
+        OptionalInt[] optionals = new OptionalInt[length];
+        for (int i = 0; i < length; i++) {
+            if (isSet(buffer, bitmap, i)) {
+                optionals[i] = OptionalInt.of(unZigZag(getVarInt(buffer)));
+            } else {
+                optionals[i] = OptionalInt.empty();
+            }
+        }
+        return optionals;
+    }
+
+    /**
+     * @param buffer    the buffer to write to, at its position
+     * @param optionals the optionals to write
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough room
+     * @throws NullPointerException             if the array or any element is null
+     */
+    public static void putOptionalLongArray(ByteBuffer buffer, OptionalLong[] optionals) {
+        putVarInt(buffer, optionals.length);
+        int bitmap = reserveBitmap(buffer, optionals.length);
+        for (int i = 0; i < optionals.length; i++) {
+            OptionalLong optional = optionals[i];
+            if (optional.isPresent()) {
+                set(buffer, bitmap, i);
+                putVarLong(buffer, zigZag(optional.getAsLong()));
+            }
+        }
+    }
+
+    /**
+     * @param buffer the buffer to read from, at its position
+     * @return the optionals that were read
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the optionals
+     * @throws IllegalArgumentException          if the buffer is malformed
+     */
+    public static OptionalLong[] getOptionalLongArray(ByteBuffer buffer) {
+        int length = getLength(buffer);
+        int bitmap = skipBitmap(buffer, length);
+        OptionalLong[] optionals = new OptionalLong[length];
+        for (int i = 0; i < length; i++) {
+            if (isSet(buffer, bitmap, i)) {
+                optionals[i] = OptionalLong.of(unZigZag(getVarLong(buffer)));
+            } else {
+                optionals[i] = OptionalLong.empty();
+            }
+        }
+        return optionals;
+    }
+
+    /**
+     * @param buffer    the buffer to write to, at its position
+     * @param optionals the optionals to write
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough room
+     * @throws NullPointerException             if the array or any element is null
+     */
+    public static void putOptionalDoubleArray(ByteBuffer buffer, OptionalDouble[] optionals) {
+        putVarInt(buffer, optionals.length);
+        int bitmap = reserveBitmap(buffer, optionals.length);
+        for (int i = 0; i < optionals.length; i++) {
+            OptionalDouble optional = optionals[i];
+            if (optional.isPresent()) {
+                set(buffer, bitmap, i);
+                putBigEndianLong(buffer, Double.doubleToRawLongBits(optional.getAsDouble()));
+            }
+        }
+    }
+
+    /**
+     * @param buffer the buffer to read from, at its position
+     * @return the optionals that were read
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the optionals
+     * @throws IllegalArgumentException          if the buffer is malformed
+     */
+    public static OptionalDouble[] getOptionalDoubleArray(ByteBuffer buffer) {
+        int length = getLength(buffer);
+        int bitmap = skipBitmap(buffer, length);
+        OptionalDouble[] optionals = new OptionalDouble[length];
+        for (int i = 0; i < length; i++) {
+            if (isSet(buffer, bitmap, i)) {
+                optionals[i] = OptionalDouble.of(Double.longBitsToDouble(getBigEndianLong(buffer)));
+            } else {
+                optionals[i] = OptionalDouble.empty();
+            }
+        }
+        return optionals;
+    }
+
+    /**
+     * @param buffer    the buffer to write to, at its position
+     * @param optionals the optionals to write
+     * @param codec     the codec that writes the present values
+     * @param <T>       the type of the values
+     * @throws java.nio.BufferOverflowException if the buffer does not have enough room
+     * @throws NullPointerException             if the array or any element is null, or a value
+     *                                          is present and {@code codec} is null
+     */
+    public static <T> void putOptionalArray(ByteBuffer buffer, Optional<? extends T>[] optionals,
+                                            ElementCodec<? super T> codec) {
+        putVarInt(buffer, optionals.length);
+        int bitmap = reserveBitmap(buffer, optionals.length);
+        for (int i = 0; i < optionals.length; i++) {
+            Optional<? extends T> optional = optionals[i];
+            if (optional.isPresent()) {
+                set(buffer, bitmap, i);
+                codec.put(buffer, optional.get());
+            }
+        }
+    }
+
+    /**
+     * @param buffer the buffer to read from, at its position
+     * @param codec  the codec that reads the present values
+     * @param <T>    the type of the values
+     * @return the optionals that were read
+     * @throws java.nio.BufferUnderflowException if the buffer ends before the optionals
+     * @throws IllegalArgumentException          if the buffer is malformed
+     * @throws NullPointerException              if a value is present and {@code codec} is null
+     *                                           or reads null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> Optional<T>[] getOptionalArray(ByteBuffer buffer,
+                                                     ElementCodec<? extends T> codec) {
+        int length = getLength(buffer);
+        int bitmap = skipBitmap(buffer, length);
+        Optional<T>[] optionals = new Optional[length];
+        for (int i = 0; i < length; i++) {
+            if (isSet(buffer, bitmap, i)) {
+                optionals[i] = Optional.<T>of(codec.get(buffer));
+            } else {
+                optionals[i] = Optional.<T>empty();
+            }
+        }
+        return optionals;
+    }
+
+    private static boolean readTag(DataInput in) throws IOException {
+        int tag = in.readUnsignedByte();
+        if (tag == PRESENT) {
+            return true;
+        }
+
+        if (tag != EMPTY) {
+            throw new StreamCorruptedException("Invalid presence tag: " + tag);
+        }
+
+        return false;
+    }
+
+    private static boolean getTag(ByteBuffer buffer) {
+        int tag = buffer.get() & 0xFF;
+        if (tag == PRESENT) {
+            return true;
+        }
+
+        if (tag != EMPTY) {
+            throw new IllegalArgumentException("Invalid presence tag: " + tag);
+        }
+
+        return false;
+    }
+
+    private static int bitmapSize(int length) {
+        return (length + 7) >>> 3;
+    }
+
+    private static boolean isSet(byte[] bitmap, int index) {
+        return (bitmap[index >>> 3] & (1 << (index & 7))) != 0;
+    }
+
+    private static boolean isSet(ByteBuffer buffer, int bitmap, int index) {
+        return (buffer.get(bitmap + (index >>> 3)) & (1 << (index & 7))) != 0;
+    }
+
+    private static void set(ByteBuffer buffer, int bitmap, int index) {
+        int position = bitmap + (index >>> 3);
+        buffer.put(position, (byte) (buffer.get(position) | (1 << (index & 7))));
+    }
+
+    /**
+     * Writes an all empty bitmap for {@code length} elements, to be filled in by {@link
+     * #set(ByteBuffer, int, int)} as the values are written after it.
+     */
+    private static int reserveBitmap(ByteBuffer buffer, int length) {
+        int bitmap = buffer.position();
+        for (int i = bitmapSize(length); i > 0; i--) {
+            buffer.put((byte) 0);
+        }
+        return bitmap;
+    }
+
+    private static int skipBitmap(ByteBuffer buffer, int length) {
+        int bitmap = buffer.position();
+        int size = bitmapSize(length);
+        if (size > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+
+        buffer.position(bitmap + size);
+        return bitmap;
+    }
+
+    /**
+     * Reads {@code length} bytes, allocating at most {@link #CHUNK} of them before they arrive.
+     */
+    private static byte[] readBytes(DataInput in, int length) throws IOException {
+        byte[] bytes = new byte[capacity(length)];
+        in.readFully(bytes);
+        while (bytes.length < length) {
+            int read = bytes.length;
+            byte[] grown = new byte[grownLength(read, length)];
+            System.arraycopy(bytes, 0, grown, 0, read);
+            bytes = grown;
+            in.readFully(bytes, read, bytes.length - read);
+        }
+        return bytes;
+    }
+
+    private static int capacity(int length) {
+        return Math.min(length, CHUNK);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> E[] grow(E[] array, int length) {
+        Class<?> type = array.getClass().getComponentType();
+        E[] grown = (E[]) Array.newInstance(type, grownLength(array.length, length));
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static int grownLength(int current, int length) {
+        return (int) Math.min(length, 2L * current);
+    }
+
+    private static int readLength(DataInput in) throws IOException {
+        int length = readVarInt(in);
+        if (length < 0) {
+            throw new StreamCorruptedException("Invalid length: " + (length & 0xFFFFFFFFL));
+        }
+
+        return length;
+    }
+
+    private static int getLength(ByteBuffer buffer) {
+        int length = getVarInt(buffer);
+        if (length < 0) {
+            throw new IllegalArgumentException("Invalid length: " + (length & 0xFFFFFFFFL));
+        }
+
+        return length;
+    }
+
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+
+    private static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static void putBigEndianLong(ByteBuffer buffer, long value) {
+        buffer.putLong(buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value));
+    }
+
+    private static long getBigEndianLong(ByteBuffer buffer) {
+        long value = buffer.getLong();
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+    }
+}
@@ -4,7 +4,15 @@ import com.github.dmstocking.optional.java.util.function.Consumer;
 import com.github.dmstocking.optional.java.util.function.Function;
 import com.github.dmstocking.optional.java.util.function.Predicate;
 import com.github.dmstocking.optional.java.util.function.Supplier;
-
+import com.github.dmstocking.optional.java.util.function.ToDoubleFunction;
+import com.github.dmstocking.optional.java.util.function.ToIntFunction;
+import com.github.dmstocking.optional.java.util.function.ToLongFunction;
+import com.github.dmstocking.optional.util.OptionalMetrics;
+import com.github.dmstocking.optional.util.OptionalMetrics.Event;
+import com.github.dmstocking.optional.util.OptionalMetrics.Type;
+
+import java.io.Serializable;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 /**
@@ -14,13 +22,27 @@ import java.util.NoSuchElementException;
  * Additional methods that depend on the presence or absence of a contained value are provided, such
  * as {@code orElse()} (return a default value if value not present) and {@code ifPresent()}
  * (execute a block of code if the value is present).
+ *
+ * Instances are {@link Serializable} when their value is. Deserializing an empty {@code Optional}
+ * resolves back to the shared empty instance.
  */
 @SuppressWarnings("WeakerAccess")
-public final class Optional<T> {
+public final class Optional<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     @SuppressWarnings("unchecked")
     private static final Optional<?> EMPTY = new Optional(null);
 
+    private static final Iterator<?> EMPTY_ITERATOR = new EmptyIterator();
+
+    private static final Iterable<?> EMPTY_ITERABLE = new Iterable<Object>() {
+        @SuppressWarnings("unchecked")
+        public Iterator<Object> iterator() {
+            return (Iterator<Object>) EMPTY_ITERATOR;
+        }
+    };
+
     /**
      * Returns an empty {@code Optional} instance. No value is present for this Optional.
      *
@@ -33,6 +55,10 @@ public final class Optional<T> {
      */
     @SuppressWarnings("unchecked")
     public static <T> Optional<T> empty() {
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL, Event.EMPTY_RETURNED);
+        }
+
         return (Optional<T>) EMPTY;
     }
 
@@ -55,6 +81,10 @@ public final class Optional<T> {
             throw new NullPointerException();
         }
 
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL, Event.CREATED);
+        }
+
         return new Optional<T>(value);
     }
 
@@ -69,12 +99,37 @@ public final class Optional<T> {
      */
     public static <T> Optional<T> ofNullable(T value) {
         if (value != null) {
+            if (OptionalMetrics.ENABLED) {
+                OptionalMetrics.record(Type.OPTIONAL, Event.CREATED);
+            }
+
             return new Optional<T>(value);
         }
 
         return empty();
     }
 
+    /**
+     * Returns an {@code Iterable} over the value, if present, so an {@code Optional} can be used in
+     * a for-each loop or passed where a collection of zero or one elements is expected without
+     * copying the value into a list. An empty {@code Optional} returns a shared instance.
+     *
+     * @return an {@code Iterable} of the value, if present, otherwise an empty {@code Iterable}
+     * @see #iterator()
+     */
+    @SuppressWarnings("unchecked")
+    public Iterable<T> asIterable() {
+        if (isPresent()) {
+            return new Iterable<T>() {
+                public Iterator<T> iterator() {
+                    return new ValueIterator<T>(value);
+                }
+            };
+        }
+
+        return (Iterable<T>) EMPTY_ITERABLE;
+    }
+
     /**
      * If a value is present, and the value matches the given predicate, return an {@code Optional}
      * describing the value, otherwise return an empty {@code Optional}.
@@ -126,6 +181,10 @@ public final class Optional<T> {
             return value;
         }
 
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL, Event.GET_FAILED);
+        }
+
         throw new NoSuchElementException("No value present");
     }
 
@@ -162,6 +221,21 @@ public final class Optional<T> {
         return value != null;
     }
 
+    /**
+     * Returns an iterator over the value, if present. An empty {@code Optional} returns a shared
+     * iterator, so iterating it never allocates. The iterator does not support {@code remove()}.
+     *
+     * @return an iterator that returns the value, if present, otherwise no elements
+     */
+    @SuppressWarnings("unchecked")
+    public Iterator<T> iterator() {
+        if (isPresent()) {
+            return new ValueIterator<T>(value);
+        }
+
+        return (Iterator<T>) EMPTY_ITERATOR;
+    }
+
     /**
      * If a value is present, apply the provided mapping function to it, and if the result is
      * non-null, return an {@code Optional} describing the result.  Otherwise return an empty {@code
@@ -194,6 +268,120 @@ public final class Optional<T> {
         return empty();
     }
 
+    /**
+     * If a value is present, apply the provided mapping function to it and return an {@code
+     * OptionalDouble} describing the result, otherwise return an empty {@code OptionalDouble}.
+     * Unlike {@code map}, the result is never boxed.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code OptionalDouble} describing the result of applying the mapping function to
+     * the value of this {@code Optional}, if a value is present, otherwise an empty {@code
+     * OptionalDouble}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public OptionalDouble mapToDouble(ToDoubleFunction<? super T> mapper) {
+        if (isPresent()) {
+            return OptionalDouble.of(mapper.applyAsDouble(value));
+        }
+
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it and return the result,
+     * otherwise return {@code other}. This is the same as {@code mapToDouble(mapper).orElse(other)}
+     * without allocating an {@code OptionalDouble}.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @param other  the value to be returned if there is no value present
+     * @return the result of applying the mapping function to the value, if present, otherwise
+     * {@code other}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public double mapToDoubleOrElse(ToDoubleFunction<? super T> mapper, double other) {
+        if (isPresent()) {
+            return mapper.applyAsDouble(value);
+        }
+
+        return other;
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it and return an {@code
+     * OptionalInt} describing the result, otherwise return an empty {@code OptionalInt}. Unlike
+     * {@code map}, the result is never boxed.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code OptionalInt} describing the result of applying the mapping function to the
+     * value of this {@code Optional}, if a value is present, otherwise an empty {@code
+     * OptionalInt}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public OptionalInt mapToInt(ToIntFunction<? super T> mapper) {
+        if (isPresent()) {
+            return OptionalInt.of(mapper.applyAsInt(value));
+        }
+
+        return OptionalInt.empty();
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it and return the result,
+     * otherwise return {@code other}. This is the same as {@code mapToInt(mapper).orElse(other)}
+     * without allocating an {@code OptionalInt}.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @param other  the value to be returned if there is no value present
+     * @return the result of applying the mapping function to the value, if present, otherwise
+     * {@code other}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public int mapToIntOrElse(ToIntFunction<? super T> mapper, int other) {
+        if (isPresent()) {
+            return mapper.applyAsInt(value);
+        }
+
+        return other;
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it and return an {@code
+     * OptionalLong} describing the result, otherwise return an empty {@code OptionalLong}. Unlike
+     * {@code map}, the result is never boxed.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code OptionalLong} describing the result of applying the mapping function to the
+     * value of this {@code Optional}, if a value is present, otherwise an empty {@code
+     * OptionalLong}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public OptionalLong mapToLong(ToLongFunction<? super T> mapper) {
+        if (isPresent()) {
+            return OptionalLong.of(mapper.applyAsLong(value));
+        }
+
+        return OptionalLong.empty();
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it and return the result,
+     * otherwise return {@code other}. This is the same as {@code mapToLong(mapper).orElse(other)}
+     * without allocating an {@code OptionalLong}.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @param other  the value to be returned if there is no value present
+     * @return the result of applying the mapping function to the value, if present, otherwise
+     * {@code other}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public long mapToLongOrElse(ToLongFunction<? super T> mapper, long other) {
+        if (isPresent()) {
+            return mapper.applyAsLong(value);
+        }
+
+        return other;
+    }
+
     /**
      * If a value is present, returns an Optional describing the value, otherwise returns an
      * Optional produced by the supplying function.
@@ -211,6 +399,10 @@ public final class Optional<T> {
             throw new NullPointerException();
         }
 
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL, Event.SUPPLIER_INVOKED);
+        }
+
         Optional<T> optional = (Optional<T>) supplier.get();
         if (optional == null) {
             throw new NullPointerException();
@@ -246,6 +438,10 @@ public final class Optional<T> {
             return value;
         }
 
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL, Event.SUPPLIER_INVOKED);
+        }
+
         return other.get();
     }
 
@@ -329,4 +525,57 @@ public final class Optional<T> {
 
         return "Optional.empty";
     }
+
+    /**
+     * Replaces a deserialized empty {@code Optional} with the shared empty instance.
+     */
+    private Object readResolve() {
+        if (value == null) {
+            return EMPTY;
+        }
+
+        return this;
+    }
+
+    private static final class EmptyIterator implements Iterator<Object> {
+
+        public boolean hasNext() {
+            return false;
+        }
+
+        public Object next() {
+            throw new NoSuchElementException();
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class ValueIterator<T> implements Iterator<T> {
+
+        private final T value;
+        private boolean hasNext = true;
+
+        ValueIterator(T value) {
+            this.value = value;
+        }
+
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        public T next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+
+            hasNext = false;
+            return value;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
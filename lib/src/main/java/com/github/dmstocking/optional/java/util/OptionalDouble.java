@@ -1,9 +1,19 @@
 package com.github.dmstocking.optional.java.util;
 
 import com.github.dmstocking.optional.java.util.function.DoubleConsumer;
+import com.github.dmstocking.optional.java.util.function.DoubleFunction;
+import com.github.dmstocking.optional.java.util.function.DoublePredicate;
 import com.github.dmstocking.optional.java.util.function.DoubleSupplier;
+import com.github.dmstocking.optional.java.util.function.DoubleToIntFunction;
+import com.github.dmstocking.optional.java.util.function.DoubleToLongFunction;
+import com.github.dmstocking.optional.java.util.function.DoubleUnaryOperator;
 import com.github.dmstocking.optional.java.util.function.Supplier;
+import com.github.dmstocking.optional.util.OptionalMetrics;
+import com.github.dmstocking.optional.util.OptionalMetrics.Event;
+import com.github.dmstocking.optional.util.OptionalMetrics.Type;
+import com.github.dmstocking.optional.util.PackedOptionalDouble;
 
+import java.io.Serializable;
 import java.util.NoSuchElementException;
 
 /**
@@ -13,12 +23,29 @@ import java.util.NoSuchElementException;
  * Additional methods that depend on the presence or absence of a contained value are provided, such
  * as {@code orElse()} (return a default value if value not present) and {@code ifPresent()}
  * (execute a block of code if the value is present).
+ *
+ * Instances are {@link Serializable}. Deserialization resolves back to the shared empty and cached
+ * instances rather than creating duplicates of them.
  */
 @SuppressWarnings("WeakerAccess")
-public final class OptionalDouble {
+public final class OptionalDouble implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static final OptionalDouble EMPTY = new OptionalDouble(false, 0);
 
+    private static final PrimitiveIterator.OfDouble EMPTY_ITERATOR = new EmptyIterator();
+
+    /*
+     * Canonical instances for the most common values. They are matched on their raw bits so -0.0
+     * still gets its own instance. NaN is deliberately not cached, since equals compares with
+     * {@code ==} and sharing an instance would make two NaN optionals equal.
+     */
+    private static final long ZERO_BITS = Double.doubleToRawLongBits(0.0);
+    private static final long ONE_BITS = Double.doubleToRawLongBits(1.0);
+    private static final OptionalDouble ZERO = new OptionalDouble(true, 0.0);
+    private static final OptionalDouble ONE = new OptionalDouble(true, 1.0);
+
     /**
      * Returns an empty {@code Optional} instance. No value is present for this Optional.
      *
@@ -29,6 +56,10 @@ public final class OptionalDouble {
      * @return an empty {@code Optional}
      */
     public static OptionalDouble empty() {
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL_DOUBLE, Event.EMPTY_RETURNED);
+        }
+
         return EMPTY;
     }
 
@@ -41,15 +72,102 @@ public final class OptionalDouble {
     }
 
     /**
-     * Returns an Optional with the specified present non-null value.
+     * Returns an Optional with the specified present non-null value. Commonly used values are
+     * returned from a cache instead of being allocated.
      *
      * @param value the value to be present, which must be non-null
      * @return an Optional with the value present
      */
     public static OptionalDouble of(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        if (bits == ZERO_BITS) {
+            return ZERO;
+        }
+
+        if (bits == ONE_BITS) {
+            return ONE;
+        }
+
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL_DOUBLE, Event.CREATED);
+        }
+
         return new OptionalDouble(true, value);
     }
 
+    /**
+     * Returns the {@code OptionalDouble} described by a value packed with {@link
+     * PackedOptionalDouble}.
+     *
+     * @param packed a packed optional
+     * @return an {@code OptionalDouble} with the packed value present, or an empty {@code
+     * OptionalDouble} if the packed optional is empty
+     */
+    public static OptionalDouble fromPacked(long packed) {
+        if (PackedOptionalDouble.isPresent(packed)) {
+            return of(PackedOptionalDouble.value(packed));
+        }
+
+        return empty();
+    }
+
+    /**
+     * If a value is present, returns an {@code Optional} describing the boxed value, otherwise
+     * returns an empty {@code Optional}.
+     *
+     * @return an {@code Optional} describing the boxed value, if present, otherwise an empty
+     * {@code Optional}
+     */
+    public Optional<Double> boxed() {
+        if (isPresent()) {
+            return Optional.of(Double.valueOf(value));
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * If a value is present, and the value matches the given predicate, return an {@code
+     * OptionalDouble} describing the value, otherwise return an empty {@code OptionalDouble}.
+     *
+     * @param predicate a predicate to apply to the value, if present
+     * @return an {@code OptionalDouble} describing the value of this {@code OptionalDouble} if a
+     * value is present and the value matches the given predicate, otherwise an empty {@code
+     * OptionalDouble}
+     * @throws NullPointerException if a value is present and the predicate is null
+     */
+    public OptionalDouble filter(DoublePredicate predicate) {
+        if (isPresent() && predicate.test(value)) {
+            return this;
+        }
+
+        return empty();
+    }
+
+    /**
+     * If a value is present, apply the provided {@code OptionalDouble}-bearing mapping function to
+     * it, return that result, otherwise return an empty {@code OptionalDouble}.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return the result of applying an {@code OptionalDouble}-bearing mapping function to the
+     * value of this {@code OptionalDouble}, if a value is present, otherwise an empty {@code
+     * OptionalDouble}
+     * @throws NullPointerException if a value is present and the mapping function is null or
+     *                              returns a null result
+     */
+    public OptionalDouble flatMap(DoubleFunction<OptionalDouble> mapper) {
+        if (isPresent()) {
+            OptionalDouble result = mapper.apply(value);
+            if (result == null) {
+                throw new NullPointerException();
+            }
+
+            return result;
+        }
+
+        return empty();
+    }
+
     /**
      * If a value is present in this {@code Optional}, returns the value, otherwise throws {@code
      * NoSuchElementException}.
@@ -63,6 +181,10 @@ public final class OptionalDouble {
             return value;
         }
 
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL_DOUBLE, Event.GET_FAILED);
+        }
+
         throw new NoSuchElementException("No value present");
     }
 
@@ -99,6 +221,95 @@ public final class OptionalDouble {
         return isPresent;
     }
 
+    /**
+     * Returns an iterator over the value, if present, that does not box it when read with {@code
+     * nextDouble()} or {@code forEachRemaining}. An empty {@code OptionalDouble} returns a shared
+     * iterator, so iterating it never allocates. The iterator does not support {@code remove()}.
+     *
+     * @return an iterator that returns the value, if present, otherwise no elements
+     */
+    public PrimitiveIterator.OfDouble iterator() {
+        if (isPresent()) {
+            return new ValueIterator(value);
+        }
+
+        return EMPTY_ITERATOR;
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it and return an {@code
+     * OptionalDouble} describing the result, otherwise return an empty {@code OptionalDouble}.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code OptionalDouble} describing the result of applying the mapping function to
+     * the value of this {@code OptionalDouble}, if a value is present, otherwise an empty {@code
+     * OptionalDouble}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public OptionalDouble map(DoubleUnaryOperator mapper) {
+        if (isPresent()) {
+            return OptionalDouble.of(mapper.applyAsDouble(value));
+        }
+
+        return empty();
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it and return an {@code
+     * OptionalInt} describing the result, otherwise return an empty {@code OptionalInt}.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code OptionalInt} describing the result of applying the mapping function to the
+     * value of this {@code OptionalDouble}, if a value is present, otherwise an empty {@code
+     * OptionalInt}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public OptionalInt mapToInt(DoubleToIntFunction mapper) {
+        if (isPresent()) {
+            return OptionalInt.of(mapper.applyAsInt(value));
+        }
+
+        return OptionalInt.empty();
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it and return an {@code
+     * OptionalLong} describing the result, otherwise return an empty {@code OptionalLong}.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code OptionalLong} describing the result of applying the mapping function to the
+     * value of this {@code OptionalDouble}, if a value is present, otherwise an empty {@code
+     * OptionalLong}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public OptionalLong mapToLong(DoubleToLongFunction mapper) {
+        if (isPresent()) {
+            return OptionalLong.of(mapper.applyAsLong(value));
+        }
+
+        return OptionalLong.empty();
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it, and if the result is
+     * non-null, return an {@code Optional} describing the result. Otherwise return an empty {@code
+     * Optional}.
+     *
+     * @param <U>    the type of the result of the mapping function
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code Optional} describing the result of applying the mapping function to the
+     * value of this {@code OptionalDouble}, if a value is present, otherwise an empty {@code
+     * Optional}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public <U> Optional<U> mapToObj(DoubleFunction<? extends U> mapper) {
+        if (isPresent()) {
+            return Optional.ofNullable(mapper.apply(value));
+        }
+
+        return Optional.empty();
+    }
+
     /**
      * Return the value if present, otherwise return {@code other}.
      *
@@ -126,6 +337,10 @@ public final class OptionalDouble {
             return value;
         }
 
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL_DOUBLE, Event.SUPPLIER_INVOKED);
+        }
+
         return other.get();
     }
 
@@ -150,6 +365,20 @@ public final class OptionalDouble {
         throw exceptionSupplier.get();
     }
 
+    /**
+     * Packs this optional into a single {@code long} with {@link PackedOptionalDouble}, so it can
+     * be passed around or stored without an object.
+     *
+     * @return the packed form of this optional
+     */
+    public long toPacked() {
+        if (isPresent()) {
+            return PackedOptionalDouble.pack(value);
+        }
+
+        return PackedOptionalDouble.EMPTY;
+    }
+
     /**
      * Indicates whether some other object is "equal to" this Optional. The other object is
      * considered equal if: <ul> <li>it is also an {@code Optional} and; <li>both instances have no
@@ -209,4 +438,85 @@ public final class OptionalDouble {
 
         return "OptionalDouble.empty";
     }
+
+    /**
+     * Replaces a deserialized {@code OptionalDouble} with the shared empty or cached instance, if
+     * there is one.
+     */
+    private Object readResolve() {
+        if (!isPresent) {
+            return EMPTY;
+        }
+
+        long bits = Double.doubleToRawLongBits(value);
+        if (bits == ZERO_BITS) {
+            return ZERO;
+        }
+
+        if (bits == ONE_BITS) {
+            return ONE;
+        }
+
+        return this;
+    }
+
+    private static final class EmptyIterator implements PrimitiveIterator.OfDouble {
+
+        public boolean hasNext() {
+            return false;
+        }
+
+        public Double next() {
+            throw new NoSuchElementException();
+        }
+
+        public double nextDouble() {
+            throw new NoSuchElementException();
+        }
+
+        public void forEachRemaining(DoubleConsumer action) {
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class ValueIterator implements PrimitiveIterator.OfDouble {
+
+        private final double value;
+        private boolean hasNext = true;
+
+        ValueIterator(double value) {
+            this.value = value;
+        }
+
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        public Double next() {
+            return nextDouble();
+        }
+
+        public double nextDouble() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+
+            hasNext = false;
+            return value;
+        }
+
+        public void forEachRemaining(DoubleConsumer action) {
+            if (hasNext) {
+                hasNext = false;
+                action.accept(value);
+            }
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -1,9 +1,19 @@
 package com.github.dmstocking.optional.java.util;
 
 import com.github.dmstocking.optional.java.util.function.LongConsumer;
+import com.github.dmstocking.optional.java.util.function.LongFunction;
+import com.github.dmstocking.optional.java.util.function.LongPredicate;
 import com.github.dmstocking.optional.java.util.function.LongSupplier;
+import com.github.dmstocking.optional.java.util.function.LongToDoubleFunction;
+import com.github.dmstocking.optional.java.util.function.LongToIntFunction;
+import com.github.dmstocking.optional.java.util.function.LongUnaryOperator;
 import com.github.dmstocking.optional.java.util.function.Supplier;
+import com.github.dmstocking.optional.util.OptionalMetrics;
+import com.github.dmstocking.optional.util.OptionalMetrics.Event;
+import com.github.dmstocking.optional.util.OptionalMetrics.Type;
+import com.github.dmstocking.optional.util.PackedOptionalLong;
 
+import java.io.Serializable;
 import java.util.NoSuchElementException;
 
 /**
@@ -13,12 +23,19 @@ import java.util.NoSuchElementException;
  * Additional methods that depend on the presence or absence of a contained value are provided, such
  * as {@code orElse()} (return a default value if value not present) and {@code ifPresent()}
  * (execute a block of code if the value is present).
+ *
+ * Instances are {@link Serializable}. Deserialization resolves back to the shared empty and cached
+ * instances rather than creating duplicates of them.
  */
 @SuppressWarnings("WeakerAccess")
-public final class OptionalLong {
+public final class OptionalLong implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     private static final OptionalLong EMPTY = new OptionalLong(false, 0);
 
+    private static final PrimitiveIterator.OfLong EMPTY_ITERATOR = new EmptyIterator();
+
     /**
      * Returns an empty {@code Optional} instance. No value is present for this Optional.
      *
@@ -29,6 +46,10 @@ public final class OptionalLong {
      * @return an empty {@code Optional}
      */
     public static OptionalLong empty() {
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL_LONG, Event.EMPTY_RETURNED);
+        }
+
         return EMPTY;
     }
 
@@ -41,15 +62,124 @@ public final class OptionalLong {
     }
 
     /**
-     * Returns an Optional with the specified present non-null value.
+     * Returns an Optional with the specified present non-null value. Commonly used values are
+     * returned from a cache instead of being allocated.
      *
      * @param value the value to be present, which must be non-null
      * @return an Optional with the value present
      */
     public static OptionalLong of(long value) {
+        if (value >= Cache.LOW && value <= Cache.HIGH) {
+            return Cache.VALUES[(int) (value - Cache.LOW)];
+        }
+
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL_LONG, Event.CREATED);
+        }
+
         return new OptionalLong(true, value);
     }
 
+    /**
+     * Returns the {@code OptionalLong} described by a value packed with {@link PackedOptionalLong}.
+     *
+     * @param packed a packed optional
+     * @return an {@code OptionalLong} with the packed value present, or an empty {@code
+     * OptionalLong} if the packed optional is empty
+     */
+    public static OptionalLong fromPacked(long packed) {
+        if (PackedOptionalLong.isPresent(packed)) {
+            return of(PackedOptionalLong.value(packed));
+        }
+
+        return empty();
+    }
+
+    /**
+     * Holds the preallocated instances returned by {@link #of(long)} for values between -128 and
+     * 1023 (inclusive), in the same spirit as {@code Long.valueOf}. The upper bound may be changed
+     * with the {@code com.github.dmstocking.optional.OptionalLong.cache.high} system property.
+     */
+    private static final class Cache {
+
+        static final int LOW = -128;
+        static final int HIGH;
+        static final OptionalLong[] VALUES;
+
+        static {
+            int high = 1023;
+            String property = System.getProperty("com.github.dmstocking.optional.OptionalLong.cache.high");
+            if (property != null) {
+                try {
+                    high = Math.max(Integer.parseInt(property), 127);
+                } catch (NumberFormatException ignored) {
+                    // keep the default
+                }
+            }
+            HIGH = Math.min(high, Integer.MAX_VALUE + LOW - 1);
+
+            VALUES = new OptionalLong[HIGH - LOW + 1];
+            for (int i = 0; i < VALUES.length; i++) {
+                VALUES[i] = new OptionalLong(true, LOW + i);
+            }
+        }
+    }
+
+    /**
+     * If a value is present, returns an {@code Optional} describing the boxed value, otherwise
+     * returns an empty {@code Optional}.
+     *
+     * @return an {@code Optional} describing the boxed value, if present, otherwise an empty
+     * {@code Optional}
+     */
+    public Optional<Long> boxed() {
+        if (isPresent()) {
+            return Optional.of(Long.valueOf(value));
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * If a value is present, and the value matches the given predicate, return an {@code
+     * OptionalLong} describing the value, otherwise return an empty {@code OptionalLong}.
+     *
+     * @param predicate a predicate to apply to the value, if present
+     * @return an {@code OptionalLong} describing the value of this {@code OptionalLong} if a value
+     * is present and the value matches the given predicate, otherwise an empty {@code OptionalLong}
+     * @throws NullPointerException if a value is present and the predicate is null
+     */
+    public OptionalLong filter(LongPredicate predicate) {
+        if (isPresent() && predicate.test(value)) {
+            return this;
+        }
+
+        return empty();
+    }
+
+    /**
+     * If a value is present, apply the provided {@code OptionalLong}-bearing mapping function to
+     * it, return that result, otherwise return an empty {@code OptionalLong}.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return the result of applying an {@code OptionalLong}-bearing mapping function to the value
+     * of this {@code OptionalLong}, if a value is present, otherwise an empty {@code OptionalLong}
+     * @throws NullPointerException if a value is present and the mapping function is null or
+     *                              returns a null result
+     */
+    public OptionalLong flatMap(LongFunction<OptionalLong> mapper) {
+        if (isPresent()) {
+            OptionalLong result = mapper.apply(value);
+            if (result == null) {
+                throw new NullPointerException();
+            }
+
+            return result;
+        }
+
+        return empty();
+    }
+
     /**
      * If a value is present in this {@code Optional}, returns the value, otherwise throws {@code
      * NoSuchElementException}.
@@ -63,6 +193,10 @@ public final class OptionalLong {
             return value;
         }
 
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL_LONG, Event.GET_FAILED);
+        }
+
         throw new NoSuchElementException("No value present");
     }
 
@@ -99,6 +233,95 @@ public final class OptionalLong {
         return isPresent;
     }
 
+    /**
+     * Returns an iterator over the value, if present, that does not box it when read with {@code
+     * nextLong()} or {@code forEachRemaining}. An empty {@code OptionalLong} returns a shared
+     * iterator, so iterating it never allocates. The iterator does not support {@code remove()}.
+     *
+     * @return an iterator that returns the value, if present, otherwise no elements
+     */
+    public PrimitiveIterator.OfLong iterator() {
+        if (isPresent()) {
+            return new ValueIterator(value);
+        }
+
+        return EMPTY_ITERATOR;
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it and return an {@code
+     * OptionalLong} describing the result, otherwise return an empty {@code OptionalLong}.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code OptionalLong} describing the result of applying the mapping function to the
+     * value of this {@code OptionalLong}, if a value is present, otherwise an empty {@code
+     * OptionalLong}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public OptionalLong map(LongUnaryOperator mapper) {
+        if (isPresent()) {
+            return OptionalLong.of(mapper.applyAsLong(value));
+        }
+
+        return empty();
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it and return an {@code
+     * OptionalDouble} describing the result, otherwise return an empty {@code OptionalDouble}.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code OptionalDouble} describing the result of applying the mapping function to
+     * the value of this {@code OptionalLong}, if a value is present, otherwise an empty {@code
+     * OptionalDouble}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public OptionalDouble mapToDouble(LongToDoubleFunction mapper) {
+        if (isPresent()) {
+            return OptionalDouble.of(mapper.applyAsDouble(value));
+        }
+
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it and return an {@code
+     * OptionalInt} describing the result, otherwise return an empty {@code OptionalInt}.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code OptionalInt} describing the result of applying the mapping function to the
+     * value of this {@code OptionalLong}, if a value is present, otherwise an empty {@code
+     * OptionalInt}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public OptionalInt mapToInt(LongToIntFunction mapper) {
+        if (isPresent()) {
+            return OptionalInt.of(mapper.applyAsInt(value));
+        }
+
+        return OptionalInt.empty();
+    }
+
+    /**
+     * If a value is present, apply the provided mapping function to it, and if the result is
+     * non-null, return an {@code Optional} describing the result. Otherwise return an empty {@code
+     * Optional}.
+     *
+     * @param <U>    the type of the result of the mapping function
+     * @param mapper a mapping function to apply to the value, if present
+     * @return an {@code Optional} describing the result of applying the mapping function to the
+     * value of this {@code OptionalLong}, if a value is present, otherwise an empty {@code
+     * Optional}
+     * @throws NullPointerException if a value is present and the mapping function is null
+     */
+    public <U> Optional<U> mapToObj(LongFunction<? extends U> mapper) {
+        if (isPresent()) {
+            return Optional.ofNullable(mapper.apply(value));
+        }
+
+        return Optional.empty();
+    }
+
     /**
      * Return the value if present, otherwise return {@code other}.
      *
@@ -126,6 +349,10 @@ public final class OptionalLong {
             return value;
         }
 
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL_LONG, Event.SUPPLIER_INVOKED);
+        }
+
         return other.get();
     }
 
@@ -150,6 +377,22 @@ public final class OptionalLong {
         throw exceptionSupplier.get();
     }
 
+    /**
+     * Packs this optional into a single {@code long} with {@link PackedOptionalLong}, so it can be
+     * passed around or stored without an object.
+     *
+     * @return the packed form of this optional
+     * @throws IllegalArgumentException if the value is present and is {@link Long#MIN_VALUE}, which
+     *                                  is reserved for empty
+     */
+    public long toPacked() {
+        if (isPresent()) {
+            return PackedOptionalLong.pack(value);
+        }
+
+        return PackedOptionalLong.EMPTY;
+    }
+
     /**
      * Indicates whether some other object is "equal to" this Optional. The other object is
      * considered equal if: <ul> <li>it is also an {@code Optional} and; <li>both instances have no
@@ -209,4 +452,80 @@ public final class OptionalLong {
 
         return "OptionalLong.empty";
     }
+
+    /**
+     * Replaces a deserialized {@code OptionalLong} with the shared empty or cached instance, if
+     * there is one.
+     */
+    private Object readResolve() {
+        if (!isPresent) {
+            return EMPTY;
+        }
+
+        if (value >= Cache.LOW && value <= Cache.HIGH) {
+            return Cache.VALUES[(int) (value - Cache.LOW)];
+        }
+
+        return this;
+    }
+
+    private static final class EmptyIterator implements PrimitiveIterator.OfLong {
+
+        public boolean hasNext() {
+            return false;
+        }
+
+        public Long next() {
+            throw new NoSuchElementException();
+        }
+
+        public long nextLong() {
+            throw new NoSuchElementException();
+        }
+
+        public void forEachRemaining(LongConsumer action) {
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class ValueIterator implements PrimitiveIterator.OfLong {
+
+        private final long value;
+        private boolean hasNext = true;
+
+        ValueIterator(long value) {
+            this.value = value;
+        }
+
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        public Long next() {
+            return nextLong();
+        }
+
+        public long nextLong() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+
+            hasNext = false;
+            return value;
+        }
+
+        public void forEachRemaining(LongConsumer action) {
+            if (hasNext) {
+                hasNext = false;
+                action.accept(value);
+            }
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
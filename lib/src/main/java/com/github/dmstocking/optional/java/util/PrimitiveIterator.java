@@ -0,0 +1,83 @@
+package com.github.dmstocking.optional.java.util;
+
+import com.github.dmstocking.optional.java.util.function.DoubleConsumer;
+import com.github.dmstocking.optional.java.util.function.IntConsumer;
+import com.github.dmstocking.optional.java.util.function.LongConsumer;
+
+import java.util.Iterator;
+
+/**
+ * A base type for primitive specializations of {@code Iterator}. Specialized subtypes are provided
+ * for {@link OfInt int}, {@link OfLong long}, and {@link OfDouble double} values.
+ *
+ * <p>The specialized subtypes' {@link Iterator#next} boxes primitive values to instances of their
+ * corresponding wrapper class, so prefer {@code nextInt()} and friends. Since this backport cannot
+ * declare default methods, every implementation provides {@code next()}, {@code remove()} and
+ * {@code forEachRemaining} itself.
+ *
+ * @param <T>      the type of elements returned by this PrimitiveIterator. The type must be a
+ *                 wrapper type for a primitive type, such as {@code Integer} for the primitive
+ *                 {@code int} type.
+ * @param <T_CONS> the type of primitive consumer. The type must be a primitive specialization of
+ *                 {@code Consumer} for {@code T}, such as {@link IntConsumer} for {@code Integer}.
+ * @since 1.8
+ */
+public interface PrimitiveIterator<T, T_CONS> extends Iterator<T> {
+
+    /**
+     * Performs the given action for each remaining element, in the order elements occur when
+     * iterating, until all elements have been processed or the action throws an exception.
+     *
+     * @param action The action to be performed for each element
+     * @throws NullPointerException if there is a remaining element and the action is null
+     */
+    void forEachRemaining(T_CONS action);
+
+    /**
+     * An Iterator specialized for {@code int} values.
+     *
+     * @since 1.8
+     */
+    interface OfInt extends PrimitiveIterator<Integer, IntConsumer> {
+
+        /**
+         * Returns the next {@code int} element in the iteration.
+         *
+         * @return the next {@code int} element in the iteration
+         * @throws java.util.NoSuchElementException if the iteration has no more elements
+         */
+        int nextInt();
+    }
+
+    /**
+     * An Iterator specialized for {@code long} values.
+     *
+     * @since 1.8
+     */
+    interface OfLong extends PrimitiveIterator<Long, LongConsumer> {
+
+        /**
+         * Returns the next {@code long} element in the iteration.
+         *
+         * @return the next {@code long} element in the iteration
+         * @throws java.util.NoSuchElementException if the iteration has no more elements
+         */
+        long nextLong();
+    }
+
+    /**
+     * An Iterator specialized for {@code double} values.
+     *
+     * @since 1.8
+     */
+    interface OfDouble extends PrimitiveIterator<Double, DoubleConsumer> {
+
+        /**
+         * Returns the next {@code double} element in the iteration.
+         *
+         * @return the next {@code double} element in the iteration
+         * @throws java.util.NoSuchElementException if the iteration has no more elements
+         */
+        double nextDouble();
+    }
+}
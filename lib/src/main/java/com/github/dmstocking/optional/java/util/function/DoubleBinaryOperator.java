@@ -0,0 +1,21 @@
+package com.github.dmstocking.optional.java.util.function;
+
+/**
+ * Represents an operation upon two {@code double}-valued operands and producing a
+ * {@code double}-valued result. This is the primitive type specialization of
+ * {@code BinaryOperator} for {@code double}.
+ *
+ * <p>This is a <a href="package-summary.html">functional interface</a> whose functional method is
+ * {@link #applyAsDouble(double, double)}.
+ */
+public interface DoubleBinaryOperator {
+
+    /**
+     * Applies this operator to the given operands.
+     *
+     * @param left  the first operand
+     * @param right the second operand
+     * @return the operator result
+     */
+    double applyAsDouble(double left, double right);
+}
@@ -0,0 +1,20 @@
+package com.github.dmstocking.optional.java.util.function;
+
+/**
+ * Represents a function that accepts a {@code double}-valued argument and produces an {@code
+ * int}-valued result. This is the {@code double}-to-{@code int} primitive specialization for {@link
+ * Function}.
+ *
+ * <p>This is a <a href="package-summary.html">functional interface</a> whose functional method is
+ * {@link #applyAsInt(double)}.
+ */
+public interface DoubleToIntFunction {
+
+    /**
+     * Applies this function to the given argument.
+     *
+     * @param value the function argument
+     * @return the function result
+     */
+    int applyAsInt(double value);
+}
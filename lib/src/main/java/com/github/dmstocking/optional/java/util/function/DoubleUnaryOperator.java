@@ -0,0 +1,20 @@
+package com.github.dmstocking.optional.java.util.function;
+
+/**
+ * Represents an operation on a single {@code double}-valued operand that produces a {@code
+ * double}-valued result. This is the {@code double}-producing primitive specialization of {@link
+ * Function}.
+ *
+ * <p>This is a <a href="package-summary.html">functional interface</a> whose functional method is
+ * {@link #applyAsDouble(double)}.
+ */
+public interface DoubleUnaryOperator {
+
+    /**
+     * Applies this operator to the given operand.
+     *
+     * @param operand the operand
+     * @return the operator result
+     */
+    double applyAsDouble(double operand);
+}
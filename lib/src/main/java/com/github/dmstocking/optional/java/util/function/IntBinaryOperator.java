@@ -0,0 +1,20 @@
+package com.github.dmstocking.optional.java.util.function;
+
+/**
+ * Represents an operation upon two {@code int}-valued operands and producing a {@code int}-valued
+ * result. This is the primitive type specialization of {@code BinaryOperator} for {@code int}.
+ *
+ * <p>This is a <a href="package-summary.html">functional interface</a> whose functional method is
+ * {@link #applyAsInt(int, int)}.
+ */
+public interface IntBinaryOperator {
+
+    /**
+     * Applies this operator to the given operands.
+     *
+     * @param left  the first operand
+     * @param right the second operand
+     * @return the operator result
+     */
+    int applyAsInt(int left, int right);
+}
@@ -0,0 +1,20 @@
+package com.github.dmstocking.optional.java.util.function;
+
+/**
+ * Represents a function that accepts an {@code int}-valued argument and produces a {@code
+ * double}-valued result. This is the {@code int}-to-{@code double} primitive specialization for
+ * {@link Function}.
+ *
+ * <p>This is a <a href="package-summary.html">functional interface</a> whose functional method is
+ * {@link #applyAsDouble(int)}.
+ */
+public interface IntToDoubleFunction {
+
+    /**
+     * Applies this function to the given argument.
+     *
+     * @param value the function argument
+     * @return the function result
+     */
+    double applyAsDouble(int value);
+}
@@ -0,0 +1,21 @@
+package com.github.dmstocking.optional.java.util.function;
+
+/**
+ * Represents a function that accepts a {@code long}-valued argument and produces a result. This is
+ * the {@code long}-consuming primitive specialization of {@link Function}.
+ *
+ * <p>This is a <a href="package-summary.html">functional interface</a> whose functional method is
+ * {@link #apply(long)}.
+ *
+ * @param <R> the type of the result of the function
+ */
+public interface LongFunction<R> {
+
+    /**
+     * Applies this function to the given argument.
+     *
+     * @param value the function argument
+     * @return the function result
+     */
+    R apply(long value);
+}
@@ -0,0 +1,19 @@
+package com.github.dmstocking.optional.java.util.function;
+
+/**
+ * Represents a predicate (boolean-valued function) of one {@code long}-valued argument. This is the
+ * {@code long}-consuming primitive type specialization of {@link Predicate}.
+ *
+ * <p>This is a <a href="package-summary.html">functional interface</a> whose functional method is
+ * {@link #test(long)}.
+ */
+public interface LongPredicate {
+
+    /**
+     * Evaluates this predicate on the given argument.
+     *
+     * @param value the input argument
+     * @return {@code true} if the input argument matches the predicate, otherwise {@code false}
+     */
+    boolean test(long value);
+}
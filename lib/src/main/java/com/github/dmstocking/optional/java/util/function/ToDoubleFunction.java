@@ -0,0 +1,21 @@
+package com.github.dmstocking.optional.java.util.function;
+
+/**
+ * Represents a function that produces a {@code double}-valued result. This is the {@code
+ * double}-producing primitive specialization for {@link Function}.
+ *
+ * <p>This is a <a href="package-summary.html">functional interface</a> whose functional method is
+ * {@link #applyAsDouble(Object)}.
+ *
+ * @param <T> the type of the input to the function
+ */
+public interface ToDoubleFunction<T> {
+
+    /**
+     * Applies this function to the given argument.
+     *
+     * @param value the function argument
+     * @return the function result
+     */
+    double applyAsDouble(T value);
+}
@@ -0,0 +1,24 @@
+package com.github.dmstocking.optional.util;
+
+/**
+ * A function that accepts three arguments and produces a result. This is the three-arity
+ * counterpart of {@link com.github.dmstocking.optional.java.util.function.BiFunction}, which
+ * java.util.function does not have.
+ *
+ * @param <A> the type of the first argument to the function
+ * @param <B> the type of the second argument to the function
+ * @param <C> the type of the third argument to the function
+ * @param <R> the type of the result of the function
+ */
+public interface Function3<A, B, C, R> {
+
+    /**
+     * Applies this function to the given arguments.
+     *
+     * @param a the first function argument
+     * @param b the second function argument
+     * @param c the third function argument
+     * @return the function result
+     */
+    R apply(A a, B b, C c);
+}
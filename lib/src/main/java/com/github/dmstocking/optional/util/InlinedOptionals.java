@@ -0,0 +1,316 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.function.Consumer;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.IntConsumer;
+import com.github.dmstocking.optional.java.util.function.IntFunction;
+import com.github.dmstocking.optional.java.util.function.IntPredicate;
+import com.github.dmstocking.optional.java.util.function.IntSupplier;
+import com.github.dmstocking.optional.java.util.function.IntUnaryOperator;
+import com.github.dmstocking.optional.java.util.function.Predicate;
+import com.github.dmstocking.optional.java.util.function.Supplier;
+import com.github.dmstocking.optional.java.util.function.ToIntFunction;
+import com.github.dmstocking.optional.util.OptionalMetrics.Event;
+import com.github.dmstocking.optional.util.OptionalMetrics.Type;
+
+import java.util.NoSuchElementException;
+
+/**
+ * The methods of {@link Optional} and {@link OptionalInt} on a value that was never wrapped. An
+ * {@code Optional} is represented by its value or null, an {@code OptionalInt} by its {@link
+ * PackedOptionalInt} form.
+ *
+ * This class is the runtime half of the {@code rewriter} module, which replaces optionals that do
+ * not escape a method with these representations and their calls with calls to these methods.
+ * Each method behaves exactly like the method it replaces, except that no optional is allocated
+ * and therefore no {@link Event#CREATED} is recorded. It is not meant to be called directly.
+ *
+ * The methods ending in {@code Wrapped} take an {@code Optional} or {@code OptionalInt} and start a
+ * chain on an optional that was created elsewhere. They have their own names so that they do not
+ * overload the methods taking an {@code Object} receiver, which would make calls with lambdas
+ * ambiguous.
+ */
+@SuppressWarnings({"WeakerAccess", "unchecked"})
+public final class InlinedOptionals {
+
+    private InlinedOptionals() {
+    }
+
+    /**
+     * @see Optional#of(Object)
+     */
+    public static Object of(Object value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+
+        return value;
+    }
+
+    /**
+     * @see Optional#filter(Predicate)
+     */
+    public static <T> Object filter(Object value, Predicate<? super T> predicate) {
+        if (value != null && predicate.test((T) value)) {
+            return value;
+        }
+
+        return null;
+    }
+
+    /**
+     * @see Optional#filter(Predicate)
+     */
+    public static <T> Object filterWrapped(Optional<? extends T> optional,
+                                           Predicate<? super T> predicate) {
+        return filter(optional.orElse(null), predicate);
+    }
+
+    /**
+     * @see Optional#get()
+     */
+    public static Object get(Object value) {
+        if (value != null) {
+            return value;
+        }
+
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL, Event.GET_FAILED);
+        }
+
+        throw new NoSuchElementException("No value present");
+    }
+
+    /**
+     * @see Optional#ifPresent(Consumer)
+     */
+    public static <T> void ifPresent(Object value, Consumer<? super T> consumer) {
+        if (value != null) {
+            consumer.accept((T) value);
+        }
+    }
+
+    /**
+     * @see Optional#isPresent()
+     */
+    public static boolean isPresent(Object value) {
+        return value != null;
+    }
+
+    /**
+     * @see Optional#map(Function)
+     */
+    public static <T> Object map(Object value, Function<? super T, ?> mapper) {
+        if (value != null) {
+            return mapper.apply((T) value);
+        }
+
+        return null;
+    }
+
+    /**
+     * @see Optional#map(Function)
+     */
+    public static <T> Object mapWrapped(Optional<? extends T> optional,
+                                        Function<? super T, ?> mapper) {
+        return map(optional.orElse(null), mapper);
+    }
+
+    /**
+     * @see Optional#mapToInt(ToIntFunction)
+     */
+    public static <T> long mapToInt(Object value, ToIntFunction<? super T> mapper) {
+        if (value != null) {
+            return PackedOptionalInt.pack(mapper.applyAsInt((T) value));
+        }
+
+        return PackedOptionalInt.EMPTY;
+    }
+
+    /**
+     * @see Optional#mapToInt(ToIntFunction)
+     */
+    public static <T> long mapToIntWrapped(Optional<? extends T> optional,
+                                           ToIntFunction<? super T> mapper) {
+        return mapToInt(optional.orElse(null), mapper);
+    }
+
+    /**
+     * @see Optional#orElse(Object)
+     */
+    public static Object orElse(Object value, Object other) {
+        if (value != null) {
+            return value;
+        }
+
+        return other;
+    }
+
+    /**
+     * @see Optional#orElseGet(Supplier)
+     */
+    public static Object orElseGet(Object value, Supplier<?> other) {
+        if (value != null) {
+            return value;
+        }
+
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL, Event.SUPPLIER_INVOKED);
+        }
+
+        return other.get();
+    }
+
+    /**
+     * @see Optional#orElseThrow(Supplier)
+     */
+    public static <X extends Throwable> Object orElseThrow(
+            Object value,
+            Supplier<? extends X> exceptionSupplier) throws X {
+        if (value != null) {
+            return value;
+        }
+
+        throw exceptionSupplier.get();
+    }
+
+    /**
+     * @see OptionalInt#boxed()
+     */
+    public static Object boxed(long packed) {
+        if (PackedOptionalInt.isPresent(packed)) {
+            return Integer.valueOf((int) packed);
+        }
+
+        return null;
+    }
+
+    /**
+     * @see OptionalInt#boxed()
+     */
+    public static Object boxedWrapped(OptionalInt optional) {
+        return boxed(optional.toPacked());
+    }
+
+    /**
+     * @see OptionalInt#filter(IntPredicate)
+     */
+    public static long filter(long packed, IntPredicate predicate) {
+        if (PackedOptionalInt.isPresent(packed) && predicate.test((int) packed)) {
+            return packed;
+        }
+
+        return PackedOptionalInt.EMPTY;
+    }
+
+    /**
+     * @see OptionalInt#filter(IntPredicate)
+     */
+    public static long filterWrapped(OptionalInt optional, IntPredicate predicate) {
+        return filter(optional.toPacked(), predicate);
+    }
+
+    /**
+     * @see OptionalInt#getAsInt()
+     */
+    public static int getAsInt(long packed) {
+        if (PackedOptionalInt.isPresent(packed)) {
+            return (int) packed;
+        }
+
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL_INT, Event.GET_FAILED);
+        }
+
+        throw new NoSuchElementException("No value present");
+    }
+
+    /**
+     * @see OptionalInt#ifPresent(IntConsumer)
+     */
+    public static void ifPresent(long packed, IntConsumer consumer) {
+        if (PackedOptionalInt.isPresent(packed)) {
+            consumer.accept((int) packed);
+        }
+    }
+
+    /**
+     * @see OptionalInt#isPresent()
+     */
+    public static boolean isPresent(long packed) {
+        return PackedOptionalInt.isPresent(packed);
+    }
+
+    /**
+     * @see OptionalInt#map(IntUnaryOperator)
+     */
+    public static long map(long packed, IntUnaryOperator mapper) {
+        if (PackedOptionalInt.isPresent(packed)) {
+            return PackedOptionalInt.pack(mapper.applyAsInt((int) packed));
+        }
+
+        return PackedOptionalInt.EMPTY;
+    }
+
+    /**
+     * @see OptionalInt#map(IntUnaryOperator)
+     */
+    public static long mapWrapped(OptionalInt optional, IntUnaryOperator mapper) {
+        return map(optional.toPacked(), mapper);
+    }
+
+    /**
+     * @see OptionalInt#mapToObj(IntFunction)
+     */
+    public static Object mapToObj(long packed, IntFunction<?> mapper) {
+        if (PackedOptionalInt.isPresent(packed)) {
+            return mapper.apply((int) packed);
+        }
+
+        return null;
+    }
+
+    /**
+     * @see OptionalInt#mapToObj(IntFunction)
+     */
+    public static Object mapToObjWrapped(OptionalInt optional, IntFunction<?> mapper) {
+        return mapToObj(optional.toPacked(), mapper);
+    }
+
+    /**
+     * @see OptionalInt#orElse(int)
+     */
+    public static int orElse(long packed, int other) {
+        return PackedOptionalInt.orElse(packed, other);
+    }
+
+    /**
+     * @see OptionalInt#orElseGet(IntSupplier)
+     */
+    public static int orElseGet(long packed, IntSupplier other) {
+        if (PackedOptionalInt.isPresent(packed)) {
+            return (int) packed;
+        }
+
+        if (OptionalMetrics.ENABLED) {
+            OptionalMetrics.record(Type.OPTIONAL_INT, Event.SUPPLIER_INVOKED);
+        }
+
+        return other.get();
+    }
+
+    /**
+     * @see OptionalInt#orElseThrow(Supplier)
+     */
+    public static <X extends Throwable> int orElseThrow(
+            long packed,
+            Supplier<? extends X> exceptionSupplier) throws X {
+        if (PackedOptionalInt.isPresent(packed)) {
+            return (int) packed;
+        }
+
+        throw exceptionSupplier.get();
+    }
+}
@@ -0,0 +1,316 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from {@code int} keys to {@code long} values that boxes neither, and whose lookups
+ * return an {@link OptionalLong} instead of null.
+ *
+ * <pre>{@code
+ *     IntLongMap bytesByUser = new IntLongMap();
+ *     bytesByUser.put(userId, bytesByUser.getOrElse(userId, 0) + size);
+ * }</pre>
+ *
+ * Entries live in two parallel arrays probed linearly, and removal shifts the following entries
+ * back instead of leaving tombstones, so lookups never slow down after many removals. The arrays
+ * double whenever the map is fuller than its load factor. Key zero, which marks a free slot, is
+ * stored beside the arrays.
+ *
+ * This class is not thread-safe.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class IntLongMap {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 8;
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final int FREE = 0;
+
+    private final float loadFactor;
+    private int[] keys;
+    private long[] values;
+    private int mask;
+    private int threshold;
+    // the number of entries in the arrays, so excluding the entry of key zero
+    private int assigned;
+    private boolean hasFreeKey;
+    private long freeValue;
+
+    /**
+     * Creates an empty map with room for 8 entries and a load factor of 0.5.
+     */
+    public IntLongMap() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates an empty map with a load factor of 0.5.
+     *
+     * @param expectedSize the number of entries to make room for
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public IntLongMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates an empty map. A lower load factor makes lookups probe fewer slots at the cost of
+     * memory.
+     *
+     * @param expectedSize the number of entries to make room for
+     * @param loadFactor   how full the arrays may get before they grow, between 0 and 1
+     *                     exclusive
+     * @throws IllegalArgumentException if {@code expectedSize} is negative or {@code loadFactor}
+     *                                  is not between 0 and 1 exclusive
+     */
+    public IntLongMap(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        }
+
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException(
+                    "Load factor must be between 0 and 1: " + loadFactor);
+        }
+
+        this.loadFactor = loadFactor;
+        allocate(capacityFor(expectedSize, loadFactor));
+    }
+
+    /**
+     * Removes every entry. The arrays keep their size.
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        assigned = 0;
+        hasFreeKey = false;
+        freeValue = 0;
+    }
+
+    /**
+     * @param key the key to look for
+     * @return true if the map contains {@code key}
+     */
+    public boolean containsKey(int key) {
+        if (key == FREE) {
+            return hasFreeKey;
+        }
+
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * @param key the key to look up
+     * @return an {@code OptionalLong} describing the value of {@code key}, empty if the map does
+     * not contain it
+     */
+    public OptionalLong get(int key) {
+        if (key == FREE) {
+            return hasFreeKey ? OptionalLong.of(freeValue) : OptionalLong.empty();
+        }
+
+        int index = indexOf(key);
+        if (index >= 0) {
+            return OptionalLong.of(values[index]);
+        }
+
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Looks up {@code key} without allocating.
+     *
+     * @param key   the key to look up
+     * @param other the value to return if the map does not contain {@code key}
+     * @return the value of {@code key}, or {@code other} if the map does not contain it
+     */
+    public long getOrElse(int key, long other) {
+        if (key == FREE) {
+            return hasFreeKey ? freeValue : other;
+        }
+
+        int index = indexOf(key);
+        if (index >= 0) {
+            return values[index];
+        }
+
+        return other;
+    }
+
+    /**
+     * @return true if the map contains no entries
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Associates {@code value} with {@code key}, replacing any value it had.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return true if the map did not contain {@code key} before
+     */
+    public boolean put(int key, long value) {
+        if (key == FREE) {
+            boolean added = !hasFreeKey;
+            hasFreeKey = true;
+            freeValue = value;
+            return added;
+        }
+
+        int index = slot(key);
+        while (keys[index] != FREE) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if (++assigned > threshold) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Removes {@code key} and its value, if present.
+     *
+     * @param key the key to remove
+     * @return true if the map contained {@code key}
+     */
+    public boolean remove(int key) {
+        if (key == FREE) {
+            boolean removed = hasFreeKey;
+            hasFreeKey = false;
+            return removed;
+        }
+
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+
+        shiftBack(index);
+        return true;
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int size() {
+        return hasFreeKey ? assigned + 1 : assigned;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        if (hasFreeKey) {
+            builder.append(FREE).append('=').append(freeValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                if (builder.length() > 1) {
+                    builder.append(", ");
+                }
+                builder.append(keys[i]).append('=').append(values[i]);
+            }
+        }
+        return builder.append('}').toString();
+    }
+
+    private static int capacityFor(int expectedSize, float loadFactor) {
+        long needed = (long) Math.ceil(expectedSize / (double) loadFactor);
+        int capacity = 2;
+        while (capacity < needed) {
+            if (capacity == MAXIMUM_CAPACITY) {
+                throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+            }
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        // always leave a free slot, so probing for a missing key ends
+        threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    private void grow() {
+        if (keys.length == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Map is full");
+        }
+
+        int[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(keys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key != FREE) {
+                int index = slot(key);
+                while (keys[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private int indexOf(int key) {
+        int index = slot(key);
+        while (true) {
+            int candidate = keys[index];
+            if (candidate == key) {
+                return index;
+            }
+
+            if (candidate == FREE) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Empties the slot at {@code gap} and moves back every entry after it that would no longer be
+     * found past the empty slot.
+     */
+    private void shiftBack(int gap) {
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            int key = keys[index];
+            if (key == FREE) {
+                break;
+            }
+
+            // an entry may move to the gap if its ideal slot is not between the gap and itself
+            int ideal = slot(key);
+            if (((index - ideal) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = key;
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        keys[gap] = FREE;
+        assigned--;
+    }
+
+    private int slot(int key) {
+        return mix(key) & mask;
+    }
+}
@@ -0,0 +1,304 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.Consumer;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.Predicate;
+import com.github.dmstocking.optional.java.util.function.Supplier;
+
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link Optional} whose value is computed on first use. Wrapping an expensive lookup in a
+ * {@code LazyOptional} defers the lookup until something asks whether the value is present, and
+ * skips it entirely if nothing ever does.
+ *
+ * <pre>{@code
+ *     LazyOptional<User> manager = LazyOptional.of(new Supplier<User>() {
+ *         public User get() {
+ *             return directory.findManager(user);
+ *         }
+ *     });
+ *     LazyOptional<String> email = manager.map(toEmail);
+ *
+ *     // the directory is only queried here, and only once
+ *     if (shouldNotify && email.isPresent()) {
+ *         send(email.get());
+ *     }
+ * }</pre>
+ *
+ * The value is computed at most once, even when several threads ask for it at the same time, and
+ * is safely published to every thread. Once it has been computed, reading it is a single volatile
+ * read without locking. If the supplier throws, the exception is propagated and the value is
+ * computed again on the next use.
+ *
+ * {@link #map(Function)}, {@link #filter(Predicate)} and {@link #flatMap(Function)} return new lazy
+ * optionals without computing anything, so whole chains stay lazy. All other methods compute the
+ * value. {@code equals} and {@code hashCode} are not overridden since comparing would force the
+ * computation, compare the result of {@link #toOptional()} instead.
+ *
+ * @param <T> the type of the value
+ */
+@SuppressWarnings("WeakerAccess")
+public final class LazyOptional<T> {
+
+    private volatile Optional<T> optional;
+    // guarded by this, and cleared once optional is set so the supplier can be collected
+    private Supplier<? extends Optional<? extends T>> supplier;
+
+    private LazyOptional(Supplier<? extends Optional<? extends T>> supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * Returns a {@code LazyOptional} describing the result of {@code supplier}, which is not
+     * invoked until the value is first needed. A null result is an empty optional.
+     *
+     * @param supplier the supplier of the value, which may return null
+     * @param <T>      the type of the value
+     * @return a {@code LazyOptional} describing the result of {@code supplier}
+     * @throws NullPointerException if {@code supplier} is null
+     */
+    public static <T> LazyOptional<T> of(final Supplier<? extends T> supplier) {
+        if (supplier == null) {
+            throw new NullPointerException();
+        }
+
+        return new LazyOptional<T>(new Supplier<Optional<T>>() {
+            public Optional<T> get() {
+                return Optional.<T>ofNullable(supplier.get());
+            }
+        });
+    }
+
+    /**
+     * Returns a {@code LazyOptional} describing the {@code Optional} returned by {@code supplier},
+     * which is not invoked until the value is first needed.
+     *
+     * @param supplier the supplier of the optional, which must not return null
+     * @param <T>      the type of the value
+     * @return a {@code LazyOptional} describing the result of {@code supplier}
+     * @throws NullPointerException if {@code supplier} is null
+     */
+    public static <T> LazyOptional<T> defer(Supplier<? extends Optional<? extends T>> supplier) {
+        if (supplier == null) {
+            throw new NullPointerException();
+        }
+
+        return new LazyOptional<T>(supplier);
+    }
+
+    /**
+     * Returns a lazy optional that, when computed, describes the value of this optional if it is
+     * present and matches the given predicate, otherwise is empty.
+     *
+     * @param predicate a predicate to apply to the value, if present
+     * @return a lazy filtered optional
+     * @throws NullPointerException if the predicate is null
+     */
+    public LazyOptional<T> filter(final Predicate<? super T> predicate) {
+        if (predicate == null) {
+            throw new NullPointerException();
+        }
+
+        return new LazyOptional<T>(new Supplier<Optional<T>>() {
+            public Optional<T> get() {
+                return resolve().filter(predicate);
+            }
+        });
+    }
+
+    /**
+     * Returns a lazy optional that, when computed, is the result of applying the provided {@code
+     * Optional}-bearing mapping function to the value of this optional if it is present, otherwise
+     * is empty. Computing the result throws {@code NullPointerException} if the mapping function
+     * returns null.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @param <U>    the type of the value of the {@code Optional} returned by the mapping function
+     * @return a lazy flat mapped optional
+     * @throws NullPointerException if the mapping function is null
+     */
+    public <U> LazyOptional<U> flatMap(final Function<? super T, Optional<U>> mapper) {
+        if (mapper == null) {
+            throw new NullPointerException();
+        }
+
+        return new LazyOptional<U>(new Supplier<Optional<U>>() {
+            public Optional<U> get() {
+                Optional<U> result = resolve().flatMap(mapper);
+                if (result == null) {
+                    throw new NullPointerException();
+                }
+
+                return result;
+            }
+        });
+    }
+
+    /**
+     * Returns the value if present, otherwise throws {@code NoSuchElementException}.
+     *
+     * @return the non-null value
+     * @throws NoSuchElementException if there is no value present
+     */
+    public T get() {
+        return resolve().get();
+    }
+
+    /**
+     * If a value is present, invoke the specified consumer with the value, otherwise do nothing.
+     *
+     * @param consumer block to be executed if a value is present
+     * @throws NullPointerException if value is present and {@code consumer} is null
+     */
+    public void ifPresent(Consumer<? super T> consumer) {
+        resolve().ifPresent(consumer);
+    }
+
+    /**
+     * If a value is present, invoke the specified consumer with the value, otherwise performs the
+     * given empty-based action.
+     *
+     * @param consumer    block to be executed if a value is present
+     * @param emptyAction the empty-based action to be performed, if no value is present
+     * @throws NullPointerException if value is present and {@code consumer} is null, or no value is
+     *                              present and the given empty-based action is null.
+     */
+    public void ifPresentOrElse(Consumer<? super T> consumer, Runnable emptyAction) {
+        resolve().ifPresentOrElse(consumer, emptyAction);
+    }
+
+    /**
+     * @return {@code true} if the value has already been computed, otherwise {@code false}
+     */
+    public boolean isComputed() {
+        return optional != null;
+    }
+
+    /**
+     * @return {@code true} if there is a value present, otherwise {@code false}
+     */
+    public boolean isPresent() {
+        return resolve().isPresent();
+    }
+
+    /**
+     * Returns a lazy optional that, when computed, describes the result of applying the provided
+     * mapping function to the value of this optional if it is present, otherwise is empty. A null
+     * result is an empty optional.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @param <U>    the type of the result of the mapping function
+     * @return a lazy mapped optional
+     * @throws NullPointerException if the mapping function is null
+     */
+    public <U> LazyOptional<U> map(final Function<? super T, ? extends U> mapper) {
+        if (mapper == null) {
+            throw new NullPointerException();
+        }
+
+        return new LazyOptional<U>(new Supplier<Optional<U>>() {
+            public Optional<U> get() {
+                return resolve().map(mapper);
+            }
+        });
+    }
+
+    /**
+     * If a value is present, returns an {@code Optional} describing the value, otherwise returns an
+     * {@code Optional} produced by the supplying function.
+     *
+     * @param supplier the supplying function that produces an Optional to be returned
+     * @return an {@code Optional} describing the value, if present, otherwise an {@code Optional}
+     * produced by the supplying function.
+     * @throws NullPointerException if no value is present and the supplying function is null or
+     *                              returns null
+     */
+    public Optional<T> or(Supplier<? extends Optional<? extends T>> supplier) {
+        return resolve().or(supplier);
+    }
+
+    /**
+     * Return the value if present, otherwise return {@code other}.
+     *
+     * @param other the value to be returned if there is no value present, may be null
+     * @return the value, if present, otherwise {@code other}
+     */
+    public T orElse(T other) {
+        return resolve().orElse(other);
+    }
+
+    /**
+     * Return the value if present, otherwise invoke {@code other} and return the result of that
+     * invocation.
+     *
+     * @param other a {@code Supplier} whose result is returned if no value is present
+     * @return the value if present otherwise the result of {@code other.get()}
+     * @throws NullPointerException if value is not present and {@code other} is null
+     */
+    public T orElseGet(Supplier<? extends T> other) {
+        return resolve().orElseGet(other);
+    }
+
+    /**
+     * Return the contained value, if present, otherwise throw an exception to be created by the
+     * provided supplier.
+     *
+     * @param <X>               Type of the exception to be thrown
+     * @param exceptionSupplier The supplier which will return the exception to be thrown
+     * @return the present value
+     * @throws X                    if there is no value present
+     * @throws NullPointerException if no value is present and {@code exceptionSupplier} is null
+     */
+    public <X extends Throwable> T orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+        return resolve().orElseThrow(exceptionSupplier);
+    }
+
+    /**
+     * Computes the value, if it has not been computed yet, and returns it as a plain {@code
+     * Optional}.
+     *
+     * @return an {@code Optional} describing the value
+     */
+    public Optional<T> toOptional() {
+        return resolve();
+    }
+
+    /**
+     * Returns a string representation of this optional suitable for debugging. This never computes
+     * the value.
+     *
+     * @return the string representation of this instance
+     */
+    @Override
+    public String toString() {
+        Optional<T> optional = this.optional;
+        if (optional == null) {
+            return "LazyOptional.pending";
+        }
+
+        return "Lazy" + optional;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<T> resolve() {
+        Optional<T> optional = this.optional;
+        if (optional != null) {
+            return optional;
+        }
+
+        synchronized (this) {
+            optional = this.optional;
+            if (optional == null) {
+                optional = (Optional<T>) supplier.get();
+                if (optional == null) {
+                    throw new NullPointerException();
+                }
+                this.optional = optional;
+                supplier = null;
+            }
+        }
+        return optional;
+    }
+}
@@ -0,0 +1,333 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.Optional;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from {@code long} keys to values that does not box its keys, and whose lookups
+ * return an {@link Optional} instead of null.
+ *
+ * <pre>{@code
+ *     LongObjectMap<Session> sessions = new LongObjectMap<Session>();
+ *     Optional<Session> session = sessions.get(sessionId);
+ * }</pre>
+ *
+ * Entries live in two parallel arrays probed linearly, and removal shifts the following entries
+ * back instead of leaving tombstones, so lookups never slow down after many removals. The arrays
+ * double whenever the map is fuller than its load factor. Key zero, which marks a free slot, is
+ * stored beside the arrays.
+ *
+ * This class is not thread-safe.
+ *
+ * @param <V> the type of the values
+ */
+@SuppressWarnings("WeakerAccess")
+public final class LongObjectMap<V> {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 8;
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+    private static final long FREE = 0;
+
+    private final float loadFactor;
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int threshold;
+    // the number of entries in the arrays, so excluding the entry of key zero
+    private int assigned;
+    private boolean hasFreeKey;
+    private V freeValue;
+
+    /**
+     * Creates an empty map with room for 8 entries and a load factor of 0.5.
+     */
+    public LongObjectMap() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates an empty map with a load factor of 0.5.
+     *
+     * @param expectedSize the number of entries to make room for
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public LongObjectMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates an empty map. A lower load factor makes lookups probe fewer slots at the cost of
+     * memory.
+     *
+     * @param expectedSize the number of entries to make room for
+     * @param loadFactor   how full the arrays may get before they grow, between 0 and 1
+     *                     exclusive
+     * @throws IllegalArgumentException if {@code expectedSize} is negative or {@code loadFactor}
+     *                                  is not between 0 and 1 exclusive
+     */
+    public LongObjectMap(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Negative expected size: " + expectedSize);
+        }
+
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException(
+                    "Load factor must be between 0 and 1: " + loadFactor);
+        }
+
+        this.loadFactor = loadFactor;
+        allocate(capacityFor(expectedSize, loadFactor));
+    }
+
+    /**
+     * Removes every entry. The arrays keep their size.
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        Arrays.fill(values, null);
+        assigned = 0;
+        hasFreeKey = false;
+        freeValue = null;
+    }
+
+    /**
+     * @param key the key to look for
+     * @return true if the map contains {@code key}
+     */
+    public boolean containsKey(long key) {
+        if (key == FREE) {
+            return hasFreeKey;
+        }
+
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * @param key the key to look up
+     * @return an {@code Optional} describing the value of {@code key}, empty if the map does not
+     * contain it
+     */
+    public Optional<V> get(long key) {
+        if (key == FREE) {
+            return hasFreeKey ? Optional.of(freeValue) : Optional.<V>empty();
+        }
+
+        int index = indexOf(key);
+        if (index >= 0) {
+            return Optional.of(value(index));
+        }
+
+        return Optional.<V>empty();
+    }
+
+    /**
+     * Looks up {@code key} without allocating.
+     *
+     * @param key   the key to look up
+     * @param other the value to return if the map does not contain {@code key}
+     * @return the value of {@code key}, or {@code other} if the map does not contain it
+     */
+    public V getOrElse(long key, V other) {
+        if (key == FREE) {
+            return hasFreeKey ? freeValue : other;
+        }
+
+        int index = indexOf(key);
+        if (index >= 0) {
+            return value(index);
+        }
+
+        return other;
+    }
+
+    /**
+     * @return true if the map contains no entries
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Associates {@code value} with {@code key}, replacing any value it had.
+     *
+     * @param key   the key
+     * @param value the value, which must not be null
+     * @return the previous value of {@code key}, or null if there was none
+     * @throws NullPointerException if {@code value} is null
+     */
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+
+        if (key == FREE) {
+            V previous = freeValue;
+            hasFreeKey = true;
+            freeValue = value;
+            return previous;
+        }
+
+        int index = slot(key);
+        while (keys[index] != FREE) {
+            if (keys[index] == key) {
+                V previous = value(index);
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        keys[index] = key;
+        values[index] = value;
+        if (++assigned > threshold) {
+            grow();
+        }
+        return null;
+    }
+
+    /**
+     * Removes {@code key} and its value, if present.
+     *
+     * @param key the key to remove
+     * @return the removed value, or null if there was none
+     */
+    public V remove(long key) {
+        if (key == FREE) {
+            V previous = freeValue;
+            hasFreeKey = false;
+            freeValue = null;
+            return previous;
+        }
+
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+
+        V previous = value(index);
+        shiftBack(index);
+        return previous;
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int size() {
+        return hasFreeKey ? assigned + 1 : assigned;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        if (hasFreeKey) {
+            builder.append(FREE).append('=').append(freeValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                if (builder.length() > 1) {
+                    builder.append(", ");
+                }
+                builder.append(keys[i]).append('=').append(values[i]);
+            }
+        }
+        return builder.append('}').toString();
+    }
+
+    private static int capacityFor(int expectedSize, float loadFactor) {
+        long needed = (long) Math.ceil(expectedSize / (double) loadFactor);
+        int capacity = 2;
+        while (capacity < needed) {
+            if (capacity == MAXIMUM_CAPACITY) {
+                throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+            }
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        // always leave a free slot, so probing for a missing key ends
+        threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    private void grow() {
+        if (keys.length == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Map is full");
+        }
+
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(keys.length << 1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != FREE) {
+                int index = slot(key);
+                while (keys[index] != FREE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private int indexOf(long key) {
+        int index = slot(key);
+        while (true) {
+            long candidate = keys[index];
+            if (candidate == key) {
+                return index;
+            }
+
+            if (candidate == FREE) {
+                return -1;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Empties the slot at {@code gap} and moves back every entry after it that would no longer be
+     * found past the empty slot.
+     */
+    private void shiftBack(int gap) {
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            long key = keys[index];
+            if (key == FREE) {
+                break;
+            }
+
+            // an entry may move to the gap if its ideal slot is not between the gap and itself
+            int ideal = slot(key);
+            if (((index - ideal) & mask) >= ((index - gap) & mask)) {
+                keys[gap] = key;
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        keys[gap] = FREE;
+        values[gap] = null;
+        assigned--;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int index) {
+        return (V) values[index];
+    }
+
+    private int slot(long key) {
+        return mix(key) & mask;
+    }
+}
@@ -0,0 +1,502 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.LongSupplier;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A thread-safe cache whose lookups return an {@link Optional}, and which caches a lookup that
+ * found nothing just like one that found a value. A key known to be absent is then answered from
+ * the cache instead of going to the backend on every request.
+ *
+ * <pre>{@code
+ *     OptionalCache<String, User> users = OptionalCache.<String, User>builder()
+ *             .maximumSize(10000)
+ *             .expireAfterWrite(10, TimeUnit.MINUTES)
+ *             .maximumNegativeSize(100000)
+ *             .expireNegativeAfterWrite(30, TimeUnit.SECONDS)
+ *             .build();
+ *
+ *     Optional<User> user = users.getOrLoad(id, findUserInDatabase);
+ * }</pre>
+ *
+ * Present values and empty results are kept apart, each with its own maximum size and expiry, so
+ * a flood of lookups for missing keys cannot evict the present values. The cache is split into
+ * segments by the hash of the key, each guarded by its own lock and holding two maps in access
+ * order. When a map is full its least recently used entry is evicted, so eviction is LRU within a
+ * segment and approximately LRU over the whole cache, and the sizes are only held to within one
+ * entry per segment. An expired entry is removed when it is next looked up, or evicted like any
+ * other entry once its map is full.
+ *
+ * A cache hit does not allocate, since the {@code Optional} is stored as is.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class OptionalCache<K, V> {
+
+    /*
+     * The longest expiry that is tracked, about 146 years, see Suppliers.
+     */
+    private static final long MAX_DURATION_NANOS = Long.MAX_VALUE >>> 1;
+
+    private static final LongSupplier NANO_TIME = new LongSupplier() {
+        public long get() {
+            return System.nanoTime();
+        }
+    };
+
+    private final Segment<K, V>[] segments;
+    private final long presentNanos;
+    private final long emptyNanos;
+    private final LongSupplier clock;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private OptionalCache(Builder<K, V> builder) {
+        int count = 1;
+        while (count < builder.concurrencyLevel) {
+            count <<= 1;
+        }
+
+        this.segments = new Segment[count];
+        int presentCapacity = segmentCapacity(builder.maximumSize, count);
+        int emptyCapacity = segmentCapacity(builder.maximumNegativeSize, count);
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<K, V>(presentCapacity, emptyCapacity);
+        }
+        this.presentNanos = builder.presentNanos;
+        this.emptyNanos = builder.emptyNanos;
+        this.clock = builder.clock;
+    }
+
+    /**
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     * @return a builder of an unbounded cache whose entries never expire
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<K, V>();
+    }
+
+    private static int segmentCapacity(long maximumSize, int segments) {
+        long capacity = maximumSize / segments + (maximumSize % segments == 0 ? 0 : 1);
+        return (int) Math.min(capacity, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the cached result for {@code key}. An empty {@code Optional} is returned both when
+     * the key is cached as absent and when it is not cached, use {@link #getIfCached(Object)} to
+     * tell the two apart.
+     *
+     * @param key the key to look up
+     * @return the cached value, if any
+     * @throws NullPointerException if {@code key} is null
+     */
+    public Optional<V> get(K key) {
+        Optional<V> cached = getIfCached(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * @param key the key to look up
+     * @return the cached result for {@code key}, which is empty if the key is cached as absent, or
+     * null if the key is not cached
+     * @throws NullPointerException if {@code key} is null
+     */
+    public Optional<V> getIfCached(K key) {
+        long now = clock.get();
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key, now);
+        }
+    }
+
+    /**
+     * Returns the cached result for {@code key}, or loads and caches it if it is not cached. The
+     * loader runs without holding a lock, so concurrent misses of the same key may each invoke it,
+     * and the last result loaded is the one cached. If the loader throws, nothing is cached.
+     *
+     * @param key    the key to look up
+     * @param loader a function looking up the value for a key, returning an empty {@code Optional}
+     *               if there is none
+     * @return the cached or loaded result
+     * @throws NullPointerException if {@code key} is null, or if the key is not cached and {@code
+     *                              loader} is null or returns null
+     */
+    public Optional<V> getOrLoad(K key,
+                                 Function<? super K, ? extends Optional<? extends V>> loader) {
+        Optional<V> cached = getIfCached(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Optional<V> loaded = narrow(loader.apply(key));
+        if (loaded == null) {
+            throw new NullPointerException("loader returned null for " + key);
+        }
+
+        put(key, loaded);
+        return loaded;
+    }
+
+    /**
+     * Discards the cached result for {@code key}, if any.
+     *
+     * @param key the key to discard
+     * @throws NullPointerException if {@code key} is null
+     */
+    public void invalidate(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.present.remove(key);
+            segment.empty.remove(key);
+        }
+    }
+
+    /**
+     * Discards every cached result. The statistics are kept.
+     */
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.present.clear();
+                segment.empty.clear();
+            }
+        }
+    }
+
+    /**
+     * Caches a result for {@code key}, replacing any cached before.
+     *
+     * @param key   the key to cache
+     * @param value the result to cache, an empty {@code Optional} caches the key as absent
+     * @throws NullPointerException if {@code key} or {@code value} is null
+     */
+    public void put(K key, Optional<? extends V> value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+
+        long now = clock.get();
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            if (value.isPresent()) {
+                segment.empty.remove(key);
+                segment.present.put(key, new CachedValue<V>(narrow(value), now + presentNanos));
+            } else {
+                segment.present.remove(key);
+                segment.empty.put(key, new CachedValue<V>(Optional.<V>empty(), now + emptyNanos));
+            }
+        }
+    }
+
+    /**
+     * @return the number of cached present values, including any that expired but were not
+     * removed yet
+     */
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.present.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of keys cached as absent, including any that expired but were not removed
+     * yet
+     */
+    public long negativeSize() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.empty.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return a snapshot of the statistics since the cache was built
+     */
+    public Stats stats() {
+        Stats stats = new Stats();
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                stats.hitCount += segment.hits;
+                stats.negativeHitCount += segment.negativeHits;
+                stats.missCount += segment.misses;
+                stats.evictionCount += segment.present.evictions + segment.empty.evictions;
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return "OptionalCache[size=" + size() + ", negativeSize=" + negativeSize() + "]";
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * An {@code Optional} cannot be modified, so reading an {@code Optional<? extends V>} as an
+     * {@code Optional<V>} is safe.
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> Optional<V> narrow(Optional<? extends V> optional) {
+        return (Optional<V>) optional;
+    }
+
+    /**
+     * Configures and builds an {@link OptionalCache}.
+     *
+     * @param <K> the type of the keys
+     * @param <V> the type of the values
+     */
+    public static final class Builder<K, V> {
+
+        private int concurrencyLevel = 16;
+        private long maximumSize = Long.MAX_VALUE;
+        private long maximumNegativeSize = Long.MAX_VALUE;
+        private long presentNanos = MAX_DURATION_NANOS;
+        private long emptyNanos = MAX_DURATION_NANOS;
+        private LongSupplier clock = NANO_TIME;
+
+        private Builder() {
+        }
+
+        /**
+         * @param concurrencyLevel the number of threads expected to use the cache at once, rounded
+         *                         up to a power of two to give the number of segments, 16 by
+         *                         default
+         * @return this builder
+         * @throws IllegalArgumentException if {@code concurrencyLevel} is not positive
+         */
+        public Builder<K, V> concurrencyLevel(int concurrencyLevel) {
+            if (concurrencyLevel <= 0) {
+                throw new IllegalArgumentException(
+                        "Concurrency level must be positive: " + concurrencyLevel);
+            }
+
+            this.concurrencyLevel = Math.min(concurrencyLevel, 1 << 16);
+            return this;
+        }
+
+        /**
+         * @param duration how long a present value is cached after it was put or loaded
+         * @param unit     the unit of {@code duration}
+         * @return this builder
+         * @throws IllegalArgumentException if {@code duration} is negative
+         */
+        public Builder<K, V> expireAfterWrite(long duration, TimeUnit unit) {
+            this.presentNanos = toNanos(duration, unit);
+            return this;
+        }
+
+        /**
+         * @param duration how long a key is cached as absent after it was put or loaded
+         * @param unit     the unit of {@code duration}
+         * @return this builder
+         * @throws IllegalArgumentException if {@code duration} is negative
+         */
+        public Builder<K, V> expireNegativeAfterWrite(long duration, TimeUnit unit) {
+            this.emptyNanos = toNanos(duration, unit);
+            return this;
+        }
+
+        /**
+         * @param maximumSize the approximate number of present values to cache
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maximumSize} is negative
+         */
+        public Builder<K, V> maximumSize(long maximumSize) {
+            this.maximumSize = checkSize(maximumSize);
+            return this;
+        }
+
+        /**
+         * @param maximumNegativeSize the approximate number of keys to cache as absent, zero to
+         *                            not cache absent keys at all
+         * @return this builder
+         * @throws IllegalArgumentException if {@code maximumNegativeSize} is negative
+         */
+        public Builder<K, V> maximumNegativeSize(long maximumNegativeSize) {
+            this.maximumNegativeSize = checkSize(maximumNegativeSize);
+            return this;
+        }
+
+        Builder<K, V> clock(LongSupplier clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * @return a new empty cache
+         */
+        public OptionalCache<K, V> build() {
+            return new OptionalCache<K, V>(this);
+        }
+
+        private static long checkSize(long size) {
+            if (size < 0) {
+                throw new IllegalArgumentException("Negative size: " + size);
+            }
+
+            return size;
+        }
+
+        private static long toNanos(long duration, TimeUnit unit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("Negative duration: " + duration);
+            }
+
+            return Math.min(unit.toNanos(duration), MAX_DURATION_NANOS);
+        }
+    }
+
+    /**
+     * A snapshot of the statistics of an {@link OptionalCache}.
+     */
+    public static final class Stats {
+
+        private long hitCount;
+        private long negativeHitCount;
+        private long missCount;
+        private long evictionCount;
+
+        private Stats() {
+        }
+
+        /**
+         * @return the number of lookups that found a cached present value
+         */
+        public long hitCount() {
+            return hitCount;
+        }
+
+        /**
+         * @return the number of lookups that found the key cached as absent
+         */
+        public long negativeHitCount() {
+            return negativeHitCount;
+        }
+
+        /**
+         * @return the number of lookups that found nothing cached, including expired entries
+         */
+        public long missCount() {
+            return missCount;
+        }
+
+        /**
+         * @return the number of entries removed because their map was full or they expired
+         */
+        public long evictionCount() {
+            return evictionCount;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats[hits=" + hitCount
+                    + ", negativeHits=" + negativeHitCount
+                    + ", misses=" + missCount
+                    + ", evictions=" + evictionCount + "]";
+        }
+    }
+
+    private static final class CachedValue<V> {
+
+        final Optional<V> value;
+        final long expiresAt;
+
+        CachedValue(Optional<V> value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    /**
+     * The two maps of a segment and its statistics, all guarded by the segment.
+     */
+    private static final class Segment<K, V> {
+
+        final BoundedMap<K, V> present;
+        final BoundedMap<K, V> empty;
+        long hits;
+        long negativeHits;
+        long misses;
+
+        Segment(int presentCapacity, int emptyCapacity) {
+            this.present = new BoundedMap<K, V>(presentCapacity);
+            this.empty = new BoundedMap<K, V>(emptyCapacity);
+        }
+
+        Optional<V> get(K key, long now) {
+            CachedValue<V> entry = present.get(key);
+            if (entry == null) {
+                entry = empty.get(key);
+            }
+
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+
+            if (entry.isExpired(now)) {
+                (entry.value.isPresent() ? present : empty).expire(key);
+                misses++;
+                return null;
+            }
+
+            if (entry.value.isPresent()) {
+                hits++;
+            } else {
+                negativeHits++;
+            }
+            return entry.value;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class BoundedMap<K, V> extends LinkedHashMap<K, CachedValue<V>> {
+
+        private final int capacity;
+        long evictions;
+
+        BoundedMap(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        void expire(K key) {
+            remove(key);
+            evictions++;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+            if (size() > capacity) {
+                evictions++;
+                return true;
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+/**
+ * A fixed-length array of optional {@code long} values. Values are kept in a plain {@code long[]}
+ * and presence in a {@code long[]} bitmap, so an element costs 8 bytes and one bit instead of an
+ * {@link OptionalLong} object plus a reference to it.
+ *
+ * This class is not thread-safe.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class OptionalLongArray {
+
+    private final long[] values;
+    private final long[] present;
+
+    /**
+     * Creates an array of the given length in which every element is empty.
+     *
+     * @param length the number of elements
+     * @throws NegativeArraySizeException if {@code length} is negative
+     */
+    public OptionalLongArray(int length) {
+        this.values = new long[length];
+        this.present = new long[(length + 63) >>> 6];
+    }
+
+    /**
+     * Creates an array holding the given values, where a null element is empty.
+     *
+     * @param boxed the values to copy
+     * @return a new array with the same length as {@code boxed}
+     * @throws NullPointerException if {@code boxed} is null
+     */
+    public static OptionalLongArray fromBoxed(Long[] boxed) {
+        OptionalLongArray array = new OptionalLongArray(boxed.length);
+        for (int i = 0; i < boxed.length; i++) {
+            if (boxed[i] != null) {
+                array.set(i, boxed[i]);
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Creates an array holding the values of the given optionals.
+     *
+     * @param optionals the optionals to copy
+     * @return a new array with the same length as {@code optionals}
+     * @throws NullPointerException if {@code optionals} or any of its elements is null
+     */
+    public static OptionalLongArray fromOptionals(OptionalLong[] optionals) {
+        OptionalLongArray array = new OptionalLongArray(optionals.length);
+        for (int i = 0; i < optionals.length; i++) {
+            if (optionals[i].isPresent()) {
+                array.set(i, optionals[i].getAsLong());
+            }
+        }
+        return array;
+    }
+
+    /**
+     * @return the number of elements, present or not
+     */
+    public int length() {
+        return values.length;
+    }
+
+    /**
+     * @param index the index of the element
+     * @return {@code true} if the element has a value present, otherwise {@code false}
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public boolean isPresent(int index) {
+        checkIndex(index);
+        return (present[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * @param index the index of the element
+     * @return an {@code OptionalLong} describing the element
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public OptionalLong get(int index) {
+        if (isPresent(index)) {
+            return OptionalLong.of(values[index]);
+        }
+
+        return OptionalLong.empty();
+    }
+
+    /**
+     * Returns the element if present, otherwise {@code other}. Unlike {@link #get(int)} this never
+     * allocates.
+     *
+     * @param index the index of the element
+     * @param other the value to be returned if the element is empty
+     * @return the element, if present, otherwise {@code other}
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public long getOrElse(int index, long other) {
+        if (isPresent(index)) {
+            return values[index];
+        }
+
+        return other;
+    }
+
+    /**
+     * Makes the element present with the given value.
+     *
+     * @param index the index of the element
+     * @param value the value to store
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public void set(int index, long value) {
+        checkIndex(index);
+        values[index] = value;
+        present[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Makes the element empty.
+     *
+     * @param index the index of the element
+     * @throws IndexOutOfBoundsException if {@code index} is out of range
+     */
+    public void clear(int index) {
+        checkIndex(index);
+        values[index] = 0;
+        present[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * @return the number of elements that have a value present
+     */
+    public int presentCount() {
+        int count = 0;
+        for (long word : present) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return a new array of boxed values where empty elements are null
+     */
+    public Long[] toBoxed() {
+        Long[] boxed = new Long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (isPresent(i)) {
+                boxed[i] = values[i];
+            }
+        }
+        return boxed;
+    }
+
+    /**
+     * @return a new array of optionals describing every element
+     */
+    public OptionalLong[] toOptionals() {
+        OptionalLong[] optionals = new OptionalLong[values.length];
+        for (int i = 0; i < values.length; i++) {
+            optionals[i] = get(i);
+        }
+        return optionals;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= values.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + values.length);
+        }
+    }
+}
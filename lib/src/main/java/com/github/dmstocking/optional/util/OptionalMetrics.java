@@ -0,0 +1,171 @@
+package com.github.dmstocking.optional.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Opt-in counters for how the optional classes are used at runtime: how many instances are
+ * allocated, how often an empty optional is returned, how often {@code orElseGet} and {@code or}
+ * fall through to their supplier and how often {@code get} fails.
+ *
+ * Metrics are disabled by default and are enabled by starting the JVM with
+ * {@code -Dcom.github.dmstocking.optional.metrics=true}. Call sites check {@link #ENABLED} before
+ * recording, and since it is a static final field the JIT removes the check entirely when metrics
+ * are disabled.
+ *
+ * <pre>{@code
+ *     OptionalMetrics.Snapshot snapshot = OptionalMetrics.snapshot();
+ *     for (Map.Entry<String, Long> metric : snapshot.toMap().entrySet()) {
+ *         registry.gauge(metric.getKey(), metric.getValue());
+ *     }
+ * }</pre>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class OptionalMetrics {
+
+    /**
+     * The system property that enables metrics.
+     */
+    public static final String PROPERTY = "com.github.dmstocking.optional.metrics";
+
+    /**
+     * Whether metrics are recorded. This is read once when the class is initialized.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    /**
+     * The optional classes that record metrics.
+     */
+    public enum Type {
+        OPTIONAL,
+        OPTIONAL_INT,
+        OPTIONAL_LONG,
+        OPTIONAL_DOUBLE
+    }
+
+    /**
+     * The events that are counted for each {@link Type}.
+     */
+    public enum Event {
+        /**
+         * A new instance was allocated. Instances served from a cache are not counted.
+         */
+        CREATED,
+        /**
+         * An empty instance was returned.
+         */
+        EMPTY_RETURNED,
+        /**
+         * {@code orElseGet} or {@code or} had to invoke its supplier.
+         */
+        SUPPLIER_INVOKED,
+        /**
+         * {@code get} was called on an empty instance.
+         */
+        GET_FAILED
+    }
+
+    private static final Type[] TYPES = Type.values();
+    private static final Event[] EVENTS = Event.values();
+    private static final StripedCounter[] COUNTERS =
+            new StripedCounter[TYPES.length * EVENTS.length];
+
+    static {
+        int stripes = 1;
+        if (ENABLED) {
+            while (stripes < Runtime.getRuntime().availableProcessors() && stripes < 64) {
+                stripes <<= 1;
+            }
+        }
+
+        for (int i = 0; i < COUNTERS.length; i++) {
+            COUNTERS[i] = new StripedCounter(stripes);
+        }
+    }
+
+    private OptionalMetrics() {
+    }
+
+    /**
+     * Counts one occurrence of {@code event} for {@code type}. This records regardless of {@link
+     * #ENABLED}, so callers are expected to check it first.
+     *
+     * @param type  the class the event happened in
+     * @param event the event that happened
+     */
+    public static void record(Type type, Event event) {
+        COUNTERS[index(type, event)].increment();
+    }
+
+    /**
+     * Returns the current value of every counter. Counters keep running while the snapshot is
+     * taken, so it is only consistent per counter.
+     *
+     * @return the current counts
+     */
+    public static Snapshot snapshot() {
+        long[] counts = new long[COUNTERS.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = COUNTERS[i].sum();
+        }
+        return new Snapshot(counts);
+    }
+
+    /**
+     * Sets every counter back to zero.
+     */
+    public static void reset() {
+        for (StripedCounter counter : COUNTERS) {
+            counter.reset();
+        }
+    }
+
+    private static int index(Type type, Event event) {
+        return type.ordinal() * EVENTS.length + event.ordinal();
+    }
+
+    /**
+     * The counts of every {@link Type} and {@link Event} at one point in time.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+        }
+
+        /**
+         * @param type  the class the event happened in
+         * @param event the event that happened
+         * @return how often {@code event} happened for {@code type}
+         */
+        public long get(Type type, Event event) {
+            return counts[index(type, event)];
+        }
+
+        /**
+         * Returns every count keyed by names such as {@code "optional_int.created"}, suitable for
+         * exporting to a metrics system.
+         *
+         * @return an unmodifiable map of every count
+         */
+        public Map<String, Long> toMap() {
+            Map<String, Long> map = new LinkedHashMap<String, Long>();
+            for (Type type : TYPES) {
+                for (Event event : EVENTS) {
+                    String name = type.name() + "." + event.name();
+                    map.put(name.toLowerCase(Locale.US), get(type, event));
+                }
+            }
+            return Collections.unmodifiableMap(map);
+        }
+
+        @Override
+        public String toString() {
+            return "OptionalMetrics.Snapshot" + toMap();
+        }
+    }
+}
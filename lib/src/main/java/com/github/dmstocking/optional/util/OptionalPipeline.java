@@ -0,0 +1,229 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.Predicate;
+
+/**
+ * A reusable chain of {@code map}, {@code filter} and {@code flatMap} operations that is built
+ * once and then applied to many inputs. Unlike chaining the same operations on an {@link Optional},
+ * which allocates a new {@code Optional} at every {@code map}, the stages run on the raw nullable
+ * value, so {@link #apply(Object)} allocates at most the one {@code Optional} it returns and {@link
+ * #applyOrElse(Object, Object)} allocates nothing.
+ *
+ * <pre>{@code
+ *     OptionalPipeline<String, Integer> port = OptionalPipeline.of(config::get)
+ *             .filter(isNotBlank)
+ *             .map(parseInt);
+ *
+ *     int value = port.applyOrElse("port", 8080);
+ * }</pre>
+ *
+ * Pipelines are immutable. Every operation returns a new pipeline and leaves the receiver
+ * unchanged, so a pipeline can be shared between threads as long as its functions can.
+ *
+ * @param <T> the type of the input to the pipeline
+ * @param <R> the type of the result of the pipeline
+ */
+@SuppressWarnings("WeakerAccess")
+public final class OptionalPipeline<T, R> {
+
+    private static final Stage[] NO_STAGES = new Stage[0];
+
+    private final Stage[] stages;
+
+    private OptionalPipeline(Stage[] stages) {
+        this.stages = stages;
+    }
+
+    /**
+     * Returns a pipeline without any stages, which describes its input as is.
+     *
+     * @param <T> the type of the input to the pipeline
+     * @return a pipeline without any stages
+     */
+    public static <T> OptionalPipeline<T, T> identity() {
+        return new OptionalPipeline<T, T>(NO_STAGES);
+    }
+
+    /**
+     * Returns a pipeline that starts by applying the given mapping function to its input.
+     *
+     * @param mapper a mapping function to apply to the input, if non-null
+     * @param <T>    the type of the input to the pipeline
+     * @param <R>    the type of the result of the mapping function
+     * @return a pipeline with a single mapping stage
+     * @throws NullPointerException if the mapping function is null
+     */
+    public static <T, R> OptionalPipeline<T, R> of(Function<? super T, ? extends R> mapper) {
+        return OptionalPipeline.<T>identity().map(mapper);
+    }
+
+    /**
+     * Returns a pipeline that additionally discards the value if it does not match the given
+     * predicate.
+     *
+     * @param predicate a predicate to apply to the value, if present
+     * @return a new pipeline with the filter stage appended
+     * @throws NullPointerException if the predicate is null
+     * @see Optional#filter(Predicate)
+     */
+    public OptionalPipeline<T, R> filter(Predicate<? super R> predicate) {
+        if (predicate == null) {
+            throw new NullPointerException();
+        }
+
+        return append(new FilterStage(predicate));
+    }
+
+    /**
+     * Returns a pipeline that additionally applies the given mapping function to the value. A null
+     * result of the mapping function empties the pipeline.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @param <U>    the type of the result of the mapping function
+     * @return a new pipeline with the mapping stage appended
+     * @throws NullPointerException if the mapping function is null
+     * @see Optional#map(Function)
+     */
+    public <U> OptionalPipeline<T, U> map(Function<? super R, ? extends U> mapper) {
+        if (mapper == null) {
+            throw new NullPointerException();
+        }
+
+        return append(new MapStage(mapper));
+    }
+
+    /**
+     * Returns a pipeline that additionally applies the given {@code Optional}-bearing mapping
+     * function to the value.
+     *
+     * @param mapper a mapping function to apply to the value, if present
+     * @param <U>    the type parameter to the {@code Optional} returned by the mapping function
+     * @return a new pipeline with the mapping stage appended
+     * @throws NullPointerException if the mapping function is null
+     * @see Optional#flatMap(Function)
+     */
+    public <U> OptionalPipeline<T, U> flatMap(Function<? super R, Optional<U>> mapper) {
+        if (mapper == null) {
+            throw new NullPointerException();
+        }
+
+        return append(new FlatMapStage(mapper));
+    }
+
+    /**
+     * Runs every stage of this pipeline on the given input and describes the result.
+     *
+     * @param input the possibly-null input
+     * @return an {@code Optional} describing the result of the pipeline, or an empty {@code
+     * Optional} if the input was null or any stage emptied it
+     * @throws NullPointerException if a {@code flatMap} stage returned a null result
+     */
+    public Optional<R> apply(T input) {
+        return Optional.ofNullable(run(input));
+    }
+
+    /**
+     * Runs every stage of this pipeline on the given input and returns the result, or {@code
+     * other} if there is none. No {@code Optional} is allocated.
+     *
+     * @param input the possibly-null input
+     * @param other the value to be returned if the pipeline produced no value, may be null
+     * @return the result of the pipeline, if any, otherwise {@code other}
+     * @throws NullPointerException if a {@code flatMap} stage returned a null result
+     */
+    public R applyOrElse(T input, R other) {
+        R result = run(input);
+        if (result != null) {
+            return result;
+        }
+
+        return other;
+    }
+
+    @SuppressWarnings("unchecked")
+    private R run(T input) {
+        Object value = input;
+        for (Stage stage : stages) {
+            if (value == null) {
+                return null;
+            }
+
+            value = stage.apply(value);
+        }
+
+        return (R) value;
+    }
+
+    private <U> OptionalPipeline<T, U> append(Stage stage) {
+        Stage[] appended = new Stage[stages.length + 1];
+        System.arraycopy(stages, 0, appended, 0, stages.length);
+        appended[stages.length] = stage;
+        return new OptionalPipeline<T, U>(appended);
+    }
+
+    private abstract static class Stage {
+
+        /**
+         * Applies this stage to a non-null value.
+         *
+         * @return the next value, or null if the pipeline is now empty
+         */
+        abstract Object apply(Object value);
+    }
+
+    private static final class MapStage extends Stage {
+
+        private final Function<Object, ?> mapper;
+
+        @SuppressWarnings("unchecked")
+        MapStage(Function<?, ?> mapper) {
+            this.mapper = (Function<Object, ?>) mapper;
+        }
+
+        @Override
+        Object apply(Object value) {
+            return mapper.apply(value);
+        }
+    }
+
+    private static final class FilterStage extends Stage {
+
+        private final Predicate<Object> predicate;
+
+        @SuppressWarnings("unchecked")
+        FilterStage(Predicate<?> predicate) {
+            this.predicate = (Predicate<Object>) predicate;
+        }
+
+        @Override
+        Object apply(Object value) {
+            if (predicate.test(value)) {
+                return value;
+            }
+
+            return null;
+        }
+    }
+
+    private static final class FlatMapStage extends Stage {
+
+        private final Function<Object, ? extends Optional<?>> mapper;
+
+        @SuppressWarnings("unchecked")
+        FlatMapStage(Function<?, ? extends Optional<?>> mapper) {
+            this.mapper = (Function<Object, ? extends Optional<?>>) mapper;
+        }
+
+        @Override
+        Object apply(Object value) {
+            Optional<?> result = mapper.apply(value);
+            if (result == null) {
+                throw new NullPointerException();
+            }
+
+            return result.orElse(null);
+        }
+    }
+}
@@ -0,0 +1,799 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+import com.github.dmstocking.optional.java.util.function.BiFunction;
+import com.github.dmstocking.optional.java.util.function.Consumer;
+import com.github.dmstocking.optional.java.util.function.DoubleBinaryOperator;
+import com.github.dmstocking.optional.java.util.function.DoubleConsumer;
+import com.github.dmstocking.optional.java.util.function.DoubleUnaryOperator;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.IntBinaryOperator;
+import com.github.dmstocking.optional.java.util.function.IntConsumer;
+import com.github.dmstocking.optional.java.util.function.IntUnaryOperator;
+import com.github.dmstocking.optional.java.util.function.LongBinaryOperator;
+import com.github.dmstocking.optional.java.util.function.LongConsumer;
+import com.github.dmstocking.optional.java.util.function.LongUnaryOperator;
+
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Static utility methods for working with many optionals at once, such as the results of a fan-out
+ * lookup.
+ *
+ * Lists that implement {@link RandomAccess} are walked by index, so none of these methods allocate
+ * an iterator or an intermediate collection. Methods that return a new array first count the
+ * present values, so the array is allocated once with the exact size. The {@code zip} methods
+ * check that every value is present before invoking their function, so combining optionals
+ * allocates at most the result.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class Optionals {
+
+    /*
+     * The smallest chunk of elements claimed at once by parallelMap, and below which an array is
+     * mapped on the calling thread alone. Mapping an optional is only a few nanoseconds of work, so
+     * smaller chunks would spend more time claiming work than doing it.
+     */
+    static final int MIN_CHUNK = 1024;
+
+    private Optionals() {
+    }
+
+    /**
+     * @param optionals the optionals to count
+     * @return the number of optionals that have a value present
+     * @throws NullPointerException if the list or any element is null
+     */
+    public static int countPresent(List<? extends Optional<?>> optionals) {
+        int count = 0;
+        if (optionals instanceof RandomAccess) {
+            for (int i = 0, size = optionals.size(); i < size; i++) {
+                if (optionals.get(i).isPresent()) {
+                    count++;
+                }
+            }
+        } else {
+            for (Optional<?> optional : optionals) {
+                if (optional.isPresent()) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param optionals the optionals to count
+     * @return the number of optionals that have a value present
+     * @throws NullPointerException if the array or any element is null
+     */
+    public static int countPresent(Optional<?>[] optionals) {
+        int count = 0;
+        for (Optional<?> optional : optionals) {
+            if (optional.isPresent()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param optionals the optionals to count
+     * @return the number of optionals that have a value present
+     * @throws NullPointerException if the array or any element is null
+     */
+    public static int countPresent(OptionalInt[] optionals) {
+        int count = 0;
+        for (OptionalInt optional : optionals) {
+            if (optional.isPresent()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param optionals the optionals to count
+     * @return the number of optionals that have a value present
+     * @throws NullPointerException if the array or any element is null
+     */
+    public static int countPresent(OptionalLong[] optionals) {
+        int count = 0;
+        for (OptionalLong optional : optionals) {
+            if (optional.isPresent()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param optionals the optionals to count
+     * @return the number of optionals that have a value present
+     * @throws NullPointerException if the array or any element is null
+     */
+    public static int countPresent(OptionalDouble[] optionals) {
+        int count = 0;
+        for (OptionalDouble optional : optionals) {
+            if (optional.isPresent()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the present values into {@code dest}, in order, starting at index 0.
+     *
+     * @param optionals the optionals to collect
+     * @param dest      the array to write into, which must have room for {@link
+     *                  #countPresent(List)} values
+     * @param <T>       the type of the values
+     * @return the number of values written
+     * @throws IndexOutOfBoundsException if {@code dest} is too small, in which case it is filled
+     *                                   with the first values
+     * @throws NullPointerException      if the list, any element or {@code dest} is null
+     */
+    public static <T> int collectPresent(List<? extends Optional<? extends T>> optionals, T[] dest) {
+        int count = 0;
+        if (optionals instanceof RandomAccess) {
+            for (int i = 0, size = optionals.size(); i < size; i++) {
+                Optional<? extends T> optional = optionals.get(i);
+                if (optional.isPresent()) {
+                    checkRoom(count, dest.length, optionals);
+                    dest[count++] = optional.get();
+                }
+            }
+        } else {
+            for (Optional<? extends T> optional : optionals) {
+                if (optional.isPresent()) {
+                    checkRoom(count, dest.length, optionals);
+                    dest[count++] = optional.get();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the present values into {@code dest}, in order, starting at index 0.
+     *
+     * @param optionals the optionals to collect
+     * @param dest      the array to write into, which must have room for {@link
+     *                  #countPresent(Optional[])} values
+     * @param <T>       the type of the values
+     * @return the number of values written
+     * @throws IndexOutOfBoundsException if {@code dest} is too small, in which case it is filled
+     *                                   with the first values
+     * @throws NullPointerException      if the array, any element or {@code dest} is null
+     */
+    public static <T> int collectPresent(Optional<? extends T>[] optionals, T[] dest) {
+        int count = 0;
+        for (Optional<? extends T> optional : optionals) {
+            if (optional.isPresent()) {
+                if (count == dest.length) {
+                    throw tooSmall(dest.length, countPresent(optionals));
+                }
+                dest[count++] = optional.get();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the present values into {@code dest}, in order, starting at index 0.
+     *
+     * @param optionals the optionals to collect
+     * @param dest      the array to write into, which must have room for {@link
+     *                  #countPresent(OptionalInt[])} values
+     * @return the number of values written
+     * @throws IndexOutOfBoundsException if {@code dest} is too small, in which case it is filled
+     *                                   with the first values
+     * @throws NullPointerException      if the array, any element or {@code dest} is null
+     */
+    public static int collectPresent(OptionalInt[] optionals, int[] dest) {
+        int count = 0;
+        for (OptionalInt optional : optionals) {
+            if (optional.isPresent()) {
+                if (count == dest.length) {
+                    throw tooSmall(dest.length, countPresent(optionals));
+                }
+                dest[count++] = optional.getAsInt();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the present values into {@code dest}, in order, starting at index 0.
+     *
+     * @param optionals the optionals to collect
+     * @param dest      the array to write into, which must have room for {@link
+     *                  #countPresent(OptionalLong[])} values
+     * @return the number of values written
+     * @throws IndexOutOfBoundsException if {@code dest} is too small, in which case it is filled
+     *                                   with the first values
+     * @throws NullPointerException      if the array, any element or {@code dest} is null
+     */
+    public static int collectPresent(OptionalLong[] optionals, long[] dest) {
+        int count = 0;
+        for (OptionalLong optional : optionals) {
+            if (optional.isPresent()) {
+                if (count == dest.length) {
+                    throw tooSmall(dest.length, countPresent(optionals));
+                }
+                dest[count++] = optional.getAsLong();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the present values into {@code dest}, in order, starting at index 0.
+     *
+     * @param optionals the optionals to collect
+     * @param dest      the array to write into, which must have room for {@link
+     *                  #countPresent(OptionalDouble[])} values
+     * @return the number of values written
+     * @throws IndexOutOfBoundsException if {@code dest} is too small, in which case it is filled
+     *                                   with the first values
+     * @throws NullPointerException      if the array, any element or {@code dest} is null
+     */
+    public static int collectPresent(OptionalDouble[] optionals, double[] dest) {
+        int count = 0;
+        for (OptionalDouble optional : optionals) {
+            if (optional.isPresent()) {
+                if (count == dest.length) {
+                    throw tooSmall(dest.length, countPresent(optionals));
+                }
+                dest[count++] = optional.getAsDouble();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param optionals the optionals to collect
+     * @return a new array holding exactly the present values, in order
+     * @throws NullPointerException if the array or any element is null
+     */
+    public static int[] toIntArray(OptionalInt[] optionals) {
+        int[] values = new int[countPresent(optionals)];
+        collectPresent(optionals, values);
+        return values;
+    }
+
+    /**
+     * @param optionals the optionals to collect
+     * @return a new array holding exactly the present values, in order
+     * @throws NullPointerException if the array or any element is null
+     */
+    public static long[] toLongArray(OptionalLong[] optionals) {
+        long[] values = new long[countPresent(optionals)];
+        collectPresent(optionals, values);
+        return values;
+    }
+
+    /**
+     * @param optionals the optionals to collect
+     * @return a new array holding exactly the present values, in order
+     * @throws NullPointerException if the array or any element is null
+     */
+    public static double[] toDoubleArray(OptionalDouble[] optionals) {
+        double[] values = new double[countPresent(optionals)];
+        collectPresent(optionals, values);
+        return values;
+    }
+
+    /**
+     * Invokes {@code consumer} with every present value, in order.
+     *
+     * @param optionals the optionals to visit
+     * @param consumer  block to be executed for every present value
+     * @param <T>       the type of the values
+     * @throws NullPointerException if the list or any element is null, or a value is present and
+     *                              {@code consumer} is null
+     */
+    public static <T> void forEachPresent(List<? extends Optional<? extends T>> optionals,
+                                          Consumer<? super T> consumer) {
+        if (optionals instanceof RandomAccess) {
+            for (int i = 0, size = optionals.size(); i < size; i++) {
+                Optional<? extends T> optional = optionals.get(i);
+                if (optional.isPresent()) {
+                    consumer.accept(optional.get());
+                }
+            }
+        } else {
+            for (Optional<? extends T> optional : optionals) {
+                if (optional.isPresent()) {
+                    consumer.accept(optional.get());
+                }
+            }
+        }
+    }
+
+    /**
+     * Invokes {@code consumer} with every present value, in order.
+     *
+     * @param optionals the optionals to visit
+     * @param consumer  block to be executed for every present value
+     * @param <T>       the type of the values
+     * @throws NullPointerException if the array or any element is null, or a value is present and
+     *                              {@code consumer} is null
+     */
+    public static <T> void forEachPresent(Optional<? extends T>[] optionals,
+                                          Consumer<? super T> consumer) {
+        for (Optional<? extends T> optional : optionals) {
+            if (optional.isPresent()) {
+                consumer.accept(optional.get());
+            }
+        }
+    }
+
+    /**
+     * Invokes {@code consumer} with every present value, in order.
+     *
+     * @param optionals the optionals to visit
+     * @param consumer  block to be executed for every present value
+     * @throws NullPointerException if the array or any element is null, or a value is present and
+     *                              {@code consumer} is null
+     */
+    public static void forEachPresent(OptionalInt[] optionals, IntConsumer consumer) {
+        for (OptionalInt optional : optionals) {
+            if (optional.isPresent()) {
+                consumer.accept(optional.getAsInt());
+            }
+        }
+    }
+
+    /**
+     * Invokes {@code consumer} with every present value, in order.
+     *
+     * @param optionals the optionals to visit
+     * @param consumer  block to be executed for every present value
+     * @throws NullPointerException if the array or any element is null, or a value is present and
+     *                              {@code consumer} is null
+     */
+    public static void forEachPresent(OptionalLong[] optionals, LongConsumer consumer) {
+        for (OptionalLong optional : optionals) {
+            if (optional.isPresent()) {
+                consumer.accept(optional.getAsLong());
+            }
+        }
+    }
+
+    /**
+     * Invokes {@code consumer} with every present value, in order.
+     *
+     * @param optionals the optionals to visit
+     * @param consumer  block to be executed for every present value
+     * @throws NullPointerException if the array or any element is null, or a value is present and
+     *                              {@code consumer} is null
+     */
+    public static void forEachPresent(OptionalDouble[] optionals, DoubleConsumer consumer) {
+        for (OptionalDouble optional : optionals) {
+            if (optional.isPresent()) {
+                consumer.accept(optional.getAsDouble());
+            }
+        }
+    }
+
+    /**
+     * Combines the values of two optionals, without the nested {@code flatMap} and {@code map}
+     * calls that would allocate a capturing function and an intermediate optional.
+     *
+     * @param a      the first optional
+     * @param b      the second optional
+     * @param zipper a function to apply to the values if both are present
+     * @param <A>    the type of the first value
+     * @param <B>    the type of the second value
+     * @param <R>    the type of the result of the function
+     * @return an {@code Optional} describing the result of applying {@code zipper} to the values,
+     * if both are present and the result is non-null, otherwise an empty {@code Optional}
+     * @throws NullPointerException if any argument is null
+     */
+    public static <A, B, R> Optional<R> zip(Optional<? extends A> a, Optional<? extends B> b,
+                                            BiFunction<? super A, ? super B, ? extends R> zipper) {
+        if (a == null || b == null || zipper == null) {
+            throw new NullPointerException();
+        }
+
+        if (!a.isPresent() || !b.isPresent()) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(zipper.apply(a.get(), b.get()));
+    }
+
+    /**
+     * Combines the values of three optionals, as described by {@link #zip(Optional, Optional,
+     * BiFunction)}.
+     *
+     * @param a      the first optional
+     * @param b      the second optional
+     * @param c      the third optional
+     * @param zipper a function to apply to the values if all are present
+     * @param <A>    the type of the first value
+     * @param <B>    the type of the second value
+     * @param <C>    the type of the third value
+     * @param <R>    the type of the result of the function
+     * @return an {@code Optional} describing the result of applying {@code zipper} to the values,
+     * if all are present and the result is non-null, otherwise an empty {@code Optional}
+     * @throws NullPointerException if any argument is null
+     */
+    public static <A, B, C, R> Optional<R> zip(
+            Optional<? extends A> a, Optional<? extends B> b, Optional<? extends C> c,
+            Function3<? super A, ? super B, ? super C, ? extends R> zipper) {
+        if (a == null || b == null || c == null || zipper == null) {
+            throw new NullPointerException();
+        }
+
+        if (!a.isPresent() || !b.isPresent() || !c.isPresent()) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(zipper.apply(a.get(), b.get(), c.get()));
+    }
+
+    /**
+     * Combines the values of four optionals, as described by {@link #zip(Optional, Optional,
+     * BiFunction)}.
+     *
+     * @param a      the first optional
+     * @param b      the second optional
+     * @param c      the third optional
+     * @param d      the fourth optional
+     * @param zipper a function to apply to the values if all are present
+     * @param <A>    the type of the first value
+     * @param <B>    the type of the second value
+     * @param <C>    the type of the third value
+     * @param <D>    the type of the fourth value
+     * @param <R>    the type of the result of the function
+     * @return an {@code Optional} describing the result of applying {@code zipper} to the values,
+     * if all are present and the result is non-null, otherwise an empty {@code Optional}
+     * @throws NullPointerException if any argument is null
+     */
+    public static <A, B, C, D, R> Optional<R> zip(
+            Optional<? extends A> a, Optional<? extends B> b, Optional<? extends C> c,
+            Optional<? extends D> d,
+            Function4<? super A, ? super B, ? super C, ? super D, ? extends R> zipper) {
+        if (a == null || b == null || c == null || d == null || zipper == null) {
+            throw new NullPointerException();
+        }
+
+        if (!a.isPresent() || !b.isPresent() || !c.isPresent() || !d.isPresent()) {
+            return Optional.empty();
+        }
+
+        return Optional.ofNullable(zipper.apply(a.get(), b.get(), c.get(), d.get()));
+    }
+
+    /**
+     * Combines the values of two optionals, as described by {@link #zip(Optional, Optional,
+     * BiFunction)}. The result comes from {@link OptionalInt#of(int)}, so small results are shared
+     * instances and allocate nothing.
+     *
+     * @param a      the first optional
+     * @param b      the second optional
+     * @param zipper an operator to apply to the values if both are present
+     * @return an {@code OptionalInt} holding the result of applying {@code zipper} to the values,
+     * if both are present, otherwise an empty {@code OptionalInt}
+     * @throws NullPointerException if any argument is null
+     */
+    public static OptionalInt zip(OptionalInt a, OptionalInt b, IntBinaryOperator zipper) {
+        if (a == null || b == null || zipper == null) {
+            throw new NullPointerException();
+        }
+
+        if (!a.isPresent() || !b.isPresent()) {
+            return OptionalInt.empty();
+        }
+
+        return OptionalInt.of(zipper.applyAsInt(a.getAsInt(), b.getAsInt()));
+    }
+
+    /**
+     * Combines the values of two optionals, as described by {@link #zip(OptionalInt, OptionalInt,
+     * IntBinaryOperator)}.
+     *
+     * @param a      the first optional
+     * @param b      the second optional
+     * @param zipper an operator to apply to the values if both are present
+     * @return an {@code OptionalLong} holding the result of applying {@code zipper} to the values,
+     * if both are present, otherwise an empty {@code OptionalLong}
+     * @throws NullPointerException if any argument is null
+     */
+    public static OptionalLong zip(OptionalLong a, OptionalLong b, LongBinaryOperator zipper) {
+        if (a == null || b == null || zipper == null) {
+            throw new NullPointerException();
+        }
+
+        if (!a.isPresent() || !b.isPresent()) {
+            return OptionalLong.empty();
+        }
+
+        return OptionalLong.of(zipper.applyAsLong(a.getAsLong(), b.getAsLong()));
+    }
+
+    /**
+     * Combines the values of two optionals, as described by {@link #zip(OptionalInt, OptionalInt,
+     * IntBinaryOperator)}.
+     *
+     * @param a      the first optional
+     * @param b      the second optional
+     * @param zipper an operator to apply to the values if both are present
+     * @return an {@code OptionalDouble} holding the result of applying {@code zipper} to the
+     * values, if both are present, otherwise an empty {@code OptionalDouble}
+     * @throws NullPointerException if any argument is null
+     */
+    public static OptionalDouble zip(OptionalDouble a, OptionalDouble b,
+                                     DoubleBinaryOperator zipper) {
+        if (a == null || b == null || zipper == null) {
+            throw new NullPointerException();
+        }
+
+        if (!a.isPresent() || !b.isPresent()) {
+            return OptionalDouble.empty();
+        }
+
+        return OptionalDouble.of(zipper.applyAsDouble(a.getAsDouble(), b.getAsDouble()));
+    }
+
+    /**
+     * Maps every optional in {@code in} into the same index of {@code out} using several threads,
+     * so that {@code out[i]} is {@code in[i].map(mapper)}. Empty elements are written as empty
+     * without invoking {@code mapper}.
+     *
+     * The calling thread takes part in the work and helper tasks are submitted to {@code executor},
+     * up to one less than the number of available processors. Elements are handed out in chunks
+     * that shrink as the remaining work does, so threads that are slow to start, or that get slow
+     * elements, do not hold up the rest. This method returns once every element has been mapped and
+     * never waits for a helper that has not started by then, so it is safe to call from a thread of
+     * {@code executor}, and if {@code executor} rejects the helpers the caller maps everything by
+     * itself. Each element is written exactly once, so the result does not depend on how many
+     * threads take part. {@code in} and {@code out} may be the same array.
+     *
+     * @param in       the optionals to map
+     * @param mapper   a mapping function to apply to every present value
+     * @param out      the array to write the results into, which must be at least as long as
+     *                 {@code in}
+     * @param executor the executor to run helper tasks on
+     * @param <T>      the type of the values
+     * @param <R>      the type of the results of the mapping function
+     * @throws IndexOutOfBoundsException if {@code out} is shorter than {@code in}
+     * @throws NullPointerException      if any argument or element is null
+     * @throws RuntimeException          if {@code mapper} throws, in which case the first exception
+     *                                   is rethrown once every thread has stopped, and {@code out}
+     *                                   is partially written
+     */
+    public static <T, R> void parallelMap(final Optional<? extends T>[] in,
+                                          final Function<? super T, ? extends R> mapper,
+                                          final Optional<R>[] out, Executor executor) {
+        checkParallelMap(in.length, out.length, mapper, executor);
+        new ParallelMap(in.length) {
+            @Override
+            void map(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    out[i] = in[i].map(mapper);
+                }
+            }
+        }.run(executor);
+    }
+
+    /**
+     * Maps every optional in {@code in} into the same index of {@code out} using several threads,
+     * as described by {@link #parallelMap(Optional[], Function, Optional[], Executor)}.
+     *
+     * @param in       the optionals to map
+     * @param mapper   a mapping function to apply to every present value
+     * @param out      the array to write the results into, which must be at least as long as
+     *                 {@code in}
+     * @param executor the executor to run helper tasks on
+     * @throws IndexOutOfBoundsException if {@code out} is shorter than {@code in}
+     * @throws NullPointerException      if any argument or element is null
+     */
+    public static void parallelMap(final OptionalInt[] in, final IntUnaryOperator mapper,
+                                   final OptionalInt[] out, Executor executor) {
+        checkParallelMap(in.length, out.length, mapper, executor);
+        new ParallelMap(in.length) {
+            @Override
+            void map(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    out[i] = in[i].map(mapper);
+                }
+            }
+        }.run(executor);
+    }
+
+    /**
+     * Maps every optional in {@code in} into the same index of {@code out} using several threads,
+     * as described by {@link #parallelMap(Optional[], Function, Optional[], Executor)}.
+     *
+     * @param in       the optionals to map
+     * @param mapper   a mapping function to apply to every present value
+     * @param out      the array to write the results into, which must be at least as long as
+     *                 {@code in}
+     * @param executor the executor to run helper tasks on
+     * @throws IndexOutOfBoundsException if {@code out} is shorter than {@code in}
+     * @throws NullPointerException      if any argument or element is null
+     */
+    public static void parallelMap(final OptionalLong[] in, final LongUnaryOperator mapper,
+                                   final OptionalLong[] out, Executor executor) {
+        checkParallelMap(in.length, out.length, mapper, executor);
+        new ParallelMap(in.length) {
+            @Override
+            void map(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    out[i] = in[i].map(mapper);
+                }
+            }
+        }.run(executor);
+    }
+
+    /**
+     * Maps every optional in {@code in} into the same index of {@code out} using several threads,
+     * as described by {@link #parallelMap(Optional[], Function, Optional[], Executor)}.
+     *
+     * @param in       the optionals to map
+     * @param mapper   a mapping function to apply to every present value
+     * @param out      the array to write the results into, which must be at least as long as
+     *                 {@code in}
+     * @param executor the executor to run helper tasks on
+     * @throws IndexOutOfBoundsException if {@code out} is shorter than {@code in}
+     * @throws NullPointerException      if any argument or element is null
+     */
+    public static void parallelMap(final OptionalDouble[] in, final DoubleUnaryOperator mapper,
+                                   final OptionalDouble[] out, Executor executor) {
+        checkParallelMap(in.length, out.length, mapper, executor);
+        new ParallelMap(in.length) {
+            @Override
+            void map(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    out[i] = in[i].map(mapper);
+                }
+            }
+        }.run(executor);
+    }
+
+    private static void checkParallelMap(int in, int out, Object mapper, Executor executor) {
+        if (mapper == null || executor == null) {
+            throw new NullPointerException();
+        }
+
+        if (out < in) {
+            throw new IndexOutOfBoundsException(
+                    "Destination has room for " + out + " values but " + in + " are needed");
+        }
+    }
+
+    private static void checkRoom(int count, int length, List<? extends Optional<?>> optionals) {
+        if (count == length) {
+            throw tooSmall(length, countPresent(optionals));
+        }
+    }
+
+    private static IndexOutOfBoundsException tooSmall(int length, int present) {
+        return new IndexOutOfBoundsException(
+                "Destination has room for " + length + " values but " + present + " are present");
+    }
+
+    /**
+     * Splits the indexes {@code [0, length)} between the calling thread and helper tasks. Work is
+     * claimed from a shared cursor in chunks of the remaining work divided by twice the number of
+     * threads, so chunks start large to keep claiming cheap and shrink towards the end so that all
+     * threads finish at about the same time.
+     */
+    private abstract static class ParallelMap implements Runnable {
+
+        private final int length;
+        private final int threads;
+        private final AtomicInteger cursor = new AtomicInteger();
+        private volatile Throwable failure;
+
+        // guarded by this
+        private int running;
+        private boolean closed;
+
+        ParallelMap(int length) {
+            this.length = length;
+            int chunks = (length + MIN_CHUNK - 1) / MIN_CHUNK;
+            int processors = Runtime.getRuntime().availableProcessors();
+            this.threads = Math.max(1, Math.min(processors, chunks));
+        }
+
+        abstract void map(int from, int to);
+
+        void run(Executor executor) {
+            for (int i = 1; i < threads; i++) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    break;
+                }
+            }
+
+            work();
+
+            boolean interrupted = false;
+            synchronized (this) {
+                closed = true;
+                while (running > 0) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        // helpers may still be writing, so keep waiting and restore the interrupt
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            Throwable failure = this.failure;
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+
+            if (failure != null) {
+                throw new RuntimeException(failure);
+            }
+        }
+
+        /**
+         * Runs a helper, unless the caller has already finished, in which case there is nothing
+         * left to do and the caller is not waiting for it.
+         */
+        public void run() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                running++;
+            }
+
+            try {
+                work();
+            } finally {
+                synchronized (this) {
+                    running--;
+                    notifyAll();
+                }
+            }
+        }
+
+        private void work() {
+            try {
+                while (failure == null) {
+                    int from = cursor.get();
+                    if (from >= length) {
+                        return;
+                    }
+
+                    int size = Math.max(MIN_CHUNK, (length - from) / (threads * 2));
+                    int to = (int) Math.min((long) from + size, length);
+                    if (cursor.compareAndSet(from, to)) {
+                        map(from, to);
+                    }
+                }
+            } catch (Throwable t) {
+                synchronized (this) {
+                    if (failure == null) {
+                        failure = t;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.dmstocking.optional.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Encodes an optional {@code double} in a single {@code long}, so it can be returned from a method
+ * or stored in a {@code long[]} without allocating an {@link
+ * com.github.dmstocking.optional.java.util.OptionalDouble}.
+ *
+ * Present values are stored as their {@link Double#doubleToLongBits(double)} bits, which collapses
+ * every NaN to the canonical NaN. That leaves the other NaN bit patterns free, and {@link #EMPTY}
+ * is one of them. As a result every {@code double} can be packed, but NaN payloads are not
+ * preserved. Note that a freshly allocated {@code long[]} is full of present zeros, so fill it
+ * with {@link #EMPTY} first.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class PackedOptionalDouble {
+
+    /**
+     * The packed form of an empty optional, a NaN bit pattern that {@link #pack(double)} never
+     * produces.
+     */
+    public static final long EMPTY = 0x7FF0000000000001L;
+
+    private PackedOptionalDouble() {
+    }
+
+    /**
+     * @param value the value to be present
+     * @return the packed form of an optional with {@code value} present
+     */
+    public static long pack(double value) {
+        return Double.doubleToLongBits(value);
+    }
+
+    /**
+     * @param packed a packed optional
+     * @return {@code true} if a value is present, otherwise {@code false}
+     */
+    public static boolean isPresent(long packed) {
+        return packed != EMPTY;
+    }
+
+    /**
+     * @param packed a packed optional
+     * @return the value of the packed optional
+     * @throws NoSuchElementException if there is no value present
+     */
+    public static double value(long packed) {
+        if (isPresent(packed)) {
+            return Double.longBitsToDouble(packed);
+        }
+
+        throw new NoSuchElementException("No value present");
+    }
+
+    /**
+     * @param packed a packed optional
+     * @param other  the value to be returned if there is no value present
+     * @return the value, if present, otherwise {@code other}
+     */
+    public static double orElse(long packed, double other) {
+        if (isPresent(packed)) {
+            return Double.longBitsToDouble(packed);
+        }
+
+        return other;
+    }
+}
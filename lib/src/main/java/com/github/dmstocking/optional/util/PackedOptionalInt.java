@@ -0,0 +1,75 @@
+package com.github.dmstocking.optional.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Encodes an optional {@code int} in a single {@code long}, so it can be returned from a method or
+ * stored in a {@code long[]} without allocating an {@link
+ * com.github.dmstocking.optional.java.util.OptionalInt}.
+ *
+ * The low 32 bits hold the value and bit 32 marks it as present. Every {@code int} can be packed
+ * and {@link #EMPTY} is zero, so a freshly allocated {@code long[]} is full of empty values.
+ *
+ * <pre>{@code
+ *     long packed = PackedOptionalInt.pack(42);
+ *     if (PackedOptionalInt.isPresent(packed)) {
+ *         int value = PackedOptionalInt.value(packed);
+ *     }
+ * }</pre>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class PackedOptionalInt {
+
+    /**
+     * The packed form of an empty optional.
+     */
+    public static final long EMPTY = 0L;
+
+    private static final long PRESENT = 1L << 32;
+    private static final long VALUE_MASK = 0xFFFFFFFFL;
+
+    private PackedOptionalInt() {
+    }
+
+    /**
+     * @param value the value to be present
+     * @return the packed form of an optional with {@code value} present
+     */
+    public static long pack(int value) {
+        return PRESENT | (value & VALUE_MASK);
+    }
+
+    /**
+     * @param packed a packed optional
+     * @return {@code true} if a value is present, otherwise {@code false}
+     */
+    public static boolean isPresent(long packed) {
+        return (packed & PRESENT) != 0;
+    }
+
+    /**
+     * @param packed a packed optional
+     * @return the value of the packed optional
+     * @throws NoSuchElementException if there is no value present
+     */
+    public static int value(long packed) {
+        if (isPresent(packed)) {
+            return (int) packed;
+        }
+
+        throw new NoSuchElementException("No value present");
+    }
+
+    /**
+     * @param packed a packed optional
+     * @param other  the value to be returned if there is no value present
+     * @return the value, if present, otherwise {@code other}
+     */
+    public static int orElse(long packed, int other) {
+        if (isPresent(packed)) {
+            return (int) packed;
+        }
+
+        return other;
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.dmstocking.optional.util;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Encodes an optional {@code long} in a single {@code long}, so it can be returned from a method
+ * or stored in a {@code long[]} without allocating an {@link
+ * com.github.dmstocking.optional.java.util.OptionalLong}.
+ *
+ * There is no spare bit, so {@link Long#MIN_VALUE} is reserved to mean empty and cannot be packed.
+ * Note that a freshly allocated {@code long[]} is full of present zeros, so fill it with {@link
+ * #EMPTY} first.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class PackedOptionalLong {
+
+    /**
+     * The packed form of an empty optional, {@link Long#MIN_VALUE}.
+     */
+    public static final long EMPTY = Long.MIN_VALUE;
+
+    private PackedOptionalLong() {
+    }
+
+    /**
+     * @param value the value to be present
+     * @return the packed form of an optional with {@code value} present
+     * @throws IllegalArgumentException if {@code value} is {@link Long#MIN_VALUE}
+     */
+    public static long pack(long value) {
+        if (value == EMPTY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE cannot be packed");
+        }
+
+        return value;
+    }
+
+    /**
+     * @param packed a packed optional
+     * @return {@code true} if a value is present, otherwise {@code false}
+     */
+    public static boolean isPresent(long packed) {
+        return packed != EMPTY;
+    }
+
+    /**
+     * @param packed a packed optional
+     * @return the value of the packed optional
+     * @throws NoSuchElementException if there is no value present
+     */
+    public static long value(long packed) {
+        if (isPresent(packed)) {
+            return packed;
+        }
+
+        throw new NoSuchElementException("No value present");
+    }
+
+    /**
+     * @param packed a packed optional
+     * @param other  the value to be returned if there is no value present
+     * @return the value, if present, otherwise {@code other}
+     */
+    public static long orElse(long packed, long other) {
+        if (isPresent(packed)) {
+            return packed;
+        }
+
+        return other;
+    }
+}
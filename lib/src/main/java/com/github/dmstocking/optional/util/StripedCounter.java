@@ -0,0 +1,46 @@
+package com.github.dmstocking.optional.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that spreads increments over several cells so threads rarely contend on the same cache
+ * line. The sum is only a snapshot and may miss increments that happen while it is taken.
+ */
+final class StripedCounter {
+
+    /**
+     * Longs between two cells, so each cell sits on its own 64 byte cache line.
+     */
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    /**
+     * @param stripes the number of cells, which must be a power of two
+     */
+    StripedCounter(int stripes) {
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        this.mask = stripes - 1;
+    }
+
+    void increment() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        cells.getAndIncrement(((hash >>> 16) & mask) * PADDING);
+    }
+
+    long sum() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    void reset() {
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            cells.set(i, 0);
+        }
+    }
+}
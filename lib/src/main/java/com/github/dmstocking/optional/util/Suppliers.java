@@ -0,0 +1,309 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.LongSupplier;
+import com.github.dmstocking.optional.java.util.function.Supplier;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decorators that cache the result of a {@link Supplier}, for use as the fallback of {@link
+ * Optional#orElseGet(Supplier)} and {@link Optional#or(Supplier)} when computing the fallback is
+ * expensive.
+ *
+ * <pre>{@code
+ *     private final Supplier<Integer> defaultTimeout = Suppliers.memoizeWithExpiration(
+ *             loadTimeoutFromConfigStore, 30, TimeUnit.SECONDS);
+ *
+ *     int timeout = requestTimeout.orElseGet(defaultTimeout);
+ * }</pre>
+ *
+ * Every returned supplier is thread-safe. Once its value has been computed, {@code get} is a
+ * single volatile read, plus a read of {@link System#nanoTime()} for the expiring suppliers. When
+ * a value expires, exactly one thread computes the replacement while every other thread keeps
+ * receiving the previous value instead of waiting. Only the very first computation blocks
+ * concurrent callers, since there is nothing to return until it completes.
+ *
+ * If the delegate throws, the exception is propagated, nothing is cached and the next call tries
+ * again.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class Suppliers {
+
+    /*
+     * The longest duration that is tracked, about 146 years. Anything longer is treated as never
+     * expiring, and keeping durations at half the range of a long means comparing System.nanoTime
+     * values by subtraction can never overflow.
+     */
+    private static final long MAX_DURATION_NANOS = Long.MAX_VALUE >>> 1;
+
+    private static final LongSupplier NANO_TIME = new LongSupplier() {
+        public long get() {
+            return System.nanoTime();
+        }
+    };
+
+    private Suppliers() {
+    }
+
+    /**
+     * Returns a supplier that invokes {@code delegate} on its first call and returns that result
+     * from then on. The result may be null, and null is cached like any other result.
+     *
+     * @param delegate the supplier to cache
+     * @param <T>      the type of the result
+     * @return a supplier caching the result of {@code delegate} forever
+     * @throws NullPointerException if {@code delegate} is null
+     */
+    public static <T> Supplier<T> memoize(Supplier<? extends T> delegate) {
+        if (delegate == null) {
+            throw new NullPointerException();
+        }
+
+        return new MemoizingSupplier<T>(delegate);
+    }
+
+    /**
+     * Returns a supplier that invokes {@code delegate} on its first call and returns that result
+     * until {@code duration} has passed, after which the next call invokes {@code delegate} again.
+     * The result may be null, and null is cached like any other result.
+     *
+     * @param delegate the supplier to cache
+     * @param duration how long a result is cached, which must not be negative
+     * @param unit     the unit of {@code duration}
+     * @param <T>      the type of the result
+     * @return a supplier caching the result of {@code delegate} for {@code duration}
+     * @throws IllegalArgumentException if {@code duration} is negative
+     * @throws NullPointerException     if {@code delegate} or {@code unit} is null
+     */
+    public static <T> Supplier<T> memoizeWithExpiration(Supplier<? extends T> delegate,
+                                                        long duration, TimeUnit unit) {
+        return memoizeWithExpiration(delegate, duration, unit, NANO_TIME);
+    }
+
+    static <T> Supplier<T> memoizeWithExpiration(Supplier<? extends T> delegate, long duration,
+                                                 TimeUnit unit, LongSupplier clock) {
+        if (delegate == null) {
+            throw new NullPointerException();
+        }
+
+        return new FixedExpiringSupplier<T>(delegate, toNanos(duration, unit), clock);
+    }
+
+    /**
+     * Returns a supplier of optionals that caches a present result forever and an empty result for
+     * {@code emptyDuration}, so a missing value is looked up again from time to time while a found
+     * value never is.
+     *
+     * @param delegate      the supplier to cache, which must not return null
+     * @param emptyDuration how long an empty result is cached, which must not be negative
+     * @param unit          the unit of {@code emptyDuration}
+     * @param <T>           the type of the value
+     * @return a supplier caching the result of {@code delegate}
+     * @throws IllegalArgumentException if {@code emptyDuration} is negative
+     * @throws NullPointerException     if {@code delegate} or {@code unit} is null, or {@code
+     *                                  delegate} returns null
+     */
+    public static <T> Supplier<Optional<T>> memoizeOptional(
+            Supplier<? extends Optional<? extends T>> delegate, long emptyDuration, TimeUnit unit) {
+        return memoizeOptional(delegate, MAX_DURATION_NANOS, toNanos(emptyDuration, unit),
+                TimeUnit.NANOSECONDS, NANO_TIME);
+    }
+
+    /**
+     * Returns a supplier of optionals that caches a present result for {@code presentDuration} and
+     * an empty result for {@code emptyDuration}. A short {@code emptyDuration} keeps a temporarily
+     * missing value from being cached for as long as a found one.
+     *
+     * @param delegate        the supplier to cache, which must not return null
+     * @param presentDuration how long a present result is cached, which must not be negative
+     * @param emptyDuration   how long an empty result is cached, which must not be negative
+     * @param unit            the unit of both durations
+     * @param <T>             the type of the value
+     * @return a supplier caching the result of {@code delegate}
+     * @throws IllegalArgumentException if either duration is negative
+     * @throws NullPointerException     if {@code delegate} or {@code unit} is null, or {@code
+     *                                  delegate} returns null
+     */
+    public static <T> Supplier<Optional<T>> memoizeOptional(
+            Supplier<? extends Optional<? extends T>> delegate, long presentDuration,
+            long emptyDuration, TimeUnit unit) {
+        return memoizeOptional(delegate, presentDuration, emptyDuration, unit, NANO_TIME);
+    }
+
+    static <T> Supplier<Optional<T>> memoizeOptional(
+            Supplier<? extends Optional<? extends T>> delegate, long presentDuration,
+            long emptyDuration, TimeUnit unit, LongSupplier clock) {
+        if (delegate == null) {
+            throw new NullPointerException();
+        }
+
+        return new OptionalExpiringSupplier<T>(delegate, toNanos(presentDuration, unit),
+                toNanos(emptyDuration, unit), clock);
+    }
+
+    private static long toNanos(long duration, TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("Negative duration: " + duration);
+        }
+
+        return Math.min(unit.toNanos(duration), MAX_DURATION_NANOS);
+    }
+
+    private static final class MemoizingSupplier<T> implements Supplier<T> {
+
+        private volatile boolean initialized;
+        // written before initialized is set and only read after it has been seen, so the volatile
+        // write of initialized publishes it
+        private T value;
+        // guarded by this, and cleared once the value is cached so it can be collected
+        private Supplier<? extends T> delegate;
+
+        MemoizingSupplier(Supplier<? extends T> delegate) {
+            this.delegate = delegate;
+        }
+
+        public T get() {
+            if (!initialized) {
+                synchronized (this) {
+                    if (!initialized) {
+                        T result = delegate.get();
+                        value = result;
+                        initialized = true;
+                        delegate = null;
+                        return result;
+                    }
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Suppliers.memoize(" + (initialized ? value : delegate) + ")";
+        }
+    }
+
+    /**
+     * The expiring suppliers. The value and its expiry are published together as one immutable
+     * {@link Entry} so that a reader never sees a new value with an old expiry or the other way
+     * around.
+     */
+    private abstract static class ExpiringSupplier<T> implements Supplier<T> {
+
+        private final String factory;
+        private final Supplier<? extends T> delegate;
+        private final LongSupplier clock;
+        private final ReentrantLock refreshLock = new ReentrantLock();
+        private volatile Entry<T> entry;
+
+        /**
+         * @param factory the name of the {@link Suppliers} method creating this supplier
+         */
+        ExpiringSupplier(String factory, Supplier<? extends T> delegate, LongSupplier clock) {
+            this.factory = factory;
+            this.delegate = delegate;
+            this.clock = clock;
+        }
+
+        /**
+         * @return how long {@code value} is cached, at most {@link #MAX_DURATION_NANOS}
+         */
+        abstract long durationNanos(T value);
+
+        public T get() {
+            Entry<T> entry = this.entry;
+            if (entry != null && clock.get() - entry.expiresAt < 0) {
+                return entry.value;
+            }
+
+            if (entry == null) {
+                refreshLock.lock();
+            } else if (!refreshLock.tryLock()) {
+                // another thread is already refreshing, keep serving the expired value meanwhile
+                return entry.value;
+            }
+
+            try {
+                Entry<T> current = this.entry;
+                if (current != entry) {
+                    // refreshed by another thread since we looked
+                    return current.value;
+                }
+
+                T value = compute();
+                this.entry = new Entry<T>(value, clock.get() + durationNanos(value));
+                return value;
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+
+        T compute() {
+            return delegate.get();
+        }
+
+        @Override
+        public String toString() {
+            return "Suppliers." + factory + "(" + delegate + ")";
+        }
+    }
+
+    private static final class Entry<T> {
+
+        final T value;
+        final long expiresAt;
+
+        Entry(T value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class FixedExpiringSupplier<T> extends ExpiringSupplier<T> {
+
+        private final long durationNanos;
+
+        FixedExpiringSupplier(Supplier<? extends T> delegate, long durationNanos,
+                              LongSupplier clock) {
+            super("memoizeWithExpiration", delegate, clock);
+            this.durationNanos = durationNanos;
+        }
+
+        @Override
+        long durationNanos(T value) {
+            return durationNanos;
+        }
+    }
+
+    private static final class OptionalExpiringSupplier<T> extends ExpiringSupplier<Optional<T>> {
+
+        private final long presentNanos;
+        private final long emptyNanos;
+
+        @SuppressWarnings("unchecked")
+        OptionalExpiringSupplier(Supplier<? extends Optional<? extends T>> delegate,
+                                 long presentNanos, long emptyNanos, LongSupplier clock) {
+            // Optional is immutable, so an Optional<? extends T> is safe to return as Optional<T>
+            super("memoizeOptional", (Supplier<Optional<T>>) delegate, clock);
+            this.presentNanos = presentNanos;
+            this.emptyNanos = emptyNanos;
+        }
+
+        @Override
+        Optional<T> compute() {
+            Optional<T> value = super.compute();
+            if (value == null) {
+                throw new NullPointerException();
+            }
+
+            return value;
+        }
+
+        @Override
+        long durationNanos(Optional<T> value) {
+            return value.isPresent() ? presentNanos : emptyNanos;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.github.dmstocking.optional.util.concurrent;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.Function;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * An optional reference that may be updated atomically, in place of an {@code
+ * AtomicReference<Optional<T>>}. The value is stored as a plain nullable reference, so updates do
+ * not allocate an {@code Optional} and reads only allocate the {@code Optional} they return.
+ *
+ * <pre>{@code
+ *     private final AtomicOptional<Config> config = new AtomicOptional<Config>();
+ *
+ *     if (config.setIfAbsent(loaded)) {
+ *         listeners.onConfigured(loaded);
+ *     }
+ * }</pre>
+ *
+ * Like {@link java.util.concurrent.atomic.AtomicReference} the compare-and-set operations compare
+ * values by identity, not with {@code equals}. Null stands for an empty optional wherever a value
+ * is expected or compared.
+ *
+ * @param <T> the type of the value
+ */
+@SuppressWarnings("WeakerAccess")
+public final class AtomicOptional<T> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<AtomicOptional, Object> VALUE =
+            AtomicReferenceFieldUpdater.newUpdater(AtomicOptional.class, Object.class, "value");
+
+    // the value if present, otherwise null
+    private volatile Object value;
+
+    /**
+     * Creates an empty {@code AtomicOptional}.
+     */
+    public AtomicOptional() {
+    }
+
+    /**
+     * @param initialValue the initial value, or null for empty
+     */
+    public AtomicOptional(T initialValue) {
+        this.value = initialValue;
+    }
+
+    /**
+     * Sets the value to empty.
+     */
+    public void clear() {
+        value = null;
+    }
+
+    /**
+     * Atomically sets the value to {@code update} if the current value is the same reference as
+     * {@code expect}.
+     *
+     * @param expect the expected value, or null to expect empty
+     * @param update the new value, or null to clear it
+     * @return true if successful, false if the current value was not {@code expect}
+     */
+    public boolean compareAndSet(T expect, T update) {
+        return VALUE.compareAndSet(this, expect, update);
+    }
+
+    /**
+     * @return an {@code Optional} describing the current value
+     */
+    public Optional<T> get() {
+        return Optional.ofNullable(current());
+    }
+
+    /**
+     * Atomically sets the value to empty.
+     *
+     * @return an {@code Optional} describing the previous value
+     */
+    public Optional<T> getAndClear() {
+        return getAndSet(null);
+    }
+
+    /**
+     * Atomically sets the value.
+     *
+     * @param newValue the new value, or null to clear it
+     * @return an {@code Optional} describing the previous value
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<T> getAndSet(T newValue) {
+        return Optional.ofNullable((T) VALUE.getAndSet(this, newValue));
+    }
+
+    /**
+     * @return true if a value is present
+     */
+    public boolean isPresent() {
+        return value != null;
+    }
+
+    /**
+     * Eventually sets the value to empty. As with {@link
+     * java.util.concurrent.atomic.AtomicReference#lazySet(Object)} the write may be reordered with
+     * later writes of the same thread, which is cheaper than {@link #clear()} and enough when a
+     * single thread writes the value.
+     */
+    public void lazyClear() {
+        VALUE.lazySet(this, null);
+    }
+
+    /**
+     * Eventually sets the value. As with {@link
+     * java.util.concurrent.atomic.AtomicReference#lazySet(Object)} the write may be reordered with
+     * later writes of the same thread, which is cheaper than {@link #set(Object)} and enough when a
+     * single thread writes the value.
+     *
+     * @param newValue the new value, or null to clear it
+     */
+    public void lazySet(T newValue) {
+        VALUE.lazySet(this, newValue);
+    }
+
+    /**
+     * @param other the value to return if no value is present, may be null
+     * @return the current value if present, otherwise {@code other}
+     */
+    public T orElse(T other) {
+        T current = current();
+        if (current != null) {
+            return current;
+        }
+
+        return other;
+    }
+
+    /**
+     * Sets the value.
+     *
+     * @param newValue the new value, or null to clear it
+     */
+    public void set(T newValue) {
+        value = newValue;
+    }
+
+    /**
+     * Atomically sets the value if no value is present.
+     *
+     * @param newValue the new value
+     * @return true if the value was set, false if a value was already present
+     * @throws NullPointerException if {@code newValue} is null
+     */
+    public boolean setIfAbsent(T newValue) {
+        if (newValue == null) {
+            throw new NullPointerException();
+        }
+
+        return value == null && VALUE.compareAndSet(this, null, newValue);
+    }
+
+    /**
+     * Atomically replaces a present value with the result of applying {@code updater} to it,
+     * retrying until no other thread changes the value in between. The function may therefore be
+     * applied more than once and should be free of side effects. If no value is present, or once no
+     * value is present, the function is not applied.
+     *
+     * @param updater a function from the current to the new value, returning null to clear it
+     * @return an {@code Optional} describing the new value
+     * @throws NullPointerException if a value is present and {@code updater} is null
+     */
+    public Optional<T> updateIfPresent(Function<? super T, ? extends T> updater) {
+        while (true) {
+            T current = current();
+            if (current == null) {
+                return Optional.empty();
+            }
+
+            T next = updater.apply(current);
+            if (VALUE.compareAndSet(this, current, next)) {
+                return Optional.ofNullable(next);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        Object current = value;
+        if (current != null) {
+            return "AtomicOptional[" + current + "]";
+        }
+
+        return "AtomicOptional.empty";
+    }
+
+    @SuppressWarnings("unchecked")
+    private T current() {
+        return (T) value;
+    }
+}
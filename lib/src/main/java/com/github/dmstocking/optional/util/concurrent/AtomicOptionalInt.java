@@ -0,0 +1,245 @@
+package com.github.dmstocking.optional.util.concurrent;
+
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.function.IntBinaryOperator;
+import com.github.dmstocking.optional.util.PackedOptionalInt;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * An optional {@code int} that may be updated atomically, for values such as watermarks that start
+ * out unset and cannot spare a magic value to say so.
+ *
+ * <pre>{@code
+ *     private final AtomicOptionalInt highWatermark = new AtomicOptionalInt();
+ *
+ *     highWatermark.maxAndGet(sequence);
+ * }</pre>
+ *
+ * Presence and value are packed into a single volatile {@code long} with {@link PackedOptionalInt},
+ * so every {@code int} can be stored and every update is a single compare-and-set. Reads return
+ * the value or the packed form and never allocate, {@link #get()} allocates an {@link
+ * OptionalInt} only when asked for one. Where many threads update neighbouring instances, use
+ * {@link PaddedAtomicOptionalInt} to keep them on separate cache lines.
+ */
+@SuppressWarnings("WeakerAccess")
+public class AtomicOptionalInt {
+
+    private static final AtomicLongFieldUpdater<AtomicOptionalInt> PACKED =
+            AtomicLongFieldUpdater.newUpdater(AtomicOptionalInt.class, "packed");
+
+    private volatile long packed;
+
+    /**
+     * Creates an empty {@code AtomicOptionalInt}.
+     */
+    public AtomicOptionalInt() {
+        this.packed = PackedOptionalInt.EMPTY;
+    }
+
+    /**
+     * @param initialValue the initial value
+     */
+    public AtomicOptionalInt(int initialValue) {
+        this.packed = PackedOptionalInt.pack(initialValue);
+    }
+
+    /**
+     * Atomically combines the current value with {@code x}, or sets it to {@code x} if no value is
+     * present. The function may be applied more than once when threads contend and should be free
+     * of side effects.
+     *
+     * @param x                   the value to combine with the current value
+     * @param accumulatorFunction a function of the current value and {@code x}
+     * @return the updated value
+     * @throws NullPointerException if a value is present and {@code accumulatorFunction} is null
+     */
+    public int accumulateAndGet(int x, IntBinaryOperator accumulatorFunction) {
+        while (true) {
+            long current = packed;
+            int next = PackedOptionalInt.isPresent(current)
+                    ? accumulatorFunction.applyAsInt((int) current, x)
+                    : x;
+            if (PACKED.compareAndSet(this, current, PackedOptionalInt.pack(next))) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Sets the value to empty.
+     */
+    public void clear() {
+        packed = PackedOptionalInt.EMPTY;
+    }
+
+    /**
+     * Atomically sets the value to {@code update} if the value {@code expect} is present.
+     *
+     * @param expect the expected value
+     * @param update the new value
+     * @return true if successful, false if the value was not {@code expect} or not present
+     */
+    public boolean compareAndSet(int expect, int update) {
+        return PACKED.compareAndSet(
+                this, PackedOptionalInt.pack(expect), PackedOptionalInt.pack(update));
+    }
+
+    /**
+     * Atomically sets the value to {@code update} if it is {@code expect}, both in the form packed
+     * by {@link PackedOptionalInt}, so either can be empty.
+     *
+     * @param expect the expected packed optional
+     * @param update the new packed optional
+     * @return true if successful, false if the value was not {@code expect}
+     */
+    public boolean compareAndSetPacked(long expect, long update) {
+        return PACKED.compareAndSet(this, expect, update);
+    }
+
+    /**
+     * @return an {@code OptionalInt} describing the current value
+     */
+    public OptionalInt get() {
+        return OptionalInt.fromPacked(packed);
+    }
+
+    /**
+     * Atomically sets the value to empty.
+     *
+     * @return the previous value, packed by {@link PackedOptionalInt}
+     */
+    public long getAndClear() {
+        return PACKED.getAndSet(this, PackedOptionalInt.EMPTY);
+    }
+
+    /**
+     * Atomically sets the value.
+     *
+     * @param newValue the new value
+     * @return the previous value, packed by {@link PackedOptionalInt}
+     */
+    public long getAndSet(int newValue) {
+        return PACKED.getAndSet(this, PackedOptionalInt.pack(newValue));
+    }
+
+    /**
+     * @return the current value
+     * @throws NoSuchElementException if there is no value present
+     */
+    public int getAsInt() {
+        return PackedOptionalInt.value(packed);
+    }
+
+    /**
+     * @return the current value, packed by {@link PackedOptionalInt}
+     */
+    public long getPacked() {
+        return packed;
+    }
+
+    /**
+     * @return true if a value is present
+     */
+    public boolean isPresent() {
+        return PackedOptionalInt.isPresent(packed);
+    }
+
+    /**
+     * Eventually sets the value to empty, which is cheaper than {@link #clear()} and enough when a
+     * single thread writes the value.
+     */
+    public void lazyClear() {
+        PACKED.lazySet(this, PackedOptionalInt.EMPTY);
+    }
+
+    /**
+     * Eventually sets the value, which is cheaper than {@link #set(int)} and enough when a single
+     * thread writes the value.
+     *
+     * @param newValue the new value
+     */
+    public void lazySet(int newValue) {
+        PACKED.lazySet(this, PackedOptionalInt.pack(newValue));
+    }
+
+    /**
+     * Atomically sets the value to the greater of the current value and {@code x}, or to {@code x}
+     * if no value is present.
+     *
+     * @param x the candidate value
+     * @return the updated value
+     */
+    public int maxAndGet(int x) {
+        while (true) {
+            long current = packed;
+            if (PackedOptionalInt.isPresent(current) && (int) current >= x) {
+                return (int) current;
+            }
+
+            if (PACKED.compareAndSet(this, current, PackedOptionalInt.pack(x))) {
+                return x;
+            }
+        }
+    }
+
+    /**
+     * Atomically sets the value to the smaller of the current value and {@code x}, or to {@code x}
+     * if no value is present.
+     *
+     * @param x the candidate value
+     * @return the updated value
+     */
+    public int minAndGet(int x) {
+        while (true) {
+            long current = packed;
+            if (PackedOptionalInt.isPresent(current) && (int) current <= x) {
+                return (int) current;
+            }
+
+            if (PACKED.compareAndSet(this, current, PackedOptionalInt.pack(x))) {
+                return x;
+            }
+        }
+    }
+
+    /**
+     * @param other the value to return if no value is present
+     * @return the current value if present, otherwise {@code other}
+     */
+    public int orElse(int other) {
+        return PackedOptionalInt.orElse(packed, other);
+    }
+
+    /**
+     * Sets the value.
+     *
+     * @param newValue the new value
+     */
+    public void set(int newValue) {
+        packed = PackedOptionalInt.pack(newValue);
+    }
+
+    /**
+     * Atomically sets the value if no value is present.
+     *
+     * @param newValue the new value
+     * @return true if the value was set, false if a value was already present
+     */
+    public boolean setIfAbsent(int newValue) {
+        return packed == PackedOptionalInt.EMPTY
+                && PACKED.compareAndSet(
+                        this, PackedOptionalInt.EMPTY, PackedOptionalInt.pack(newValue));
+    }
+
+    @Override
+    public String toString() {
+        long current = packed;
+        if (PackedOptionalInt.isPresent(current)) {
+            return "AtomicOptionalInt[" + (int) current + "]";
+        }
+
+        return "AtomicOptionalInt.empty";
+    }
+}
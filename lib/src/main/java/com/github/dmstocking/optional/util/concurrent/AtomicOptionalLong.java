@@ -0,0 +1,255 @@
+package com.github.dmstocking.optional.util.concurrent;
+
+import com.github.dmstocking.optional.java.util.OptionalLong;
+import com.github.dmstocking.optional.java.util.function.LongBinaryOperator;
+import com.github.dmstocking.optional.util.PackedOptionalLong;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * An optional {@code long} that may be updated atomically, for values such as offsets that start
+ * out unset.
+ *
+ * <pre>{@code
+ *     private final AtomicOptionalLong lastSeenOffset = new AtomicOptionalLong();
+ *
+ *     lastSeenOffset.maxAndGet(record.offset());
+ * }</pre>
+ *
+ * The value is a single volatile {@code long} in the form packed by {@link PackedOptionalLong}, so
+ * every update is a single compare-and-set and {@link Long#MIN_VALUE} is reserved to mean empty.
+ * Storing {@link Long#MIN_VALUE} throws an {@link IllegalArgumentException}. Reads return the value
+ * or the packed form and never allocate, {@link #get()} allocates an {@link OptionalLong} only when
+ * asked for one. Where many threads update neighbouring instances, use {@link
+ * PaddedAtomicOptionalLong} to keep them on separate cache lines.
+ */
+@SuppressWarnings("WeakerAccess")
+public class AtomicOptionalLong {
+
+    private static final AtomicLongFieldUpdater<AtomicOptionalLong> PACKED =
+            AtomicLongFieldUpdater.newUpdater(AtomicOptionalLong.class, "packed");
+
+    private volatile long packed;
+
+    /**
+     * Creates an empty {@code AtomicOptionalLong}.
+     */
+    public AtomicOptionalLong() {
+        this.packed = PackedOptionalLong.EMPTY;
+    }
+
+    /**
+     * @param initialValue the initial value
+     * @throws IllegalArgumentException if {@code initialValue} is {@link Long#MIN_VALUE}
+     */
+    public AtomicOptionalLong(long initialValue) {
+        this.packed = PackedOptionalLong.pack(initialValue);
+    }
+
+    /**
+     * Atomically combines the current value with {@code x}, or sets it to {@code x} if no value is
+     * present. The function may be applied more than once when threads contend and should be free
+     * of side effects.
+     *
+     * @param x                   the value to combine with the current value
+     * @param accumulatorFunction a function of the current value and {@code x}
+     * @return the updated value
+     * @throws NullPointerException if a value is present and {@code accumulatorFunction} is null
+     * @throws IllegalArgumentException if the new value is {@link Long#MIN_VALUE}
+     */
+    public long accumulateAndGet(long x, LongBinaryOperator accumulatorFunction) {
+        while (true) {
+            long current = packed;
+            long next = PackedOptionalLong.isPresent(current)
+                    ? accumulatorFunction.applyAsLong(current, x)
+                    : x;
+            if (PACKED.compareAndSet(this, current, PackedOptionalLong.pack(next))) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Sets the value to empty.
+     */
+    public void clear() {
+        packed = PackedOptionalLong.EMPTY;
+    }
+
+    /**
+     * Atomically sets the value to {@code update} if the value {@code expect} is present.
+     *
+     * @param expect the expected value
+     * @param update the new value
+     * @return true if successful, false if the value was not {@code expect} or not present
+     * @throws IllegalArgumentException if the new value is {@link Long#MIN_VALUE}
+     */
+    public boolean compareAndSet(long expect, long update) {
+        return PACKED.compareAndSet(
+                this, PackedOptionalLong.pack(expect), PackedOptionalLong.pack(update));
+    }
+
+    /**
+     * Atomically sets the value to {@code update} if it is {@code expect}, both in the form packed
+     * by {@link PackedOptionalLong}, so either can be empty.
+     *
+     * @param expect the expected packed optional
+     * @param update the new packed optional
+     * @return true if successful, false if the value was not {@code expect}
+     */
+    public boolean compareAndSetPacked(long expect, long update) {
+        return PACKED.compareAndSet(this, expect, update);
+    }
+
+    /**
+     * @return an {@code OptionalLong} describing the current value
+     */
+    public OptionalLong get() {
+        return OptionalLong.fromPacked(packed);
+    }
+
+    /**
+     * Atomically sets the value to empty.
+     *
+     * @return the previous value, packed by {@link PackedOptionalLong}
+     */
+    public long getAndClear() {
+        return PACKED.getAndSet(this, PackedOptionalLong.EMPTY);
+    }
+
+    /**
+     * Atomically sets the value.
+     *
+     * @param newValue the new value
+     * @return the previous value, packed by {@link PackedOptionalLong}
+     * @throws IllegalArgumentException if the new value is {@link Long#MIN_VALUE}
+     */
+    public long getAndSet(long newValue) {
+        return PACKED.getAndSet(this, PackedOptionalLong.pack(newValue));
+    }
+
+    /**
+     * @return the current value
+     * @throws NoSuchElementException if there is no value present
+     */
+    public long getAsLong() {
+        return PackedOptionalLong.value(packed);
+    }
+
+    /**
+     * @return the current value, packed by {@link PackedOptionalLong}
+     */
+    public long getPacked() {
+        return packed;
+    }
+
+    /**
+     * @return true if a value is present
+     */
+    public boolean isPresent() {
+        return PackedOptionalLong.isPresent(packed);
+    }
+
+    /**
+     * Eventually sets the value to empty, which is cheaper than {@link #clear()} and enough when a
+     * single thread writes the value.
+     */
+    public void lazyClear() {
+        PACKED.lazySet(this, PackedOptionalLong.EMPTY);
+    }
+
+    /**
+     * Eventually sets the value, which is cheaper than {@link #set(long)} and enough when a single
+     * thread writes the value.
+     *
+     * @param newValue the new value
+     * @throws IllegalArgumentException if the new value is {@link Long#MIN_VALUE}
+     */
+    public void lazySet(long newValue) {
+        PACKED.lazySet(this, PackedOptionalLong.pack(newValue));
+    }
+
+    /**
+     * Atomically sets the value to the greater of the current value and {@code x}, or to {@code x}
+     * if no value is present.
+     *
+     * @param x the candidate value
+     * @return the updated value
+     * @throws IllegalArgumentException if the new value is {@link Long#MIN_VALUE}
+     */
+    public long maxAndGet(long x) {
+        while (true) {
+            long current = packed;
+            if (PackedOptionalLong.isPresent(current) && current >= x) {
+                return current;
+            }
+
+            if (PACKED.compareAndSet(this, current, PackedOptionalLong.pack(x))) {
+                return x;
+            }
+        }
+    }
+
+    /**
+     * Atomically sets the value to the smaller of the current value and {@code x}, or to {@code x}
+     * if no value is present.
+     *
+     * @param x the candidate value
+     * @return the updated value
+     * @throws IllegalArgumentException if the new value is {@link Long#MIN_VALUE}
+     */
+    public long minAndGet(long x) {
+        while (true) {
+            long current = packed;
+            if (PackedOptionalLong.isPresent(current) && current <= x) {
+                return current;
+            }
+
+            if (PACKED.compareAndSet(this, current, PackedOptionalLong.pack(x))) {
+                return x;
+            }
+        }
+    }
+
+    /**
+     * @param other the value to return if no value is present
+     * @return the current value if present, otherwise {@code other}
+     */
+    public long orElse(long other) {
+        return PackedOptionalLong.orElse(packed, other);
+    }
+
+    /**
+     * Sets the value.
+     *
+     * @param newValue the new value
+     * @throws IllegalArgumentException if the new value is {@link Long#MIN_VALUE}
+     */
+    public void set(long newValue) {
+        packed = PackedOptionalLong.pack(newValue);
+    }
+
+    /**
+     * Atomically sets the value if no value is present.
+     *
+     * @param newValue the new value
+     * @return true if the value was set, false if a value was already present
+     * @throws IllegalArgumentException if the new value is {@link Long#MIN_VALUE}
+     */
+    public boolean setIfAbsent(long newValue) {
+        return packed == PackedOptionalLong.EMPTY
+                && PACKED.compareAndSet(
+                        this, PackedOptionalLong.EMPTY, PackedOptionalLong.pack(newValue));
+    }
+
+    @Override
+    public String toString() {
+        long current = packed;
+        if (PackedOptionalLong.isPresent(current)) {
+            return "AtomicOptionalLong[" + current + "]";
+        }
+
+        return "AtomicOptionalLong.empty";
+    }
+}
@@ -0,0 +1,609 @@
+package com.github.dmstocking.optional.util.concurrent;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.Predicate;
+import com.github.dmstocking.optional.java.util.function.Supplier;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A {@link Future} of an {@link Optional} that can be composed without blocking, for platforms
+ * such as Java 6 and Android where {@code CompletableFuture} is not available.
+ *
+ * <pre>{@code
+ *     OptionalFuture<Address> address = users.findAsync(id)
+ *             .filter(isActive, executor)
+ *             .flatMap(new Function<User, OptionalFuture<Address>>() {
+ *                 public OptionalFuture<Address> apply(User user) {
+ *                     return addresses.findAsync(user.getAddressId());
+ *                 }
+ *             }, executor)
+ *             .withTimeout(2, TimeUnit.SECONDS, scheduler);
+ * }</pre>
+ *
+ * Every continuation returns a new future and runs its function on the given executor once this
+ * future completes, so no thread waits between stages. Functions are only invoked for a value that
+ * is present, unless stated otherwise, and an empty result flows through the chain untouched. If
+ * this future fails, or a function throws, every later stage fails with the same exception without
+ * invoking its function. If an executor rejects a continuation, the stage fails with the {@link
+ * java.util.concurrent.RejectedExecutionException}.
+ *
+ * Cancelling a future fails it, and every stage after it, with a {@link CancellationException}.
+ * Cancelling a stage does not cancel the stages before it, and no running thread is interrupted.
+ *
+ * @param <T> the type of the value
+ */
+@SuppressWarnings("WeakerAccess")
+public final class OptionalFuture<T> implements Future<Optional<T>> {
+
+    /**
+     * Runs continuations that only forward a result on the thread that completed the future.
+     */
+    private static final Executor DIRECT = new Executor() {
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    /**
+     * Receives the result of an {@link OptionalFuture}.
+     *
+     * @param <T> the type of the value
+     */
+    public interface Callback<T> {
+
+        /**
+         * @param value the optional the future completed with
+         */
+        void onSuccess(Optional<? extends T> value);
+
+        /**
+         * @param cause the exception the future failed with, a {@link CancellationException} if it
+         *              was cancelled
+         */
+        void onFailure(Throwable cause);
+    }
+
+    // an Optional once completed successfully, a Failure once failed, otherwise null
+    private volatile Object result;
+    // guarded by this, in reverse order of registration
+    private Completion completions;
+
+    private OptionalFuture() {
+    }
+
+    /**
+     * Returns a future that is completed by calling {@link #complete(Optional)} or {@link
+     * #fail(Throwable)}.
+     *
+     * @param <T> the type of the value
+     * @return a new, incomplete future
+     */
+    public static <T> OptionalFuture<T> create() {
+        return new OptionalFuture<T>();
+    }
+
+    /**
+     * @param value the optional to complete with
+     * @param <T>   the type of the value
+     * @return a future already completed with {@code value}
+     * @throws NullPointerException if {@code value} is null
+     */
+    public static <T> OptionalFuture<T> completed(Optional<? extends T> value) {
+        OptionalFuture<T> future = new OptionalFuture<T>();
+        future.complete(value);
+        return future;
+    }
+
+    /**
+     * @param cause the exception to fail with
+     * @param <T>   the type of the value
+     * @return a future already failed with {@code cause}
+     * @throws NullPointerException if {@code cause} is null
+     */
+    public static <T> OptionalFuture<T> failed(Throwable cause) {
+        OptionalFuture<T> future = new OptionalFuture<T>();
+        future.fail(cause);
+        return future;
+    }
+
+    /**
+     * Returns a future completed with the result of running {@code task} on {@code executor}.
+     *
+     * @param task     the task to run, which must not return null
+     * @param executor the executor to run the task on
+     * @param <T>      the type of the value
+     * @return a future of the result of {@code task}
+     * @throws NullPointerException if {@code task} or {@code executor} is null
+     */
+    public static <T> OptionalFuture<T> submit(final Callable<? extends Optional<? extends T>> task,
+                                               Executor executor) {
+        if (task == null || executor == null) {
+            throw new NullPointerException();
+        }
+
+        final OptionalFuture<T> future = new OptionalFuture<T>();
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    if (future.isDone()) {
+                        return;
+                    }
+
+                    try {
+                        future.complete(task.call());
+                    } catch (Throwable t) {
+                        future.fail(t);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            future.fail(e);
+        }
+        return future;
+    }
+
+    /**
+     * Completes this future with {@code value}, unless it is already done.
+     *
+     * @param value the optional to complete with
+     * @return {@code true} if this call completed the future, otherwise {@code false}
+     * @throws NullPointerException if {@code value} is null
+     */
+    public boolean complete(Optional<? extends T> value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+
+        return setResult(value);
+    }
+
+    /**
+     * Fails this future with {@code cause}, unless it is already done.
+     *
+     * @param cause the exception to fail with
+     * @return {@code true} if this call failed the future, otherwise {@code false}
+     * @throws NullPointerException if {@code cause} is null
+     */
+    public boolean fail(Throwable cause) {
+        if (cause == null) {
+            throw new NullPointerException();
+        }
+
+        return setResult(new Failure(cause));
+    }
+
+    /**
+     * Fails this future with a {@link CancellationException}, unless it is already done. A running
+     * task is never interrupted, so {@code mayInterruptIfRunning} has no effect.
+     *
+     * @param mayInterruptIfRunning ignored
+     * @return {@code true} if this call cancelled the future, otherwise {@code false}
+     */
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return setResult(new Failure(new CancellationException()));
+    }
+
+    public boolean isCancelled() {
+        Object result = this.result;
+        if (result instanceof Failure) {
+            return ((Failure) result).cause instanceof CancellationException;
+        }
+
+        return false;
+    }
+
+    public boolean isDone() {
+        return result != null;
+    }
+
+    public Optional<T> get() throws InterruptedException, ExecutionException {
+        Object result = this.result;
+        if (result == null) {
+            synchronized (this) {
+                while ((result = this.result) == null) {
+                    wait();
+                }
+            }
+        }
+        return report(result);
+    }
+
+    public Optional<T> get(long timeout, TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Object result = this.result;
+        if (result == null) {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (this) {
+                while ((result = this.result) == null) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new TimeoutException();
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            }
+        }
+        return report(result);
+    }
+
+    /**
+     * Invokes {@code callback} on {@code executor} once this future is done, or right away if it
+     * already is. If the executor rejects the callback, it is not invoked.
+     *
+     * @param callback the callback to invoke
+     * @param executor the executor to invoke the callback on
+     * @throws NullPointerException if {@code callback} or {@code executor} is null
+     */
+    public void whenComplete(final Callback<? super T> callback, Executor executor) {
+        if (callback == null) {
+            throw new NullPointerException();
+        }
+
+        addCompletion(new Completion(executor) {
+            @Override
+            @SuppressWarnings("unchecked")
+            void run(Object result) {
+                if (result instanceof Failure) {
+                    callback.onFailure(((Failure) result).cause);
+                } else {
+                    callback.onSuccess((Optional<? extends T>) result);
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns a future that describes the value of this future if it is present and matches the
+     * given predicate, otherwise is empty.
+     *
+     * @param predicate a predicate to apply to the value, if present
+     * @param executor  the executor to apply the predicate on
+     * @return a future of the filtered optional
+     * @throws NullPointerException if {@code predicate} or {@code executor} is null
+     */
+    public OptionalFuture<T> filter(final Predicate<? super T> predicate, Executor executor) {
+        if (predicate == null) {
+            throw new NullPointerException();
+        }
+
+        final OptionalFuture<T> next = new OptionalFuture<T>();
+        addCompletion(new Stage<T>(executor, next) {
+            @Override
+            void onSuccess(Optional<T> value) {
+                next.setResult(value.filter(predicate));
+            }
+        });
+        return next;
+    }
+
+    /**
+     * Returns a future of the future returned by applying the mapping function to the value of this
+     * future, if it is present, otherwise an empty future. This chains an asynchronous lookup
+     * without waiting for either result.
+     *
+     * @param mapper   a mapping function to apply to the value, if present, which must not return
+     *                 null
+     * @param executor the executor to apply the mapping function on
+     * @param <U>      the type of the value of the future returned by the mapping function
+     * @return a future of the result of the future returned by the mapping function
+     * @throws NullPointerException if {@code mapper} or {@code executor} is null
+     */
+    public <U> OptionalFuture<U> flatMap(
+            final Function<? super T, ? extends OptionalFuture<U>> mapper, Executor executor) {
+        if (mapper == null) {
+            throw new NullPointerException();
+        }
+
+        final OptionalFuture<U> next = new OptionalFuture<U>();
+        addCompletion(new Stage<T>(executor, next) {
+            @Override
+            void onSuccess(Optional<T> value) {
+                if (!value.isPresent()) {
+                    next.setResult(Optional.<U>empty());
+                    return;
+                }
+
+                OptionalFuture<U> future = mapper.apply(value.get());
+                if (future == null) {
+                    throw new NullPointerException();
+                }
+
+                future.forwardTo(next);
+            }
+        });
+        return next;
+    }
+
+    /**
+     * Returns a future that describes the result of applying the mapping function to the value of
+     * this future, if it is present, otherwise is empty. A null result is an empty optional.
+     *
+     * @param mapper   a mapping function to apply to the value, if present
+     * @param executor the executor to apply the mapping function on
+     * @param <U>      the type of the result of the mapping function
+     * @return a future of the mapped optional
+     * @throws NullPointerException if {@code mapper} or {@code executor} is null
+     */
+    public <U> OptionalFuture<U> map(final Function<? super T, ? extends U> mapper,
+                                     Executor executor) {
+        if (mapper == null) {
+            throw new NullPointerException();
+        }
+
+        final OptionalFuture<U> next = new OptionalFuture<U>();
+        addCompletion(new Stage<T>(executor, next) {
+            @Override
+            void onSuccess(Optional<T> value) {
+                next.setResult(value.map(mapper));
+            }
+        });
+        return next;
+    }
+
+    /**
+     * Returns a future that describes the value of this future, if it is present, otherwise the
+     * result of the future produced by the supplying function. This chains an asynchronous fallback
+     * lookup without waiting for either result.
+     *
+     * @param supplier the supplying function, invoked only if this future is empty, which must not
+     *                 return null
+     * @param executor the executor to invoke the supplying function on
+     * @return a future of this value or of the fallback
+     * @throws NullPointerException if {@code supplier} or {@code executor} is null
+     */
+    public OptionalFuture<T> or(final Supplier<? extends OptionalFuture<? extends T>> supplier,
+                                Executor executor) {
+        if (supplier == null) {
+            throw new NullPointerException();
+        }
+
+        final OptionalFuture<T> next = new OptionalFuture<T>();
+        addCompletion(new Stage<T>(executor, next) {
+            @Override
+            void onSuccess(Optional<T> value) {
+                if (value.isPresent()) {
+                    next.setResult(value);
+                    return;
+                }
+
+                OptionalFuture<? extends T> future = supplier.get();
+                if (future == null) {
+                    throw new NullPointerException();
+                }
+
+                future.forwardTo(next);
+            }
+        });
+        return next;
+    }
+
+    /**
+     * Returns a future that describes the value of this future, if it is present, otherwise the
+     * result of invoking {@code other}. A null result is an empty optional.
+     *
+     * @param other    the supplier, invoked only if this future is empty
+     * @param executor the executor to invoke the supplier on
+     * @return a future of this value or of the result of {@code other}
+     * @throws NullPointerException if {@code other} or {@code executor} is null
+     */
+    public OptionalFuture<T> orElseGet(final Supplier<? extends T> other, Executor executor) {
+        if (other == null) {
+            throw new NullPointerException();
+        }
+
+        final OptionalFuture<T> next = new OptionalFuture<T>();
+        addCompletion(new Stage<T>(executor, next) {
+            @Override
+            void onSuccess(Optional<T> value) {
+                if (value.isPresent()) {
+                    next.setResult(value);
+                } else {
+                    next.setResult(Optional.ofNullable(other.get()));
+                }
+            }
+        });
+        return next;
+    }
+
+    /**
+     * Returns a future with the same result as this future, or that fails with a {@link
+     * TimeoutException} if this future is not done within the timeout. This future itself is left
+     * running.
+     *
+     * @param timeout   the maximum time to wait
+     * @param unit      the unit of {@code timeout}
+     * @param scheduler the scheduler that fails the returned future once the timeout elapses
+     * @return a future of this result that fails after the timeout
+     * @throws NullPointerException if {@code unit} or {@code scheduler} is null
+     */
+    public OptionalFuture<T> withTimeout(long timeout, TimeUnit unit,
+                                         ScheduledExecutorService scheduler) {
+        final OptionalFuture<T> next = new OptionalFuture<T>();
+        forwardTo(next);
+        if (next.isDone()) {
+            return next;
+        }
+
+        final ScheduledFuture<?> timer = scheduler.schedule(new Runnable() {
+            public void run() {
+                next.fail(new TimeoutException("Timed out waiting for " + OptionalFuture.this));
+            }
+        }, timeout, unit);
+        next.addCompletion(new Completion(DIRECT) {
+            @Override
+            void run(Object result) {
+                timer.cancel(false);
+            }
+        });
+        return next;
+    }
+
+    @Override
+    public String toString() {
+        Object result = this.result;
+        if (result == null) {
+            return "OptionalFuture.pending";
+        }
+
+        return "OptionalFuture[" + result + "]";
+    }
+
+    private void forwardTo(final OptionalFuture<? super T> next) {
+        addCompletion(new Completion(DIRECT) {
+            @Override
+            void run(Object result) {
+                next.setResult(result);
+            }
+        });
+    }
+
+    private boolean setResult(Object result) {
+        Completion completions;
+        synchronized (this) {
+            if (this.result != null) {
+                return false;
+            }
+
+            this.result = result;
+            completions = this.completions;
+            this.completions = null;
+            notifyAll();
+        }
+
+        // the list is in reverse order of registration
+        Completion ordered = null;
+        while (completions != null) {
+            Completion next = completions.next;
+            completions.next = ordered;
+            ordered = completions;
+            completions = next;
+        }
+        while (ordered != null) {
+            Completion next = ordered.next;
+            ordered.fire(result);
+            ordered = next;
+        }
+        return true;
+    }
+
+    private void addCompletion(Completion completion) {
+        synchronized (this) {
+            if (result == null) {
+                completion.next = completions;
+                completions = completion;
+                return;
+            }
+        }
+
+        completion.fire(result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Optional<T> report(Object result) throws ExecutionException {
+        if (result instanceof Failure) {
+            Throwable cause = ((Failure) result).cause;
+            if (cause instanceof CancellationException) {
+                throw (CancellationException) cause;
+            }
+            throw new ExecutionException(cause);
+        }
+
+        return (Optional<T>) result;
+    }
+
+    private static final class Failure {
+
+        final Throwable cause;
+
+        Failure(Throwable cause) {
+            this.cause = cause;
+        }
+
+        @Override
+        public String toString() {
+            return "failed: " + cause;
+        }
+    }
+
+    /**
+     * Runs once on its executor with the result of the future it was added to.
+     */
+    private abstract static class Completion implements Runnable {
+
+        private final Executor executor;
+        private Completion next;
+        private Object result;
+
+        Completion(Executor executor) {
+            if (executor == null) {
+                throw new NullPointerException();
+            }
+
+            this.executor = executor;
+        }
+
+        abstract void run(Object result);
+
+        void rejected(RuntimeException e) {
+        }
+
+        final void fire(Object result) {
+            this.result = result;
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                rejected(e);
+            }
+        }
+
+        public final void run() {
+            run(result);
+        }
+    }
+
+    /**
+     * A continuation that completes {@code next}, passing failures through and failing {@code
+     * next} if the continuation itself throws or is rejected.
+     */
+    private abstract static class Stage<T> extends Completion {
+
+        private final OptionalFuture<?> next;
+
+        Stage(Executor executor, OptionalFuture<?> next) {
+            super(executor);
+            this.next = next;
+        }
+
+        abstract void onSuccess(Optional<T> value) throws Exception;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        final void run(Object result) {
+            if (result instanceof Failure) {
+                next.setResult(result);
+                return;
+            }
+
+            try {
+                onSuccess((Optional<T>) result);
+            } catch (Throwable t) {
+                next.fail(t);
+            }
+        }
+
+        @Override
+        void rejected(RuntimeException e) {
+            next.fail(e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.dmstocking.optional.util.concurrent;
+
+/**
+ * An {@link AtomicOptionalInt} followed by two cache lines of padding, so that updating it does not
+ * invalidate the cache line of an object allocated after it. Use it for values updated by
+ * different threads that are allocated together, such as one per shard, where the unpadded class
+ * would suffer from false sharing.
+ */
+@SuppressWarnings({"WeakerAccess", "unused"})
+public final class PaddedAtomicOptionalInt extends AtomicOptionalInt {
+
+    // subclass fields are laid out after the value, 120 bytes also covers adjacent line prefetching
+    private long p01, p02, p03, p04, p05, p06, p07, p08;
+    private long p09, p10, p11, p12, p13, p14, p15;
+
+    /**
+     * Creates an empty {@code PaddedAtomicOptionalInt}.
+     */
+    public PaddedAtomicOptionalInt() {
+    }
+
+    /**
+     * @param initialValue the initial value
+     */
+    public PaddedAtomicOptionalInt(int initialValue) {
+        super(initialValue);
+    }
+}
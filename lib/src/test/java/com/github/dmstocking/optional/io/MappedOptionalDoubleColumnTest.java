@@ -0,0 +1,50 @@
+package com.github.dmstocking.optional.io;
+
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+public class MappedOptionalDoubleColumnTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void setAndClearRoundTrip() throws IOException {
+        MappedOptionalDoubleColumn column = MappedOptionalDoubleColumn.create(folder.newFile(), 100);
+        try {
+            column.set(0, -0.5);
+            column.set(99, 7.0);
+            column.clear(0);
+
+            Assert.assertEquals(OptionalDouble.empty(), column.get(0));
+            Assert.assertEquals(OptionalDouble.of(7.0), column.get(99));
+            Assert.assertEquals(-1.0, column.getOrElse(50, -1.0), 0.0);
+            Assert.assertEquals(1, column.presentCount());
+        } finally {
+            column.close();
+        }
+    }
+
+    @Test
+    public void valuesSurviveReopening() throws IOException {
+        File file = folder.newFile();
+        MappedOptionalDoubleColumn column = MappedOptionalDoubleColumn.create(file, 3);
+        column.set(1, 42.0);
+        column.close();
+
+        MappedOptionalDoubleColumn reopened = MappedOptionalDoubleColumn.openReadOnly(file);
+        try {
+            Assert.assertEquals(OptionalDouble.empty(), reopened.get(0));
+            Assert.assertEquals(OptionalDouble.of(42.0), reopened.get(1));
+        } finally {
+            reopened.close();
+        }
+    }
+}
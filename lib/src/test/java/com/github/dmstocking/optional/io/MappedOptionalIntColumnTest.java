@@ -0,0 +1,50 @@
+package com.github.dmstocking.optional.io;
+
+import com.github.dmstocking.optional.java.util.OptionalInt;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+public class MappedOptionalIntColumnTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void setAndClearRoundTrip() throws IOException {
+        MappedOptionalIntColumn column = MappedOptionalIntColumn.create(folder.newFile(), 100);
+        try {
+            column.set(0, Integer.MIN_VALUE);
+            column.set(99, 7);
+            column.clear(0);
+
+            Assert.assertEquals(OptionalInt.empty(), column.get(0));
+            Assert.assertEquals(OptionalInt.of(7), column.get(99));
+            Assert.assertEquals(-1, column.getOrElse(50, -1));
+            Assert.assertEquals(1, column.presentCount());
+        } finally {
+            column.close();
+        }
+    }
+
+    @Test
+    public void valuesSurviveReopening() throws IOException {
+        File file = folder.newFile();
+        MappedOptionalIntColumn column = MappedOptionalIntColumn.create(file, 3);
+        column.set(1, 42);
+        column.close();
+
+        MappedOptionalIntColumn reopened = MappedOptionalIntColumn.openReadOnly(file);
+        try {
+            Assert.assertEquals(OptionalInt.empty(), reopened.get(0));
+            Assert.assertEquals(OptionalInt.of(42), reopened.get(1));
+        } finally {
+            reopened.close();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.dmstocking.optional.io;
+
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+
+public class MappedOptionalLongColumnTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void createdColumnIsEmpty() throws IOException {
+        MappedOptionalLongColumn column = MappedOptionalLongColumn.create(folder.newFile(), 130);
+        try {
+            Assert.assertEquals(130, column.length());
+            Assert.assertEquals(0, column.presentCount());
+            Assert.assertEquals(OptionalLong.empty(), column.get(129));
+        } finally {
+            column.close();
+        }
+    }
+
+    @Test
+    public void setMakesElementPresent() throws IOException {
+        MappedOptionalLongColumn column = MappedOptionalLongColumn.create(folder.newFile(), 130);
+        try {
+            column.set(65, Long.MIN_VALUE);
+
+            Assert.assertTrue(column.isPresent(65));
+            Assert.assertFalse(column.isPresent(1));
+            Assert.assertEquals(OptionalLong.of(Long.MIN_VALUE), column.get(65));
+            Assert.assertEquals(1, column.presentCount());
+        } finally {
+            column.close();
+        }
+    }
+
+    @Test
+    public void clearMakesElementEmpty() throws IOException {
+        MappedOptionalLongColumn column = MappedOptionalLongColumn.create(folder.newFile(), 2);
+        try {
+            column.set(0, 1L);
+            column.set(1, 2L);
+            column.clear(0);
+
+            Assert.assertEquals(OptionalLong.empty(), column.get(0));
+            Assert.assertEquals(OptionalLong.of(2L), column.get(1));
+        } finally {
+            column.close();
+        }
+    }
+
+    @Test
+    public void getOrElseReturnsValueOrElse() throws IOException {
+        MappedOptionalLongColumn column = MappedOptionalLongColumn.create(folder.newFile(), 2);
+        try {
+            column.set(0, 1L);
+
+            Assert.assertEquals(1L, column.getOrElse(0, -1L));
+            Assert.assertEquals(-1L, column.getOrElse(1, -1L));
+        } finally {
+            column.close();
+        }
+    }
+
+    @Test
+    public void valuesSurviveReopening() throws IOException {
+        File file = folder.newFile();
+        MappedOptionalLongColumn column = MappedOptionalLongColumn.create(file, 1000);
+        for (int i = 0; i < 1000; i += 3) {
+            column.set(i, i * 1000L);
+        }
+        column.force();
+        column.close();
+
+        MappedOptionalLongColumn reopened = MappedOptionalLongColumn.openReadOnly(file);
+        try {
+            Assert.assertEquals(334, reopened.presentCount());
+            Assert.assertEquals(OptionalLong.of(999000L), reopened.get(999));
+            Assert.assertEquals(OptionalLong.empty(), reopened.get(998));
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test(expected = ReadOnlyBufferException.class)
+    public void setOnReadOnlyColumnThrowsReadOnlyBuffer() throws IOException {
+        File file = folder.newFile();
+        MappedOptionalLongColumn.create(file, 1).close();
+
+        MappedOptionalLongColumn column = MappedOptionalLongColumn.openReadOnly(file);
+        try {
+            column.set(0, 1L);
+        } finally {
+            column.close();
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getPastLengthThrowsIndexOutOfBounds() throws IOException {
+        MappedOptionalLongColumn column = MappedOptionalLongColumn.create(folder.newFile(), 10);
+        try {
+            column.get(10);
+        } finally {
+            column.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void openOfOtherFileThrowsIOException() throws IOException {
+        File file = folder.newFile();
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(new byte[64]);
+        out.close();
+
+        MappedOptionalLongColumn.open(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void openOfDifferentElementTypeThrowsIOException() throws IOException {
+        File file = folder.newFile();
+        MappedOptionalIntColumn.create(file, 10).close();
+
+        MappedOptionalLongColumn.open(file);
+    }
+}
@@ -0,0 +1,246 @@
+package com.github.dmstocking.optional.io;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+public class OptionalCodecTest {
+
+    private static final ElementCodec<String> UTF8 = OptionalCodec.UTF8;
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(bytes);
+
+    private DataInputStream in() {
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    @Test
+    public void emptyIsOneByte() throws IOException {
+        OptionalCodec.writeOptionalInt(out, OptionalInt.empty());
+        OptionalCodec.writeOptionalLong(out, OptionalLong.empty());
+        OptionalCodec.writeOptionalDouble(out, OptionalDouble.empty());
+        OptionalCodec.writeOptional(out, Optional.<String>empty(), UTF8);
+
+        Assert.assertArrayEquals(new byte[]{0, 0, 0, 0}, bytes.toByteArray());
+    }
+
+    @Test
+    public void smallValuesAreTwoBytes() throws IOException {
+        OptionalCodec.writeOptionalInt(out, OptionalInt.of(-1));
+        OptionalCodec.writeOptionalLong(out, OptionalLong.of(63));
+
+        Assert.assertArrayEquals(new byte[]{1, 1, 1, 126}, bytes.toByteArray());
+    }
+
+    @Test
+    public void streamRoundTrip() throws IOException {
+        int[] ints = {0, 1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        long[] longs = {0, 300, -300, Long.MIN_VALUE, Long.MAX_VALUE};
+        double[] doubles = {0.0, -0.0, Double.NaN, Double.NEGATIVE_INFINITY, Math.PI};
+        for (int value : ints) {
+            OptionalCodec.writeOptionalInt(out, OptionalInt.of(value));
+        }
+        for (long value : longs) {
+            OptionalCodec.writeOptionalLong(out, OptionalLong.of(value));
+        }
+        for (double value : doubles) {
+            OptionalCodec.writeOptionalDouble(out, OptionalDouble.of(value));
+        }
+        OptionalCodec.writeOptional(out, Optional.of("caf\u00e9"), UTF8);
+
+        DataInputStream in = in();
+        for (int value : ints) {
+            Assert.assertEquals(value, OptionalCodec.readOptionalInt(in).getAsInt());
+        }
+        for (long value : longs) {
+            Assert.assertEquals(value, OptionalCodec.readOptionalLong(in).getAsLong());
+        }
+        for (double value : doubles) {
+            Assert.assertEquals(Double.doubleToRawLongBits(value),
+                    Double.doubleToRawLongBits(OptionalCodec.readOptionalDouble(in).getAsDouble()));
+        }
+        Assert.assertEquals(Optional.of("caf\u00e9"), OptionalCodec.readOptional(in, UTF8));
+        Assert.assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void emptyDecodesToEmptyInstance() throws IOException {
+        OptionalCodec.writeOptionalInt(out, OptionalInt.empty());
+
+        Assert.assertSame(OptionalInt.empty(), OptionalCodec.readOptionalInt(in()));
+    }
+
+    @Test
+    public void bufferMatchesStream() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64).order(ByteOrder.LITTLE_ENDIAN);
+        OptionalCodec.putOptionalInt(buffer, OptionalInt.of(-70000));
+        OptionalCodec.putOptionalLong(buffer, OptionalLong.empty());
+        OptionalCodec.putOptionalDouble(buffer, OptionalDouble.of(1.5));
+        OptionalCodec.putOptional(buffer, Optional.of("x"), UTF8);
+        OptionalCodec.writeOptionalInt(out, OptionalInt.of(-70000));
+        OptionalCodec.writeOptionalLong(out, OptionalLong.empty());
+        OptionalCodec.writeOptionalDouble(out, OptionalDouble.of(1.5));
+        OptionalCodec.writeOptional(out, Optional.of("x"), UTF8);
+
+        buffer.flip();
+        byte[] encoded = new byte[buffer.remaining()];
+        buffer.duplicate().get(encoded);
+        Assert.assertArrayEquals(bytes.toByteArray(), encoded);
+
+        Assert.assertEquals(OptionalInt.of(-70000), OptionalCodec.getOptionalInt(buffer));
+        Assert.assertEquals(OptionalLong.empty(), OptionalCodec.getOptionalLong(buffer));
+        Assert.assertEquals(OptionalDouble.of(1.5), OptionalCodec.getOptionalDouble(buffer));
+        Assert.assertEquals(Optional.of("x"), OptionalCodec.getOptional(buffer, UTF8));
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void heapBufferReadsStrings() {
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        buffer.position(3);
+        ByteBuffer slice = buffer.slice();
+        OptionalCodec.putOptional(slice, Optional.of("slice"), UTF8);
+        slice.flip();
+
+        Assert.assertEquals(Optional.of("slice"), OptionalCodec.getOptional(slice, UTF8));
+    }
+
+    @Test(expected = BufferUnderflowException.class)
+    public void truncatedHugeStringFailsInDirectBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(6);
+        buffer.put(new byte[]{1, -16, -1, -1, -1, 7}).flip();
+        OptionalCodec.getOptional(buffer, UTF8);
+    }
+
+    @Test
+    public void arraysRoundTrip() throws IOException {
+        OptionalInt[] ints = new OptionalInt[11];
+        OptionalLong[] longs = new OptionalLong[11];
+        OptionalDouble[] doubles = new OptionalDouble[11];
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Optional<String>[] strings = new Optional[11];
+        for (int i = 0; i < 11; i++) {
+            boolean present = i % 3 != 0;
+            ints[i] = present ? OptionalInt.of(i * -1000) : OptionalInt.empty();
+            longs[i] = present ? OptionalLong.of(i * 1000000000000L) : OptionalLong.empty();
+            doubles[i] = present ? OptionalDouble.of(i / 4.0) : OptionalDouble.empty();
+            strings[i] = present ? Optional.of(Integer.toString(i)) : Optional.<String>empty();
+        }
+
+        OptionalCodec.writeOptionalIntArray(out, ints);
+        OptionalCodec.writeOptionalLongArray(out, longs);
+        OptionalCodec.writeOptionalDoubleArray(out, doubles);
+        OptionalCodec.writeOptionalArray(out, strings, UTF8);
+        DataInputStream in = in();
+        Assert.assertArrayEquals(ints, OptionalCodec.readOptionalIntArray(in));
+        Assert.assertArrayEquals(longs, OptionalCodec.readOptionalLongArray(in));
+        Assert.assertArrayEquals(doubles, OptionalCodec.readOptionalDoubleArray(in));
+        Assert.assertArrayEquals(strings, OptionalCodec.readOptionalArray(in, UTF8));
+
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.size());
+        buffer.put(new byte[]{-1, -1, -1});
+        buffer.clear();
+        OptionalCodec.putOptionalIntArray(buffer, ints);
+        OptionalCodec.putOptionalLongArray(buffer, longs);
+        OptionalCodec.putOptionalDoubleArray(buffer, doubles);
+        OptionalCodec.putOptionalArray(buffer, strings, UTF8);
+        Assert.assertArrayEquals(bytes.toByteArray(), buffer.array());
+
+        buffer.flip();
+        Assert.assertArrayEquals(ints, OptionalCodec.getOptionalIntArray(buffer));
+        Assert.assertArrayEquals(longs, OptionalCodec.getOptionalLongArray(buffer));
+        Assert.assertArrayEquals(doubles, OptionalCodec.getOptionalDoubleArray(buffer));
+        Assert.assertArrayEquals(strings, OptionalCodec.getOptionalArray(buffer, UTF8));
+    }
+
+    @Test
+    public void arrayUsesBitmap() throws IOException {
+        OptionalCodec.writeOptionalIntArray(out, new OptionalInt[]{
+                OptionalInt.empty(), OptionalInt.of(2), OptionalInt.empty(), OptionalInt.of(-1)});
+
+        Assert.assertArrayEquals(new byte[]{4, 0x0A, 4, 1}, bytes.toByteArray());
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void invalidTagFailsStream() throws IOException {
+        out.writeByte(2);
+        OptionalCodec.readOptionalLong(in());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidTagFailsBuffer() {
+        OptionalCodec.getOptionalLong(ByteBuffer.wrap(new byte[]{7}));
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void overlongVarintFails() throws IOException {
+        out.write(new byte[]{1, -1, -1, -1, -1, -1, 1});
+        OptionalCodec.readOptionalInt(in());
+    }
+
+    @Test(expected = EOFException.class)
+    public void truncatedHugeStringFailsWithoutAllocatingIt() throws IOException {
+        out.write(new byte[]{1, -1, -1, -1, -1, 7});
+        OptionalCodec.readOptional(in(), UTF8);
+    }
+
+    @Test
+    public void truncatedHugeArraysFailWithoutAllocatingThem() throws IOException {
+        out.write(new byte[]{-1, -1, -1, -1, 7});
+        try {
+            OptionalCodec.readOptionalIntArray(in());
+            Assert.fail();
+        } catch (EOFException expected) {
+        }
+        try {
+            OptionalCodec.readOptionalLongArray(in());
+            Assert.fail();
+        } catch (EOFException expected) {
+        }
+        try {
+            OptionalCodec.readOptionalDoubleArray(in());
+            Assert.fail();
+        } catch (EOFException expected) {
+        }
+        try {
+            OptionalCodec.readOptionalArray(in(), UTF8);
+            Assert.fail();
+        } catch (EOFException expected) {
+        }
+    }
+
+    @Test
+    public void longStringsAndArraysRoundTrip() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        String string = builder.toString();
+        OptionalInt[] ints = new OptionalInt[100000];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i % 3 == 0 ? OptionalInt.empty() : OptionalInt.of(i);
+        }
+        OptionalCodec.writeOptional(out, Optional.of(string), UTF8);
+        OptionalCodec.writeOptionalIntArray(out, ints);
+
+        DataInputStream in = in();
+        Assert.assertEquals(Optional.of(string), OptionalCodec.readOptional(in, UTF8));
+        Assert.assertArrayEquals(ints, OptionalCodec.readOptionalIntArray(in));
+    }
+}
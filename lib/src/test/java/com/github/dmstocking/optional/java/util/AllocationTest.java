@@ -0,0 +1,492 @@
+package com.github.dmstocking.optional.java.util;
+
+import com.github.dmstocking.optional.java.util.function.Consumer;
+import com.github.dmstocking.optional.java.util.function.DoublePredicate;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.IntConsumer;
+import com.github.dmstocking.optional.java.util.function.IntPredicate;
+import com.github.dmstocking.optional.java.util.function.IntUnaryOperator;
+import com.github.dmstocking.optional.java.util.function.LongPredicate;
+import com.github.dmstocking.optional.java.util.function.Predicate;
+import com.github.dmstocking.optional.java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Allocation budgets for the hot paths of the optionals, measured with the allocated bytes
+ * HotSpot counts for the current thread. Every operation is warmed up until the JIT has compiled
+ * it and then run many times, so the budget is the average number of bytes per call and one-off
+ * allocations, such as class initialization, round down to zero.
+ *
+ * Results are kept alive in a volatile field so escape analysis cannot remove an allocation the
+ * library makes. Skipped on JVMs that do not count allocated bytes per thread.
+ */
+public class AllocationTest {
+
+    private static final int WARMUP_ITERATIONS = 20000;
+    private static final int ITERATIONS = 100000;
+
+    private static final Optional<String> PRESENT = Optional.of("value");
+    private static final Optional<String> EMPTY = Optional.empty();
+    private static final OptionalInt PRESENT_INT = OptionalInt.of(100000);
+    private static final OptionalLong PRESENT_LONG = OptionalLong.of(100000L);
+    private static final OptionalDouble PRESENT_DOUBLE = OptionalDouble.of(2.5);
+
+    private static final Predicate<String> ALWAYS = new Predicate<String>() {
+        @Override
+        public boolean test(String value) {
+            return true;
+        }
+    };
+    private static final Predicate<String> NEVER = new Predicate<String>() {
+        @Override
+        public boolean test(String value) {
+            return false;
+        }
+    };
+    private static final Function<String, String> IDENTITY = new Function<String, String>() {
+        @Override
+        public String apply(String value) {
+            return value;
+        }
+    };
+    private static final Supplier<String> OTHER = new Supplier<String>() {
+        @Override
+        public String get() {
+            return "other";
+        }
+    };
+    private static final Supplier<IllegalStateException> MISSING =
+            new Supplier<IllegalStateException>() {
+                @Override
+                public IllegalStateException get() {
+                    return new IllegalStateException();
+                }
+            };
+    private static final Consumer<String> CONSUMER = new Consumer<String>() {
+        @Override
+        public void accept(String value) {
+            objectSink = value;
+        }
+    };
+    private static final IntPredicate POSITIVE_INT = new IntPredicate() {
+        @Override
+        public boolean test(int value) {
+            return value > 0;
+        }
+    };
+    private static final IntUnaryOperator TO_SMALL_INT = new IntUnaryOperator() {
+        @Override
+        public int applyAsInt(int operand) {
+            return operand & 0x3F;
+        }
+    };
+    private static final IntConsumer INT_CONSUMER = new IntConsumer() {
+        @Override
+        public void accept(int value) {
+            longSink += value;
+        }
+    };
+    private static final LongPredicate POSITIVE_LONG = new LongPredicate() {
+        @Override
+        public boolean test(long value) {
+            return value > 0;
+        }
+    };
+    private static final DoublePredicate POSITIVE_DOUBLE = new DoublePredicate() {
+        @Override
+        public boolean test(double value) {
+            return value > 0;
+        }
+    };
+
+    private static com.sun.management.ThreadMXBean threads;
+
+    // the size of one instance of each optional on this JVM, the budget of a call creating one
+    private static long optionalSize;
+    private static long optionalIntSize;
+    private static long optionalLongSize;
+
+    private static volatile Object objectSink;
+    private static volatile long longSink;
+
+    @BeforeClass
+    public static void setUpClass() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+
+        threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        optionalSize = bytesPerCall(new Operation() {
+            @Override
+            Object run() {
+                return new ReferenceLayout("value");
+            }
+        });
+        optionalIntSize = bytesPerCall(new Operation() {
+            @Override
+            Object run() {
+                return new IntLayout(100000);
+            }
+        });
+        optionalLongSize = bytesPerCall(new Operation() {
+            @Override
+            Object run() {
+                return new LongLayout(100000L);
+            }
+        });
+        Assert.assertTrue(optionalSize > 0 && optionalIntSize > 0 && optionalLongSize > 0);
+    }
+
+    @Test
+    public void optionalQueriesDoNotAllocate() {
+        assertAllocatesAtMost("Optional.empty", 0, new Operation() {
+            @Override
+            Object run() {
+                return Optional.empty();
+            }
+        });
+        assertAllocatesAtMost("Optional.ofNullable(null)", 0, new Operation() {
+            @Override
+            Object run() {
+                return Optional.ofNullable(null);
+            }
+        });
+        assertAllocatesAtMost("Optional.isPresent", 0, new Operation() {
+            @Override
+            Object run() {
+                longSink += PRESENT.isPresent() ? 1 : 0;
+                return null;
+            }
+        });
+        assertAllocatesAtMost("Optional.get", 0, new Operation() {
+            @Override
+            Object run() {
+                return PRESENT.get();
+            }
+        });
+        assertAllocatesAtMost("Optional.orElse", 0, new Operation() {
+            @Override
+            Object run() {
+                return PRESENT.orElse("other");
+            }
+        });
+        assertAllocatesAtMost("Optional.orElse on empty", 0, new Operation() {
+            @Override
+            Object run() {
+                return EMPTY.orElse("other");
+            }
+        });
+        assertAllocatesAtMost("Optional.orElseGet", 0, new Operation() {
+            @Override
+            Object run() {
+                return EMPTY.orElseGet(OTHER);
+            }
+        });
+        assertAllocatesAtMost("Optional.orElseThrow", 0, new Operation() {
+            @Override
+            Object run() {
+                return PRESENT.orElseThrow(MISSING);
+            }
+        });
+        assertAllocatesAtMost("Optional.ifPresent", 0, new Operation() {
+            @Override
+            Object run() {
+                PRESENT.ifPresent(CONSUMER);
+                return null;
+            }
+        });
+        assertAllocatesAtMost("Optional.filter passing", 0, new Operation() {
+            @Override
+            Object run() {
+                return PRESENT.filter(ALWAYS);
+            }
+        });
+        assertAllocatesAtMost("Optional.filter failing", 0, new Operation() {
+            @Override
+            Object run() {
+                return PRESENT.filter(NEVER);
+            }
+        });
+        assertAllocatesAtMost("Optional.map on empty", 0, new Operation() {
+            @Override
+            Object run() {
+                return EMPTY.map(IDENTITY);
+            }
+        });
+        assertAllocatesAtMost("Optional.equals", 0, new Operation() {
+            @Override
+            Object run() {
+                longSink += PRESENT.equals(EMPTY) ? 1 : 0;
+                return null;
+            }
+        });
+        assertAllocatesAtMost("Optional.hashCode", 0, new Operation() {
+            @Override
+            Object run() {
+                longSink += PRESENT.hashCode();
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void optionalCreationAllocatesOnlyTheOptional() {
+        assertAllocatesAtMost("Optional.of", optionalSize, new Operation() {
+            @Override
+            Object run() {
+                return Optional.of("value");
+            }
+        });
+        assertAllocatesAtMost("Optional.map", optionalSize, new Operation() {
+            @Override
+            Object run() {
+                return PRESENT.map(IDENTITY);
+            }
+        });
+    }
+
+    @Test
+    public void optionalIntQueriesDoNotAllocate() {
+        assertAllocatesAtMost("OptionalInt.empty", 0, new Operation() {
+            @Override
+            Object run() {
+                return OptionalInt.empty();
+            }
+        });
+        assertAllocatesAtMost("OptionalInt.of cached", 0, new Operation() {
+            @Override
+            Object run() {
+                return OptionalInt.of(42);
+            }
+        });
+        assertAllocatesAtMost("OptionalInt.isPresent", 0, new Operation() {
+            @Override
+            Object run() {
+                longSink += PRESENT_INT.isPresent() ? 1 : 0;
+                return null;
+            }
+        });
+        assertAllocatesAtMost("OptionalInt.getAsInt", 0, new Operation() {
+            @Override
+            Object run() {
+                longSink += PRESENT_INT.getAsInt();
+                return null;
+            }
+        });
+        assertAllocatesAtMost("OptionalInt.orElse", 0, new Operation() {
+            @Override
+            Object run() {
+                longSink += OptionalInt.empty().orElse(1);
+                return null;
+            }
+        });
+        assertAllocatesAtMost("OptionalInt.ifPresent", 0, new Operation() {
+            @Override
+            Object run() {
+                PRESENT_INT.ifPresent(INT_CONSUMER);
+                return null;
+            }
+        });
+        assertAllocatesAtMost("OptionalInt.filter", 0, new Operation() {
+            @Override
+            Object run() {
+                return PRESENT_INT.filter(POSITIVE_INT);
+            }
+        });
+        assertAllocatesAtMost("OptionalInt.map to a cached value", 0, new Operation() {
+            @Override
+            Object run() {
+                return PRESENT_INT.map(TO_SMALL_INT);
+            }
+        });
+        assertAllocatesAtMost("OptionalInt.toPacked", 0, new Operation() {
+            @Override
+            Object run() {
+                longSink += PRESENT_INT.toPacked();
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void optionalIntCreationAllocatesOnlyTheOptional() {
+        assertAllocatesAtMost("OptionalInt.of", optionalIntSize, new Operation() {
+            @Override
+            Object run() {
+                return OptionalInt.of(100000);
+            }
+        });
+    }
+
+    @Test
+    public void optionalLongQueriesDoNotAllocate() {
+        assertAllocatesAtMost("OptionalLong.empty", 0, new Operation() {
+            @Override
+            Object run() {
+                return OptionalLong.empty();
+            }
+        });
+        assertAllocatesAtMost("OptionalLong.of cached", 0, new Operation() {
+            @Override
+            Object run() {
+                return OptionalLong.of(42L);
+            }
+        });
+        assertAllocatesAtMost("OptionalLong.getAsLong", 0, new Operation() {
+            @Override
+            Object run() {
+                longSink += PRESENT_LONG.getAsLong();
+                return null;
+            }
+        });
+        assertAllocatesAtMost("OptionalLong.orElse", 0, new Operation() {
+            @Override
+            Object run() {
+                longSink += OptionalLong.empty().orElse(1L);
+                return null;
+            }
+        });
+        assertAllocatesAtMost("OptionalLong.filter", 0, new Operation() {
+            @Override
+            Object run() {
+                return PRESENT_LONG.filter(POSITIVE_LONG);
+            }
+        });
+    }
+
+    @Test
+    public void optionalLongCreationAllocatesOnlyTheOptional() {
+        assertAllocatesAtMost("OptionalLong.of", optionalLongSize, new Operation() {
+            @Override
+            Object run() {
+                return OptionalLong.of(100000L);
+            }
+        });
+    }
+
+    @Test
+    public void optionalDoubleQueriesDoNotAllocate() {
+        assertAllocatesAtMost("OptionalDouble.empty", 0, new Operation() {
+            @Override
+            Object run() {
+                return OptionalDouble.empty();
+            }
+        });
+        assertAllocatesAtMost("OptionalDouble.of cached", 0, new Operation() {
+            @Override
+            Object run() {
+                return OptionalDouble.of(1.0);
+            }
+        });
+        assertAllocatesAtMost("OptionalDouble.getAsDouble", 0, new Operation() {
+            @Override
+            Object run() {
+                longSink += (long) PRESENT_DOUBLE.getAsDouble();
+                return null;
+            }
+        });
+        assertAllocatesAtMost("OptionalDouble.orElse", 0, new Operation() {
+            @Override
+            Object run() {
+                longSink += (long) OptionalDouble.empty().orElse(1.0);
+                return null;
+            }
+        });
+        assertAllocatesAtMost("OptionalDouble.filter", 0, new Operation() {
+            @Override
+            Object run() {
+                return PRESENT_DOUBLE.filter(POSITIVE_DOUBLE);
+            }
+        });
+    }
+
+    @Test
+    public void optionalDoubleCreationAllocatesOnlyTheOptional() {
+        // a double takes as much room as a long
+        assertAllocatesAtMost("OptionalDouble.of", optionalLongSize, new Operation() {
+            @Override
+            Object run() {
+                return OptionalDouble.of(2.5);
+            }
+        });
+    }
+
+    @Test
+    public void emptyIsSharedInstance() {
+        Assert.assertSame(Optional.empty(), Optional.empty());
+        Assert.assertSame(OptionalInt.empty(), OptionalInt.empty());
+        Assert.assertSame(OptionalLong.empty(), OptionalLong.empty());
+        Assert.assertSame(OptionalDouble.empty(), OptionalDouble.empty());
+    }
+
+    private static void assertAllocatesAtMost(String name, long budget, Operation operation) {
+        long bytes = bytesPerCall(operation);
+        Assert.assertTrue(
+                name + " allocated " + bytes + " bytes per call, the budget is " + budget,
+                bytes <= budget);
+    }
+
+    private static long bytesPerCall(Operation operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            objectSink = operation.run();
+        }
+
+        long thread = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ITERATIONS; i++) {
+            objectSink = operation.run();
+        }
+        long after = threads.getThreadAllocatedBytes(thread);
+        return (after - before) / ITERATIONS;
+    }
+
+    private abstract static class Operation {
+
+        abstract Object run();
+    }
+
+    /*
+     * Classes with the same fields as the optionals, so that allocating one measures the size of
+     * an optional without calling into the code under test.
+     */
+
+    private static final class ReferenceLayout {
+
+        final Object value;
+
+        ReferenceLayout(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static final class IntLayout {
+
+        final boolean isPresent;
+        final int value;
+
+        IntLayout(int value) {
+            this.isPresent = true;
+            this.value = value;
+        }
+    }
+
+    private static final class LongLayout {
+
+        final boolean isPresent;
+        final long value;
+
+        LongLayout(long value) {
+            this.isPresent = true;
+            this.value = value;
+        }
+    }
+}
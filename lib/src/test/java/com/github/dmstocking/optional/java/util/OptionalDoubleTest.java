@@ -1,12 +1,21 @@
 package com.github.dmstocking.optional.java.util;
 
 import com.github.dmstocking.optional.java.util.function.DoubleConsumer;
+import com.github.dmstocking.optional.java.util.function.DoubleFunction;
+import com.github.dmstocking.optional.java.util.function.DoublePredicate;
 import com.github.dmstocking.optional.java.util.function.DoubleSupplier;
+import com.github.dmstocking.optional.java.util.function.DoubleToIntFunction;
+import com.github.dmstocking.optional.java.util.function.DoubleToLongFunction;
+import com.github.dmstocking.optional.java.util.function.DoubleUnaryOperator;
 import com.github.dmstocking.optional.java.util.function.Supplier;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.NoSuchElementException;
 
 public class OptionalDoubleTest {
@@ -16,12 +25,38 @@ public class OptionalDoubleTest {
         Assert.assertSame(OptionalDouble.empty(), OptionalDouble.empty());
     }
 
+    @Test
+    public void boxedOfEmptyReturnsEmpty() {
+        Assert.assertEquals(Optional.empty(), OptionalDouble.empty().boxed());
+    }
+
+    @Test
+    public void boxedOfValueReturnsBoxedValue() {
+        Assert.assertEquals(Optional.of(Double.valueOf(1.0)), OptionalDouble.of(1.0).boxed());
+    }
+
     @Test
     public void getAsIntOfValueReturnsValue() {
         OptionalDouble of = OptionalDouble.of(1.0);
         Assert.assertEquals(1.0, of.getAsDouble(), 0.0);
     }
 
+    @Test
+    public void ofZeroAndOneReturnSameInstance() {
+        Assert.assertSame(OptionalDouble.of(0.0), OptionalDouble.of(0.0));
+        Assert.assertSame(OptionalDouble.of(1.0), OptionalDouble.of(1.0));
+    }
+
+    @Test
+    public void ofNegativeZeroIsNotTheCachedZero() {
+        Assert.assertEquals("OptionalDouble[-0.0]", OptionalDouble.of(-0.0).toString());
+    }
+
+    @Test
+    public void ofNaNDoesNotEqualAnotherNaN() {
+        Assert.assertNotEquals(OptionalDouble.of(Double.NaN), OptionalDouble.of(Double.NaN));
+    }
+
     @Test(expected = NoSuchElementException.class)
     public void getOfEmptyThrowsNoSuchElementException() {
         OptionalDouble.empty().getAsDouble();
@@ -93,6 +128,170 @@ public class OptionalDoubleTest {
         Assert.assertTrue(OptionalDouble.of(0.0).isPresent());
     }
 
+    @Test
+    public void filterOfEmptyReturnsEmpty() {
+        OptionalDouble filtered = OptionalDouble.empty().filter(new DoublePredicate() {
+            @Override
+            public boolean test(double value) {
+                return true;
+            }
+        });
+        Assert.assertEquals(OptionalDouble.empty(), filtered);
+    }
+
+    @Test
+    public void filterOfValueWithFalsePredicateReturnsEmpty() {
+        OptionalDouble filtered = OptionalDouble.of(1.0).filter(new DoublePredicate() {
+            @Override
+            public boolean test(double value) {
+                return false;
+            }
+        });
+        Assert.assertEquals(OptionalDouble.empty(), filtered);
+    }
+
+    @Test
+    public void filterOfValueWithTruePredicateReturnsValue() {
+        OptionalDouble filtered = OptionalDouble.of(1.0).filter(new DoublePredicate() {
+            @Override
+            public boolean test(double value) {
+                return true;
+            }
+        });
+        Assert.assertEquals(OptionalDouble.of(1.0), filtered);
+    }
+
+    @Test
+    public void flatMapOfEmptyReturnsEmpty() {
+        OptionalDouble mapped = OptionalDouble.empty().flatMap(new DoubleFunction<OptionalDouble>() {
+            @Override
+            public OptionalDouble apply(double value) {
+                return OptionalDouble.of(1.0);
+            }
+        });
+        Assert.assertEquals(OptionalDouble.empty(), mapped);
+    }
+
+    @Test
+    public void flatMapOfValueReturnsMappedValue() {
+        OptionalDouble mapped = OptionalDouble.of(1.0).flatMap(new DoubleFunction<OptionalDouble>() {
+            @Override
+            public OptionalDouble apply(double value) {
+                return OptionalDouble.of(value + 1.0);
+            }
+        });
+        Assert.assertEquals(OptionalDouble.of(2.0), mapped);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void flatMapReturningNullThrowsNPE() {
+        OptionalDouble.of(1.0).flatMap(new DoubleFunction<OptionalDouble>() {
+            @Override
+            public OptionalDouble apply(double value) {
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void mapOfEmptyReturnsEmpty() {
+        OptionalDouble mapped = OptionalDouble.empty().map(new DoubleUnaryOperator() {
+            @Override
+            public double applyAsDouble(double operand) {
+                return operand + 1.0;
+            }
+        });
+        Assert.assertEquals(OptionalDouble.empty(), mapped);
+    }
+
+    @Test
+    public void mapOfValueReturnsMappedValue() {
+        OptionalDouble mapped = OptionalDouble.of(1.0).map(new DoubleUnaryOperator() {
+            @Override
+            public double applyAsDouble(double operand) {
+                return operand + 1.0;
+            }
+        });
+        Assert.assertEquals(OptionalDouble.of(2.0), mapped);
+    }
+
+    @Test
+    public void mapToIntOfEmptyReturnsEmpty() {
+        OptionalInt mapped = OptionalDouble.empty().mapToInt(new DoubleToIntFunction() {
+            @Override
+            public int applyAsInt(double value) {
+                return (int) value;
+            }
+        });
+        Assert.assertEquals(OptionalInt.empty(), mapped);
+    }
+
+    @Test
+    public void mapToIntOfValueReturnsMappedValue() {
+        OptionalInt mapped = OptionalDouble.of(2.0).mapToInt(new DoubleToIntFunction() {
+            @Override
+            public int applyAsInt(double value) {
+                return (int) value;
+            }
+        });
+        Assert.assertEquals(OptionalInt.of(2), mapped);
+    }
+
+    @Test
+    public void mapToLongOfEmptyReturnsEmpty() {
+        OptionalLong mapped = OptionalDouble.empty().mapToLong(new DoubleToLongFunction() {
+            @Override
+            public long applyAsLong(double value) {
+                return (long) value;
+            }
+        });
+        Assert.assertEquals(OptionalLong.empty(), mapped);
+    }
+
+    @Test
+    public void mapToLongOfValueReturnsMappedValue() {
+        OptionalLong mapped = OptionalDouble.of(2.0).mapToLong(new DoubleToLongFunction() {
+            @Override
+            public long applyAsLong(double value) {
+                return (long) value;
+            }
+        });
+        Assert.assertEquals(OptionalLong.of(2L), mapped);
+    }
+
+    @Test
+    public void mapToObjOfEmptyReturnsEmpty() {
+        Optional<String> mapped = OptionalDouble.empty().mapToObj(new DoubleFunction<String>() {
+            @Override
+            public String apply(double value) {
+                return String.valueOf(value);
+            }
+        });
+        Assert.assertEquals(Optional.empty(), mapped);
+    }
+
+    @Test
+    public void mapToObjOfValueReturnsMappedValue() {
+        Optional<String> mapped = OptionalDouble.of(1.0).mapToObj(new DoubleFunction<String>() {
+            @Override
+            public String apply(double value) {
+                return String.valueOf(value);
+            }
+        });
+        Assert.assertEquals(Optional.of(String.valueOf(1.0)), mapped);
+    }
+
+    @Test
+    public void mapToObjReturningNullReturnsEmpty() {
+        Optional<String> mapped = OptionalDouble.of(1.0).mapToObj(new DoubleFunction<String>() {
+            @Override
+            public String apply(double value) {
+                return null;
+            }
+        });
+        Assert.assertEquals(Optional.empty(), mapped);
+    }
+
     @Test
     public void orElseOfEmptyReturnsElse() {
         Assert.assertEquals(1.0, OptionalDouble.empty().orElse(1.0), 0.0);
@@ -195,8 +394,83 @@ public class OptionalDoubleTest {
         Assert.assertEquals("OptionalDouble.empty", OptionalDouble.empty().toString());
     }
 
+    @Test
+    public void packedRoundTrip() {
+        long empty = OptionalDouble.empty().toPacked();
+        Assert.assertEquals(OptionalDouble.empty(), OptionalDouble.fromPacked(empty));
+        for (double value : new double[]{0.0, -0.5, 1e300}) {
+            long packed = OptionalDouble.of(value).toPacked();
+            Assert.assertEquals(OptionalDouble.of(value), OptionalDouble.fromPacked(packed));
+        }
+    }
+
     @Test
     public void toStringOfValue() {
         Assert.assertEquals("OptionalDouble[0.0]", OptionalDouble.of(0.0d).toString());
     }
+
+    @Test
+    public void iteratorOfEmptyIsSharedAndHasNoElements() {
+        PrimitiveIterator.OfDouble iterator = OptionalDouble.empty().iterator();
+
+        Assert.assertSame(iterator, OptionalDouble.empty().iterator());
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void iteratorOfValueReturnsValueOnce() {
+        PrimitiveIterator.OfDouble iterator = OptionalDouble.of(1.5).iterator();
+
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertEquals(1.5, iterator.nextDouble(), 0);
+        Assert.assertFalse(iterator.hasNext());
+        iterator.nextDouble();
+    }
+
+    @Test
+    public void iteratorForEachRemainingConsumesValue() {
+        final double[] consumed = new double[2];
+        PrimitiveIterator.OfDouble iterator = OptionalDouble.of(1.5).iterator();
+        DoubleConsumer consumer = new DoubleConsumer() {
+            @Override
+            public void accept(double value) {
+                consumed[0]++;
+                consumed[1] = value;
+            }
+        };
+
+        iterator.forEachRemaining(consumer);
+        iterator.forEachRemaining(consumer);
+
+        Assert.assertEquals(1, consumed[0], 0);
+        Assert.assertEquals(1.5, consumed[1], 0);
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void serializedEmptyResolvesToEmptyInstance() throws Exception {
+        Assert.assertSame(OptionalDouble.empty(), serializeRoundTrip(OptionalDouble.empty()));
+    }
+
+    @Test
+    public void serializedCachedValueResolvesToCachedInstance() throws Exception {
+        Assert.assertSame(OptionalDouble.of(1.0), serializeRoundTrip(OptionalDouble.of(1.0)));
+    }
+
+    @Test
+    public void serializedValueRoundTrips() throws Exception {
+        OptionalDouble value = OptionalDouble.of(-2.5);
+        Assert.assertEquals(value, serializeRoundTrip(value));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T serializeRoundTrip(T value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(value);
+        out.close();
+        ObjectInputStream in =
+                new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        return (T) in.readObject();
+    }
 }
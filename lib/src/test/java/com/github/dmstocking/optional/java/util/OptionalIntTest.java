@@ -1,12 +1,21 @@
 package com.github.dmstocking.optional.java.util;
 
 import com.github.dmstocking.optional.java.util.function.IntConsumer;
+import com.github.dmstocking.optional.java.util.function.IntFunction;
+import com.github.dmstocking.optional.java.util.function.IntPredicate;
 import com.github.dmstocking.optional.java.util.function.IntSupplier;
+import com.github.dmstocking.optional.java.util.function.IntToDoubleFunction;
+import com.github.dmstocking.optional.java.util.function.IntToLongFunction;
+import com.github.dmstocking.optional.java.util.function.IntUnaryOperator;
 import com.github.dmstocking.optional.java.util.function.Supplier;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.NoSuchElementException;
 
 public class OptionalIntTest {
@@ -16,12 +25,34 @@ public class OptionalIntTest {
         Assert.assertSame(OptionalInt.empty(), OptionalInt.empty());
     }
 
+    @Test
+    public void boxedOfEmptyReturnsEmpty() {
+        Assert.assertEquals(Optional.empty(), OptionalInt.empty().boxed());
+    }
+
+    @Test
+    public void boxedOfValueReturnsBoxedValue() {
+        Assert.assertEquals(Optional.of(Integer.valueOf(1)), OptionalInt.of(1).boxed());
+    }
+
     @Test
     public void getAsIntOfValueReturnsValue() {
         OptionalInt of = OptionalInt.of(1);
         Assert.assertEquals(1, of.getAsInt());
     }
 
+    @Test
+    public void ofCachedValueReturnsSameInstance() {
+        Assert.assertSame(OptionalInt.of(-128), OptionalInt.of(-128));
+        Assert.assertSame(OptionalInt.of(1023), OptionalInt.of(1023));
+    }
+
+    @Test
+    public void ofUncachedValueKeepsEqualsAndHashCode() {
+        Assert.assertEquals(OptionalInt.of(1024), OptionalInt.of(1024));
+        Assert.assertEquals(OptionalInt.of(1024).hashCode(), OptionalInt.of(1024).hashCode());
+    }
+
     @Test(expected = NoSuchElementException.class)
     public void getOfEmptyThrowsNoSuchElementException() {
         OptionalInt.empty().getAsInt();
@@ -93,6 +124,170 @@ public class OptionalIntTest {
         Assert.assertTrue(OptionalInt.of(0).isPresent());
     }
 
+    @Test
+    public void filterOfEmptyReturnsEmpty() {
+        OptionalInt filtered = OptionalInt.empty().filter(new IntPredicate() {
+            @Override
+            public boolean test(int value) {
+                return true;
+            }
+        });
+        Assert.assertEquals(OptionalInt.empty(), filtered);
+    }
+
+    @Test
+    public void filterOfValueWithFalsePredicateReturnsEmpty() {
+        OptionalInt filtered = OptionalInt.of(1).filter(new IntPredicate() {
+            @Override
+            public boolean test(int value) {
+                return false;
+            }
+        });
+        Assert.assertEquals(OptionalInt.empty(), filtered);
+    }
+
+    @Test
+    public void filterOfValueWithTruePredicateReturnsValue() {
+        OptionalInt filtered = OptionalInt.of(1).filter(new IntPredicate() {
+            @Override
+            public boolean test(int value) {
+                return true;
+            }
+        });
+        Assert.assertEquals(OptionalInt.of(1), filtered);
+    }
+
+    @Test
+    public void flatMapOfEmptyReturnsEmpty() {
+        OptionalInt mapped = OptionalInt.empty().flatMap(new IntFunction<OptionalInt>() {
+            @Override
+            public OptionalInt apply(int value) {
+                return OptionalInt.of(1);
+            }
+        });
+        Assert.assertEquals(OptionalInt.empty(), mapped);
+    }
+
+    @Test
+    public void flatMapOfValueReturnsMappedValue() {
+        OptionalInt mapped = OptionalInt.of(1).flatMap(new IntFunction<OptionalInt>() {
+            @Override
+            public OptionalInt apply(int value) {
+                return OptionalInt.of(value + 1);
+            }
+        });
+        Assert.assertEquals(OptionalInt.of(2), mapped);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void flatMapReturningNullThrowsNPE() {
+        OptionalInt.of(1).flatMap(new IntFunction<OptionalInt>() {
+            @Override
+            public OptionalInt apply(int value) {
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void mapOfEmptyReturnsEmpty() {
+        OptionalInt mapped = OptionalInt.empty().map(new IntUnaryOperator() {
+            @Override
+            public int applyAsInt(int operand) {
+                return operand + 1;
+            }
+        });
+        Assert.assertEquals(OptionalInt.empty(), mapped);
+    }
+
+    @Test
+    public void mapOfValueReturnsMappedValue() {
+        OptionalInt mapped = OptionalInt.of(1).map(new IntUnaryOperator() {
+            @Override
+            public int applyAsInt(int operand) {
+                return operand + 1;
+            }
+        });
+        Assert.assertEquals(OptionalInt.of(2), mapped);
+    }
+
+    @Test
+    public void mapToLongOfEmptyReturnsEmpty() {
+        OptionalLong mapped = OptionalInt.empty().mapToLong(new IntToLongFunction() {
+            @Override
+            public long applyAsLong(int value) {
+                return value;
+            }
+        });
+        Assert.assertEquals(OptionalLong.empty(), mapped);
+    }
+
+    @Test
+    public void mapToLongOfValueReturnsMappedValue() {
+        OptionalLong mapped = OptionalInt.of(2).mapToLong(new IntToLongFunction() {
+            @Override
+            public long applyAsLong(int value) {
+                return value;
+            }
+        });
+        Assert.assertEquals(OptionalLong.of(2L), mapped);
+    }
+
+    @Test
+    public void mapToDoubleOfEmptyReturnsEmpty() {
+        OptionalDouble mapped = OptionalInt.empty().mapToDouble(new IntToDoubleFunction() {
+            @Override
+            public double applyAsDouble(int value) {
+                return value;
+            }
+        });
+        Assert.assertEquals(OptionalDouble.empty(), mapped);
+    }
+
+    @Test
+    public void mapToDoubleOfValueReturnsMappedValue() {
+        OptionalDouble mapped = OptionalInt.of(2).mapToDouble(new IntToDoubleFunction() {
+            @Override
+            public double applyAsDouble(int value) {
+                return value;
+            }
+        });
+        Assert.assertEquals(OptionalDouble.of(2.0), mapped);
+    }
+
+    @Test
+    public void mapToObjOfEmptyReturnsEmpty() {
+        Optional<String> mapped = OptionalInt.empty().mapToObj(new IntFunction<String>() {
+            @Override
+            public String apply(int value) {
+                return String.valueOf(value);
+            }
+        });
+        Assert.assertEquals(Optional.empty(), mapped);
+    }
+
+    @Test
+    public void mapToObjOfValueReturnsMappedValue() {
+        Optional<String> mapped = OptionalInt.of(1).mapToObj(new IntFunction<String>() {
+            @Override
+            public String apply(int value) {
+                return String.valueOf(value);
+            }
+        });
+        Assert.assertEquals(Optional.of(String.valueOf(1)), mapped);
+    }
+
+    @Test
+    public void mapToObjReturningNullReturnsEmpty() {
+        Optional<String> mapped = OptionalInt.of(1).mapToObj(new IntFunction<String>() {
+            @Override
+            public String apply(int value) {
+                return null;
+            }
+        });
+        Assert.assertEquals(Optional.empty(), mapped);
+    }
+
     @Test
     public void orElseOfEmptyReturnsElse() {
         Assert.assertEquals(1, OptionalInt.empty().orElse(1));
@@ -195,8 +390,83 @@ public class OptionalIntTest {
         Assert.assertEquals("OptionalInt.empty", OptionalInt.empty().toString());
     }
 
+    @Test
+    public void packedRoundTrip() {
+        long empty = OptionalInt.empty().toPacked();
+        Assert.assertEquals(OptionalInt.empty(), OptionalInt.fromPacked(empty));
+        for (int value : new int[]{0, -1, 5000}) {
+            long packed = OptionalInt.of(value).toPacked();
+            Assert.assertEquals(OptionalInt.of(value), OptionalInt.fromPacked(packed));
+        }
+    }
+
     @Test
     public void toStringOfValue() {
         Assert.assertEquals("OptionalInt[0]", OptionalInt.of(0).toString());
     }
+
+    @Test
+    public void iteratorOfEmptyIsSharedAndHasNoElements() {
+        PrimitiveIterator.OfInt iterator = OptionalInt.empty().iterator();
+
+        Assert.assertSame(iterator, OptionalInt.empty().iterator());
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void iteratorOfValueReturnsValueOnce() {
+        PrimitiveIterator.OfInt iterator = OptionalInt.of(1).iterator();
+
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertEquals(1, iterator.nextInt());
+        Assert.assertFalse(iterator.hasNext());
+        iterator.nextInt();
+    }
+
+    @Test
+    public void iteratorForEachRemainingConsumesValue() {
+        final int[] consumed = new int[2];
+        PrimitiveIterator.OfInt iterator = OptionalInt.of(1).iterator();
+        IntConsumer consumer = new IntConsumer() {
+            @Override
+            public void accept(int value) {
+                consumed[0]++;
+                consumed[1] = value;
+            }
+        };
+
+        iterator.forEachRemaining(consumer);
+        iterator.forEachRemaining(consumer);
+
+        Assert.assertEquals(1, consumed[0]);
+        Assert.assertEquals(1, consumed[1]);
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void serializedEmptyResolvesToEmptyInstance() throws Exception {
+        Assert.assertSame(OptionalInt.empty(), serializeRoundTrip(OptionalInt.empty()));
+    }
+
+    @Test
+    public void serializedCachedValueResolvesToCachedInstance() throws Exception {
+        Assert.assertSame(OptionalInt.of(7), serializeRoundTrip(OptionalInt.of(7)));
+    }
+
+    @Test
+    public void serializedValueRoundTrips() throws Exception {
+        OptionalInt value = OptionalInt.of(Integer.MAX_VALUE);
+        Assert.assertEquals(value, serializeRoundTrip(value));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T serializeRoundTrip(T value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(value);
+        out.close();
+        ObjectInputStream in =
+                new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        return (T) in.readObject();
+    }
 }
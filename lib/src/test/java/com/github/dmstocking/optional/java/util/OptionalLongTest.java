@@ -1,12 +1,21 @@
 package com.github.dmstocking.optional.java.util;
 
 import com.github.dmstocking.optional.java.util.function.LongConsumer;
+import com.github.dmstocking.optional.java.util.function.LongFunction;
+import com.github.dmstocking.optional.java.util.function.LongPredicate;
 import com.github.dmstocking.optional.java.util.function.LongSupplier;
+import com.github.dmstocking.optional.java.util.function.LongToDoubleFunction;
+import com.github.dmstocking.optional.java.util.function.LongToIntFunction;
+import com.github.dmstocking.optional.java.util.function.LongUnaryOperator;
 import com.github.dmstocking.optional.java.util.function.Supplier;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.NoSuchElementException;
 
 public class OptionalLongTest {
@@ -16,12 +25,34 @@ public class OptionalLongTest {
         Assert.assertSame(OptionalLong.empty(), OptionalLong.empty());
     }
 
+    @Test
+    public void boxedOfEmptyReturnsEmpty() {
+        Assert.assertEquals(Optional.empty(), OptionalLong.empty().boxed());
+    }
+
+    @Test
+    public void boxedOfValueReturnsBoxedValue() {
+        Assert.assertEquals(Optional.of(Long.valueOf(1L)), OptionalLong.of(1L).boxed());
+    }
+
     @Test
     public void getAsIntOfValueReturnsValue() {
         OptionalLong of = OptionalLong.of(1L);
         Assert.assertEquals(1L, of.getAsLong());
     }
 
+    @Test
+    public void ofCachedValueReturnsSameInstance() {
+        Assert.assertSame(OptionalLong.of(-128L), OptionalLong.of(-128L));
+        Assert.assertSame(OptionalLong.of(1023L), OptionalLong.of(1023L));
+    }
+
+    @Test
+    public void ofUncachedValueKeepsEqualsAndHashCode() {
+        Assert.assertEquals(OptionalLong.of(1024L), OptionalLong.of(1024L));
+        Assert.assertEquals(OptionalLong.of(1024L).hashCode(), OptionalLong.of(1024L).hashCode());
+    }
+
     @Test(expected = NoSuchElementException.class)
     public void getOfEmptyThrowsNoSuchElementException() {
         OptionalLong.empty().getAsLong();
@@ -93,6 +124,170 @@ public class OptionalLongTest {
         Assert.assertTrue(OptionalLong.of(0L).isPresent());
     }
 
+    @Test
+    public void filterOfEmptyReturnsEmpty() {
+        OptionalLong filtered = OptionalLong.empty().filter(new LongPredicate() {
+            @Override
+            public boolean test(long value) {
+                return true;
+            }
+        });
+        Assert.assertEquals(OptionalLong.empty(), filtered);
+    }
+
+    @Test
+    public void filterOfValueWithFalsePredicateReturnsEmpty() {
+        OptionalLong filtered = OptionalLong.of(1L).filter(new LongPredicate() {
+            @Override
+            public boolean test(long value) {
+                return false;
+            }
+        });
+        Assert.assertEquals(OptionalLong.empty(), filtered);
+    }
+
+    @Test
+    public void filterOfValueWithTruePredicateReturnsValue() {
+        OptionalLong filtered = OptionalLong.of(1L).filter(new LongPredicate() {
+            @Override
+            public boolean test(long value) {
+                return true;
+            }
+        });
+        Assert.assertEquals(OptionalLong.of(1L), filtered);
+    }
+
+    @Test
+    public void flatMapOfEmptyReturnsEmpty() {
+        OptionalLong mapped = OptionalLong.empty().flatMap(new LongFunction<OptionalLong>() {
+            @Override
+            public OptionalLong apply(long value) {
+                return OptionalLong.of(1L);
+            }
+        });
+        Assert.assertEquals(OptionalLong.empty(), mapped);
+    }
+
+    @Test
+    public void flatMapOfValueReturnsMappedValue() {
+        OptionalLong mapped = OptionalLong.of(1L).flatMap(new LongFunction<OptionalLong>() {
+            @Override
+            public OptionalLong apply(long value) {
+                return OptionalLong.of(value + 1L);
+            }
+        });
+        Assert.assertEquals(OptionalLong.of(2L), mapped);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void flatMapReturningNullThrowsNPE() {
+        OptionalLong.of(1L).flatMap(new LongFunction<OptionalLong>() {
+            @Override
+            public OptionalLong apply(long value) {
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void mapOfEmptyReturnsEmpty() {
+        OptionalLong mapped = OptionalLong.empty().map(new LongUnaryOperator() {
+            @Override
+            public long applyAsLong(long operand) {
+                return operand + 1L;
+            }
+        });
+        Assert.assertEquals(OptionalLong.empty(), mapped);
+    }
+
+    @Test
+    public void mapOfValueReturnsMappedValue() {
+        OptionalLong mapped = OptionalLong.of(1L).map(new LongUnaryOperator() {
+            @Override
+            public long applyAsLong(long operand) {
+                return operand + 1L;
+            }
+        });
+        Assert.assertEquals(OptionalLong.of(2L), mapped);
+    }
+
+    @Test
+    public void mapToIntOfEmptyReturnsEmpty() {
+        OptionalInt mapped = OptionalLong.empty().mapToInt(new LongToIntFunction() {
+            @Override
+            public int applyAsInt(long value) {
+                return (int) value;
+            }
+        });
+        Assert.assertEquals(OptionalInt.empty(), mapped);
+    }
+
+    @Test
+    public void mapToIntOfValueReturnsMappedValue() {
+        OptionalInt mapped = OptionalLong.of(2L).mapToInt(new LongToIntFunction() {
+            @Override
+            public int applyAsInt(long value) {
+                return (int) value;
+            }
+        });
+        Assert.assertEquals(OptionalInt.of(2), mapped);
+    }
+
+    @Test
+    public void mapToDoubleOfEmptyReturnsEmpty() {
+        OptionalDouble mapped = OptionalLong.empty().mapToDouble(new LongToDoubleFunction() {
+            @Override
+            public double applyAsDouble(long value) {
+                return value;
+            }
+        });
+        Assert.assertEquals(OptionalDouble.empty(), mapped);
+    }
+
+    @Test
+    public void mapToDoubleOfValueReturnsMappedValue() {
+        OptionalDouble mapped = OptionalLong.of(2L).mapToDouble(new LongToDoubleFunction() {
+            @Override
+            public double applyAsDouble(long value) {
+                return value;
+            }
+        });
+        Assert.assertEquals(OptionalDouble.of(2.0), mapped);
+    }
+
+    @Test
+    public void mapToObjOfEmptyReturnsEmpty() {
+        Optional<String> mapped = OptionalLong.empty().mapToObj(new LongFunction<String>() {
+            @Override
+            public String apply(long value) {
+                return String.valueOf(value);
+            }
+        });
+        Assert.assertEquals(Optional.empty(), mapped);
+    }
+
+    @Test
+    public void mapToObjOfValueReturnsMappedValue() {
+        Optional<String> mapped = OptionalLong.of(1L).mapToObj(new LongFunction<String>() {
+            @Override
+            public String apply(long value) {
+                return String.valueOf(value);
+            }
+        });
+        Assert.assertEquals(Optional.of(String.valueOf(1L)), mapped);
+    }
+
+    @Test
+    public void mapToObjReturningNullReturnsEmpty() {
+        Optional<String> mapped = OptionalLong.of(1L).mapToObj(new LongFunction<String>() {
+            @Override
+            public String apply(long value) {
+                return null;
+            }
+        });
+        Assert.assertEquals(Optional.empty(), mapped);
+    }
+
     @Test
     public void orElseOfEmptyReturnsElse() {
         Assert.assertEquals(1L, OptionalLong.empty().orElse(1L));
@@ -195,8 +390,88 @@ public class OptionalLongTest {
         Assert.assertEquals("OptionalLong.empty", OptionalLong.empty().toString());
     }
 
+    @Test
+    public void packedRoundTrip() {
+        long empty = OptionalLong.empty().toPacked();
+        Assert.assertEquals(OptionalLong.empty(), OptionalLong.fromPacked(empty));
+        for (long value : new long[]{0L, -1L, 5000L}) {
+            long packed = OptionalLong.of(value).toPacked();
+            Assert.assertEquals(OptionalLong.of(value), OptionalLong.fromPacked(packed));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void toPackedOfMinValueThrowsIllegalArgument() {
+        OptionalLong.of(Long.MIN_VALUE).toPacked();
+    }
+
     @Test
     public void toStringOfValue() {
         Assert.assertEquals("OptionalLong[0]", OptionalLong.of(0L).toString());
     }
+
+    @Test
+    public void iteratorOfEmptyIsSharedAndHasNoElements() {
+        PrimitiveIterator.OfLong iterator = OptionalLong.empty().iterator();
+
+        Assert.assertSame(iterator, OptionalLong.empty().iterator());
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void iteratorOfValueReturnsValueOnce() {
+        PrimitiveIterator.OfLong iterator = OptionalLong.of(1L).iterator();
+
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertEquals(1L, iterator.nextLong());
+        Assert.assertFalse(iterator.hasNext());
+        iterator.nextLong();
+    }
+
+    @Test
+    public void iteratorForEachRemainingConsumesValue() {
+        final long[] consumed = new long[2];
+        PrimitiveIterator.OfLong iterator = OptionalLong.of(1L).iterator();
+        LongConsumer consumer = new LongConsumer() {
+            @Override
+            public void accept(long value) {
+                consumed[0]++;
+                consumed[1] = value;
+            }
+        };
+
+        iterator.forEachRemaining(consumer);
+        iterator.forEachRemaining(consumer);
+
+        Assert.assertEquals(1, consumed[0]);
+        Assert.assertEquals(1L, consumed[1]);
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void serializedEmptyResolvesToEmptyInstance() throws Exception {
+        Assert.assertSame(OptionalLong.empty(), serializeRoundTrip(OptionalLong.empty()));
+    }
+
+    @Test
+    public void serializedCachedValueResolvesToCachedInstance() throws Exception {
+        Assert.assertSame(OptionalLong.of(-7), serializeRoundTrip(OptionalLong.of(-7)));
+    }
+
+    @Test
+    public void serializedValueRoundTrips() throws Exception {
+        OptionalLong value = OptionalLong.of(Long.MIN_VALUE);
+        Assert.assertEquals(value, serializeRoundTrip(value));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T serializeRoundTrip(T value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(value);
+        out.close();
+        ObjectInputStream in =
+                new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        return (T) in.readObject();
+    }
 }
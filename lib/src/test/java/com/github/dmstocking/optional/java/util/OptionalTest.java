@@ -4,10 +4,20 @@ import com.github.dmstocking.optional.java.util.function.Consumer;
 import com.github.dmstocking.optional.java.util.function.Function;
 import com.github.dmstocking.optional.java.util.function.Predicate;
 import com.github.dmstocking.optional.java.util.function.Supplier;
+import com.github.dmstocking.optional.java.util.function.ToDoubleFunction;
+import com.github.dmstocking.optional.java.util.function.ToIntFunction;
+import com.github.dmstocking.optional.java.util.function.ToLongFunction;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 public class OptionalTest {
@@ -200,6 +210,138 @@ public class OptionalTest {
         Assert.assertEquals(Optional.of("mapped"), mapped);
     }
 
+    @Test
+    public void mapToDoubleOfEmptyReturnsEmpty() {
+        OptionalDouble mapped = Optional.<String>empty().mapToDouble(new ToDoubleFunction<String>() {
+            @Override
+            public double applyAsDouble(String value) {
+                return value.length();
+            }
+        });
+        Assert.assertEquals(OptionalDouble.empty(), mapped);
+    }
+
+    @Test
+    public void mapToDoubleOfValueReturnsMappedValue() {
+        OptionalDouble mapped = Optional.of("ab").mapToDouble(new ToDoubleFunction<String>() {
+            @Override
+            public double applyAsDouble(String value) {
+                return value.length();
+            }
+        });
+        Assert.assertEquals(OptionalDouble.of(2.0), mapped);
+    }
+
+    @Test
+    public void mapToDoubleOrElseOfEmptyReturnsElse() {
+        double actual = Optional.<String>empty().mapToDoubleOrElse(new ToDoubleFunction<String>() {
+            @Override
+            public double applyAsDouble(String value) {
+                return value.length();
+            }
+        }, -1);
+        Assert.assertEquals(-1, actual, 0.0);
+    }
+
+    @Test
+    public void mapToDoubleOrElseOfValueReturnsMappedValue() {
+        double actual = Optional.of("ab").mapToDoubleOrElse(new ToDoubleFunction<String>() {
+            @Override
+            public double applyAsDouble(String value) {
+                return value.length();
+            }
+        }, -1);
+        Assert.assertEquals(2.0, actual, 0.0);
+    }
+
+    @Test
+    public void mapToIntOfEmptyReturnsEmpty() {
+        OptionalInt mapped = Optional.<String>empty().mapToInt(new ToIntFunction<String>() {
+            @Override
+            public int applyAsInt(String value) {
+                return value.length();
+            }
+        });
+        Assert.assertEquals(OptionalInt.empty(), mapped);
+    }
+
+    @Test
+    public void mapToIntOfValueReturnsMappedValue() {
+        OptionalInt mapped = Optional.of("ab").mapToInt(new ToIntFunction<String>() {
+            @Override
+            public int applyAsInt(String value) {
+                return value.length();
+            }
+        });
+        Assert.assertEquals(OptionalInt.of(2), mapped);
+    }
+
+    @Test
+    public void mapToIntOrElseOfEmptyReturnsElse() {
+        int actual = Optional.<String>empty().mapToIntOrElse(new ToIntFunction<String>() {
+            @Override
+            public int applyAsInt(String value) {
+                return value.length();
+            }
+        }, -1);
+        Assert.assertEquals(-1, actual);
+    }
+
+    @Test
+    public void mapToIntOrElseOfValueReturnsMappedValue() {
+        int actual = Optional.of("ab").mapToIntOrElse(new ToIntFunction<String>() {
+            @Override
+            public int applyAsInt(String value) {
+                return value.length();
+            }
+        }, -1);
+        Assert.assertEquals(2, actual);
+    }
+
+    @Test
+    public void mapToLongOfEmptyReturnsEmpty() {
+        OptionalLong mapped = Optional.<String>empty().mapToLong(new ToLongFunction<String>() {
+            @Override
+            public long applyAsLong(String value) {
+                return value.length();
+            }
+        });
+        Assert.assertEquals(OptionalLong.empty(), mapped);
+    }
+
+    @Test
+    public void mapToLongOfValueReturnsMappedValue() {
+        OptionalLong mapped = Optional.of("ab").mapToLong(new ToLongFunction<String>() {
+            @Override
+            public long applyAsLong(String value) {
+                return value.length();
+            }
+        });
+        Assert.assertEquals(OptionalLong.of(2L), mapped);
+    }
+
+    @Test
+    public void mapToLongOrElseOfEmptyReturnsElse() {
+        long actual = Optional.<String>empty().mapToLongOrElse(new ToLongFunction<String>() {
+            @Override
+            public long applyAsLong(String value) {
+                return value.length();
+            }
+        }, -1);
+        Assert.assertEquals(-1, actual);
+    }
+
+    @Test
+    public void mapToLongOrElseOfValueReturnsMappedValue() {
+        long actual = Optional.of("ab").mapToLongOrElse(new ToLongFunction<String>() {
+            @Override
+            public long applyAsLong(String value) {
+                return value.length();
+            }
+        }, -1);
+        Assert.assertEquals(2L, actual);
+    }
+
     @Test
     public void orReturnsThisWhenPresent() {
         Optional<Integer> actual = Optional.of(0).or(new Supplier<Optional<? extends Integer>>() {
@@ -337,4 +479,70 @@ public class OptionalTest {
     public void toStringOfValue() {
         Assert.assertEquals("Optional[0]", Optional.of(0).toString());
     }
+
+    @Test
+    public void iteratorOfEmptyIsSharedAndHasNoElements() {
+        Iterator<String> iterator = Optional.<String>empty().iterator();
+
+        Assert.assertSame(iterator, Optional.<String>empty().iterator());
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void iteratorOfValueReturnsValueOnce() {
+        Iterator<String> iterator = Optional.of("value").iterator();
+
+        Assert.assertTrue(iterator.hasNext());
+        Assert.assertEquals("value", iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+        iterator.next();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void iteratorDoesNotSupportRemove() {
+        Iterator<String> iterator = Optional.of("value").iterator();
+        iterator.next();
+        iterator.remove();
+    }
+
+    @Test
+    public void asIterableOfEmptyIsShared() {
+        Assert.assertSame(Optional.empty().asIterable(), Optional.empty().asIterable());
+        Assert.assertFalse(Optional.empty().asIterable().iterator().hasNext());
+    }
+
+    @Test
+    public void asIterableCanBeIteratedRepeatedly() {
+        Iterable<String> iterable = Optional.of("value").asIterable();
+        List<String> values = new ArrayList<String>();
+        for (String value : iterable) {
+            values.add(value);
+        }
+        for (String value : iterable) {
+            values.add(value);
+        }
+
+        Assert.assertEquals("[value, value]", values.toString());
+    }
+
+    @Test
+    public void serializedEmptyResolvesToEmptyInstance() throws Exception {
+        Assert.assertSame(Optional.empty(), serializeRoundTrip(Optional.empty()));
+    }
+
+    @Test
+    public void serializedValueRoundTrips() throws Exception {
+        Assert.assertEquals(Optional.of("value"), serializeRoundTrip(Optional.of("value")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T serializeRoundTrip(T value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(value);
+        out.close();
+        ObjectInputStream in =
+                new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        return (T) in.readObject();
+    }
 }
@@ -0,0 +1,106 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.OptionalInt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class IntIntMapTest {
+
+    @Test
+    public void getOfMissingKeyIsEmpty() {
+        IntIntMap map = new IntIntMap();
+
+        Assert.assertEquals(OptionalInt.empty(), map.get(1));
+        Assert.assertEquals(-1, map.getOrElse(1, -1));
+        Assert.assertEquals(PackedOptionalInt.EMPTY, map.getPacked(1));
+        Assert.assertFalse(map.containsKey(1));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void putReturnsPreviousPacked() {
+        IntIntMap map = new IntIntMap();
+
+        Assert.assertEquals(PackedOptionalInt.EMPTY, map.put(1, 10));
+        Assert.assertEquals(PackedOptionalInt.pack(10), map.put(1, 20));
+        Assert.assertEquals(OptionalInt.of(20), map.get(1));
+        Assert.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void removeReturnsRemovedPacked() {
+        IntIntMap map = new IntIntMap();
+        map.put(1, 10);
+
+        Assert.assertEquals(PackedOptionalInt.pack(10), map.remove(1));
+        Assert.assertEquals(PackedOptionalInt.EMPTY, map.remove(1));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void zeroIsAnOrdinaryKey() {
+        IntIntMap map = new IntIntMap();
+
+        Assert.assertEquals(PackedOptionalInt.EMPTY, map.put(0, 0));
+        Assert.assertTrue(map.containsKey(0));
+        Assert.assertEquals(PackedOptionalInt.pack(0), map.getPacked(0));
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals("{0=0}", map.toString());
+        Assert.assertEquals(PackedOptionalInt.pack(0), map.remove(0));
+        Assert.assertFalse(map.containsKey(0));
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        IntIntMap map = new IntIntMap();
+        map.put(0, 1);
+        map.put(1, 2);
+        map.clear();
+
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertFalse(map.containsKey(0));
+        Assert.assertFalse(map.containsKey(1));
+    }
+
+    @Test
+    public void behavesLikeHashMap() {
+        Random random = new Random(42);
+        IntIntMap map = new IntIntMap(0, 0.75f);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 100000; i++) {
+            // a small key range forces collisions, growth and removal of probed entries
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                long packed = map.remove(key);
+                Assert.assertEquals(removed != null, PackedOptionalInt.isPresent(packed));
+            } else {
+                int value = random.nextInt();
+                expected.put(key, value);
+                map.put(key, value);
+            }
+        }
+
+        Assert.assertEquals(expected.size(), map.size());
+        for (int key = -1000; key < 1000; key++) {
+            Integer value = expected.get(key);
+            Assert.assertEquals(value == null ? OptionalInt.empty() : OptionalInt.of(value),
+                    map.get(key));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void loadFactorOfOneThrows() {
+        new IntIntMap(8, 1f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeExpectedSizeThrows() {
+        new IntIntMap(-1);
+    }
+}
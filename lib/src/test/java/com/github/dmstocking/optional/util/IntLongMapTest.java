@@ -0,0 +1,103 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class IntLongMapTest {
+
+    @Test
+    public void getOfMissingKeyIsEmpty() {
+        IntLongMap map = new IntLongMap();
+
+        Assert.assertEquals(OptionalLong.empty(), map.get(1));
+        Assert.assertEquals(-1, map.getOrElse(1, -1));
+        Assert.assertFalse(map.containsKey(1));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void putReturnsWhetherKeyIsNew() {
+        IntLongMap map = new IntLongMap();
+
+        Assert.assertTrue(map.put(1, 10));
+        Assert.assertFalse(map.put(1, 20));
+        Assert.assertEquals(OptionalLong.of(20), map.get(1));
+        Assert.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void removeReturnsWhetherKeyWasPresent() {
+        IntLongMap map = new IntLongMap();
+        map.put(1, 10);
+
+        Assert.assertTrue(map.remove(1));
+        Assert.assertFalse(map.remove(1));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void zeroIsAnOrdinaryKey() {
+        IntLongMap map = new IntLongMap();
+
+        Assert.assertTrue(map.put(0, Long.MIN_VALUE));
+        Assert.assertTrue(map.containsKey(0));
+        Assert.assertEquals(OptionalLong.of(Long.MIN_VALUE), map.get(0));
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals("{0=" + Long.MIN_VALUE + "}", map.toString());
+        Assert.assertTrue(map.remove(0));
+        Assert.assertFalse(map.containsKey(0));
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        IntLongMap map = new IntLongMap();
+        map.put(0, 1);
+        map.put(1, 2);
+        map.clear();
+
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertFalse(map.containsKey(0));
+        Assert.assertFalse(map.containsKey(1));
+    }
+
+    @Test
+    public void behavesLikeHashMap() {
+        Random random = new Random(42);
+        IntLongMap map = new IntLongMap(0, 0.75f);
+        Map<Integer, Long> expected = new HashMap<Integer, Long>();
+        for (int i = 0; i < 100000; i++) {
+            // a small key range forces collisions, growth and removal of probed entries
+            int key = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                long value = random.nextLong();
+                expected.put(key, value);
+                map.put(key, value);
+            }
+        }
+
+        Assert.assertEquals(expected.size(), map.size());
+        for (int key = -1000; key < 1000; key++) {
+            Long value = expected.get(key);
+            Assert.assertEquals(value == null ? OptionalLong.empty() : OptionalLong.of(value),
+                    map.get(key));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void loadFactorOfOneThrows() {
+        new IntLongMap(8, 1f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeExpectedSizeThrows() {
+        new IntLongMap(-1);
+    }
+}
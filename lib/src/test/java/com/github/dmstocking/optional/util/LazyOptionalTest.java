@@ -0,0 +1,184 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.Predicate;
+import com.github.dmstocking.optional.java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LazyOptionalTest {
+
+    private static final Function<String, Integer> LENGTH = new Function<String, Integer>() {
+        @Override
+        public Integer apply(String s) {
+            return s.length();
+        }
+    };
+
+    private static final Predicate<Integer> IS_EVEN = new Predicate<Integer>() {
+        @Override
+        public boolean test(Integer integer) {
+            return integer % 2 == 0;
+        }
+    };
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private Supplier<String> counting(final String value) {
+        return new Supplier<String>() {
+            @Override
+            public String get() {
+                calls.incrementAndGet();
+                return value;
+            }
+        };
+    }
+
+    @Test
+    public void supplierIsNotInvokedUntilUsed() {
+        LazyOptional<String> optional = LazyOptional.of(counting("value"));
+
+        Assert.assertEquals(0, calls.get());
+        Assert.assertFalse(optional.isComputed());
+        Assert.assertEquals("LazyOptional.pending", optional.toString());
+    }
+
+    @Test
+    public void supplierIsInvokedOnce() {
+        LazyOptional<String> optional = LazyOptional.of(counting("value"));
+
+        Assert.assertTrue(optional.isPresent());
+        Assert.assertEquals("value", optional.get());
+        Assert.assertEquals("value", optional.orElse("other"));
+        Assert.assertEquals(1, calls.get());
+        Assert.assertTrue(optional.isComputed());
+        Assert.assertEquals("LazyOptional[value]", optional.toString());
+    }
+
+    @Test
+    public void nullResultIsEmpty() {
+        LazyOptional<String> optional = LazyOptional.of(counting(null));
+
+        Assert.assertFalse(optional.isPresent());
+        Assert.assertEquals("other", optional.orElse("other"));
+        Assert.assertEquals(Optional.<String>empty(), optional.toOptional());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void getOfEmptyThrows() {
+        LazyOptional.of(counting(null)).get();
+    }
+
+    @Test
+    public void mapAndFilterStayLazy() {
+        LazyOptional<Integer> optional =
+                LazyOptional.of(counting("four")).map(LENGTH).filter(IS_EVEN);
+
+        Assert.assertEquals(0, calls.get());
+        Assert.assertEquals(Optional.of(4), optional.toOptional());
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void filterFailingIsEmpty() {
+        LazyOptional<Integer> optional =
+                LazyOptional.of(counting("odd")).map(LENGTH).filter(IS_EVEN);
+
+        Assert.assertFalse(optional.isPresent());
+    }
+
+    @Test
+    public void flatMapStaysLazy() {
+        LazyOptional<Integer> optional = LazyOptional.of(counting("ab")).flatMap(
+                new Function<String, Optional<Integer>>() {
+                    @Override
+                    public Optional<Integer> apply(String s) {
+                        return Optional.of(s.length());
+                    }
+                });
+
+        Assert.assertEquals(0, calls.get());
+        Assert.assertEquals(Integer.valueOf(2), optional.get());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void flatMapReturningNullThrowsWhenComputed() {
+        LazyOptional.of(counting("ab")).flatMap(new Function<String, Optional<Integer>>() {
+            @Override
+            public Optional<Integer> apply(String s) {
+                return null;
+            }
+        }).isPresent();
+    }
+
+    @Test
+    public void deferUsesTheSuppliedOptional() {
+        LazyOptional<String> optional = LazyOptional.defer(new Supplier<Optional<String>>() {
+            @Override
+            public Optional<String> get() {
+                return Optional.of("deferred");
+            }
+        });
+
+        Assert.assertEquals("deferred", optional.get());
+    }
+
+    @Test
+    public void failedComputationIsRetried() {
+        LazyOptional<String> optional = LazyOptional.of(new Supplier<String>() {
+            @Override
+            public String get() {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IllegalStateException();
+                }
+                return "value";
+            }
+        });
+
+        try {
+            optional.isPresent();
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+            Assert.assertFalse(optional.isComputed());
+        }
+        Assert.assertEquals("value", optional.get());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void ofNullSupplierThrows() {
+        LazyOptional.of(null);
+    }
+
+    @Test
+    public void concurrentReadersComputeOnce() throws InterruptedException {
+        final LazyOptional<String> optional = LazyOptional.of(counting("value"));
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    optional.get();
+                }
+            });
+            threads[i].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongLongMapTest {
+
+    // keys that differ only in their high bits
+    private static final long STEP = 1L << 32;
+
+    @Test
+    public void getOfMissingKeyIsEmpty() {
+        LongLongMap map = new LongLongMap();
+
+        Assert.assertEquals(OptionalLong.empty(), map.get(1));
+        Assert.assertEquals(-1, map.getOrElse(1, -1));
+        Assert.assertFalse(map.containsKey(1));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void putReturnsWhetherKeyIsNew() {
+        LongLongMap map = new LongLongMap();
+
+        Assert.assertTrue(map.put(1, 10));
+        Assert.assertFalse(map.put(1, 20));
+        Assert.assertEquals(OptionalLong.of(20), map.get(1));
+        Assert.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void removeReturnsWhetherKeyWasPresent() {
+        LongLongMap map = new LongLongMap();
+        map.put(1, 10);
+
+        Assert.assertTrue(map.remove(1));
+        Assert.assertFalse(map.remove(1));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void zeroIsAnOrdinaryKey() {
+        LongLongMap map = new LongLongMap();
+
+        Assert.assertTrue(map.put(0, Long.MIN_VALUE));
+        Assert.assertTrue(map.containsKey(0));
+        Assert.assertEquals(OptionalLong.of(Long.MIN_VALUE), map.get(0));
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals("{0=" + Long.MIN_VALUE + "}", map.toString());
+        Assert.assertTrue(map.remove(0));
+        Assert.assertFalse(map.containsKey(0));
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        LongLongMap map = new LongLongMap();
+        map.put(0, 1);
+        map.put(1, 2);
+        map.clear();
+
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertFalse(map.containsKey(0));
+        Assert.assertFalse(map.containsKey(1));
+    }
+
+    @Test
+    public void behavesLikeHashMap() {
+        Random random = new Random(42);
+        LongLongMap map = new LongLongMap(0, 0.75f);
+        Map<Long, Long> expected = new HashMap<Long, Long>();
+        for (int i = 0; i < 100000; i++) {
+            // a small key range forces collisions, growth and removal of probed entries
+            long key = (random.nextInt(2000) - 1000) * STEP;
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                long value = random.nextLong();
+                expected.put(key, value);
+                map.put(key, value);
+            }
+        }
+
+        Assert.assertEquals(expected.size(), map.size());
+        for (long key = -1000 * STEP; key < 1000 * STEP; key += STEP) {
+            Long value = expected.get(key);
+            Assert.assertEquals(value == null ? OptionalLong.empty() : OptionalLong.of(value),
+                    map.get(key));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void loadFactorOfOneThrows() {
+        new LongLongMap(8, 1f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeExpectedSizeThrows() {
+        new LongLongMap(-1);
+    }
+}
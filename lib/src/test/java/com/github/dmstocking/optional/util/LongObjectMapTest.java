@@ -0,0 +1,99 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongObjectMapTest {
+
+    @Test
+    public void getOfMissingKeyIsEmpty() {
+        LongObjectMap<String> map = new LongObjectMap<String>();
+
+        Assert.assertEquals(Optional.<String>empty(), map.get(1));
+        Assert.assertEquals("other", map.getOrElse(1, "other"));
+        Assert.assertNull(map.getOrElse(1, null));
+        Assert.assertFalse(map.containsKey(1));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void putReturnsPrevious() {
+        LongObjectMap<String> map = new LongObjectMap<String>();
+
+        Assert.assertNull(map.put(1, "first"));
+        Assert.assertEquals("first", map.put(1, "second"));
+        Assert.assertEquals(Optional.of("second"), map.get(1));
+        Assert.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void removeReturnsRemoved() {
+        LongObjectMap<String> map = new LongObjectMap<String>();
+        map.put(1, "value");
+
+        Assert.assertEquals("value", map.remove(1));
+        Assert.assertNull(map.remove(1));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void zeroIsAnOrdinaryKey() {
+        LongObjectMap<String> map = new LongObjectMap<String>();
+
+        Assert.assertNull(map.put(0, "zero"));
+        Assert.assertEquals(Optional.of("zero"), map.get(0));
+        Assert.assertEquals("{0=zero}", map.toString());
+        Assert.assertEquals("zero", map.remove(0));
+        Assert.assertFalse(map.containsKey(0));
+        Assert.assertNull(map.remove(0));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void putOfNullThrows() {
+        new LongObjectMap<String>().put(1, null);
+    }
+
+    @Test
+    public void clearRemovesEverything() {
+        LongObjectMap<String> map = new LongObjectMap<String>();
+        map.put(0, "zero");
+        map.put(1, "one");
+        map.clear();
+
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertEquals(Optional.<String>empty(), map.get(1));
+    }
+
+    @Test
+    public void behavesLikeHashMap() {
+        Random random = new Random(42);
+        LongObjectMap<String> map = new LongObjectMap<String>(0, 0.9f);
+        Map<Long, String> expected = new HashMap<Long, String>();
+        for (int i = 0; i < 100000; i++) {
+            // a small key range forces collisions, growth and removal of probed entries
+            long key = random.nextInt(2000) - 1000;
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                String value = Integer.toString(i);
+                Assert.assertEquals(expected.put(key, value), map.put(key, value));
+            }
+        }
+
+        Assert.assertEquals(expected.size(), map.size());
+        for (long key = -1000; key < 1000; key++) {
+            Assert.assertEquals(Optional.ofNullable(expected.get(key)), map.get(key));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void loadFactorOfZeroThrows() {
+        new LongObjectMap<String>(8, 0f);
+    }
+}
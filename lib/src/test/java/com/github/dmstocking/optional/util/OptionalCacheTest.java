@@ -0,0 +1,214 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.LongSupplier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class OptionalCacheTest {
+
+    private final FakeClock clock = new FakeClock();
+    private final CountingLoader loader = new CountingLoader();
+
+    @Test
+    public void getOrLoadCachesPresentValues() {
+        OptionalCache<String, Integer> cache = OptionalCache.<String, Integer>builder().build();
+
+        Assert.assertEquals(Optional.of(5), cache.getOrLoad("value", loader));
+        Assert.assertEquals(Optional.of(5), cache.getOrLoad("value", loader));
+        Assert.assertEquals(1, loader.calls);
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void getOrLoadCachesAbsentKeys() {
+        OptionalCache<String, Integer> cache = OptionalCache.<String, Integer>builder().build();
+
+        Assert.assertEquals(Optional.<Integer>empty(), cache.getOrLoad("", loader));
+        Assert.assertEquals(Optional.<Integer>empty(), cache.getOrLoad("", loader));
+        Assert.assertEquals(1, loader.calls);
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(1, cache.negativeSize());
+    }
+
+    @Test
+    public void getIfCachedTellsAbsentFromNotCached() {
+        OptionalCache<String, Integer> cache = OptionalCache.<String, Integer>builder().build();
+        cache.put("absent", Optional.<Integer>empty());
+
+        Assert.assertEquals(Optional.<Integer>empty(), cache.getIfCached("absent"));
+        Assert.assertNull(cache.getIfCached("unknown"));
+        Assert.assertEquals(Optional.<Integer>empty(), cache.get("unknown"));
+    }
+
+    @Test
+    public void hitReturnsSameInstance() {
+        OptionalCache<String, Integer> cache = OptionalCache.<String, Integer>builder().build();
+        Optional<Integer> value = Optional.of(1000);
+        cache.put("key", value);
+
+        Assert.assertSame(value, cache.get("key"));
+    }
+
+    @Test
+    public void putReplacesEntryOfOtherKind() {
+        OptionalCache<String, Integer> cache = OptionalCache.<String, Integer>builder().build();
+
+        cache.put("key", Optional.<Integer>empty());
+        cache.put("key", Optional.of(1));
+        Assert.assertEquals(Optional.of(1), cache.get("key"));
+        Assert.assertEquals(0, cache.negativeSize());
+
+        cache.put("key", Optional.<Integer>empty());
+        Assert.assertEquals(Optional.<Integer>empty(), cache.getIfCached("key"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void presentAndAbsentExpireSeparately() {
+        OptionalCache<String, Integer> cache = OptionalCache.<String, Integer>builder()
+                .expireAfterWrite(10, TimeUnit.SECONDS)
+                .expireNegativeAfterWrite(1, TimeUnit.SECONDS)
+                .clock(clock)
+                .build();
+        cache.put("present", Optional.of(1));
+        cache.put("absent", Optional.<Integer>empty());
+
+        clock.advance(1, TimeUnit.SECONDS);
+        Assert.assertNull(cache.getIfCached("absent"));
+        Assert.assertEquals(Optional.of(1), cache.getIfCached("present"));
+
+        clock.advance(9, TimeUnit.SECONDS);
+        Assert.assertNull(cache.getIfCached("present"));
+        Assert.assertEquals(2, cache.stats().evictionCount());
+    }
+
+    @Test
+    public void absentKeysDoNotEvictPresentValues() {
+        OptionalCache<Integer, String> cache = OptionalCache.<Integer, String>builder()
+                .concurrencyLevel(1)
+                .maximumSize(2)
+                .maximumNegativeSize(1)
+                .build();
+        cache.put(1, Optional.of("one"));
+        cache.put(2, Optional.of("two"));
+        for (int i = 3; i < 100; i++) {
+            cache.put(i, Optional.<String>empty());
+        }
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.negativeSize());
+        Assert.assertEquals(Optional.of("one"), cache.get(1));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        OptionalCache<Integer, String> cache = OptionalCache.<Integer, String>builder()
+                .concurrencyLevel(1)
+                .maximumSize(2)
+                .build();
+        cache.put(1, Optional.of("one"));
+        cache.put(2, Optional.of("two"));
+        cache.get(1);
+        cache.put(3, Optional.of("three"));
+
+        Assert.assertEquals(Optional.of("one"), cache.getIfCached(1));
+        Assert.assertNull(cache.getIfCached(2));
+        Assert.assertEquals(Optional.of("three"), cache.getIfCached(3));
+        Assert.assertEquals(1, cache.stats().evictionCount());
+    }
+
+    @Test
+    public void zeroNegativeSizeDisablesNegativeCaching() {
+        OptionalCache<String, Integer> cache = OptionalCache.<String, Integer>builder()
+                .maximumNegativeSize(0)
+                .build();
+
+        cache.getOrLoad("", loader);
+        cache.getOrLoad("", loader);
+        Assert.assertEquals(2, loader.calls);
+    }
+
+    @Test
+    public void invalidate() {
+        OptionalCache<String, Integer> cache = OptionalCache.<String, Integer>builder().build();
+        cache.put("present", Optional.of(1));
+        cache.put("absent", Optional.<Integer>empty());
+
+        cache.invalidate("present");
+        Assert.assertNull(cache.getIfCached("present"));
+        cache.invalidateAll();
+        Assert.assertNull(cache.getIfCached("absent"));
+    }
+
+    @Test
+    public void statsCountHitsNegativeHitsAndMisses() {
+        OptionalCache<String, Integer> cache = OptionalCache.<String, Integer>builder().build();
+        cache.getOrLoad("value", loader);
+        cache.getOrLoad("value", loader);
+        cache.getOrLoad("", loader);
+        cache.getOrLoad("", loader);
+        cache.getOrLoad("", loader);
+
+        OptionalCache.Stats stats = cache.stats();
+        Assert.assertEquals(1, stats.hitCount());
+        Assert.assertEquals(2, stats.negativeHitCount());
+        Assert.assertEquals(2, stats.missCount());
+        Assert.assertEquals("Stats[hits=1, negativeHits=2, misses=2, evictions=0]",
+                stats.toString());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void loaderReturningNullThrows() {
+        OptionalCache.<String, Integer>builder().build().getOrLoad("key",
+                new Function<String, Optional<Integer>>() {
+                    @Override
+                    public Optional<Integer> apply(String s) {
+                        return null;
+                    }
+                });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeSizeThrows() {
+        OptionalCache.builder().maximumSize(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeDurationThrows() {
+        OptionalCache.builder().expireNegativeAfterWrite(-1, TimeUnit.SECONDS);
+    }
+
+    private static final class CountingLoader implements Function<String, Optional<Integer>> {
+
+        int calls;
+
+        @Override
+        public Optional<Integer> apply(String key) {
+            calls++;
+            if (key.isEmpty()) {
+                return Optional.empty();
+            }
+
+            return Optional.of(key.length());
+        }
+    }
+
+    private static final class FakeClock implements LongSupplier {
+
+        private long now = Long.MAX_VALUE - 1000;
+
+        void advance(long duration, TimeUnit unit) {
+            now += unit.toNanos(duration);
+        }
+
+        @Override
+        public long get() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OptionalDoubleArrayTest {
+
+    @Test
+    public void newArrayIsEmpty() {
+        OptionalDoubleArray array = new OptionalDoubleArray(100);
+
+        Assert.assertEquals(100, array.length());
+        Assert.assertEquals(0, array.presentCount());
+        Assert.assertEquals(OptionalDouble.empty(), array.get(99));
+    }
+
+    @Test
+    public void setMakesElementPresent() {
+        OptionalDoubleArray array = new OptionalDoubleArray(100);
+        array.set(70, 1.0);
+
+        Assert.assertTrue(array.isPresent(70));
+        Assert.assertFalse(array.isPresent(6));
+        Assert.assertEquals(OptionalDouble.of(1.0), array.get(70));
+        Assert.assertEquals(1, array.presentCount());
+    }
+
+    @Test
+    public void setZeroIsPresent() {
+        OptionalDoubleArray array = new OptionalDoubleArray(1);
+        array.set(0, 0.0);
+
+        Assert.assertEquals(OptionalDouble.of(0.0), array.get(0));
+    }
+
+    @Test
+    public void clearMakesElementEmpty() {
+        OptionalDoubleArray array = new OptionalDoubleArray(2);
+        array.set(0, 1.0);
+        array.set(1, 1.0);
+        array.clear(0);
+
+        Assert.assertFalse(array.isPresent(0));
+        Assert.assertTrue(array.isPresent(1));
+        Assert.assertEquals(1, array.presentCount());
+    }
+
+    @Test
+    public void getOrElseOfEmptyReturnsElse() {
+        Assert.assertEquals(2.0, new OptionalDoubleArray(1).getOrElse(0, 2.0), 0.0);
+    }
+
+    @Test
+    public void getOrElseOfValueReturnsValue() {
+        OptionalDoubleArray array = new OptionalDoubleArray(1);
+        array.set(0, 1.0);
+
+        Assert.assertEquals(1.0, array.getOrElse(0, 2.0), 0.0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void isPresentPastLengthThrowsIndexOutOfBounds() {
+        new OptionalDoubleArray(10).isPresent(10);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void setNegativeIndexThrowsIndexOutOfBounds() {
+        new OptionalDoubleArray(10).set(-1, 1.0);
+    }
+
+    @Test
+    public void boxedRoundTrip() {
+        Double[] boxed = {1.0, null, 2.0};
+        OptionalDoubleArray array = OptionalDoubleArray.fromBoxed(boxed);
+
+        Assert.assertEquals(2, array.presentCount());
+        Assert.assertArrayEquals(boxed, array.toBoxed());
+    }
+
+    @Test
+    public void optionalsRoundTrip() {
+        OptionalDouble[] optionals = {OptionalDouble.empty(), OptionalDouble.of(1.0), OptionalDouble.empty()};
+        OptionalDoubleArray array = OptionalDoubleArray.fromOptionals(optionals);
+
+        Assert.assertEquals(1, array.presentCount());
+        Assert.assertArrayEquals(optionals, array.toOptionals());
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.OptionalInt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OptionalIntArrayTest {
+
+    @Test
+    public void newArrayIsEmpty() {
+        OptionalIntArray array = new OptionalIntArray(100);
+
+        Assert.assertEquals(100, array.length());
+        Assert.assertEquals(0, array.presentCount());
+        Assert.assertEquals(OptionalInt.empty(), array.get(99));
+    }
+
+    @Test
+    public void setMakesElementPresent() {
+        OptionalIntArray array = new OptionalIntArray(100);
+        array.set(70, 1);
+
+        Assert.assertTrue(array.isPresent(70));
+        Assert.assertFalse(array.isPresent(6));
+        Assert.assertEquals(OptionalInt.of(1), array.get(70));
+        Assert.assertEquals(1, array.presentCount());
+    }
+
+    @Test
+    public void setZeroIsPresent() {
+        OptionalIntArray array = new OptionalIntArray(1);
+        array.set(0, 0);
+
+        Assert.assertEquals(OptionalInt.of(0), array.get(0));
+    }
+
+    @Test
+    public void clearMakesElementEmpty() {
+        OptionalIntArray array = new OptionalIntArray(2);
+        array.set(0, 1);
+        array.set(1, 1);
+        array.clear(0);
+
+        Assert.assertFalse(array.isPresent(0));
+        Assert.assertTrue(array.isPresent(1));
+        Assert.assertEquals(1, array.presentCount());
+    }
+
+    @Test
+    public void getOrElseOfEmptyReturnsElse() {
+        Assert.assertEquals(2, new OptionalIntArray(1).getOrElse(0, 2));
+    }
+
+    @Test
+    public void getOrElseOfValueReturnsValue() {
+        OptionalIntArray array = new OptionalIntArray(1);
+        array.set(0, 1);
+
+        Assert.assertEquals(1, array.getOrElse(0, 2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void isPresentPastLengthThrowsIndexOutOfBounds() {
+        new OptionalIntArray(10).isPresent(10);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void setNegativeIndexThrowsIndexOutOfBounds() {
+        new OptionalIntArray(10).set(-1, 1);
+    }
+
+    @Test
+    public void boxedRoundTrip() {
+        Integer[] boxed = {1, null, 2};
+        OptionalIntArray array = OptionalIntArray.fromBoxed(boxed);
+
+        Assert.assertEquals(2, array.presentCount());
+        Assert.assertArrayEquals(boxed, array.toBoxed());
+    }
+
+    @Test
+    public void optionalsRoundTrip() {
+        OptionalInt[] optionals = {OptionalInt.empty(), OptionalInt.of(1), OptionalInt.empty()};
+        OptionalIntArray array = OptionalIntArray.fromOptionals(optionals);
+
+        Assert.assertEquals(1, array.presentCount());
+        Assert.assertArrayEquals(optionals, array.toOptionals());
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.OptionalLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OptionalLongArrayTest {
+
+    @Test
+    public void newArrayIsEmpty() {
+        OptionalLongArray array = new OptionalLongArray(100);
+
+        Assert.assertEquals(100, array.length());
+        Assert.assertEquals(0, array.presentCount());
+        Assert.assertEquals(OptionalLong.empty(), array.get(99));
+    }
+
+    @Test
+    public void setMakesElementPresent() {
+        OptionalLongArray array = new OptionalLongArray(100);
+        array.set(70, 1L);
+
+        Assert.assertTrue(array.isPresent(70));
+        Assert.assertFalse(array.isPresent(6));
+        Assert.assertEquals(OptionalLong.of(1L), array.get(70));
+        Assert.assertEquals(1, array.presentCount());
+    }
+
+    @Test
+    public void setZeroIsPresent() {
+        OptionalLongArray array = new OptionalLongArray(1);
+        array.set(0, 0L);
+
+        Assert.assertEquals(OptionalLong.of(0L), array.get(0));
+    }
+
+    @Test
+    public void clearMakesElementEmpty() {
+        OptionalLongArray array = new OptionalLongArray(2);
+        array.set(0, 1L);
+        array.set(1, 1L);
+        array.clear(0);
+
+        Assert.assertFalse(array.isPresent(0));
+        Assert.assertTrue(array.isPresent(1));
+        Assert.assertEquals(1, array.presentCount());
+    }
+
+    @Test
+    public void getOrElseOfEmptyReturnsElse() {
+        Assert.assertEquals(2L, new OptionalLongArray(1).getOrElse(0, 2L));
+    }
+
+    @Test
+    public void getOrElseOfValueReturnsValue() {
+        OptionalLongArray array = new OptionalLongArray(1);
+        array.set(0, 1L);
+
+        Assert.assertEquals(1L, array.getOrElse(0, 2L));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void isPresentPastLengthThrowsIndexOutOfBounds() {
+        new OptionalLongArray(10).isPresent(10);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void setNegativeIndexThrowsIndexOutOfBounds() {
+        new OptionalLongArray(10).set(-1, 1L);
+    }
+
+    @Test
+    public void boxedRoundTrip() {
+        Long[] boxed = {1L, null, 2L};
+        OptionalLongArray array = OptionalLongArray.fromBoxed(boxed);
+
+        Assert.assertEquals(2, array.presentCount());
+        Assert.assertArrayEquals(boxed, array.toBoxed());
+    }
+
+    @Test
+    public void optionalsRoundTrip() {
+        OptionalLong[] optionals = {OptionalLong.empty(), OptionalLong.of(1L), OptionalLong.empty()};
+        OptionalLongArray array = OptionalLongArray.fromOptionals(optionals);
+
+        Assert.assertEquals(1, array.presentCount());
+        Assert.assertArrayEquals(optionals, array.toOptionals());
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.util.OptionalMetrics.Event;
+import com.github.dmstocking.optional.util.OptionalMetrics.Type;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class OptionalMetricsTest {
+
+    @Before
+    public void setUp() {
+        OptionalMetrics.reset();
+    }
+
+    @Test
+    public void disabledByDefault() {
+        Assert.assertFalse(OptionalMetrics.ENABLED);
+    }
+
+    @Test
+    public void recordIncrementsOnlyThatCounter() {
+        OptionalMetrics.record(Type.OPTIONAL_INT, Event.CREATED);
+        OptionalMetrics.record(Type.OPTIONAL_INT, Event.CREATED);
+
+        OptionalMetrics.Snapshot snapshot = OptionalMetrics.snapshot();
+        Assert.assertEquals(2, snapshot.get(Type.OPTIONAL_INT, Event.CREATED));
+        Assert.assertEquals(0, snapshot.get(Type.OPTIONAL, Event.CREATED));
+        Assert.assertEquals(0, snapshot.get(Type.OPTIONAL_INT, Event.EMPTY_RETURNED));
+    }
+
+    @Test
+    public void recordFromManyThreadsIsNotLost() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        OptionalMetrics.record(Type.OPTIONAL, Event.SUPPLIER_INVOKED);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(40000,
+                            OptionalMetrics.snapshot().get(Type.OPTIONAL, Event.SUPPLIER_INVOKED));
+    }
+
+    @Test
+    public void snapshotDoesNotChangeAfterwards() {
+        OptionalMetrics.Snapshot snapshot = OptionalMetrics.snapshot();
+        OptionalMetrics.record(Type.OPTIONAL, Event.GET_FAILED);
+
+        Assert.assertEquals(0, snapshot.get(Type.OPTIONAL, Event.GET_FAILED));
+    }
+
+    @Test
+    public void resetSetsCountersToZero() {
+        OptionalMetrics.record(Type.OPTIONAL_DOUBLE, Event.GET_FAILED);
+        OptionalMetrics.reset();
+
+        Assert.assertEquals(0, OptionalMetrics.snapshot().get(Type.OPTIONAL_DOUBLE, Event.GET_FAILED));
+    }
+
+    @Test
+    public void toMapContainsEveryCounter() {
+        OptionalMetrics.record(Type.OPTIONAL_LONG, Event.EMPTY_RETURNED);
+
+        Map<String, Long> map = OptionalMetrics.snapshot().toMap();
+        Assert.assertEquals(Type.values().length * Event.values().length, map.size());
+        Assert.assertEquals(Long.valueOf(1), map.get("optional_long.empty_returned"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.Predicate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OptionalPipelineTest {
+
+    private static final Function<String, Integer> LENGTH = new Function<String, Integer>() {
+        @Override
+        public Integer apply(String s) {
+            return s.length();
+        }
+    };
+
+    private static final Predicate<Integer> IS_EVEN = new Predicate<Integer>() {
+        @Override
+        public boolean test(Integer integer) {
+            return integer % 2 == 0;
+        }
+    };
+
+    private static final Function<Integer, String> TO_NULL = new Function<Integer, String>() {
+        @Override
+        public String apply(Integer integer) {
+            return null;
+        }
+    };
+
+    @Test
+    public void identityDescribesInput() {
+        Assert.assertEquals(Optional.of("a"), OptionalPipeline.<String>identity().apply("a"));
+    }
+
+    @Test
+    public void applyOfNullReturnsEmpty() {
+        Assert.assertEquals(Optional.empty(), OptionalPipeline.of(LENGTH).apply(null));
+    }
+
+    @Test
+    public void applyRunsEveryStage() {
+        OptionalPipeline<String, Integer> pipeline = OptionalPipeline.of(LENGTH)
+                .filter(IS_EVEN)
+                .map(new Function<Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer integer) {
+                        return integer * 10;
+                    }
+                });
+
+        Assert.assertEquals(Optional.of(40), pipeline.apply("abcd"));
+    }
+
+    @Test
+    public void applyMatchesChainedOptional() {
+        OptionalPipeline<String, Integer> pipeline = OptionalPipeline.of(LENGTH).filter(IS_EVEN);
+
+        for (String input : new String[]{null, "", "a", "ab"}) {
+            Assert.assertEquals(Optional.ofNullable(input).map(LENGTH).filter(IS_EVEN),
+                                pipeline.apply(input));
+        }
+    }
+
+    @Test
+    public void filterRejectingValueReturnsEmpty() {
+        Assert.assertEquals(Optional.empty(), OptionalPipeline.of(LENGTH).filter(IS_EVEN).apply("a"));
+    }
+
+    @Test
+    public void mapToNullReturnsEmptyAndSkipsLaterStages() {
+        final boolean[] called = {false};
+        OptionalPipeline<String, String> pipeline = OptionalPipeline.of(LENGTH)
+                .map(TO_NULL)
+                .filter(new Predicate<String>() {
+                    @Override
+                    public boolean test(String s) {
+                        called[0] = true;
+                        return true;
+                    }
+                });
+
+        Assert.assertEquals(Optional.empty(), pipeline.apply("a"));
+        Assert.assertFalse(called[0]);
+    }
+
+    @Test
+    public void flatMapUnwrapsResult() {
+        OptionalPipeline<String, Integer> pipeline = OptionalPipeline.<String>identity()
+                .flatMap(new Function<String, Optional<Integer>>() {
+                    @Override
+                    public Optional<Integer> apply(String s) {
+                        return Optional.of(s.length());
+                    }
+                });
+
+        Assert.assertEquals(Optional.of(2), pipeline.apply("ab"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void flatMapReturningNullThrowsNPE() {
+        OptionalPipeline.<String>identity()
+                .flatMap(new Function<String, Optional<Integer>>() {
+                    @Override
+                    public Optional<Integer> apply(String s) {
+                        return null;
+                    }
+                })
+                .apply("a");
+    }
+
+    @Test
+    public void applyOrElseOfValueReturnsValue() {
+        Assert.assertEquals(Integer.valueOf(2), OptionalPipeline.of(LENGTH).applyOrElse("ab", -1));
+    }
+
+    @Test
+    public void applyOrElseOfEmptyReturnsElse() {
+        Assert.assertEquals(Integer.valueOf(-1),
+                            OptionalPipeline.of(LENGTH).filter(IS_EVEN).applyOrElse("a", -1));
+    }
+
+    @Test
+    public void operationsDoNotChangeReceiver() {
+        OptionalPipeline<String, Integer> pipeline = OptionalPipeline.of(LENGTH);
+        pipeline.filter(IS_EVEN);
+
+        Assert.assertEquals(Optional.of(1), pipeline.apply("a"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void mapWithNullThrowsNPE() {
+        OptionalPipeline.of(LENGTH).map(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void filterWithNullThrowsNPE() {
+        OptionalPipeline.of(LENGTH).filter(null);
+    }
+}
@@ -0,0 +1,448 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalDouble;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.OptionalLong;
+import com.github.dmstocking.optional.java.util.function.BiFunction;
+import com.github.dmstocking.optional.java.util.function.Consumer;
+import com.github.dmstocking.optional.java.util.function.DoubleBinaryOperator;
+import com.github.dmstocking.optional.java.util.function.DoubleConsumer;
+import com.github.dmstocking.optional.java.util.function.DoubleUnaryOperator;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.IntBinaryOperator;
+import com.github.dmstocking.optional.java.util.function.IntConsumer;
+import com.github.dmstocking.optional.java.util.function.IntUnaryOperator;
+import com.github.dmstocking.optional.java.util.function.LongBinaryOperator;
+import com.github.dmstocking.optional.java.util.function.LongConsumer;
+import com.github.dmstocking.optional.java.util.function.LongUnaryOperator;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class OptionalsTest {
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Optional<String>[] OPTIONALS = new Optional[]{
+            Optional.of("a"), Optional.empty(), Optional.of("b"), Optional.empty()
+    };
+
+    private static final OptionalInt[] INTS = {
+            OptionalInt.of(1), OptionalInt.empty(), OptionalInt.of(2)
+    };
+
+    private static final OptionalLong[] LONGS = {
+            OptionalLong.empty(), OptionalLong.of(1L), OptionalLong.of(2L)
+    };
+
+    private static final OptionalDouble[] DOUBLES = {
+            OptionalDouble.of(1.0), OptionalDouble.of(2.0), OptionalDouble.empty()
+    };
+
+    private static List<Optional<String>> linkedList() {
+        return new LinkedList<Optional<String>>(Arrays.asList(OPTIONALS));
+    }
+
+    @Test
+    public void countPresentOfRandomAccessList() {
+        Assert.assertEquals(2, Optionals.countPresent(Arrays.asList(OPTIONALS)));
+    }
+
+    @Test
+    public void countPresentOfSequentialList() {
+        Assert.assertEquals(2, Optionals.countPresent(linkedList()));
+    }
+
+    @Test
+    public void countPresentOfArrays() {
+        Assert.assertEquals(2, Optionals.countPresent(OPTIONALS));
+        Assert.assertEquals(2, Optionals.countPresent(INTS));
+        Assert.assertEquals(2, Optionals.countPresent(LONGS));
+        Assert.assertEquals(2, Optionals.countPresent(DOUBLES));
+    }
+
+    @Test
+    public void collectPresentOfRandomAccessList() {
+        String[] dest = new String[3];
+        int count = Optionals.collectPresent(Arrays.asList(OPTIONALS), dest);
+
+        Assert.assertEquals(2, count);
+        Assert.assertArrayEquals(new String[]{"a", "b", null}, dest);
+    }
+
+    @Test
+    public void collectPresentOfSequentialList() {
+        String[] dest = new String[2];
+        int count = Optionals.collectPresent(linkedList(), dest);
+
+        Assert.assertEquals(2, count);
+        Assert.assertArrayEquals(new String[]{"a", "b"}, dest);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void collectPresentIntoSmallArrayThrowsIndexOutOfBounds() {
+        Optionals.collectPresent(Arrays.asList(OPTIONALS), new String[1]);
+    }
+
+    @Test
+    public void collectPresentOfArray() {
+        String[] dest = new String[2];
+        Assert.assertEquals(2, Optionals.collectPresent(OPTIONALS, dest));
+        Assert.assertArrayEquals(new String[]{"a", "b"}, dest);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void collectPresentOfIntsIntoSmallArrayThrowsIndexOutOfBounds() {
+        Optionals.collectPresent(INTS, new int[1]);
+    }
+
+    @Test
+    public void toPrimitiveArraysHoldExactlyThePresentValues() {
+        Assert.assertArrayEquals(new int[]{1, 2}, Optionals.toIntArray(INTS));
+        Assert.assertArrayEquals(new long[]{1L, 2L}, Optionals.toLongArray(LONGS));
+        Assert.assertArrayEquals(new double[]{1.0, 2.0}, Optionals.toDoubleArray(DOUBLES), 0.0);
+    }
+
+    @Test
+    public void toIntArrayOfEmptyArrayIsEmpty() {
+        Assert.assertEquals(0, Optionals.toIntArray(new OptionalInt[0]).length);
+    }
+
+    @Test
+    public void forEachPresentOfListVisitsPresentValuesInOrder() {
+        final List<String> visited = new ArrayList<String>();
+        Optionals.forEachPresent(linkedList(), new Consumer<String>() {
+            @Override
+            public void accept(String s) {
+                visited.add(s);
+            }
+        });
+        Assert.assertEquals(Arrays.asList("a", "b"), visited);
+    }
+
+    @Test
+    public void forEachPresentOfArrayVisitsPresentValuesInOrder() {
+        final List<String> visited = new ArrayList<String>();
+        Optionals.forEachPresent(OPTIONALS, new Consumer<String>() {
+            @Override
+            public void accept(String s) {
+                visited.add(s);
+            }
+        });
+        Assert.assertEquals(Arrays.asList("a", "b"), visited);
+    }
+
+    @Test
+    public void forEachPresentOfPrimitiveArraysVisitsPresentValues() {
+        final double[] sum = {0};
+        Optionals.forEachPresent(INTS, new IntConsumer() {
+            @Override
+            public void accept(int value) {
+                sum[0] += value;
+            }
+        });
+        Optionals.forEachPresent(LONGS, new LongConsumer() {
+            @Override
+            public void accept(long value) {
+                sum[0] += value;
+            }
+        });
+        Optionals.forEachPresent(DOUBLES, new DoubleConsumer() {
+            @Override
+            public void accept(double value) {
+                sum[0] += value;
+            }
+        });
+        Assert.assertEquals(9.0, sum[0], 0.0);
+    }
+
+    private static final BiFunction<String, Integer, String> REPEAT =
+            new BiFunction<String, Integer, String>() {
+                @Override
+                public String apply(String value, Integer times) {
+                    StringBuilder builder = new StringBuilder();
+                    for (int i = 0; i < times; i++) {
+                        builder.append(value);
+                    }
+                    return builder.toString();
+                }
+            };
+
+    @Test
+    public void zipAppliesFunctionWhenBothArePresent() {
+        Assert.assertEquals(Optional.of("aaa"),
+                Optionals.zip(Optional.of("a"), Optional.of(3), REPEAT));
+    }
+
+    @Test
+    public void zipWithAnyEmptyIsEmptyWithoutInvokingFunction() {
+        BiFunction<Object, Object, Object> failing = new BiFunction<Object, Object, Object>() {
+            @Override
+            public Object apply(Object a, Object b) {
+                throw new AssertionError();
+            }
+        };
+        Assert.assertSame(Optional.empty(),
+                Optionals.zip(Optional.empty(), Optional.of("b"), failing));
+        Assert.assertSame(Optional.empty(),
+                Optionals.zip(Optional.of("a"), Optional.empty(), failing));
+    }
+
+    @Test
+    public void zipWithNullResultIsEmpty() {
+        Assert.assertSame(Optional.empty(), Optionals.zip(Optional.of("a"), Optional.of("b"),
+                new BiFunction<String, String, Object>() {
+                    @Override
+                    public Object apply(String a, String b) {
+                        return null;
+                    }
+                }));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void zipWithNullFunctionThrowsEvenIfEmpty() {
+        BiFunction<Object, Object, Object> zipper = null;
+        Optionals.zip(Optional.empty(), Optional.empty(), zipper);
+    }
+
+    @Test
+    public void zipWithNullOptionalThrowsEvenIfAnotherIsEmpty() {
+        try {
+            Optionals.zip(Optional.empty(), null, REPEAT);
+            Assert.fail();
+        } catch (NullPointerException expected) {
+        }
+        try {
+            Optionals.zip(OptionalInt.empty(), null, new IntBinaryOperator() {
+                @Override
+                public int applyAsInt(int left, int right) {
+                    return left + right;
+                }
+            });
+            Assert.fail();
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    @Test
+    public void zipOfThreeAndFour() {
+        Function3<String, String, String, String> concat3 =
+                new Function3<String, String, String, String>() {
+                    @Override
+                    public String apply(String a, String b, String c) {
+                        return a + b + c;
+                    }
+                };
+        Function4<String, String, String, String, String> concat4 =
+                new Function4<String, String, String, String, String>() {
+                    @Override
+                    public String apply(String a, String b, String c, String d) {
+                        return a + b + c + d;
+                    }
+                };
+        Optional<String> a = Optional.of("a");
+        Optional<String> empty = Optional.empty();
+
+        Assert.assertEquals(Optional.of("aaa"), Optionals.zip(a, a, a, concat3));
+        Assert.assertSame(Optional.empty(), Optionals.zip(a, a, empty, concat3));
+        Assert.assertEquals(Optional.of("aaaa"), Optionals.zip(a, a, a, a, concat4));
+        Assert.assertSame(Optional.empty(), Optionals.zip(a, a, a, empty, concat4));
+    }
+
+    @Test
+    public void zipOfPrimitives() {
+        IntBinaryOperator intSum = new IntBinaryOperator() {
+            @Override
+            public int applyAsInt(int left, int right) {
+                return left + right;
+            }
+        };
+        LongBinaryOperator longSum = new LongBinaryOperator() {
+            @Override
+            public long applyAsLong(long left, long right) {
+                return left + right;
+            }
+        };
+        DoubleBinaryOperator doubleSum = new DoubleBinaryOperator() {
+            @Override
+            public double applyAsDouble(double left, double right) {
+                return left + right;
+            }
+        };
+
+        Assert.assertEquals(OptionalInt.of(3),
+                Optionals.zip(OptionalInt.of(1), OptionalInt.of(2), intSum));
+        Assert.assertSame(OptionalInt.empty(),
+                Optionals.zip(OptionalInt.of(1), OptionalInt.empty(), intSum));
+        Assert.assertEquals(OptionalLong.of(3L),
+                Optionals.zip(OptionalLong.of(1L), OptionalLong.of(2L), longSum));
+        Assert.assertSame(OptionalLong.empty(),
+                Optionals.zip(OptionalLong.empty(), OptionalLong.of(2L), longSum));
+        Assert.assertEquals(OptionalDouble.of(3.5),
+                Optionals.zip(OptionalDouble.of(1.0), OptionalDouble.of(2.5), doubleSum));
+        Assert.assertSame(OptionalDouble.empty(),
+                Optionals.zip(OptionalDouble.of(1.0), OptionalDouble.empty(), doubleSum));
+    }
+
+    private static final int PARALLEL_SIZE = Optionals.MIN_CHUNK * 10 + 7;
+
+    @Test
+    public void parallelMapMapsEveryElement() throws InterruptedException {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Optional<Integer>[] in = new Optional[PARALLEL_SIZE];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = i % 3 == 0 ? Optional.<Integer>empty() : Optional.of(i);
+        }
+        final AtomicInteger calls = new AtomicInteger();
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Optional<String>[] out = new Optional[PARALLEL_SIZE];
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Optionals.parallelMap(in, new Function<Integer, String>() {
+                @Override
+                public String apply(Integer integer) {
+                    calls.incrementAndGet();
+                    return Integer.toString(integer);
+                }
+            }, out, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < out.length; i++) {
+            Assert.assertEquals(in[i].map(new Function<Integer, String>() {
+                @Override
+                public String apply(Integer integer) {
+                    return Integer.toString(integer);
+                }
+            }), out[i]);
+        }
+        Assert.assertEquals(PARALLEL_SIZE - (PARALLEL_SIZE + 2) / 3, calls.get());
+    }
+
+    @Test
+    public void parallelMapPrimitivesInPlace() {
+        OptionalInt[] ints = new OptionalInt[PARALLEL_SIZE];
+        OptionalLong[] longs = new OptionalLong[PARALLEL_SIZE];
+        OptionalDouble[] doubles = new OptionalDouble[PARALLEL_SIZE];
+        for (int i = 0; i < PARALLEL_SIZE; i++) {
+            boolean present = i % 2 == 0;
+            ints[i] = present ? OptionalInt.of(i) : OptionalInt.empty();
+            longs[i] = present ? OptionalLong.of(i) : OptionalLong.empty();
+            doubles[i] = present ? OptionalDouble.of(i) : OptionalDouble.empty();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Optionals.parallelMap(ints, new IntUnaryOperator() {
+                @Override
+                public int applyAsInt(int operand) {
+                    return -operand;
+                }
+            }, ints, executor);
+            Optionals.parallelMap(longs, new LongUnaryOperator() {
+                @Override
+                public long applyAsLong(long operand) {
+                    return operand * 2;
+                }
+            }, longs, executor);
+            Optionals.parallelMap(doubles, new DoubleUnaryOperator() {
+                @Override
+                public double applyAsDouble(double operand) {
+                    return operand / 2;
+                }
+            }, doubles, executor);
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < PARALLEL_SIZE; i++) {
+            boolean present = i % 2 == 0;
+            Assert.assertEquals(present ? OptionalInt.of(-i) : OptionalInt.empty(), ints[i]);
+            Assert.assertEquals(present ? OptionalLong.of(i * 2L) : OptionalLong.empty(), longs[i]);
+            Assert.assertEquals(
+                    present ? OptionalDouble.of(i / 2.0) : OptionalDouble.empty(), doubles[i]);
+        }
+    }
+
+    @Test
+    public void parallelMapFromInsideExecutorDoesNotDeadlock() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final OptionalInt[] values = new OptionalInt[PARALLEL_SIZE];
+            Arrays.fill(values, OptionalInt.of(1));
+            executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    Optionals.parallelMap(values, new IntUnaryOperator() {
+                        @Override
+                        public int applyAsInt(int operand) {
+                            return operand + 1;
+                        }
+                    }, values, executor);
+                    return null;
+                }
+            }).get(10, TimeUnit.SECONDS);
+
+            Assert.assertEquals(OptionalInt.of(2), values[PARALLEL_SIZE - 1]);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelMapRunsOnCallerWhenRejected() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        OptionalInt[] values = new OptionalInt[PARALLEL_SIZE];
+        Arrays.fill(values, OptionalInt.of(1));
+
+        Optionals.parallelMap(values, new IntUnaryOperator() {
+            @Override
+            public int applyAsInt(int operand) {
+                return operand + 1;
+            }
+        }, values, executor);
+
+        Assert.assertEquals(OptionalInt.of(2), values[0]);
+        Assert.assertEquals(OptionalInt.of(2), values[PARALLEL_SIZE - 1]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void parallelMapRethrowsMapperException() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        OptionalInt[] values = new OptionalInt[PARALLEL_SIZE];
+        Arrays.fill(values, OptionalInt.of(1));
+        try {
+            Optionals.parallelMap(values, new IntUnaryOperator() {
+                @Override
+                public int applyAsInt(int operand) {
+                    throw new IllegalStateException();
+                }
+            }, values, executor);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void parallelMapWithShortOutputThrows() {
+        Optionals.parallelMap(INTS, new IntUnaryOperator() {
+            @Override
+            public int applyAsInt(int operand) {
+                return operand;
+            }
+        }, new OptionalInt[INTS.length - 1], Executors.newSingleThreadExecutor());
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.dmstocking.optional.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+public class PackedOptionalDoubleTest {
+
+    @Test
+    public void packRoundTripsValues() {
+        double[] values = {0.0, -0.0, 1.0, Double.MIN_VALUE, Double.MAX_VALUE,
+                           Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY};
+        for (double value : values) {
+            long packed = PackedOptionalDouble.pack(value);
+            Assert.assertTrue(PackedOptionalDouble.isPresent(packed));
+            Assert.assertEquals(Double.doubleToRawLongBits(value),
+                                Double.doubleToRawLongBits(PackedOptionalDouble.value(packed)));
+        }
+    }
+
+    @Test
+    public void packOfAnyNaNIsPresentNaN() {
+        double[] nans = {Double.NaN, Double.longBitsToDouble(PackedOptionalDouble.EMPTY)};
+        for (double nan : nans) {
+            long packed = PackedOptionalDouble.pack(nan);
+            Assert.assertTrue(PackedOptionalDouble.isPresent(packed));
+            Assert.assertTrue(Double.isNaN(PackedOptionalDouble.value(packed)));
+        }
+    }
+
+    @Test
+    public void emptyIsNotPresent() {
+        Assert.assertFalse(PackedOptionalDouble.isPresent(PackedOptionalDouble.EMPTY));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void valueOfEmptyThrowsNoSuchElementException() {
+        PackedOptionalDouble.value(PackedOptionalDouble.EMPTY);
+    }
+
+    @Test
+    public void orElseOfEmptyReturnsElse() {
+        Assert.assertEquals(1.0, PackedOptionalDouble.orElse(PackedOptionalDouble.EMPTY, 1.0), 0.0);
+    }
+
+    @Test
+    public void orElseOfValueReturnsValue() {
+        long packed = PackedOptionalDouble.pack(1.0);
+        Assert.assertEquals(1.0, PackedOptionalDouble.orElse(packed, 2.0), 0.0);
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.dmstocking.optional.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+public class PackedOptionalIntTest {
+
+    @Test
+    public void packRoundTripsEveryKindOfValue() {
+        for (int value : new int[]{0, 1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE}) {
+            long packed = PackedOptionalInt.pack(value);
+            Assert.assertTrue(PackedOptionalInt.isPresent(packed));
+            Assert.assertEquals(value, PackedOptionalInt.value(packed));
+        }
+    }
+
+    @Test
+    public void defaultArrayElementIsEmpty() {
+        long[] packed = new long[1];
+        Assert.assertFalse(PackedOptionalInt.isPresent(packed[0]));
+    }
+
+    @Test
+    public void emptyIsNotPresent() {
+        Assert.assertFalse(PackedOptionalInt.isPresent(PackedOptionalInt.EMPTY));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void valueOfEmptyThrowsNoSuchElementException() {
+        PackedOptionalInt.value(PackedOptionalInt.EMPTY);
+    }
+
+    @Test
+    public void orElseOfEmptyReturnsElse() {
+        Assert.assertEquals(1, PackedOptionalInt.orElse(PackedOptionalInt.EMPTY, 1));
+    }
+
+    @Test
+    public void orElseOfValueReturnsValue() {
+        Assert.assertEquals(1, PackedOptionalInt.orElse(PackedOptionalInt.pack(1), 2));
+    }
+}
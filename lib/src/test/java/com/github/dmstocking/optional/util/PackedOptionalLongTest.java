@@ -0,0 +1,43 @@
+package com.github.dmstocking.optional.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+
+public class PackedOptionalLongTest {
+
+    @Test
+    public void packRoundTripsValues() {
+        for (long value : new long[]{0L, 1L, -1L, Long.MIN_VALUE + 1, Long.MAX_VALUE}) {
+            long packed = PackedOptionalLong.pack(value);
+            Assert.assertTrue(PackedOptionalLong.isPresent(packed));
+            Assert.assertEquals(value, PackedOptionalLong.value(packed));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void packOfReservedValueThrowsIllegalArgument() {
+        PackedOptionalLong.pack(Long.MIN_VALUE);
+    }
+
+    @Test
+    public void emptyIsNotPresent() {
+        Assert.assertFalse(PackedOptionalLong.isPresent(PackedOptionalLong.EMPTY));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void valueOfEmptyThrowsNoSuchElementException() {
+        PackedOptionalLong.value(PackedOptionalLong.EMPTY);
+    }
+
+    @Test
+    public void orElseOfEmptyReturnsElse() {
+        Assert.assertEquals(1L, PackedOptionalLong.orElse(PackedOptionalLong.EMPTY, 1L));
+    }
+
+    @Test
+    public void orElseOfValueReturnsValue() {
+        Assert.assertEquals(1L, PackedOptionalLong.orElse(PackedOptionalLong.pack(1L), 2L));
+    }
+}
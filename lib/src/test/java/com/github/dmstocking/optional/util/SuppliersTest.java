@@ -0,0 +1,211 @@
+package com.github.dmstocking.optional.util;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.LongSupplier;
+import com.github.dmstocking.optional.java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SuppliersTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private long now = 1000;
+
+    private final LongSupplier clock = new LongSupplier() {
+        @Override
+        public long get() {
+            return now;
+        }
+    };
+
+    private final Supplier<Integer> counter = new Supplier<Integer>() {
+        @Override
+        public Integer get() {
+            return calls.incrementAndGet();
+        }
+    };
+
+    private Supplier<Optional<Integer>> presentAfter(final int attempts) {
+        return new Supplier<Optional<Integer>>() {
+            @Override
+            public Optional<Integer> get() {
+                int call = calls.incrementAndGet();
+                return call > attempts ? Optional.of(call) : Optional.<Integer>empty();
+            }
+        };
+    }
+
+    @Test
+    public void memoizeInvokesDelegateOnce() {
+        Supplier<Integer> memoized = Suppliers.memoize(counter);
+
+        Assert.assertEquals(0, calls.get());
+        Assert.assertEquals(Integer.valueOf(1), memoized.get());
+        Assert.assertEquals(Integer.valueOf(1), memoized.get());
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void memoizeCachesNull() {
+        Supplier<String> memoized = Suppliers.memoize(new Supplier<String>() {
+            @Override
+            public String get() {
+                calls.incrementAndGet();
+                return null;
+            }
+        });
+
+        Assert.assertNull(memoized.get());
+        Assert.assertNull(memoized.get());
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void memoizeRetriesAfterFailure() {
+        Supplier<Integer> memoized = Suppliers.memoize(new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                if (calls.incrementAndGet() == 1) {
+                    throw new IllegalStateException();
+                }
+                return 42;
+            }
+        });
+
+        try {
+            memoized.get();
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+            // the next call tries again
+        }
+        Assert.assertEquals(Integer.valueOf(42), memoized.get());
+    }
+
+    @Test
+    public void expiringRecomputesAfterDuration() {
+        Supplier<Integer> memoized =
+                Suppliers.memoizeWithExpiration(counter, 10, TimeUnit.NANOSECONDS, clock);
+
+        Assert.assertEquals(Integer.valueOf(1), memoized.get());
+        now += 9;
+        Assert.assertEquals(Integer.valueOf(1), memoized.get());
+        now += 1;
+        Assert.assertEquals(Integer.valueOf(2), memoized.get());
+        Assert.assertEquals(Integer.valueOf(2), memoized.get());
+    }
+
+    @Test
+    public void expiringHandlesClockWrapAround() {
+        now = Long.MAX_VALUE - 5;
+        Supplier<Integer> memoized =
+                Suppliers.memoizeWithExpiration(counter, 10, TimeUnit.NANOSECONDS, clock);
+
+        Assert.assertEquals(Integer.valueOf(1), memoized.get());
+        now += 9;
+        Assert.assertEquals(Integer.valueOf(1), memoized.get());
+        now += 1;
+        Assert.assertEquals(Integer.valueOf(2), memoized.get());
+    }
+
+    @Test
+    public void zeroDurationNeverCaches() {
+        Supplier<Integer> memoized =
+                Suppliers.memoizeWithExpiration(counter, 0, TimeUnit.SECONDS, clock);
+
+        Assert.assertEquals(Integer.valueOf(1), memoized.get());
+        Assert.assertEquals(Integer.valueOf(2), memoized.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeDurationThrows() {
+        Suppliers.memoizeWithExpiration(counter, -1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void memoizeOptionalCachesEmptyForNegativeDuration() {
+        Supplier<Optional<Integer>> memoized = Suppliers.memoizeOptional(
+                presentAfter(1), 100, 10, TimeUnit.NANOSECONDS, clock);
+
+        Assert.assertEquals(Optional.<Integer>empty(), memoized.get());
+        now += 9;
+        Assert.assertEquals(Optional.<Integer>empty(), memoized.get());
+        now += 1;
+        Assert.assertEquals(Optional.of(2), memoized.get());
+        now += 99;
+        Assert.assertEquals(Optional.of(2), memoized.get());
+        now += 1;
+        Assert.assertEquals(Optional.of(3), memoized.get());
+    }
+
+    @Test
+    public void memoizeOptionalCachesPresentForever() {
+        Supplier<Optional<Integer>> memoized =
+                Suppliers.memoizeOptional(presentAfter(0), 0, TimeUnit.NANOSECONDS);
+
+        Assert.assertEquals(Optional.of(1), memoized.get());
+        Assert.assertEquals(Optional.of(1), memoized.get());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void memoizeOptionalRejectsNull() {
+        Suppliers.memoizeOptional(new Supplier<Optional<String>>() {
+            @Override
+            public Optional<String> get() {
+                return null;
+            }
+        }, 1, TimeUnit.SECONDS).get();
+    }
+
+    @Test
+    public void toStringNamesTheFactory() {
+        Supplier<Optional<Integer>> delegate = presentAfter(0);
+        Assert.assertTrue(Suppliers.memoize(counter).toString().startsWith("Suppliers.memoize("));
+        Assert.assertTrue(Suppliers.memoizeWithExpiration(counter, 1, TimeUnit.SECONDS).toString()
+                .startsWith("Suppliers.memoizeWithExpiration("));
+        Assert.assertEquals("Suppliers.memoizeOptional(" + delegate + ")",
+                Suppliers.memoizeOptional(delegate, 1, TimeUnit.SECONDS).toString());
+    }
+
+    @Test
+    public void expiredValueIsServedWhileRefreshing() throws InterruptedException {
+        final CountDownLatch refreshing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Supplier<Integer> memoized = Suppliers.memoizeWithExpiration(new Supplier<Integer>() {
+            @Override
+            public Integer get() {
+                int call = calls.incrementAndGet();
+                if (call == 2) {
+                    refreshing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return call;
+            }
+        }, 10, TimeUnit.NANOSECONDS, clock);
+        memoized.get();
+        now += 10;
+
+        Thread refresher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                memoized.get();
+            }
+        });
+        refresher.start();
+        refreshing.await();
+
+        Assert.assertEquals(Integer.valueOf(1), memoized.get());
+        release.countDown();
+        refresher.join();
+        Assert.assertEquals(Integer.valueOf(2), memoized.get());
+        Assert.assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,150 @@
+package com.github.dmstocking.optional.util.concurrent;
+
+import com.github.dmstocking.optional.java.util.OptionalInt;
+import com.github.dmstocking.optional.java.util.function.IntBinaryOperator;
+import com.github.dmstocking.optional.util.PackedOptionalInt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+
+public class AtomicOptionalIntTest {
+
+    private static final IntBinaryOperator SUM = new IntBinaryOperator() {
+        @Override
+        public int applyAsInt(int left, int right) {
+            return left + right;
+        }
+    };
+
+    @Test
+    public void startsEmpty() {
+        AtomicOptionalInt atomic = new AtomicOptionalInt();
+
+        Assert.assertFalse(atomic.isPresent());
+        Assert.assertEquals(PackedOptionalInt.EMPTY, atomic.getPacked());
+        Assert.assertEquals(OptionalInt.empty(), atomic.get());
+        Assert.assertEquals(-1, atomic.orElse(-1));
+        Assert.assertEquals("AtomicOptionalInt.empty", atomic.toString());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void getAsIntOfEmptyThrows() {
+        new AtomicOptionalInt().getAsInt();
+    }
+
+    @Test
+    public void storesEveryInt() {
+        AtomicOptionalInt atomic = new AtomicOptionalInt(0);
+
+        Assert.assertEquals(0, atomic.getAsInt());
+        atomic.set(Integer.MIN_VALUE);
+        Assert.assertEquals(OptionalInt.of(Integer.MIN_VALUE), atomic.get());
+        atomic.lazySet(-1);
+        Assert.assertEquals("AtomicOptionalInt[-1]", atomic.toString());
+    }
+
+    @Test
+    public void clearAndLazyClear() {
+        AtomicOptionalInt atomic = new AtomicOptionalInt(1);
+
+        atomic.clear();
+        Assert.assertFalse(atomic.isPresent());
+        atomic.set(1);
+        atomic.lazyClear();
+        Assert.assertFalse(atomic.isPresent());
+    }
+
+    @Test
+    public void compareAndSet() {
+        AtomicOptionalInt atomic = new AtomicOptionalInt();
+
+        Assert.assertFalse(atomic.compareAndSet(0, 1));
+        Assert.assertTrue(atomic.compareAndSetPacked(
+                PackedOptionalInt.EMPTY, PackedOptionalInt.pack(0)));
+        Assert.assertTrue(atomic.compareAndSet(0, 1));
+        Assert.assertEquals(1, atomic.getAsInt());
+    }
+
+    @Test
+    public void getAndSetAndGetAndClearReturnPacked() {
+        AtomicOptionalInt atomic = new AtomicOptionalInt();
+
+        Assert.assertEquals(PackedOptionalInt.EMPTY, atomic.getAndSet(7));
+        Assert.assertEquals(PackedOptionalInt.pack(7), atomic.getAndClear());
+        Assert.assertFalse(atomic.isPresent());
+    }
+
+    @Test
+    public void setIfAbsentOnlySetsOnce() {
+        AtomicOptionalInt atomic = new AtomicOptionalInt();
+
+        Assert.assertTrue(atomic.setIfAbsent(1));
+        Assert.assertFalse(atomic.setIfAbsent(2));
+        Assert.assertEquals(1, atomic.getAsInt());
+    }
+
+    @Test
+    public void accumulateAndGetSetsWhenEmpty() {
+        AtomicOptionalInt atomic = new AtomicOptionalInt();
+
+        Assert.assertEquals(5, atomic.accumulateAndGet(5, SUM));
+        Assert.assertEquals(8, atomic.accumulateAndGet(3, SUM));
+    }
+
+    @Test
+    public void maxAndGetAndMinAndGet() {
+        AtomicOptionalInt max = new AtomicOptionalInt();
+        AtomicOptionalInt min = new AtomicOptionalInt();
+
+        Assert.assertEquals(-5, max.maxAndGet(-5));
+        Assert.assertEquals(-2, max.maxAndGet(-2));
+        Assert.assertEquals(-2, max.maxAndGet(-9));
+        Assert.assertEquals(5, min.minAndGet(5));
+        Assert.assertEquals(2, min.minAndGet(2));
+        Assert.assertEquals(2, min.minAndGet(9));
+    }
+
+    @Test
+    public void paddedBehavesTheSame() {
+        AtomicOptionalInt padded = new PaddedAtomicOptionalInt();
+
+        Assert.assertTrue(padded.setIfAbsent(1));
+        Assert.assertEquals(3, padded.maxAndGet(3));
+        Assert.assertEquals(OptionalInt.of(3), new PaddedAtomicOptionalInt(3).get());
+    }
+
+    @Test
+    public void maxAndGetIsAtomic() throws Exception {
+        final AtomicOptionalInt atomic = new PaddedAtomicOptionalInt();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final int offset = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = offset; j < 40000; j += 4) {
+                        atomic.maxAndGet(j);
+                        atomic.accumulateAndGet(0, SUM);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(39999, atomic.getAsInt());
+    }
+}
@@ -0,0 +1,155 @@
+package com.github.dmstocking.optional.util.concurrent;
+
+import com.github.dmstocking.optional.java.util.OptionalLong;
+import com.github.dmstocking.optional.java.util.function.LongBinaryOperator;
+import com.github.dmstocking.optional.util.PackedOptionalLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+
+public class AtomicOptionalLongTest {
+
+    private static final LongBinaryOperator SUM = new LongBinaryOperator() {
+        @Override
+        public long applyAsLong(long left, long right) {
+            return left + right;
+        }
+    };
+
+    @Test
+    public void startsEmpty() {
+        AtomicOptionalLong atomic = new AtomicOptionalLong();
+
+        Assert.assertFalse(atomic.isPresent());
+        Assert.assertEquals(PackedOptionalLong.EMPTY, atomic.getPacked());
+        Assert.assertEquals(OptionalLong.empty(), atomic.get());
+        Assert.assertEquals(-1, atomic.orElse(-1));
+        Assert.assertEquals("AtomicOptionalLong.empty", atomic.toString());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void getAsLongOfEmptyThrows() {
+        new AtomicOptionalLong().getAsLong();
+    }
+
+    @Test
+    public void storesEveryLongButMinValue() {
+        AtomicOptionalLong atomic = new AtomicOptionalLong(0);
+
+        Assert.assertEquals(0, atomic.getAsLong());
+        atomic.set(Long.MIN_VALUE + 1);
+        Assert.assertEquals(OptionalLong.of(Long.MIN_VALUE + 1), atomic.get());
+        atomic.lazySet(-1);
+        Assert.assertEquals("AtomicOptionalLong[-1]", atomic.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setOfMinValueThrows() {
+        new AtomicOptionalLong().set(Long.MIN_VALUE);
+    }
+
+    @Test
+    public void clearAndLazyClear() {
+        AtomicOptionalLong atomic = new AtomicOptionalLong(1);
+
+        atomic.clear();
+        Assert.assertFalse(atomic.isPresent());
+        atomic.set(1);
+        atomic.lazyClear();
+        Assert.assertFalse(atomic.isPresent());
+    }
+
+    @Test
+    public void compareAndSet() {
+        AtomicOptionalLong atomic = new AtomicOptionalLong();
+
+        Assert.assertFalse(atomic.compareAndSet(0, 1));
+        Assert.assertTrue(atomic.compareAndSetPacked(
+                PackedOptionalLong.EMPTY, PackedOptionalLong.pack(0)));
+        Assert.assertTrue(atomic.compareAndSet(0, 1));
+        Assert.assertEquals(1, atomic.getAsLong());
+    }
+
+    @Test
+    public void getAndSetAndGetAndClearReturnPacked() {
+        AtomicOptionalLong atomic = new AtomicOptionalLong();
+
+        Assert.assertEquals(PackedOptionalLong.EMPTY, atomic.getAndSet(7));
+        Assert.assertEquals(PackedOptionalLong.pack(7), atomic.getAndClear());
+        Assert.assertFalse(atomic.isPresent());
+    }
+
+    @Test
+    public void setIfAbsentOnlySetsOnce() {
+        AtomicOptionalLong atomic = new AtomicOptionalLong();
+
+        Assert.assertTrue(atomic.setIfAbsent(1));
+        Assert.assertFalse(atomic.setIfAbsent(2));
+        Assert.assertEquals(1, atomic.getAsLong());
+    }
+
+    @Test
+    public void accumulateAndGetSetsWhenEmpty() {
+        AtomicOptionalLong atomic = new AtomicOptionalLong();
+
+        Assert.assertEquals(5, atomic.accumulateAndGet(5, SUM));
+        Assert.assertEquals(8, atomic.accumulateAndGet(3, SUM));
+    }
+
+    @Test
+    public void maxAndGetAndMinAndGet() {
+        AtomicOptionalLong max = new AtomicOptionalLong();
+        AtomicOptionalLong min = new AtomicOptionalLong();
+
+        Assert.assertEquals(-5, max.maxAndGet(-5));
+        Assert.assertEquals(-2, max.maxAndGet(-2));
+        Assert.assertEquals(-2, max.maxAndGet(-9));
+        Assert.assertEquals(5, min.minAndGet(5));
+        Assert.assertEquals(2, min.minAndGet(2));
+        Assert.assertEquals(2, min.minAndGet(9));
+    }
+
+    @Test
+    public void paddedBehavesTheSame() {
+        AtomicOptionalLong padded = new PaddedAtomicOptionalLong();
+
+        Assert.assertTrue(padded.setIfAbsent(1));
+        Assert.assertEquals(3, padded.maxAndGet(3));
+        Assert.assertEquals(OptionalLong.of(3), new PaddedAtomicOptionalLong(3).get());
+    }
+
+    @Test
+    public void maxAndGetIsAtomic() throws Exception {
+        final AtomicOptionalLong atomic = new PaddedAtomicOptionalLong();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final int offset = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = offset; j < 40000; j += 4) {
+                        atomic.maxAndGet(j);
+                        atomic.accumulateAndGet(0, SUM);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(39999, atomic.getAsLong());
+    }
+}
@@ -0,0 +1,142 @@
+package com.github.dmstocking.optional.util.concurrent;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.Function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+public class AtomicOptionalTest {
+
+    private static final Function<Integer, Integer> INCREMENT = new Function<Integer, Integer>() {
+        @Override
+        public Integer apply(Integer value) {
+            return value + 1;
+        }
+    };
+
+    @Test
+    public void startsEmpty() {
+        AtomicOptional<String> atomic = new AtomicOptional<String>();
+
+        Assert.assertFalse(atomic.isPresent());
+        Assert.assertEquals(Optional.<String>empty(), atomic.get());
+        Assert.assertEquals("other", atomic.orElse("other"));
+        Assert.assertEquals("AtomicOptional.empty", atomic.toString());
+    }
+
+    @Test
+    public void setAndClear() {
+        AtomicOptional<String> atomic = new AtomicOptional<String>();
+
+        atomic.set("value");
+        Assert.assertEquals(Optional.of("value"), atomic.get());
+        Assert.assertEquals("AtomicOptional[value]", atomic.toString());
+        atomic.clear();
+        Assert.assertFalse(atomic.isPresent());
+    }
+
+    @Test
+    public void lazySetAndLazyClear() {
+        AtomicOptional<String> atomic = new AtomicOptional<String>();
+
+        atomic.lazySet("value");
+        Assert.assertEquals("value", atomic.orElse(null));
+        atomic.lazyClear();
+        Assert.assertFalse(atomic.isPresent());
+    }
+
+    @Test
+    public void compareAndSetComparesIdentity() {
+        String value = "value";
+        AtomicOptional<String> atomic = new AtomicOptional<String>(value);
+
+        Assert.assertFalse(atomic.compareAndSet(new String(value), "other"));
+        Assert.assertTrue(atomic.compareAndSet(value, null));
+        Assert.assertTrue(atomic.compareAndSet(null, "other"));
+        Assert.assertEquals(Optional.of("other"), atomic.get());
+    }
+
+    @Test
+    public void getAndSetReturnsPrevious() {
+        AtomicOptional<String> atomic = new AtomicOptional<String>();
+
+        Assert.assertEquals(Optional.<String>empty(), atomic.getAndSet("first"));
+        Assert.assertEquals(Optional.of("first"), atomic.getAndSet("second"));
+        Assert.assertEquals(Optional.of("second"), atomic.getAndClear());
+        Assert.assertEquals(Optional.<String>empty(), atomic.getAndClear());
+    }
+
+    @Test
+    public void setIfAbsentOnlySetsOnce() {
+        AtomicOptional<String> atomic = new AtomicOptional<String>();
+
+        Assert.assertTrue(atomic.setIfAbsent("first"));
+        Assert.assertFalse(atomic.setIfAbsent("second"));
+        Assert.assertEquals(Optional.of("first"), atomic.get());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void setIfAbsentOfNullThrows() {
+        new AtomicOptional<String>().setIfAbsent(null);
+    }
+
+    @Test
+    public void updateIfPresentOfEmptyDoesNotApply() {
+        AtomicOptional<Integer> atomic = new AtomicOptional<Integer>();
+
+        Assert.assertEquals(Optional.<Integer>empty(), atomic.updateIfPresent(
+                new Function<Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer value) {
+                        throw new AssertionError();
+                    }
+                }));
+    }
+
+    @Test
+    public void updateIfPresentReturningNullClears() {
+        AtomicOptional<Integer> atomic = new AtomicOptional<Integer>(1);
+
+        Assert.assertEquals(Optional.<Integer>empty(), atomic.updateIfPresent(
+                new Function<Integer, Integer>() {
+                    @Override
+                    public Integer apply(Integer value) {
+                        return null;
+                    }
+                }));
+        Assert.assertFalse(atomic.isPresent());
+    }
+
+    @Test
+    public void updateIfPresentIsAtomic() throws Exception {
+        final AtomicOptional<Integer> atomic = new AtomicOptional<Integer>(0);
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < 10000; j++) {
+                        atomic.updateIfPresent(INCREMENT);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(Optional.of(40000), atomic.get());
+    }
+}
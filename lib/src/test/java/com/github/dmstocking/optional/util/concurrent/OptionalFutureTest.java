@@ -0,0 +1,262 @@
+package com.github.dmstocking.optional.util.concurrent;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.function.Function;
+import com.github.dmstocking.optional.java.util.function.Predicate;
+import com.github.dmstocking.optional.java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class OptionalFutureTest {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private static final Function<String, Integer> LENGTH = new Function<String, Integer>() {
+        @Override
+        public Integer apply(String s) {
+            return s.length();
+        }
+    };
+
+    private static final Predicate<Integer> IS_EVEN = new Predicate<Integer>() {
+        @Override
+        public boolean test(Integer integer) {
+            return integer % 2 == 0;
+        }
+    };
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void continuationsRunWhenCompleted() throws Exception {
+        OptionalFuture<String> source = OptionalFuture.create();
+        OptionalFuture<Integer> result = source.map(LENGTH, executor).filter(IS_EVEN, executor);
+
+        Assert.assertFalse(result.isDone());
+        source.complete(Optional.of("four"));
+        Assert.assertEquals(Optional.of(4), result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void continuationsOfCompletedFutureRunImmediately() throws Exception {
+        OptionalFuture<Integer> result = OptionalFuture.completed(Optional.of("odd"))
+                .map(LENGTH, DIRECT)
+                .filter(IS_EVEN, DIRECT);
+
+        Assert.assertTrue(result.isDone());
+        Assert.assertEquals(Optional.<Integer>empty(), result.get());
+    }
+
+    @Test
+    public void emptyFlowsThroughWithoutInvokingFunctions() throws Exception {
+        OptionalFuture<Integer> result = OptionalFuture.completed(Optional.<String>empty())
+                .map(new Function<String, Integer>() {
+                    @Override
+                    public Integer apply(String s) {
+                        throw new AssertionError();
+                    }
+                }, DIRECT);
+
+        Assert.assertEquals(Optional.<Integer>empty(), result.get());
+    }
+
+    @Test
+    public void flatMapChainsAsynchronousLookups() throws Exception {
+        final OptionalFuture<Integer> lookup = OptionalFuture.create();
+        OptionalFuture<Integer> result = OptionalFuture.completed(Optional.of("key"))
+                .flatMap(new Function<String, OptionalFuture<Integer>>() {
+                    @Override
+                    public OptionalFuture<Integer> apply(String s) {
+                        return lookup;
+                    }
+                }, executor);
+
+        lookup.complete(Optional.of(42));
+        Assert.assertEquals(Optional.of(42), result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void orFallsBackOnlyWhenEmpty() throws Exception {
+        Supplier<OptionalFuture<String>> fallback = new Supplier<OptionalFuture<String>>() {
+            @Override
+            public OptionalFuture<String> get() {
+                return OptionalFuture.completed(Optional.of("fallback"));
+            }
+        };
+
+        Assert.assertEquals(Optional.of("fallback"),
+                OptionalFuture.completed(Optional.<String>empty()).or(fallback, DIRECT).get());
+        Assert.assertEquals(Optional.of("value"),
+                OptionalFuture.completed(Optional.of("value")).or(fallback, DIRECT).get());
+    }
+
+    @Test
+    public void orElseGetFallsBackOnlyWhenEmpty() throws Exception {
+        Supplier<String> fallback = new Supplier<String>() {
+            @Override
+            public String get() {
+                return "fallback";
+            }
+        };
+
+        OptionalFuture<String> empty = OptionalFuture.completed(Optional.<String>empty());
+
+        Assert.assertEquals(Optional.of("fallback"), empty.orElseGet(fallback, DIRECT).get());
+    }
+
+    @Test
+    public void failurePropagatesThroughStages() throws Exception {
+        IllegalStateException cause = new IllegalStateException();
+        OptionalFuture<Integer> result =
+                OptionalFuture.<String>failed(cause).map(LENGTH, DIRECT).filter(IS_EVEN, DIRECT);
+
+        try {
+            result.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertSame(cause, e.getCause());
+        }
+    }
+
+    @Test
+    public void throwingFunctionFailsStage() throws Exception {
+        OptionalFuture<Integer> result = OptionalFuture.completed(Optional.of("value"))
+                .map(new Function<String, Integer>() {
+                    @Override
+                    public Integer apply(String s) {
+                        throw new IllegalArgumentException();
+                    }
+                }, DIRECT);
+
+        try {
+            result.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void rejectedContinuationFailsStage() throws Exception {
+        executor.shutdown();
+        OptionalFuture<Integer> result =
+                OptionalFuture.completed(Optional.of("value")).map(LENGTH, executor);
+
+        try {
+            result.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test(expected = CancellationException.class)
+    public void cancellationPropagates() throws Exception {
+        OptionalFuture<String> source = OptionalFuture.create();
+        OptionalFuture<Integer> result = source.map(LENGTH, DIRECT);
+
+        Assert.assertTrue(source.cancel(false));
+        Assert.assertTrue(source.isCancelled());
+        Assert.assertTrue(result.isCancelled());
+        result.get();
+    }
+
+    @Test
+    public void completesOnlyOnce() throws Exception {
+        OptionalFuture<String> future = OptionalFuture.create();
+
+        Assert.assertTrue(future.complete(Optional.of("first")));
+        Assert.assertFalse(future.complete(Optional.of("second")));
+        Assert.assertFalse(future.cancel(true));
+        Assert.assertEquals(Optional.of("first"), future.get());
+    }
+
+    @Test
+    public void withTimeoutFailsWhenNotDone() throws Exception {
+        OptionalFuture<String> result = OptionalFuture.<String>create()
+                .withTimeout(10, TimeUnit.MILLISECONDS, scheduler);
+
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void withTimeoutPassesResultThrough() throws Exception {
+        OptionalFuture<String> source = OptionalFuture.create();
+        OptionalFuture<String> result = source.withTimeout(5, TimeUnit.SECONDS, scheduler);
+
+        source.complete(Optional.of("value"));
+        Assert.assertEquals(Optional.of("value"), result.get());
+    }
+
+    @Test(expected = TimeoutException.class)
+    public void getTimesOut() throws Exception {
+        OptionalFuture.create().get(1, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void submitRunsTaskOnExecutor() throws Exception {
+        OptionalFuture<String> future = OptionalFuture.submit(new Callable<Optional<String>>() {
+            @Override
+            public Optional<String> call() {
+                return Optional.of(Thread.currentThread().getName());
+            }
+        }, executor);
+
+        Assert.assertNotEquals(Thread.currentThread().getName(),
+                future.get(5, TimeUnit.SECONDS).get());
+    }
+
+    @Test
+    public void callbacksRunInRegistrationOrder() {
+        final List<String> calls = new ArrayList<String>();
+        OptionalFuture<String> future = OptionalFuture.create();
+        for (final String name : new String[]{"first", "second"}) {
+            future.whenComplete(new OptionalFuture.Callback<String>() {
+                @Override
+                public void onSuccess(Optional<? extends String> value) {
+                    calls.add(name + ":" + value.get());
+                }
+
+                @Override
+                public void onFailure(Throwable cause) {
+                    calls.add(name + ":failed");
+                }
+            }, DIRECT);
+        }
+
+        future.complete(Optional.of("value"));
+        Assert.assertEquals("[first:value, second:value]", calls.toString());
+    }
+}
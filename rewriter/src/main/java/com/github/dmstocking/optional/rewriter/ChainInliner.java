@@ -0,0 +1,274 @@
+package com.github.dmstocking.optional.rewriter;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FrameNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
+import org.objectweb.asm.tree.analysis.Analyzer;
+import org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.objectweb.asm.tree.analysis.Frame;
+import org.objectweb.asm.tree.analysis.SourceInterpreter;
+import org.objectweb.asm.tree.analysis.SourceValue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inlines the optionals of one method.
+ *
+ * An optional is inlined when it is created by a factory or an {@link Operation} and its only use
+ * is as the receiver of another {@link Operation}, which must then be inlined too. Because the
+ * optional only ever lives on the operand stack and is never duplicated there, it is never stored,
+ * passed, returned, compared or synchronized on, so nothing but the replaced calls can observe
+ * that it no longer exists. An operation on an optional created elsewhere is still inlined when
+ * the optional it returns is, to save the allocations further down the chain.
+ *
+ * The optional must also be used in the same basic block it was created in. Every stack map frame
+ * then describes a stack without it, so the existing frames stay valid although the value in its
+ * place is no longer an optional.
+ */
+final class ChainInliner {
+
+    private final InsnList instructions;
+    private final Frame<SourceValue>[] frames;
+    private final Set<AbstractInsnNode> jumpTargets = new HashSet<>();
+
+    private ChainInliner(MethodNode method, Frame<SourceValue>[] frames) {
+        this.instructions = method.instructions;
+        this.frames = frames;
+        for (AbstractInsnNode insn = instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn instanceof JumpInsnNode) {
+                jumpTargets.add(((JumpInsnNode) insn).label);
+            } else if (insn instanceof TableSwitchInsnNode) {
+                jumpTargets.add(((TableSwitchInsnNode) insn).dflt);
+                jumpTargets.addAll(((TableSwitchInsnNode) insn).labels);
+            } else if (insn instanceof LookupSwitchInsnNode) {
+                jumpTargets.add(((LookupSwitchInsnNode) insn).dflt);
+                jumpTargets.addAll(((LookupSwitchInsnNode) insn).labels);
+            }
+        }
+        for (TryCatchBlockNode block : method.tryCatchBlocks) {
+            jumpTargets.add(block.handler);
+        }
+    }
+
+    /**
+     * @param owner  the internal name of the class declaring {@code method}
+     * @param method the method to rewrite in place
+     * @return the number of calls that were replaced
+     */
+    static int inline(String owner, MethodNode method) {
+        if (!callsOperation(method)) {
+            return 0;
+        }
+
+        Frame<SourceValue>[] frames;
+        try {
+            frames = new Analyzer<>(new SourceInterpreter()).analyze(owner, method);
+        } catch (AnalyzerException e) {
+            // leave methods the analyzer cannot follow as they are
+            return 0;
+        }
+
+        return new ChainInliner(method, frames).inline();
+    }
+
+    private static boolean callsOperation(MethodNode method) {
+        for (AbstractInsnNode insn = method.instructions.getFirst();
+                insn != null;
+                insn = insn.getNext()) {
+            if (Operation.find(insn) != null) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private int inline() {
+        Map<AbstractInsnNode, Operation> operations = new HashMap<>();
+        for (AbstractInsnNode insn = instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            Operation operation = Operation.find(insn);
+            if (operation != null && frames[instructions.indexOf(insn)] != null) {
+                operations.put(insn, operation);
+            }
+        }
+
+        // the call using each optional as its receiver, and the reverse
+        Map<AbstractInsnNode, AbstractInsnNode> users = new HashMap<>();
+        Map<AbstractInsnNode, AbstractInsnNode> receivers = new HashMap<>();
+        for (Map.Entry<AbstractInsnNode, Operation> entry : operations.entrySet()) {
+            if (entry.getValue().returnsOptional()) {
+                AbstractInsnNode user = findUser(entry.getKey());
+                if (user != null) {
+                    users.put(entry.getKey(), user);
+                    receivers.put(user, entry.getKey());
+                }
+            }
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            Iterator<Map.Entry<AbstractInsnNode, Operation>> iterator =
+                    operations.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<AbstractInsnNode, Operation> entry = iterator.next();
+                if (!canInline(entry.getKey(), entry.getValue(), operations, users, receivers)) {
+                    iterator.remove();
+                    changed = true;
+                }
+            }
+        }
+
+        Map<AbstractInsnNode, AbstractInsnNode> replacements = new HashMap<>();
+        for (Map.Entry<AbstractInsnNode, Operation> entry : operations.entrySet()) {
+            Operation operation = entry.getValue();
+            if (operation.isFactory()) {
+                replacements.put(entry.getKey(), operation.inlineFactory());
+            } else {
+                boolean inlinedReceiver = operations.containsKey(receivers.get(entry.getKey()));
+                replacements.put(entry.getKey(), operation.inlineCall(inlinedReceiver));
+            }
+        }
+        for (Map.Entry<AbstractInsnNode, AbstractInsnNode> entry : replacements.entrySet()) {
+            if (entry.getValue() == null) {
+                instructions.remove(entry.getKey());
+            } else {
+                instructions.set(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return replacements.size();
+    }
+
+    private static boolean canInline(
+            AbstractInsnNode insn,
+            Operation operation,
+            Map<AbstractInsnNode, Operation> operations,
+            Map<AbstractInsnNode, AbstractInsnNode> users,
+            Map<AbstractInsnNode, AbstractInsnNode> receivers) {
+        if (operation.returnsOptional() && !operations.containsKey(users.get(insn))) {
+            return false;
+        }
+
+        // an operation on an optional created elsewhere only pays off if it returns an optional
+        return operation.isFactory()
+                || operation.returnsOptional()
+                || operations.containsKey(receivers.get(insn));
+    }
+
+    /**
+     * Follows the optional returned by {@code producer} through the basic block.
+     *
+     * @return the operation using the optional as its receiver, or null if the optional is used in
+     *         any other way or outlives the basic block
+     */
+    private AbstractInsnNode findUser(AbstractInsnNode producer) {
+        Frame<SourceValue> after = frameAfter(producer);
+        if (after == null) {
+            return null;
+        }
+
+        int slot = after.getStackSize() - 1;
+        if (!isOnlyProducedBy(after.getStack(slot), producer)) {
+            return null;
+        }
+
+        for (AbstractInsnNode insn = producer.getNext(); insn != null; insn = insn.getNext()) {
+            if (insn instanceof FrameNode || jumpTargets.contains(insn)) {
+                return null;
+            } else if (insn.getOpcode() < 0) {
+                continue;
+            } else if (endsBasicBlock(insn)) {
+                return null;
+            }
+
+            Frame<SourceValue> before = frames[instructions.indexOf(insn)];
+            if (slot >= before.getStackSize() - copiedValues(insn, before)) {
+                // the copy is a new value the analysis does not attribute to the producer, such as
+                // the one javac stores when an assignment is used as a receiver
+                return null;
+            }
+
+            Frame<SourceValue> next = frameAfter(insn);
+            if (next != null
+                    && next.getStackSize() > slot
+                    && isOnlyProducedBy(next.getStack(slot), producer)) {
+                continue;
+            }
+
+            Operation operation = Operation.find(insn);
+            if (operation == null
+                    || operation.isFactory()
+                    || before.getStackSize() - 1 - operation.argumentCount() != slot) {
+                return null;
+            }
+
+            return insn;
+        }
+
+        return null;
+    }
+
+    private Frame<SourceValue> frameAfter(AbstractInsnNode insn) {
+        AbstractInsnNode next = insn.getNext();
+        if (next == null) {
+            return null;
+        }
+
+        return frames[instructions.indexOf(next)];
+    }
+
+    private static boolean endsBasicBlock(AbstractInsnNode insn) {
+        switch (insn.getOpcode()) {
+            case Opcodes.ATHROW:
+            case Opcodes.RETURN:
+            case Opcodes.ARETURN:
+            case Opcodes.IRETURN:
+            case Opcodes.LRETURN:
+            case Opcodes.FRETURN:
+            case Opcodes.DRETURN:
+            case Opcodes.RET:
+                return true;
+            default:
+                return insn instanceof JumpInsnNode
+                        || insn instanceof TableSwitchInsnNode
+                        || insn instanceof LookupSwitchInsnNode;
+        }
+    }
+
+    /**
+     * @return the number of values at the top of the stack {@code insn} copies or reorders without
+     *         consuming them
+     */
+    private static int copiedValues(AbstractInsnNode insn, Frame<SourceValue> before) {
+        switch (insn.getOpcode()) {
+            case Opcodes.DUP:
+            case Opcodes.DUP_X1:
+            case Opcodes.DUP_X2:
+                return 1;
+            case Opcodes.DUP2:
+            case Opcodes.DUP2_X1:
+            case Opcodes.DUP2_X2:
+                // a long or double on top is copied alone
+                return before.getStack(before.getStackSize() - 1).getSize() == 2 ? 1 : 2;
+            case Opcodes.SWAP:
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
+    private static boolean isOnlyProducedBy(SourceValue value, AbstractInsnNode producer) {
+        return value.insns.size() == 1 && value.insns.contains(producer);
+    }
+}
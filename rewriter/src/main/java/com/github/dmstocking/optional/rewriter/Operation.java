@@ -0,0 +1,187 @@
+package com.github.dmstocking.optional.rewriter;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A method of {@code Optional} or {@code OptionalInt} the rewriter can replace, and how to replace
+ * it once the optionals it takes and returns are inlined. An inlined {@code Optional} is its value
+ * or null, an inlined {@code OptionalInt} is its {@code PackedOptionalInt} form.
+ */
+final class Operation {
+
+    static final String OPTIONAL = "com/github/dmstocking/optional/java/util/Optional";
+    static final String OPTIONAL_INT = "com/github/dmstocking/optional/java/util/OptionalInt";
+    static final String INLINED_OPTIONALS = "com/github/dmstocking/optional/util/InlinedOptionals";
+    static final String PACKED_OPTIONAL_INT =
+            "com/github/dmstocking/optional/util/PackedOptionalInt";
+
+    private static final String FUNCTION = "com/github/dmstocking/optional/java/util/function/";
+    private static final String OBJECT = "Ljava/lang/Object;";
+
+    private static final Map<String, Operation> OPERATIONS = new HashMap<>();
+
+    static {
+        add(OPTIONAL, "empty", "()L" + OPTIONAL + ";");
+        add(OPTIONAL, "of", "(" + OBJECT + ")L" + OPTIONAL + ";");
+        add(OPTIONAL, "ofNullable", "(" + OBJECT + ")L" + OPTIONAL + ";");
+        add(OPTIONAL, "filter", "(L" + FUNCTION + "Predicate;)L" + OPTIONAL + ";");
+        add(OPTIONAL, "get", "()" + OBJECT);
+        add(OPTIONAL, "ifPresent", "(L" + FUNCTION + "Consumer;)V");
+        add(OPTIONAL, "isPresent", "()Z");
+        add(OPTIONAL, "map", "(L" + FUNCTION + "Function;)L" + OPTIONAL + ";");
+        add(OPTIONAL, "mapToInt", "(L" + FUNCTION + "ToIntFunction;)L" + OPTIONAL_INT + ";");
+        add(OPTIONAL, "orElse", "(" + OBJECT + ")" + OBJECT);
+        add(OPTIONAL, "orElseGet", "(L" + FUNCTION + "Supplier;)" + OBJECT);
+        add(OPTIONAL, "orElseThrow", "(L" + FUNCTION + "Supplier;)" + OBJECT);
+
+        add(OPTIONAL_INT, "empty", "()L" + OPTIONAL_INT + ";");
+        add(OPTIONAL_INT, "of", "(I)L" + OPTIONAL_INT + ";");
+        add(OPTIONAL_INT, "boxed", "()L" + OPTIONAL + ";");
+        add(OPTIONAL_INT, "filter", "(L" + FUNCTION + "IntPredicate;)L" + OPTIONAL_INT + ";");
+        add(OPTIONAL_INT, "getAsInt", "()I");
+        add(OPTIONAL_INT, "ifPresent", "(L" + FUNCTION + "IntConsumer;)V");
+        add(OPTIONAL_INT, "isPresent", "()Z");
+        add(OPTIONAL_INT, "map", "(L" + FUNCTION + "IntUnaryOperator;)L" + OPTIONAL_INT + ";");
+        add(OPTIONAL_INT, "mapToObj", "(L" + FUNCTION + "IntFunction;)L" + OPTIONAL + ";");
+        add(OPTIONAL_INT, "orElse", "(I)I");
+        add(OPTIONAL_INT, "orElseGet", "(L" + FUNCTION + "IntSupplier;)I");
+        add(OPTIONAL_INT, "orElseThrow", "(L" + FUNCTION + "Supplier;)I");
+    }
+
+    final String owner;
+    final String name;
+    final String descriptor;
+
+    private Operation(String owner, String name, String descriptor) {
+        this.owner = owner;
+        this.name = name;
+        this.descriptor = descriptor;
+    }
+
+    /**
+     * @return the operation called by {@code insn}, or null if it cannot be replaced
+     */
+    static Operation find(AbstractInsnNode insn) {
+        if (!(insn instanceof MethodInsnNode)) {
+            return null;
+        }
+
+        MethodInsnNode method = (MethodInsnNode) insn;
+        Operation operation = OPERATIONS.get(key(method.owner, method.name, method.desc));
+        boolean isStatic = insn.getOpcode() == Opcodes.INVOKESTATIC;
+        if (operation == null || operation.isFactory() != isStatic) {
+            return null;
+        }
+
+        return operation;
+    }
+
+    static Collection<Operation> all() {
+        return Collections.unmodifiableCollection(OPERATIONS.values());
+    }
+
+    /**
+     * @return the number of arguments the operation takes, not counting the receiver
+     */
+    int argumentCount() {
+        return Type.getArgumentTypes(descriptor).length;
+    }
+
+    /**
+     * @return true for the static methods creating an optional
+     */
+    boolean isFactory() {
+        return name.equals("empty") || name.equals("of") || name.equals("ofNullable");
+    }
+
+    /**
+     * @return true if the operation returns an optional that can be inlined
+     */
+    boolean returnsOptional() {
+        return inline(Type.getReturnType(descriptor)) != null;
+    }
+
+    /**
+     * @return the instruction replacing a factory, or null if the argument already is the inlined
+     *         optional
+     */
+    AbstractInsnNode inlineFactory() {
+        if (owner.equals(OPTIONAL)) {
+            if (name.equals("empty")) {
+                return new InsnNode(Opcodes.ACONST_NULL);
+            } else if (name.equals("of")) {
+                return new MethodInsnNode(
+                        Opcodes.INVOKESTATIC,
+                        INLINED_OPTIONALS,
+                        "of",
+                        "(" + OBJECT + ")" + OBJECT,
+                        false);
+            }
+
+            return null;
+        }
+
+        if (name.equals("empty")) {
+            return new InsnNode(Opcodes.LCONST_0);
+        }
+
+        return new MethodInsnNode(Opcodes.INVOKESTATIC, PACKED_OPTIONAL_INT, "pack", "(I)J", false);
+    }
+
+    /**
+     * @param inlinedReceiver true if the receiver was inlined, false if it is an optional that was
+     *                        created elsewhere
+     * @return the call to {@code InlinedOptionals} replacing a call of this operation
+     */
+    MethodInsnNode inlineCall(boolean inlinedReceiver) {
+        Type[] arguments = Type.getArgumentTypes(descriptor);
+        Type[] parameters = new Type[arguments.length + 1];
+        Type receiver = Type.getObjectType(owner);
+        parameters[0] = inlinedReceiver ? inline(receiver) : receiver;
+        System.arraycopy(arguments, 0, parameters, 1, arguments.length);
+
+        Type returnType = Type.getReturnType(descriptor);
+        if (returnsOptional()) {
+            returnType = inline(returnType);
+        }
+
+        return new MethodInsnNode(
+                Opcodes.INVOKESTATIC,
+                INLINED_OPTIONALS,
+                inlinedReceiver ? name : name + "Wrapped",
+                Type.getMethodDescriptor(returnType, parameters),
+                false);
+    }
+
+    @Override
+    public String toString() {
+        return owner + "." + name + descriptor;
+    }
+
+    private static Type inline(Type type) {
+        if (type.equals(Type.getObjectType(OPTIONAL))) {
+            return Type.getType(Object.class);
+        } else if (type.equals(Type.getObjectType(OPTIONAL_INT))) {
+            return Type.LONG_TYPE;
+        }
+
+        return null;
+    }
+
+    private static void add(String owner, String name, String descriptor) {
+        OPERATIONS.put(key(owner, name, descriptor), new Operation(owner, name, descriptor));
+    }
+
+    private static String key(String owner, String name, String descriptor) {
+        return owner + "." + name + descriptor;
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.dmstocking.optional.rewriter;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Rewrites compiled classes so that optionals which never leave a method are not allocated.
+ *
+ * <pre>{@code
+ *     String name = Optional.ofNullable(user).map(User::getName).orElse("guest");
+ * }</pre>
+ *
+ * Here neither optional is stored, passed or returned, so the rewritten method keeps the nullable
+ * {@code user} on the stack instead of wrapping it and calls {@code InlinedOptionals.map} and
+ * {@code InlinedOptionals.orElse}, which check for null exactly where the optionals would have.
+ * An {@code OptionalInt} is replaced by its {@code PackedOptionalInt} form in the same way.
+ * Evaluation order, exceptions and the calls to the functions stay the same, only the optionals
+ * and their allocations are gone, and the replaced methods are small enough for ART or HotSpot to
+ * inline.
+ *
+ * Optionals that are stored in a variable or field, passed to or returned from a method, or that
+ * live across a branch are left alone, as are optionals of methods the rewriter does not know,
+ * such as {@code flatMap}.
+ */
+@SuppressWarnings("WeakerAccess")
+public final class OptionalRewriter {
+
+    private OptionalRewriter() {
+    }
+
+    /**
+     * @param classFile the bytes of a class file
+     * @return the rewritten class file, or {@code classFile} itself if there was nothing to rewrite
+     */
+    public static byte[] rewrite(byte[] classFile) {
+        ClassReader reader = new ClassReader(classFile);
+        ClassNode node = new ClassNode();
+        reader.accept(node, 0);
+
+        int inlined = 0;
+        for (MethodNode method : node.methods) {
+            inlined += ChainInliner.inline(node.name, method);
+        }
+        if (inlined == 0) {
+            return classFile;
+        }
+
+        // the rewritten methods keep their stack map frames, only the maximum stack size can grow
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        node.accept(writer);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Rewrites every class file in a directory and its subdirectories in place.
+     *
+     * @param directory the directory with the class files
+     * @return the number of class files that changed
+     * @throws IOException if a class file cannot be read or written
+     */
+    public static int rewriteDirectory(File directory) throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return 0;
+        }
+
+        int rewritten = 0;
+        for (File file : files) {
+            if (file.isDirectory()) {
+                rewritten += rewriteDirectory(file);
+            } else if (file.getName().endsWith(".class")) {
+                byte[] classFile = Files.readAllBytes(file.toPath());
+                byte[] result = rewrite(classFile);
+                if (result != classFile) {
+                    Files.write(file.toPath(), result);
+                    rewritten++;
+                }
+            }
+        }
+
+        return rewritten;
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.dmstocking.optional.rewriter;
+
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.tasks.compile.JavaCompile;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Runs the {@link OptionalRewriter} over the output of every {@link JavaCompile} task of the
+ * project, which includes the compile tasks of the Android plugin.
+ *
+ * <pre>{@code
+ *     apply plugin: 'com.github.dmstocking.optional.rewriter'
+ * }</pre>
+ */
+@SuppressWarnings("WeakerAccess")
+public class OptionalRewriterPlugin implements Plugin<Project> {
+
+    @Override
+    public void apply(Project project) {
+        // anonymous classes rather than lambdas, so gradle can tell whether the action changed
+        project.getTasks().withType(JavaCompile.class, new Action<JavaCompile>() {
+            @Override
+            public void execute(final JavaCompile compile) {
+                compile.doLast(new Action<Task>() {
+                    @Override
+                    public void execute(Task task) {
+                        rewrite(compile);
+                    }
+                });
+            }
+        });
+    }
+
+    private static void rewrite(JavaCompile compile) {
+        File directory = compile.getDestinationDir();
+        try {
+            int rewritten = OptionalRewriter.rewriteDirectory(directory);
+            compile.getLogger().info("Inlined optionals in {} classes of {}", rewritten, directory);
+        } catch (IOException e) {
+            throw new GradleException("Could not rewrite the classes in " + directory, e);
+        }
+    }
+}
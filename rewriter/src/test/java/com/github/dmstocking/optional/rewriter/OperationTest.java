@@ -0,0 +1,83 @@
+package com.github.dmstocking.optional.rewriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+public class OperationTest {
+
+    @Test
+    public void operationsExist() throws ClassNotFoundException {
+        for (Operation operation : Operation.all()) {
+            Method method = find(operation.owner, operation.name, operation.descriptor);
+
+            Assert.assertNotNull(operation.toString(), method);
+            Assert.assertEquals(
+                    operation.toString(),
+                    operation.isFactory(),
+                    Modifier.isStatic(method.getModifiers()));
+        }
+    }
+
+    @Test
+    public void replacementsExist() throws ClassNotFoundException {
+        for (Operation operation : Operation.all()) {
+            if (operation.isFactory()) {
+                AbstractInsnNode replacement = operation.inlineFactory();
+                if (replacement instanceof MethodInsnNode) {
+                    assertStaticMethodExists((MethodInsnNode) replacement);
+                }
+            } else {
+                assertStaticMethodExists(operation.inlineCall(true));
+                if (operation.returnsOptional()) {
+                    assertStaticMethodExists(operation.inlineCall(false));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void findMatchesOnlyTheRightKindOfCall() {
+        MethodInsnNode map = new MethodInsnNode(
+                Opcodes.INVOKEVIRTUAL,
+                Operation.OPTIONAL,
+                "map",
+                "(Lcom/github/dmstocking/optional/java/util/function/Function;)"
+                        + "Lcom/github/dmstocking/optional/java/util/Optional;",
+                false);
+        MethodInsnNode staticMap = new MethodInsnNode(
+                Opcodes.INVOKESTATIC, map.owner, map.name, map.desc, false);
+        MethodInsnNode flatMap = new MethodInsnNode(
+                Opcodes.INVOKEVIRTUAL, map.owner, "flatMap", map.desc, false);
+
+        Assert.assertNotNull(Operation.find(map));
+        Assert.assertNull(Operation.find(staticMap));
+        Assert.assertNull(Operation.find(flatMap));
+    }
+
+    private static void assertStaticMethodExists(MethodInsnNode call)
+            throws ClassNotFoundException {
+        Method method = find(call.owner, call.name, call.desc);
+
+        Assert.assertNotNull(call.owner + "." + call.name + call.desc, method);
+        Assert.assertTrue(Modifier.isStatic(method.getModifiers()));
+    }
+
+    private static Method find(String owner, String name, String descriptor)
+            throws ClassNotFoundException {
+        Class<?> type = Class.forName(Type.getObjectType(owner).getClassName());
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name)
+                    && Type.getMethodDescriptor(method).equals(descriptor)) {
+                return method;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,217 @@
+package com.github.dmstocking.optional.rewriter;
+
+import com.github.dmstocking.optional.rewriter.corpus.OptionalChains;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class OptionalRewriterTest {
+
+    private static final Object[] STRINGS = {null, "", " padded ", "value", "Value"};
+    private static final Object[] INTS = {Integer.MIN_VALUE, -3, 0, 1, 4};
+    private static final Object[] STRING_ARRAYS = {
+            new String[0],
+            new String[] {"a", null, "abc"},
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void rewrittenCorpusBehavesLikeTheOriginal() throws Exception {
+        byte[] original = classFile(OptionalChains.class);
+        Class<?> rewritten =
+                define(OptionalChains.class.getName(), OptionalRewriter.rewrite(original));
+
+        int invocations = 0;
+        for (Method method : OptionalChains.class.getDeclaredMethods()) {
+            if (!Modifier.isPublic(method.getModifiers())) {
+                continue;
+            }
+
+            Method rewrittenMethod =
+                    rewritten.getMethod(method.getName(), method.getParameterTypes());
+            for (Object[] arguments : arguments(method.getParameterTypes())) {
+                Assert.assertEquals(
+                        method.getName() + Arrays.deepToString(arguments),
+                        invoke(method, arguments),
+                        invoke(rewrittenMethod, arguments));
+                invocations++;
+            }
+        }
+        Assert.assertTrue(invocations > 100);
+    }
+
+    @Test
+    public void inlinesOnlyTheOptionalsThatDoNotEscape() throws IOException {
+        ClassNode original = classNode(classFile(OptionalChains.class));
+        ClassNode rewritten = classNode(OptionalRewriter.rewrite(classFile(OptionalChains.class)));
+
+        for (int i = 0; i < original.methods.size(); i++) {
+            MethodNode before = original.methods.get(i);
+            MethodNode after = rewritten.methods.get(i);
+            int optionalCalls =
+                    count(after, Operation.OPTIONAL) + count(after, Operation.OPTIONAL_INT);
+            int inlinedCalls = count(after, Operation.INLINED_OPTIONALS);
+            if (before.name.startsWith("inline")) {
+                Assert.assertEquals(before.name, 0, optionalCalls);
+                Assert.assertTrue(before.name, inlinedCalls > 0);
+            } else if (before.name.startsWith("partly")) {
+                Assert.assertTrue(before.name, optionalCalls > 0);
+                Assert.assertTrue(before.name, inlinedCalls > 0);
+            } else if (before.name.startsWith("keep")) {
+                Assert.assertEquals(
+                        before.name, before.instructions.size(), after.instructions.size());
+                Assert.assertEquals(before.name, 0, inlinedCalls);
+            }
+        }
+    }
+
+    @Test
+    public void returnsTheClassFileIfThereIsNothingToRewrite() throws IOException {
+        byte[] classFile = classFile(OptionalRewriterTest.class);
+
+        Assert.assertSame(classFile, OptionalRewriter.rewrite(classFile));
+    }
+
+    @Test
+    public void rewritingTwiceChangesNothing() throws IOException {
+        byte[] once = OptionalRewriter.rewrite(classFile(OptionalChains.class));
+
+        Assert.assertSame(once, OptionalRewriter.rewrite(once));
+    }
+
+    @Test
+    public void rewriteDirectory() throws IOException {
+        File packageDirectory = folder.newFolder("com", "example");
+        File classFile = new File(packageDirectory, "OptionalChains.class");
+        File otherClassFile = new File(folder.getRoot(), "OptionalRewriterTest.class");
+        File resource = new File(packageDirectory, "OptionalChains.txt");
+        Files.write(classFile.toPath(), classFile(OptionalChains.class));
+        Files.write(otherClassFile.toPath(), classFile(OptionalRewriterTest.class));
+        Files.write(resource.toPath(), new byte[] {1, 2, 3});
+
+        Assert.assertEquals(1, OptionalRewriter.rewriteDirectory(folder.getRoot()));
+        Assert.assertFalse(Arrays.equals(
+                classFile(OptionalChains.class),
+                Files.readAllBytes(classFile.toPath())));
+        Assert.assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(resource.toPath()));
+        Assert.assertEquals(0, OptionalRewriter.rewriteDirectory(folder.getRoot()));
+    }
+
+    private static String invoke(Method method, Object[] arguments) throws IllegalAccessException {
+        try {
+            return "returned " + method.invoke(null, arguments);
+        } catch (InvocationTargetException e) {
+            // the jvm describes where a null pointer was dereferenced, which is allowed to change
+            Throwable cause = e.getCause();
+            if (cause instanceof NullPointerException) {
+                return "threw " + cause.getClass().getName();
+            }
+
+            return "threw " + cause;
+        }
+    }
+
+    private static List<Object[]> arguments(Class<?>[] parameterTypes) {
+        List<Object[]> arguments = new ArrayList<>();
+        arguments.add(new Object[0]);
+        for (Class<?> parameterType : parameterTypes) {
+            List<Object[]> extended = new ArrayList<>();
+            for (Object[] prefix : arguments) {
+                for (Object value : values(parameterType)) {
+                    Object[] next = Arrays.copyOf(prefix, prefix.length + 1);
+                    next[prefix.length] = value;
+                    extended.add(next);
+                }
+            }
+            arguments = extended;
+        }
+        return arguments;
+    }
+
+    private static List<Object> values(Class<?> parameterType) {
+        if (parameterType == String.class) {
+            return Arrays.asList(STRINGS);
+        } else if (parameterType == int.class) {
+            return Arrays.asList(INTS);
+        } else if (parameterType == String[].class) {
+            return Arrays.asList(STRING_ARRAYS);
+        }
+
+        return Collections.singletonList(null);
+    }
+
+    private static int count(MethodNode method, String owner) {
+        int count = 0;
+        for (AbstractInsnNode insn = method.instructions.getFirst();
+                insn != null;
+                insn = insn.getNext()) {
+            if (insn instanceof MethodInsnNode && ((MethodInsnNode) insn).owner.equals(owner)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static ClassNode classNode(byte[] classFile) {
+        ClassNode node = new ClassNode();
+        new ClassReader(classFile).accept(node, 0);
+        return node;
+    }
+
+    private static byte[] classFile(Class<?> type) throws IOException {
+        String resource = type.getName().replace('.', '/') + ".class";
+        try (InputStream in = type.getClassLoader().getResourceAsStream(resource)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static Class<?> define(final String name, final byte[] classFile)
+            throws ClassNotFoundException {
+        ClassLoader loader = new ClassLoader(OptionalRewriterTest.class.getClassLoader()) {
+            @Override
+            protected Class<?> loadClass(String className, boolean resolve)
+                    throws ClassNotFoundException {
+                if (!className.equals(name)) {
+                    return super.loadClass(className, resolve);
+                }
+
+                synchronized (getClassLoadingLock(className)) {
+                    Class<?> type = findLoadedClass(className);
+                    if (type == null) {
+                        type = defineClass(className, classFile, 0, classFile.length);
+                    }
+                    return type;
+                }
+            }
+        };
+        return loader.loadClass(name);
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.dmstocking.optional.rewriter.corpus;
+
+import com.github.dmstocking.optional.java.util.Optional;
+import com.github.dmstocking.optional.java.util.OptionalInt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Methods the rewriter test runs before and after rewriting. Every optional in an {@code inline}
+ * method can be inlined, some in a {@code partly} method can, and none in a {@code keep} method.
+ */
+@SuppressWarnings("unused")
+public class OptionalChains {
+
+    public static Optional<String> field = Optional.empty();
+
+    public static String inlineMapFilterOrElse(String s) {
+        return Optional.ofNullable(s).map(String::trim).filter(t -> !t.isEmpty()).orElse("blank");
+    }
+
+    public static boolean inlineIsPresent(String s) {
+        return Optional.ofNullable(s).filter(t -> t.length() > 3).isPresent();
+    }
+
+    public static String inlineOf(String s) {
+        return Optional.of(s).map(String::toUpperCase).orElse("");
+    }
+
+    public static int inlineGet(String s) {
+        return Optional.ofNullable(s).map(String::length).get();
+    }
+
+    public static String inlineEmpty(String s) {
+        return Optional.<String>empty().orElse(s);
+    }
+
+    public static String inlineOrElseGet(String s, int i) {
+        return Optional.ofNullable(s).orElseGet(() -> "supplied " + i);
+    }
+
+    public static String inlineOrElseThrow(String s) {
+        return Optional.ofNullable(s).orElseThrow(() -> new IllegalStateException("missing"));
+    }
+
+    public static String inlineIfPresent(String s) {
+        StringBuilder builder = new StringBuilder();
+        Optional.ofNullable(s).map(t -> t + "!").ifPresent(builder::append);
+        return builder.toString();
+    }
+
+    public static String inlineMapperReturnsNull(String s) {
+        return Optional.ofNullable(s).map(t -> (String) null).orElse("mapped to null");
+    }
+
+    public static String inlineNullMapper(String s) {
+        return Optional.ofNullable(s).<String>map(null).orElse("not applied");
+    }
+
+    public static int inlineMapToInt(String s) {
+        return Optional.ofNullable(s).mapToInt(String::length).filter(n -> n > 3).orElse(-1);
+    }
+
+    public static String inlineOptionalInt(int i) {
+        return OptionalInt.of(i)
+                .map(n -> n * 2)
+                .filter(n -> n > 0)
+                .mapToObj(Integer::toString)
+                .orElse("none");
+    }
+
+    public static int inlineOptionalIntGetAsInt(int i) {
+        return OptionalInt.of(i).filter(n -> n % 2 == 0).getAsInt();
+    }
+
+    public static int inlineOptionalIntOrElseGet(int i) {
+        return OptionalInt.empty().orElseGet(() -> i + 1);
+    }
+
+    public static int inlineOptionalIntOrElseThrow(int i) {
+        return OptionalInt.of(i)
+                .filter(n -> n > 0)
+                .orElseThrow(() -> new IllegalArgumentException("not positive"));
+    }
+
+    public static String inlineOptionalIntIfPresent(int i) {
+        List<Integer> values = new ArrayList<>();
+        OptionalInt.of(i).filter(n -> n != 0).ifPresent(values::add);
+        return values.toString();
+    }
+
+    public static Integer inlineBoxed(int i) {
+        return OptionalInt.of(i).filter(n -> n < 0).boxed().orElse(null);
+    }
+
+    public static boolean inlineOptionalIntIsPresent(int i) {
+        return OptionalInt.of(i).map(n -> n + 1).filter(n -> n > 1).isPresent();
+    }
+
+    public static String inlineNested(String s) {
+        return Optional.ofNullable(s)
+                .map(t -> t + "?")
+                .orElse(Optional.ofNullable(s).map(String::toLowerCase).orElse("none"));
+    }
+
+    public static int inlineLoop(String[] values) {
+        int total = 0;
+        for (String value : values) {
+            total += Optional.ofNullable(value).map(String::length).orElse(0);
+        }
+        return total;
+    }
+
+    public static String inlineTryCatch(String s) {
+        try {
+            return Optional.of(s).get();
+        } catch (NullPointerException e) {
+            return "caught";
+        }
+    }
+
+    public static int partlyLocal(String s) {
+        Optional<String> optional = Optional.ofNullable(s);
+        return optional.map(String::length).orElse(0);
+    }
+
+    public static String partlyOptionalIntFromOptional(String s) {
+        OptionalInt length = Optional.ofNullable(s).mapToInt(String::length);
+        return length.mapToObj(n -> "#" + n).orElse("empty");
+    }
+
+    public static Optional<String> keepReturned(String s) {
+        return Optional.ofNullable(s).map(String::trim);
+    }
+
+    public static String keepField(String s) {
+        field = Optional.ofNullable(s);
+        return field.orElse("none");
+    }
+
+    public static String keepArgument(String s) {
+        return String.valueOf(Optional.ofNullable(s));
+    }
+
+    public static boolean keepEquals(String s) {
+        return Optional.ofNullable(s).equals(Optional.of("value"));
+    }
+
+    public static String keepFlatMap(String s) {
+        return Optional.ofNullable(s).flatMap(t -> Optional.of(t + t)).orElse("none");
+    }
+
+    public static String keepTerminal(String s) {
+        Optional<String> optional = Optional.ofNullable(s);
+        return optional.orElse("none");
+    }
+
+    public static String keepConditional(String s, int i) {
+        return (i > 0 ? Optional.ofNullable(s) : Optional.<String>empty()).orElse("none");
+    }
+
+    public static String keepBranchInArgument(String s, int i) {
+        return Optional.ofNullable(s).map(String::trim).orElse(i > 0 ? "positive" : "negative");
+    }
+
+    public static Object keepOptionalIntReturned(int i) {
+        return OptionalInt.of(i).filter(n -> n > 0);
+    }
+
+    public static String keepAssignedReceiver(String s) {
+        Optional<String> optional;
+        boolean present = (optional = Optional.ofNullable(s)).isPresent();
+        return present + ":" + optional.orElse("none");
+    }
+
+    public static String keepOptionalIntAssignedReceiver(int i) {
+        OptionalInt optional;
+        boolean present = (optional = OptionalInt.of(i)).isPresent();
+        return present + ":" + optional.orElse(-1);
+    }
+}